@@ -0,0 +1,29 @@
+package com.barriquebackend.backfill;
+
+/**
+ * A data migration that fills a newly introduced column for rows written before it existed.
+ * <p>
+ * Backfills are run by {@link BackfillRunner} after startup, in small batches that each run in
+ * their own short transaction, so that no long-running statement locks a whole table.
+ * Implementations must be idempotent: rows that are already migrated must not be selected again,
+ * so that a backfill interrupted by a restart simply resumes.
+ * </p>
+ */
+public interface Backfill {
+
+    /**
+     * Returns a human-readable name used in log messages.
+     *
+     * @return the name of the backfill
+     */
+    String name();
+
+    /**
+     * Migrates the next batch of rows.
+     *
+     * @param afterId   the key of the last row migrated by the previous batch, 0 for the first batch
+     * @param batchSize the maximum number of rows to migrate
+     * @return the key of the last row migrated by this batch, or null if there was nothing left to migrate
+     */
+    Long migrateBatch(Long afterId, int batchSize);
+}
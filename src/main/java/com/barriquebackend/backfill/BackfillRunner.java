@@ -0,0 +1,74 @@
+package com.barriquebackend.backfill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Runs all {@link Backfill} beans once after startup.
+ * <p>
+ * The backfills run one after another on a background virtual thread, so startup is not delayed
+ * by large tables. Every batch is committed on its own; a failing backfill is logged and skipped
+ * and will be retried on the next start. Setting {@code recipevault.backfill.enabled=false}
+ * disables all backfills.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "recipevault.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class BackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillRunner.class);
+
+    private final List<Backfill> backfills;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    /**
+     * Constructs a BackfillRunner.
+     *
+     * @param backfills           the backfills to run
+     * @param transactionTemplate the template used to run each batch in its own transaction
+     * @param batchSize           the number of rows migrated per batch
+     */
+    public BackfillRunner(List<Backfill> backfills,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${recipevault.backfill.batch-size:500}") int batchSize) {
+        this.backfills = backfills;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("backfill").start(() -> backfills.forEach(this::runBackfill));
+    }
+
+    /**
+     * Runs a single backfill to completion.
+     *
+     * @param backfill the backfill to run
+     */
+    void runBackfill(Backfill backfill) {
+        long batches = 0;
+        try {
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long previous = afterId;
+                afterId = transactionTemplate.execute(status -> backfill.migrateBatch(previous, batchSize));
+                batches++;
+            }
+            if (batches > 1) {
+                log.info("Backfill '{}' finished after {} batches", backfill.name(), batches - 1);
+            }
+        } catch (RuntimeException e) {
+            log.error("Backfill '{}' failed after {} batches", backfill.name(), batches, e);
+        }
+    }
+}
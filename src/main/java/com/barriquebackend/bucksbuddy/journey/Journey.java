@@ -1,15 +1,20 @@
 package com.barriquebackend.bucksbuddy.journey;
 
 import com.barriquebackend.bucksbuddy.journey.expenditure.Expenditure;
+import com.barriquebackend.json.FieldSelection;
 import com.barriquebackend.user.User;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.Date;
 import java.util.Set;
 
 @Entity
+@DynamicUpdate
+@JsonFilter(FieldSelection.FILTER_ID)
 @Table(name = "journeys")
 public class Journey {
 
@@ -17,7 +22,7 @@ public class Journey {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long journeyId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonBackReference
     private User user;
@@ -1,13 +1,15 @@
 package com.barriquebackend.bucksbuddy.journey;
 
+import com.barriquebackend.json.FieldSelection;
+import com.barriquebackend.json.MergePatch;
+import com.barriquebackend.user.CurrentUser;
 import com.barriquebackend.user.User;
-import com.barriquebackend.user.UserRepository;
-import org.springframework.http.HttpStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 /**
  * REST controller for managing journeys.
@@ -18,58 +20,56 @@ import java.util.List;
 public class JourneyController {
 
     private final JourneyService journeyService;
-    private final UserRepository userRepository;
 
     /**
-     * Constructs a JourneyController with the specified JourneyService and UserRepository.
+     * Constructs a JourneyController with the specified JourneyService.
      *
      * @param journeyService the service for journey business logic
-     * @param userRepository the repository for user data
      */
-    public JourneyController(JourneyService journeyService, UserRepository userRepository) {
+    public JourneyController(JourneyService journeyService) {
         this.journeyService = journeyService;
-        this.userRepository = userRepository;
     }
 
     /**
      * Retrieves all journeys for the authenticated user.
      *
-     * @param authentication the authentication token containing user details
+     * @param fields the comma-separated properties to return, e.g. "name,budget"; all if absent
+     * @param user   the authenticated user
      * @return a list of journeys belonging to the authenticated user
      */
     @GetMapping("/user/journey")
-    public List<Journey> getJourneysByUserId(Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        return journeyService.getAllJourneysByUserId(user.getId());
+    public MappingJacksonValue getJourneysByUserId(@RequestParam(required = false) String fields,
+                                                   @CurrentUser User user) {
+        return FieldSelection.parse(fields).wrap(journeyService.getAllJourneysByUserId(user.getId()));
     }
 
     /**
      * Retrieves a journey by its ID.
      *
-     * @param id             the ID of the journey to retrieve
-     * @param authentication the authentication token containing user details
-     * @return a ResponseEntity with the journey if found and authorized, or an appropriate error status
+     * @param id     the ID of the journey to retrieve
+     * @param fields the comma-separated properties to return, e.g. "name,expenditures.amount"; all if absent
+     * @param user   the authenticated user
+     * @return a ResponseEntity with the journey if found, or 404 if the user has no journey with this ID
      */
     @GetMapping("/journey/{id}")
-    public ResponseEntity<Journey> getJourneyById(@PathVariable Long id, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        Journey journey = journeyService.getJourneyById(id);
-        if (!journey.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-        return ResponseEntity.ok(journey);
+    public ResponseEntity<MappingJacksonValue> getJourneyById(@PathVariable Long id,
+                                                              @RequestParam(required = false) String fields,
+                                                              @CurrentUser User user) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        return journeyService.getJourneyForUser(id, user.getId())
+                .map(journey -> ResponseEntity.ok(selection.wrap(journey)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * Creates a new journey for the authenticated user.
      *
-     * @param journey        the journey data to create
-     * @param authentication the authentication token containing user details
+     * @param journey the journey data to create
+     * @param user    the authenticated user
      * @return the created journey
      */
     @PostMapping("/journey")
-    public Journey createJourney(@RequestBody Journey journey, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
+    public Journey createJourney(@RequestBody Journey journey, @CurrentUser User user) {
         return journeyService.createJourney(journey, user);
     }
 
@@ -78,46 +78,49 @@ public class JourneyController {
      *
      * @param id             the ID of the journey to update
      * @param journeyDetails the updated journey data
-     * @param authentication the authentication token containing user details
-     * @return a ResponseEntity with the updated journey if successful, or an error status
+     * @param user           the authenticated user
+     * @return a ResponseEntity with the updated journey if successful, or 404 if the user has no journey with this ID
      */
     @PutMapping("/journey/{id}")
-    public ResponseEntity<Journey> updateJourney(@PathVariable Long id, @RequestBody Journey journeyDetails, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        Journey journey = journeyService.getJourneyById(id);
-        if (!journey.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-        Journey updatedJourney = journeyService.updateJourney(id, journeyDetails, user);
-        return ResponseEntity.ok(updatedJourney);
+    public ResponseEntity<Journey> updateJourney(@PathVariable Long id, @RequestBody Journey journeyDetails, @CurrentUser User user) {
+        return journeyService.updateJourney(id, journeyDetails, user)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
-     * Deletes a journey for the authenticated user.
+     * Partially updates a journey with a JSON Merge Patch (RFC 7396), e.g. {@code {"budget": 1200}}.
      *
-     * @param id             the ID of the journey to delete
-     * @param authentication the authentication token containing user details
-     * @return a ResponseEntity with a success message if deletion is successful, or an error status
+     * @param id    the ID of the journey to patch
+     * @param patch the merge patch document
+     * @param user  the authenticated user
+     * @return a ResponseEntity with 204, 400 for an invalid patch, or 404 if the user has no journey with this ID
      */
-    @DeleteMapping("/journey/{id}")
-    public ResponseEntity<String> deleteJourney(@PathVariable Long id, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        Journey journey = journeyService.getJourneyById(id);
-        if (!journey.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    @PatchMapping(value = "/journey/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchJourney(@PathVariable Long id, @RequestBody JsonNode patch, @CurrentUser User user) {
+        try {
+            return journeyService.patchJourney(id, patch, user)
+                    .map(journey -> ResponseEntity.noContent().<Void>build())
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        journeyService.deleteJourney(id, user);
-        return ResponseEntity.ok("Journey deleted successfully.");
     }
 
     /**
-     * Helper method to extract the authenticated user from the security context.
+     * Deletes a journey for the authenticated user.
      *
-     * @param authentication the authentication token containing user details
-     * @return the authenticated User
+     * @param id   the ID of the journey to delete
+     * @param user the authenticated user
+     * @return a ResponseEntity with a success message if deletion is successful, or 404 if the user
+     * has no journey with this ID
      */
-    private User getAuthenticatedUser(Authentication authentication) {
-        String username = authentication.getName();
-        return userRepository.findByUsername(username);
+    @DeleteMapping("/journey/{id}")
+    public ResponseEntity<String> deleteJourney(@PathVariable Long id, @CurrentUser User user) {
+        if (!journeyService.deleteJourney(id, user)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok("Journey deleted successfully.");
     }
+
 }
\ No newline at end of file
@@ -1,11 +1,30 @@
 package com.barriquebackend.bucksbuddy.journey;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface JourneyRepository extends JpaRepository<Journey, Long> {
     List<Journey> findAllByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Ownership-scoped lookups: a journey of another user is indistinguishable from a missing one.
+    Optional<Journey> findByJourneyIdAndUserId(Long journeyId, Long userId);
+
+    boolean existsByJourneyIdAndUserId(Long journeyId, Long userId);
+
+    // Set-based deletion of a journey and its expenditures without loading either.
+    @Modifying
+    @Query("delete from Expenditure e where e.journey.journeyId in "
+            + "(select j.journeyId from Journey j where j.journeyId = :journeyId and j.user.id = :userId)")
+    int deleteExpendituresByJourneyIdAndUserId(@Param("journeyId") Long journeyId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from Journey j where j.journeyId = :journeyId and j.user.id = :userId")
+    int deleteByJourneyIdAndUserId(@Param("journeyId") Long journeyId, @Param("userId") Long userId);
+}
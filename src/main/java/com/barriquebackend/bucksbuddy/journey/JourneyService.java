@@ -1,10 +1,16 @@
 package com.barriquebackend.bucksbuddy.journey;
 
+import com.barriquebackend.json.MergePatch;
 import com.barriquebackend.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class for handling business logic related to journeys.
@@ -14,15 +20,20 @@ import java.util.Optional;
 @Service
 public class JourneyService {
 
+    private static final Set<String> PATCHABLE = Set.of("name", "homeCurr", "vacCurr", "budget", "startDate", "endDate");
+
     private final JourneyRepository journeyRepository;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructs a JourneyService with the specified JourneyRepository.
      *
      * @param journeyRepository the repository used to perform CRUD operations on journeys
+     * @param objectMapper      the mapper used to apply merge patches
      */
-    public JourneyService(JourneyRepository journeyRepository) {
+    public JourneyService(JourneyRepository journeyRepository, ObjectMapper objectMapper) {
         this.journeyRepository = journeyRepository;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -36,19 +47,25 @@ public class JourneyService {
     }
 
     /**
-     * Retrieves a journey by its ID.
+     * Retrieves a journey of the specified user.
+     *
+     * @param id     the ID of the journey to retrieve
+     * @param userId the ID of the user who must own the journey
+     * @return an Optional containing the journey, or empty if the user has no journey with this ID
+     */
+    public Optional<Journey> getJourneyForUser(Long id, Long userId) {
+        return journeyRepository.findByJourneyIdAndUserId(id, userId);
+    }
+
+    /**
+     * Checks whether a journey exists and belongs to the specified user.
      *
-     * @param id the ID of the journey to retrieve
-     * @return the journey with the specified ID
-     * @throws RuntimeException if no journey is found with the given ID
+     * @param id     the ID of the journey
+     * @param userId the ID of the user
+     * @return true if the user owns a journey with this ID
      */
-    public Journey getJourneyById(Long id) {
-        Optional<Journey> journey = journeyRepository.findById(id);
-        if (journey.isPresent()) {
-            return journey.get();
-        } else {
-            throw new RuntimeException("Journey not found for ID: " + id);
-        }
+    public boolean isJourneyOwnedBy(Long id, Long userId) {
+        return journeyRepository.existsByJourneyIdAndUserId(id, userId);
     }
 
     /**
@@ -66,49 +83,64 @@ public class JourneyService {
     /**
      * Updates an existing journey for the given user.
      * <p>
-     * The method verifies that the journey exists and that it is owned by the user;
-     * then it updates the journey's details.
+     * The journey is loaded with an ownership-filtered query; then its details are updated.
      * </p>
      *
      * @param id             the ID of the journey to update
      * @param journeyDetails the updated journey data
      * @param user           the user attempting to update the journey
-     * @return the updated journey
-     * @throws RuntimeException if the journey does not belong to the user or is not found
+     * @return an Optional containing the updated journey, or empty if the user has no journey with this ID
      */
-    public Journey updateJourney(Long id, Journey journeyDetails, User user) {
-        Journey journey = getJourneyById(id);
-
-        // Verify that the journey belongs to the user.
-        if (!journey.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("You are not authorized to update this journey.");
-        }
-
-        journey.setName(journeyDetails.getName());
-        journey.setHomeCurr(journeyDetails.getHomeCurr());
-        journey.setVacCurr(journeyDetails.getVacCurr());
-        journey.setBudget(journeyDetails.getBudget());
-        journey.setStartDate(journeyDetails.getStartDate());
-        journey.setEndDate(journeyDetails.getEndDate());
+    @Transactional
+    public Optional<Journey> updateJourney(Long id, Journey journeyDetails, User user) {
+        return journeyRepository.findByJourneyIdAndUserId(id, user.getId()).map(journey -> {
+            journey.setName(journeyDetails.getName());
+            journey.setHomeCurr(journeyDetails.getHomeCurr());
+            journey.setVacCurr(journeyDetails.getVacCurr());
+            journey.setBudget(journeyDetails.getBudget());
+            journey.setStartDate(journeyDetails.getStartDate());
+            journey.setEndDate(journeyDetails.getEndDate());
+            return journeyRepository.save(journey);
+        });
+    }
 
-        return journeyRepository.save(journey);
+    /**
+     * Applies a JSON Merge Patch to a journey of the specified user.
+     * <p>
+     * Only the properties present in the patch are changed and only changed columns are written.
+     * Expenditures are not part of a journey patch; they have their own endpoints.
+     * </p>
+     *
+     * @param id    the ID of the journey to patch
+     * @param patch the merge patch document
+     * @param user  the user attempting to patch the journey
+     * @return an Optional containing the patched journey, or empty if the user has no journey with this ID
+     * @throws IllegalArgumentException if the patch is malformed or contains properties that cannot be patched
+     */
+    @Transactional
+    public Optional<Journey> patchJourney(Long id, JsonNode patch, User user) {
+        // All journey properties are mandatory
+        ObjectNode validPatch = MergePatch.requireObject(patch, PATCHABLE);
+        MergePatch.requireNonNull(validPatch, PATCHABLE);
+        return journeyRepository.findByJourneyIdAndUserId(id, user.getId()).map(journey -> {
+            MergePatch.applyScalars(objectMapper, journey, validPatch, PATCHABLE);
+            return journeyRepository.save(journey);
+        });
     }
 
     /**
-     * Deletes a journey by its ID.
+     * Deletes a journey and its expenditures.
+     * <p>
+     * Both are removed with ownership-filtered DELETE statements, without loading them first.
+     * </p>
      *
      * @param id   the ID of the journey to delete
      * @param user the user attempting to delete the journey
-     * @throws RuntimeException if the journey does not belong to the user or is not found
+     * @return true if the journey was deleted, false if the user has no journey with this ID
      */
-    public void deleteJourney(Long id, User user) {
-        Journey journey = getJourneyById(id);
-
-        // Verify that the journey belongs to the user.
-        if (!journey.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("You are not authorized to delete this journey.");
-        }
-
-        journeyRepository.deleteById(id);
+    @Transactional
+    public boolean deleteJourney(Long id, User user) {
+        journeyRepository.deleteExpendituresByJourneyIdAndUserId(id, user.getId());
+        return journeyRepository.deleteByJourneyIdAndUserId(id, user.getId()) > 0;
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,23 @@
 package com.barriquebackend.bucksbuddy.journey.expenditure;
 
 import com.barriquebackend.bucksbuddy.journey.Journey;
+import com.barriquebackend.json.FieldSelection;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.persistence.*;
 import java.util.Date;
 
 @Entity
+@JsonFilter(FieldSelection.FILTER_ID)
 @Table(name = "expenditures")
 public class Expenditure {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenditure_seq")
+    @SequenceGenerator(name = "expenditure_seq", sequenceName = "expenditure_seq", allocationSize = 50)
     private Long expenditureId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "journey_id", nullable = false)
     @JsonBackReference
     private Journey journey;
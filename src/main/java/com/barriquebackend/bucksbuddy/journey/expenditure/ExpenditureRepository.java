@@ -1,14 +1,25 @@
 package com.barriquebackend.bucksbuddy.journey.expenditure;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ExpenditureRepository extends JpaRepository<Expenditure, Long> {
-    Optional<Expenditure> findByExpenditureId(Long id);
-
     // Query expenditures by the journey's id and the journey's user id.
     List<Expenditure> findAllByJourney_JourneyIdAndJourney_User_Id(Long journeyId, Long userId);
-}
\ No newline at end of file
+
+    // Query a single expenditure scoped to its journey and the journey's owner.
+    Optional<Expenditure> findByExpenditureIdAndJourney_JourneyIdAndJourney_User_Id(Long expenditureId, Long journeyId, Long userId);
+
+    @Modifying
+    @Query("delete from Expenditure e where e.expenditureId = :expenditureId and e.journey.journeyId in "
+            + "(select j.journeyId from Journey j where j.journeyId = :journeyId and j.user.id = :userId)")
+    int deleteByExpenditureIdAndJourneyIdAndUserId(@Param("expenditureId") Long expenditureId,
+                                                   @Param("journeyId") Long journeyId,
+                                                   @Param("userId") Long userId);
+}
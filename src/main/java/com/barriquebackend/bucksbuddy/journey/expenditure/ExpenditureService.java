@@ -1,9 +1,9 @@
 package com.barriquebackend.bucksbuddy.journey.expenditure;
 
-import com.barriquebackend.bucksbuddy.journey.Journey;
 import com.barriquebackend.bucksbuddy.journey.JourneyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,43 +42,51 @@ public class ExpenditureService {
     }
 
     /**
-     * Retrieves an expenditure by its ID.
+     * Retrieves an expenditure of a journey owned by the given user.
      *
      * @param expenditureId the ID of the expenditure
+     * @param journeyId     the ID of the journey the expenditure must belong to
+     * @param userId        the ID of the user who must own the journey
      * @return an Optional containing the expenditure if found, or empty otherwise
      */
-    public Optional<Expenditure> getExpenditureById(Long expenditureId) {
-        return expenditureRepository.findByExpenditureId(expenditureId);
+    public Optional<Expenditure> getExpenditureForUser(Long expenditureId, Long journeyId, Long userId) {
+        return expenditureRepository.findByExpenditureIdAndJourney_JourneyIdAndJourney_User_Id(expenditureId, journeyId, userId);
     }
 
     /**
-     * Creates a new expenditure for a given journey.
+     * Creates a new expenditure for a journey owned by the given user.
+     * <p>
+     * Ownership is verified with an existence query; the expenditure is then linked to a
+     * reference of the journey, so the journey itself is never loaded.
+     * </p>
      *
      * @param journeyId   the ID of the journey
      * @param expenditure the expenditure to be created
-     * @return the created expenditure
-     * @throws IllegalArgumentException if the journey is not found
+     * @param userId      the ID of the user who must own the journey
+     * @return an Optional containing the created expenditure, or empty if the user has no journey with this ID
      */
-    public Expenditure createExpenditure(Long journeyId, Expenditure expenditure) {
-        Optional<Journey> journeyOpt = journeyRepository.findById(journeyId);
-        if (journeyOpt.isPresent()) {
-            Journey journey = journeyOpt.get();
-            expenditure.setJourney(journey);
-            return expenditureRepository.save(expenditure);
-        } else {
-            throw new IllegalArgumentException("Journey not found for id: " + journeyId);
+    @Transactional
+    public Optional<Expenditure> createExpenditure(Long journeyId, Expenditure expenditure, Long userId) {
+        if (!journeyRepository.existsByJourneyIdAndUserId(journeyId, userId)) {
+            return Optional.empty();
         }
+        expenditure.setExpenditureId(null);
+        expenditure.setJourney(journeyRepository.getReferenceById(journeyId));
+        return Optional.of(expenditureRepository.save(expenditure));
     }
 
     /**
-     * Updates an existing expenditure.
+     * Updates an existing expenditure of a journey owned by the given user.
      *
-     * @param expenditureId     the ID of the expenditure to update
+     * @param expenditureId      the ID of the expenditure to update
+     * @param journeyId          the ID of the journey the expenditure must belong to
      * @param updatedExpenditure the updated expenditure data
+     * @param userId             the ID of the user who must own the journey
      * @return an Optional containing the updated expenditure if the update was successful, or empty otherwise
      */
-    public Optional<Expenditure> updateExpenditure(Long expenditureId, Expenditure updatedExpenditure) {
-        return expenditureRepository.findByExpenditureId(expenditureId).map(expenditure -> {
+    @Transactional
+    public Optional<Expenditure> updateExpenditure(Long expenditureId, Long journeyId, Expenditure updatedExpenditure, Long userId) {
+        return getExpenditureForUser(expenditureId, journeyId, userId).map(expenditure -> {
             expenditure.setName(updatedExpenditure.getName());
             expenditure.setAmount(updatedExpenditure.getAmount());
             expenditure.setDate(updatedExpenditure.getDate());
@@ -87,16 +95,15 @@ public class ExpenditureService {
     }
 
     /**
-     * Deletes an expenditure by its ID.
+     * Deletes an expenditure of a journey owned by the given user with a single statement.
      *
      * @param expenditureId the ID of the expenditure to delete
+     * @param journeyId     the ID of the journey the expenditure must belong to
+     * @param userId        the ID of the user who must own the journey
      * @return true if the expenditure was deleted successfully, false otherwise
      */
-    public boolean deleteExpenditure(Long expenditureId) {
-        if (expenditureRepository.existsById(expenditureId)) {
-            expenditureRepository.deleteById(expenditureId);
-            return true;
-        }
-        return false;
+    @Transactional
+    public boolean deleteExpenditure(Long expenditureId, Long journeyId, Long userId) {
+        return expenditureRepository.deleteByExpenditureIdAndJourneyIdAndUserId(expenditureId, journeyId, userId) > 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.barriquebackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the id sequences of entities that switched from identity columns to pooled sequences
+ * past the highest id already in use.
+ * <p>
+ * Hibernate creates each sequence starting at 1, while the tables may already contain rows with
+ * identity-generated ids. This runs once all singletons (including the schema update) are
+ * initialized and before the web server accepts requests. Only PostgreSQL is handled; other
+ * databases (e.g. the embedded test database) always start from an empty schema.
+ * </p>
+ */
+@Component
+public class IdSequenceAlignment implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAlignment.class);
+
+    // sequence -> table and id column
+    private static final Map<String, String[]> SEQUENCES = Map.of(
+            "recipe_seq", new String[]{"recipe", "recipe_id"},
+            "ingredient_seq", new String[]{"ingredient", "ingredient_id"},
+            "nutritional_value_seq", new String[]{"nutritional_value", "nutritional_value_id"},
+            "recipe_step_seq", new String[]{"recipe_step", "step_id"},
+            "tool_seq", new String[]{"tool", "tool_id"},
+            "tag_seq", new String[]{"tag", "tag_id"},
+            "expenditure_seq", new String[]{"expenditures", "expenditure_id"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAlignment(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        SEQUENCES.forEach((sequence, target) -> {
+            // setval(seq, max) makes the pooled optimizer hand out ids from max + 1 onwards
+            List<Long> aligned = jdbcTemplate.queryForList(
+                    "SELECT setval('" + sequence + "', m) FROM (SELECT MAX(" + target[1] + ") AS m FROM " + target[0] + ") t "
+                            + "WHERE m >= (SELECT last_value FROM " + sequence + ")",
+                    Long.class);
+            if (!aligned.isEmpty()) {
+                log.info("Aligned sequence {} with {}.{} at {}", sequence, target[0], target[1], aligned.get(0));
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.barriquebackend.config;
+
+import com.barriquebackend.json.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serializes all properties of entities that support field selection, unless a response
+     * supplies its own filter through {@link FieldSelection#wrap(Object)}.
+     *
+     * @return the customizer registering the default filter
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionDefaultFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
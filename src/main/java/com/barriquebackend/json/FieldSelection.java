@@ -0,0 +1,165 @@
+package com.barriquebackend.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset parsed from a {@code fields} request parameter.
+ * <p>
+ * The parameter is a comma-separated list of property paths relative to the returned entity,
+ * with nested properties separated by dots, e.g. {@code title,favorite,ingredients.title}.
+ * Selecting a property selects everything below it, and selecting a nested property implicitly
+ * selects its parents. Entities opt in with {@code @JsonFilter(FieldSelection.FILTER_ID)}; since
+ * Jackson never calls the getter of a filtered property, unselected lazy collections are not
+ * loaded either.
+ * </p>
+ */
+public final class FieldSelection {
+
+    /**
+     * ID of the Jackson filter entities must declare to support field selection.
+     */
+    public static final String FILTER_ID = "fieldSelection";
+
+    private static final FieldSelection ALL = new FieldSelection(Set.of());
+
+    private final Set<String> paths;
+
+    private FieldSelection(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * Parses a {@code fields} parameter.
+     *
+     * @param fields the comma-separated property paths, or null or blank to select everything
+     * @return the parsed selection
+     */
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> paths = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            if (!path.isEmpty()) {
+                paths.add(path);
+            }
+        }
+        return paths.isEmpty() ? ALL : new FieldSelection(Set.copyOf(paths));
+    }
+
+    /**
+     * Returns whether this selection includes every property.
+     *
+     * @return true if no fields were requested
+     */
+    public boolean selectsAll() {
+        return paths.isEmpty();
+    }
+
+    /**
+     * Returns a canonical form of this selection: the selected paths in sorted order, without
+     * paths already selected through an ancestor. Selections that serialize the same properties
+     * have the same canonical form.
+     *
+     * @return the comma-separated paths, or an empty string if everything is selected
+     */
+    public String canonical() {
+        return paths.stream()
+                .filter(path -> paths.stream().noneMatch(other -> !other.equals(path) && isSameOrBelow(path, other)))
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Returns whether the property at the given path is serialized.
+     *
+     * @param path the dot-separated property path relative to the returned entity
+     * @return true if the property or one of its parents or children is selected
+     */
+    public boolean includes(String path) {
+        if (paths.isEmpty()) {
+            return true;
+        }
+        for (String selected : paths) {
+            if (isSameOrBelow(path, selected) || isSameOrBelow(selected, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a filter provider that applies this selection to all entities using {@link #FILTER_ID}.
+     *
+     * @return the filter provider
+     */
+    public FilterProvider toFilterProvider() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, new PathFilter(this));
+    }
+
+    /**
+     * Wraps a response body so that Spring's Jackson converter applies this selection.
+     *
+     * @param body the response body
+     * @return the wrapped body
+     */
+    public MappingJacksonValue wrap(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(toFilterProvider());
+        return value;
+    }
+
+    private static boolean isSameOrBelow(String path, String ancestor) {
+        return path.equals(ancestor)
+                || (path.length() > ancestor.length() && path.startsWith(ancestor) && path.charAt(ancestor.length()) == '.');
+    }
+
+    /**
+     * Property filter that derives the path of each property from the generator's output context.
+     */
+    private static final class PathFilter extends SimpleBeanPropertyFilter {
+
+        private final FieldSelection selection;
+
+        private PathFilter(FieldSelection selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (selection.includes(pathOf(generator.getOutputContext(), writer.getName()))) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+
+        private static String pathOf(JsonStreamContext context, String property) {
+            // The enclosing objects' current names are the properties this object is nested in;
+            // array levels (collections) do not contribute to the path
+            Deque<String> segments = new ArrayDeque<>();
+            segments.push(property);
+            for (JsonStreamContext parent = context.getParent(); parent != null; parent = parent.getParent()) {
+                if (parent.inObject() && parent.getCurrentName() != null) {
+                    segments.push(parent.getCurrentName());
+                }
+            }
+            return String.join(".", segments);
+        }
+    }
+}
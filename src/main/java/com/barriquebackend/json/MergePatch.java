@@ -0,0 +1,153 @@
+package com.barriquebackend.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Helpers for applying JSON Merge Patch documents (RFC 7396) to entities.
+ * <p>
+ * A merge patch is a JSON object that only contains the properties to change; {@code null}
+ * removes a value and arrays replace the whole collection. Entities apply the scalar part of a
+ * patch with {@link #applyScalars} onto their managed instance, so only columns that actually
+ * changed become dirty, and handle collection properties themselves. {@link #diff} and
+ * {@link #apply} compute and replay patches between JSON documents.
+ * </p>
+ */
+public final class MergePatch {
+
+    /**
+     * Media type of JSON Merge Patch request bodies.
+     */
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private MergePatch() {
+    }
+
+    /**
+     * Checks that a patch is a JSON object that only contains patchable properties.
+     *
+     * @param patch   the patch document
+     * @param allowed the names of the properties that may be patched
+     * @return the patch as object node
+     * @throws IllegalArgumentException if the patch is not an object or contains other properties
+     */
+    public static ObjectNode requireObject(JsonNode patch, Set<String> allowed) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Property cannot be patched: " + name);
+            }
+        }
+        return (ObjectNode) patch;
+    }
+
+    /**
+     * Checks that a patch does not remove a mandatory property.
+     *
+     * @param patch    the patch document
+     * @param required the names of the properties that must not be null
+     * @throws IllegalArgumentException if the patch sets one of the properties to null
+     */
+    public static void requireNonNull(ObjectNode patch, Set<String> required) {
+        for (String name : required) {
+            JsonNode value = patch.get(name);
+            if (value != null && value.isNull()) {
+                throw new IllegalArgumentException("Property cannot be removed: " + name);
+            }
+        }
+    }
+
+    /**
+     * Applies the given scalar properties of a patch onto an object through its setters.
+     * Properties of the patch that are not listed are left for the caller.
+     *
+     * @param objectMapper the mapper used to deserialize the property values
+     * @param target       the object to update in place
+     * @param patch        the patch document
+     * @param scalars      the names of the scalar properties to apply
+     * @throws IllegalArgumentException if a value cannot be converted to the property type
+     */
+    public static void applyScalars(ObjectMapper objectMapper, Object target, ObjectNode patch, Set<String> scalars) {
+        ObjectNode values = objectMapper.createObjectNode();
+        patch.fields().forEachRemaining(field -> {
+            if (scalars.contains(field.getKey())) {
+                values.set(field.getKey(), field.getValue());
+            }
+        });
+        if (values.isEmpty()) {
+            return;
+        }
+        try {
+            objectMapper.readerForUpdating(target).readValue(values);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Computes the merge patch that turns one JSON object into another.
+     * <p>
+     * Since {@code null} means removal in a merge patch, properties whose value is {@code null}
+     * cannot be told apart from absent ones; documents should omit them. Arrays are compared as a
+     * whole, so a change to any element puts the complete new array into the patch.
+     * </p>
+     *
+     * @param source the original document
+     * @param target the changed document
+     * @return the patch, empty if both documents are equal
+     */
+    public static ObjectNode diff(ObjectNode source, ObjectNode target) {
+        ObjectNode patch = JsonNodeFactory.instance.objectNode();
+        source.fieldNames().forEachRemaining(name -> {
+            if (!target.has(name)) {
+                patch.putNull(name);
+            }
+        });
+        target.fields().forEachRemaining(field -> {
+            JsonNode original = source.get(field.getKey());
+            JsonNode changed = field.getValue();
+            if (original != null && original.isObject() && changed.isObject()) {
+                ObjectNode nested = diff((ObjectNode) original, (ObjectNode) changed);
+                if (!nested.isEmpty()) {
+                    patch.set(field.getKey(), nested);
+                }
+            } else if (!changed.equals(original)) {
+                patch.set(field.getKey(), changed.deepCopy());
+            }
+        });
+        return patch;
+    }
+
+    /**
+     * Applies a merge patch to a JSON document as specified by RFC 7396.
+     *
+     * @param target the document to patch, not modified
+     * @param patch  the merge patch
+     * @return the patched document
+     */
+    public static JsonNode apply(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        patch.fields().forEachRemaining(field -> {
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), apply(result.get(field.getKey()), field.getValue()));
+            }
+        });
+        return result;
+    }
+}
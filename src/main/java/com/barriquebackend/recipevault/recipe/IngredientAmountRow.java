@@ -0,0 +1,10 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.components.dictionary.MeasurementUnit;
+
+/**
+ * Projection row with an ingredient's amount and unit and the servings of its recipe.
+ */
+public record IngredientAmountRow(Long recipeId, int servings, String title, String name, Double amount, String unit,
+                                  MeasurementUnit measurementUnit) {
+}
@@ -0,0 +1,7 @@
+package com.barriquebackend.recipevault.recipe;
+
+/**
+ * Projection row with a hand-entered nutritional value of a recipe.
+ */
+public record NutritionalValueRow(Long recipeId, String title, Double amount) {
+}
@@ -1,23 +1,56 @@
 package com.barriquebackend.recipevault.recipe;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.barriquebackend.json.FieldSelection;
 import com.barriquebackend.recipevault.recipe.components.Ingredient;
 import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
 import com.barriquebackend.recipevault.recipe.components.RecipeStep;
 import com.barriquebackend.recipevault.recipe.components.Tool;
 import com.barriquebackend.recipevault.recipe.components.tag.Tag;
+import com.barriquebackend.recipevault.recipe.duplicate.MinHash;
+import com.barriquebackend.recipevault.recipe.nutrition.NutritionFacts;
+import com.barriquebackend.recipevault.recipe.nutrition.RecipeNutrition;
 import com.barriquebackend.user.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// Updates only write changed columns, so patching one field stays a one-column UPDATE
+@DynamicUpdate
+@JsonFilter(FieldSelection.FILTER_ID)
+@Table(indexes = {
+        // Keyset pagination ordered by id and by title (see RecipeRepository#findPageByUserIdOrderById)
+        @Index(name = "idx_recipe_user_id_recipe_id", columnList = "user_id, recipe_id"),
+        @Index(name = "idx_recipe_user_id_title", columnList = "user_id, title, recipe_id"),
+        // Cooking time ranges and keyset pages ordered by time (see RecipeRepository#findPageByUserIdOrderByTime)
+        @Index(name = "idx_recipe_user_id_time_minutes", columnList = "user_id, time_minutes, recipe_id"),
+        // Nutrient ranges (see NutritionFilterService); each bound is a range scan, several are combined by the planner
+        @Index(name = "idx_recipe_user_id_serving_kcal", columnList = "user_id, serving_kcal, recipe_id"),
+        @Index(name = "idx_recipe_user_id_serving_protein", columnList = "user_id, serving_protein, recipe_id"),
+        @Index(name = "idx_recipe_user_id_serving_fat", columnList = "user_id, serving_fat, recipe_id"),
+        @Index(name = "idx_recipe_user_id_serving_carbs", columnList = "user_id, serving_carbs, recipe_id"),
+        @Index(name = "idx_recipe_user_id_serving_fiber", columnList = "user_id, serving_fiber, recipe_id"),
+        @Index(name = "idx_recipe_user_id_serving_sugar", columnList = "user_id, serving_sugar, recipe_id"),
+        @Index(name = "idx_recipe_user_id_serving_salt", columnList = "user_id, serving_salt, recipe_id")
+})
 public class Recipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
+    @Column(name = "recipe_id")
     private Long recipeId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
     private User user;
@@ -33,20 +66,102 @@ public class Recipe {
     private int servings;
     private int portionSize;
 
+    // Tag types of this recipe as a bit mask (see TagMask), kept in sync by RecipeService
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long tagMask;
+
+    // Cooking time parsed from the free-text time (see CookingTimes), kept in sync by RecipeService
+    @Column(name = "time_minutes")
+    @JsonIgnore
+    private Integer timeMinutes;
+
+    // MinHash signature of ingredients and steps (see MinHash), kept in sync by RecipeService
+    @Column(name = "min_hash", length = MinHash.BYTES)
+    @JsonIgnore
+    private byte[] minHash;
+
+    // Nutrition of the whole recipe computed from its ingredients (see NutritionCalculator), kept in sync by RecipeService
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "kcal", column = @Column(name = "computed_kcal")),
+            @AttributeOverride(name = "protein", column = @Column(name = "computed_protein")),
+            @AttributeOverride(name = "fat", column = @Column(name = "computed_fat")),
+            @AttributeOverride(name = "carbs", column = @Column(name = "computed_carbs")),
+            @AttributeOverride(name = "fiber", column = @Column(name = "computed_fiber")),
+            @AttributeOverride(name = "sugar", column = @Column(name = "computed_sugar")),
+            @AttributeOverride(name = "salt", column = @Column(name = "computed_salt"))
+    })
+    @JsonIgnore
+    private NutritionFacts computedNutrition;
+
+    // Fraction of ingredients found in the nutrient table; null until the nutrition has been computed
+    @Column(name = "nutrition_coverage")
+    @JsonIgnore
+    private Double nutritionCoverage;
+
+    // Nutrition of one serving, hand-entered or else computed (see NutritionCalculator), kept in sync by RecipeService
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "kcal", column = @Column(name = "serving_kcal")),
+            @AttributeOverride(name = "protein", column = @Column(name = "serving_protein")),
+            @AttributeOverride(name = "fat", column = @Column(name = "serving_fat")),
+            @AttributeOverride(name = "carbs", column = @Column(name = "serving_carbs")),
+            @AttributeOverride(name = "fiber", column = @Column(name = "serving_fiber")),
+            @AttributeOverride(name = "sugar", column = @Column(name = "serving_sugar")),
+            @AttributeOverride(name = "salt", column = @Column(name = "serving_salt"))
+    })
+    @JsonIgnore
+    private NutritionFacts servingNutrition;
+
+    // Whether the serving nutrition has been derived; false for recipes saved before it was (see ServingNutritionBackfill)
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    @JsonIgnore
+    private boolean servingNutritionSet;
+
+    // Likely near-duplicates reported when the recipe is created (see RecipeService#createRecipe)
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<Long> possibleDuplicateIds = List.of();
+
+    // Optimistic-lock version, also bumped by RecipeService when only components change and by the
+    // backfill updates in RecipeRepository; served as ETag
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long version;
+
+    // Number of the latest entry in the recipe's revision history (see RecipeRevisionService)
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private int revision;
+
+    // Child collections are loaded with one subselect per collection for all recipes of the
+    // originating query, so listing n recipes costs 1 + 5 statements instead of 1 + 5n.
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Ingredient> ingredients;
+    @Fetch(FetchMode.SUBSELECT)
+    private List<Ingredient> ingredients = new ArrayList<>();
 
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<NutritionalValue> nutritionalValues;
+    @Fetch(FetchMode.SUBSELECT)
+    private List<NutritionalValue> nutritionalValues = new ArrayList<>();
 
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<RecipeStep> steps;
+    @Fetch(FetchMode.SUBSELECT)
+    private List<RecipeStep> steps = new ArrayList<>();
 
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Tool> tools;
+    @Fetch(FetchMode.SUBSELECT)
+    private List<Tool> tools = new ArrayList<>();
 
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Tag> tags;
+    @Fetch(FetchMode.SUBSELECT)
+    private List<Tag> tags = new ArrayList<>();
 
     // Getters and setters
     public Long getRecipeId() {
@@ -105,6 +220,14 @@ public class Recipe {
         this.time = duration;
     }
 
+    public Integer getTimeMinutes() {
+        return timeMinutes;
+    }
+
+    public void setTimeMinutes(Integer timeMinutes) {
+        this.timeMinutes = timeMinutes;
+    }
+
     public String getSourceUrl() {
         return sourceUrl;
     }
@@ -129,6 +252,89 @@ public class Recipe {
         this.portionSize = portionSize;
     }
 
+    public long getTagMask() {
+        return tagMask;
+    }
+
+    public void setTagMask(long tagMask) {
+        this.tagMask = tagMask;
+    }
+
+    public byte[] getMinHash() {
+        return minHash;
+    }
+
+    public void setMinHash(byte[] minHash) {
+        this.minHash = minHash;
+    }
+
+    public NutritionFacts getComputedNutrition() {
+        return computedNutrition;
+    }
+
+    public void setComputedNutrition(NutritionFacts computedNutrition) {
+        this.computedNutrition = computedNutrition;
+    }
+
+    public Double getNutritionCoverage() {
+        return nutritionCoverage;
+    }
+
+    public void setNutritionCoverage(Double nutritionCoverage) {
+        this.nutritionCoverage = nutritionCoverage;
+    }
+
+    public NutritionFacts getServingNutrition() {
+        return servingNutrition;
+    }
+
+    public void setServingNutrition(NutritionFacts servingNutrition) {
+        this.servingNutrition = servingNutrition;
+    }
+
+    public boolean isServingNutritionSet() {
+        return servingNutritionSet;
+    }
+
+    public void setServingNutritionSet(boolean servingNutritionSet) {
+        this.servingNutritionSet = servingNutritionSet;
+    }
+
+    /**
+     * Returns the computed nutrition of the whole recipe and of one serving.
+     *
+     * @return the computed nutrition, or null if it has not been computed yet
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public RecipeNutrition getNutrition() {
+        if (nutritionCoverage == null || computedNutrition == null) {
+            return null;
+        }
+        return new RecipeNutrition(nutritionCoverage, computedNutrition,
+                servings > 0 ? computedNutrition.divide(servings) : null);
+    }
+
+    public List<Long> getPossibleDuplicateIds() {
+        return possibleDuplicateIds;
+    }
+
+    public void setPossibleDuplicateIds(List<Long> possibleDuplicateIds) {
+        this.possibleDuplicateIds = possibleDuplicateIds;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
     public List<Ingredient> getIngredients() {
         return ingredients;
     }
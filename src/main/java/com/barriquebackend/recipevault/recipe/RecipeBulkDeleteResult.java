@@ -0,0 +1,13 @@
+package com.barriquebackend.recipevault.recipe;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk recipe deletion. Deletion is all-or-nothing: if any requested recipe is not
+ * found for the user, {@code deleted} is empty.
+ *
+ * @param deleted  the IDs of the deleted recipes
+ * @param notFound the requested IDs that do not exist or belong to another user
+ */
+public record RecipeBulkDeleteResult(List<Long> deleted, List<Long> notFound) {
+}
@@ -0,0 +1,43 @@
+package com.barriquebackend.recipevault.recipe;
+
+import java.util.Set;
+
+/**
+ * Callback for components that keep derived state about recipes, such as in-memory indexes.
+ * <p>
+ * {@link RecipeService} notifies all listener beans after a recipe was written. When the write
+ * happens inside a transaction, the notification is deferred until the transaction has committed.
+ * </p>
+ */
+public interface RecipeChangeListener {
+
+    /**
+     * Called after a recipe was created or updated.
+     *
+     * @param recipe the saved recipe including its components
+     */
+    void recipeSaved(Recipe recipe);
+
+    /**
+     * Called after some properties of a recipe were changed with a merge patch.
+     * <p>
+     * Child collections that were not patched are not loaded, and reading them here would load
+     * them lazily. Listeners that derive state from only some properties override this method to
+     * skip unaffected patches; the default treats the patch like any other save.
+     * </p>
+     *
+     * @param recipe     the patched recipe
+     * @param properties the names of the patched properties, e.g. "title" or "ingredients"
+     */
+    default void recipePatched(Recipe recipe, Set<String> properties) {
+        recipeSaved(recipe);
+    }
+
+    /**
+     * Called after a recipe was deleted.
+     *
+     * @param userId   the ID of the user who owned the recipe
+     * @param recipeId the ID of the deleted recipe
+     */
+    void recipeDeleted(Long userId, Long recipeId);
+}
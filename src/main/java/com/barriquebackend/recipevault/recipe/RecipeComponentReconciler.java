@@ -0,0 +1,243 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.recipevault.recipe.components.Tool;
+import com.barriquebackend.recipevault.recipe.components.tag.Tag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Applies the child collections of an incoming recipe to a persistent recipe as a minimal delta.
+ * <p>
+ * Incoming components are matched to existing ones by ID and, if they carry no known ID, by a
+ * natural key (normalized title, step number or tag type). Matched components are updated in
+ * place, so Hibernate only issues an UPDATE when a value actually changed. Only unmatched
+ * existing components are removed (and deleted through orphan removal) and only unmatched
+ * incoming components are inserted.
+ * </p>
+ */
+final class RecipeComponentReconciler {
+
+    private RecipeComponentReconciler() {
+    }
+
+    /**
+     * Reconciles all child collections of the target recipe with those of the source recipe.
+     *
+     * @param target the persistent recipe to update
+     * @param source the incoming recipe data
+     * @return true if any component was inserted, updated or removed
+     */
+    static boolean reconcile(Recipe target, Recipe source) {
+        boolean changed = reconcileIngredients(target, source.getIngredients());
+        changed |= reconcileNutritionalValues(target, source.getNutritionalValues());
+        changed |= reconcileSteps(target, source.getSteps());
+        changed |= reconcileTools(target, source.getTools());
+        changed |= reconcileTags(target, source.getTags());
+        return changed;
+    }
+
+    // Single collections, for partial updates that only carry some of them (see RecipePatch)
+    static boolean reconcileIngredients(Recipe target, List<Ingredient> incoming) {
+        return reconcile(target.getIngredients(), incoming,
+                Ingredient::getIngredientId,
+                ingredient -> IngredientNames.normalize(ingredient.getTitle()),
+                RecipeComponentReconciler::updateIngredient,
+                ingredient -> {
+                    ingredient.setIngredientId(null);
+                    target.addIngredient(ingredient);
+                });
+    }
+
+    static boolean reconcileNutritionalValues(Recipe target, List<NutritionalValue> incoming) {
+        return reconcile(target.getNutritionalValues(), incoming,
+                NutritionalValue::getNutritionalValueId,
+                nutritionalValue -> lowerCase(nutritionalValue.getTitle()),
+                RecipeComponentReconciler::updateNutritionalValue,
+                nutritionalValue -> {
+                    nutritionalValue.setNutritionalValueId(null);
+                    target.addNutritionalValue(nutritionalValue);
+                });
+    }
+
+    static boolean reconcileSteps(Recipe target, List<RecipeStep> incoming) {
+        return reconcile(target.getSteps(), incoming,
+                RecipeStep::getStepId,
+                RecipeStep::getStepNumber,
+                RecipeComponentReconciler::updateStep,
+                step -> {
+                    step.setStepId(null);
+                    target.addStep(step);
+                });
+    }
+
+    static boolean reconcileTools(Recipe target, List<Tool> incoming) {
+        return reconcile(target.getTools(), incoming,
+                Tool::getToolId,
+                tool -> lowerCase(tool.getTitle()),
+                RecipeComponentReconciler::updateTool,
+                tool -> {
+                    tool.setToolId(null);
+                    target.addTool(tool);
+                });
+    }
+
+    static boolean reconcileTags(Recipe target, List<Tag> incoming) {
+        return reconcile(target.getTags(), incoming,
+                Tag::getTagId,
+                Tag::getTagType,
+                RecipeComponentReconciler::updateTag,
+                tag -> {
+                    tag.setTagId(null);
+                    target.addTag(tag);
+                });
+    }
+
+    /**
+     * Reconciles one child collection.
+     *
+     * @param current      the persistent components, modified in place
+     * @param incoming     the incoming components, null is treated as empty
+     * @param idOf         extracts the ID of a component
+     * @param naturalKeyOf extracts the natural key of a component, may return null
+     * @param update       copies an incoming component onto a matched one and reports whether anything changed
+     * @param add          attaches an unmatched incoming component as a new one
+     * @param <T>          the component type
+     * @return true if any component was inserted, updated or removed
+     */
+    static <T> boolean reconcile(List<T> current,
+                                 List<T> incoming,
+                                 Function<T, Long> idOf,
+                                 Function<T, ?> naturalKeyOf,
+                                 BiPredicate<T, T> update,
+                                 Consumer<T> add) {
+        Map<Long, T> currentById = new HashMap<>();
+        Map<Object, Deque<T>> currentByKey = new HashMap<>();
+        for (T component : current) {
+            if (idOf.apply(component) != null) {
+                currentById.put(idOf.apply(component), component);
+            }
+            Object key = naturalKeyOf.apply(component);
+            if (key != null) {
+                currentByKey.computeIfAbsent(key, k -> new ArrayDeque<>()).add(component);
+            }
+        }
+
+        boolean changed = false;
+        Set<T> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<T> added = new ArrayList<>();
+        for (T component : incoming == null ? List.<T>of() : incoming) {
+            T target = currentById.get(idOf.apply(component));
+            if (target == null || matched.contains(target)) {
+                target = pollUnmatched(currentByKey.get(naturalKeyOf.apply(component)), matched);
+            }
+            if (target != null) {
+                matched.add(target);
+                changed |= update.test(target, component);
+            } else {
+                added.add(component);
+            }
+        }
+
+        changed |= current.removeIf(component -> !matched.contains(component));
+        added.forEach(add);
+        return changed || !added.isEmpty();
+    }
+
+    private static <T> T pollUnmatched(Deque<T> candidates, Set<T> matched) {
+        if (candidates == null) {
+            return null;
+        }
+        while (!candidates.isEmpty()) {
+            T candidate = candidates.poll();
+            if (!matched.contains(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean updateIngredient(Ingredient target, Ingredient source) {
+        boolean changed = false;
+        if (!Objects.equals(target.getTitle(), source.getTitle())) {
+            target.setTitle(source.getTitle());
+            changed = true;
+        }
+        if (!Objects.equals(target.getAmount(), source.getAmount())) {
+            target.setAmount(source.getAmount());
+            changed = true;
+        }
+        if (!Objects.equals(target.getUnit(), source.getUnit())) {
+            target.setUnit(source.getUnit());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean updateNutritionalValue(NutritionalValue target, NutritionalValue source) {
+        boolean changed = false;
+        if (!Objects.equals(target.getTitle(), source.getTitle())) {
+            target.setTitle(source.getTitle());
+            changed = true;
+        }
+        if (!Objects.equals(target.getAmount(), source.getAmount())) {
+            target.setAmount(source.getAmount());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean updateStep(RecipeStep target, RecipeStep source) {
+        boolean changed = false;
+        if (!Objects.equals(target.getStepDescription(), source.getStepDescription())) {
+            target.setStepDescription(source.getStepDescription());
+            changed = true;
+        }
+        if (!Objects.equals(target.getStepNumber(), source.getStepNumber())) {
+            target.setStepNumber(source.getStepNumber());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean updateTool(Tool target, Tool source) {
+        boolean changed = false;
+        if (!Objects.equals(target.getTitle(), source.getTitle())) {
+            target.setTitle(source.getTitle());
+            changed = true;
+        }
+        if (!Objects.equals(target.getAmount(), source.getAmount())) {
+            target.setAmount(source.getAmount());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean updateTag(Tag target, Tag source) {
+        if (target.getTagType() == source.getTagType()) {
+            return false;
+        }
+        target.setTagType(source.getTagType());
+        return true;
+    }
+}
@@ -1,13 +1,23 @@
 package com.barriquebackend.recipevault.recipe;
 
+import com.barriquebackend.json.FieldSelection;
+import com.barriquebackend.json.MergePatch;
+import com.barriquebackend.recipevault.recipe.time.CookingTimes;
+import com.barriquebackend.user.CurrentUser;
 import com.barriquebackend.user.User;
-import com.barriquebackend.user.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller for handling recipe-related endpoints.
@@ -18,106 +28,261 @@ import java.util.List;
 public class RecipeController {
 
     private final RecipeService recipeService;
-    private final UserRepository userRepository;
+    private final RecipeJsonCache recipeJsonCache;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructs a RecipeController with the specified RecipeService and UserRepository.
+     * Constructs a RecipeController with the specified RecipeService, RecipeJsonCache and ObjectMapper.
      *
-     * @param recipeService  the service for recipe business logic
-     * @param userRepository the repository for user data
+     * @param recipeService   the service for recipe business logic
+     * @param recipeJsonCache the cache of serialized recipe details
+     * @param objectMapper    the mapper used to serialize recipes restricted to selected fields
      */
-    public RecipeController(RecipeService recipeService, UserRepository userRepository) {
+    public RecipeController(RecipeService recipeService, RecipeJsonCache recipeJsonCache,
+                            ObjectMapper objectMapper) {
         this.recipeService = recipeService;
-        this.userRepository = userRepository;
+        this.recipeJsonCache = recipeJsonCache;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Retrieves all recipes for the authenticated user.
      *
-     * @param authentication the authentication token containing user details
+     * @param fields the comma-separated properties to return, e.g. "title,ingredients.title"; all if absent
+     * @param user   the authenticated user
      * @return a list of recipes belonging to the authenticated user
      */
     @GetMapping("/user/recipe")
-    public List<Recipe> getRecipesByUserId(Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        return recipeService.getRecipesByUserId(user.getId());
+    public MappingJacksonValue getRecipesByUserId(@RequestParam(required = false) String fields,
+                                                  @CurrentUser User user) {
+        return FieldSelection.parse(fields).wrap(recipeService.getRecipesByUserId(user.getId()));
+    }
+
+    /**
+     * Retrieves lightweight summaries of all recipes of the authenticated user.
+     *
+     * @param user the authenticated user
+     * @return a list of recipe summaries belonging to the authenticated user
+     */
+    @GetMapping("/user/recipe/summary")
+    public List<RecipeSummary> getRecipeSummaries(@CurrentUser User user) {
+        return recipeService.getRecipeSummariesByUserId(user.getId());
+    }
+
+    /**
+     * Retrieves one page of the authenticated user's recipes.
+     * <p>
+     * Pages are addressed by an opaque cursor taken from the previous page's response. Omitting
+     * the cursor returns the first page. With sort key "time", the listing can be restricted to a
+     * range of cooking times, e.g. {@code maxMinutes=30} for recipes ready in half an hour.
+     * </p>
+     *
+     * @param size       the maximum number of recipes on the page
+     * @param cursor     the cursor returned with the previous page, if any
+     * @param sort       the sort key, either "id", "title" or "time"
+     * @param minMinutes the minimum cooking time in minutes, only allowed with sort key "time"; not negative
+     * @param maxMinutes the maximum cooking time in minutes, only allowed with sort key "time"; not below minMinutes
+     * @param user       the authenticated user
+     * @return a ResponseEntity with the page, or a bad request status for an invalid cursor, sort key or range
+     */
+    @GetMapping("/user/recipe/page")
+    public ResponseEntity<RecipePage<Recipe>> getRecipePage(@RequestParam(defaultValue = "20") int size,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "id") String sort,
+                                                            @RequestParam(required = false) Integer minMinutes,
+                                                            @RequestParam(required = false) Integer maxMinutes,
+                                                            @CurrentUser User user) {
+        RecipeCursor position;
+        try {
+            RecipeCursor.Sort order = RecipeCursor.Sort.fromParameter(sort);
+            position = cursor == null ? RecipeCursor.first(order) : RecipeCursor.decode(cursor);
+            if (position.sort() != order) {
+                return ResponseEntity.badRequest().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (minMinutes == null && maxMinutes == null) {
+            return ResponseEntity.ok(recipeService.getRecipePage(user.getId(), position, size));
+        }
+        int from = minMinutes == null ? 0 : minMinutes;
+        int to = maxMinutes == null ? CookingTimes.MAX_MINUTES : maxMinutes;
+        if (position.sort() != RecipeCursor.Sort.TIME || from < 0 || to < 0 || from > to) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(recipeService.getRecipePageByTime(user.getId(), position, from, to, size));
     }
 
     /**
      * Retrieves a recipe by its ID.
+     * <p>
+     * The response carries the recipe version as ETag, with a fingerprint of the selection if
+     * {@code fields} restricts the response (see {@link RecipeETags}). If the client sends a matching
+     * If-None-Match header, only the version is looked up and 304 Not Modified is returned.
+     * Otherwise the serialized recipe is served from the {@link RecipeJsonCache} when the
+     * current version is cached. Responses restricted with {@code fields} bypass the cache.
+     * </p>
      *
-     * @param id             the ID of the recipe
-     * @param authentication the authentication token containing user details
-     * @return a ResponseEntity with the recipe if found and authorized, or an appropriate error status
+     * @param id          the ID of the recipe
+     * @param fields      the comma-separated properties to return, e.g. "title,steps"; all if absent
+     * @param ifNoneMatch the entity tags of the client's cached copies, if any
+     * @param user        the authenticated user
+     * @return a ResponseEntity with the recipe JSON, 304 if the cached copy is current,
+     * or 404 if the user has no recipe with this ID
+     * @throws JsonProcessingException if the recipe cannot be serialized
      */
     @GetMapping("/recipe/{id}")
-    public ResponseEntity<Recipe> getRecipeById(@PathVariable Long id, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        Recipe recipe = recipeService.getRecipeById(id);
-        if (!recipe.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    public ResponseEntity<byte[]> getRecipeById(@PathVariable Long id,
+                                                @RequestParam(required = false) String fields,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                @CurrentUser User user) throws JsonProcessingException {
+        Optional<Long> version = recipeService.getRecipeVersion(id, user.getId());
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        FieldSelection selection = FieldSelection.parse(fields);
+        String currentTag = RecipeETags.of(version.get(), selection);
+        if (ifNoneMatch != null && RecipeETags.noneMatchFails(ifNoneMatch, currentTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag).build();
+        }
+
+        long servedVersion = version.get();
+        byte[] json = selection.selectsAll() ? recipeJsonCache.get(id, servedVersion) : null;
+        if (json == null) {
+            Optional<Recipe> recipe = recipeService.getRecipeForUser(id, user.getId());
+            if (recipe.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            servedVersion = recipe.get().getVersion();
+            json = selection.selectsAll()
+                    ? recipeJsonCache.put(recipe.get())
+                    : objectMapper.writer(selection.toFilterProvider()).writeValueAsBytes(recipe.get());
         }
-        return ResponseEntity.ok(recipe);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(RecipeETags.of(servedVersion, selection))
+                .body(json);
     }
 
     /**
      * Creates a new recipe for the authenticated user.
      *
-     * @param recipe         the recipe data to create
-     * @param authentication the authentication token containing user details
+     * @param recipe the recipe data to create
+     * @param user   the authenticated user
      * @return the created recipe
      */
     @PostMapping("/recipe")
-    public Recipe createRecipe(@RequestBody Recipe recipe, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
+    public Recipe createRecipe(@RequestBody Recipe recipe, @CurrentUser User user) {
         return recipeService.createRecipe(recipe, user);
     }
 
     /**
      * Updates an existing recipe for the authenticated user.
+     * <p>
+     * If the client sends an If-Match header, the recipe is only updated if its current version
+     * matches one of the given entity tags; otherwise 412 Precondition Failed is returned.
+     * </p>
      *
-     * @param id             the ID of the recipe to update
-     * @param recipeDetails  the updated recipe data
-     * @param authentication the authentication token containing user details
-     * @return a ResponseEntity with the updated recipe if successful, or an error status
+     * @param id            the ID of the recipe to update
+     * @param recipeDetails the updated recipe data
+     * @param ifMatch       the entity tags the client based its changes on, if any
+     * @param user          the authenticated user
+     * @return a ResponseEntity with the updated recipe if successful, 404 if the user has no recipe
+     * with this ID, or 412 if the If-Match precondition fails
      */
     @PutMapping("/recipe/{id}")
-    public ResponseEntity<Recipe> updateRecipe(@PathVariable Long id, @RequestBody Recipe recipeDetails, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        Recipe recipe = recipeService.getRecipeById(id);
-        if (!recipe.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    public ResponseEntity<Recipe> updateRecipe(@PathVariable Long id,
+                                               @RequestBody Recipe recipeDetails,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @CurrentUser User user) {
+        List<Long> expectedVersions = ifMatch == null || ifMatch.trim().equals("*") ? null : RecipeETags.parseIfMatch(ifMatch);
+        try {
+            Optional<Recipe> updatedRecipe = recipeService.updateRecipe(id, recipeDetails, user, expectedVersions);
+            return updatedRecipe
+                    .map(recipe -> ResponseEntity.ok().eTag(RecipeETags.of(recipe.getVersion())).body(recipe))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (RecipeVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(RecipeETags.of(e.getCurrentVersion())).build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Lost a race against a concurrent update between the version check and the commit
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Partially updates a recipe with a JSON Merge Patch (RFC 7396).
+     * <p>
+     * Only the properties present in the patch are changed, e.g. {@code {"favorite": true}}.
+     * Child collections in the patch replace the existing ones. Like PUT, the request can be
+     * made conditional with If-Match. The response carries no body, so that a scalar change
+     * never loads the recipe's components; its ETag is the new version.
+     * </p>
+     *
+     * @param id      the ID of the recipe to patch
+     * @param patch   the merge patch document
+     * @param ifMatch the entity tags the client based its changes on, if any
+     * @param user    the authenticated user
+     * @return a ResponseEntity with 204 and the new ETag, 400 for an invalid patch, 404 if the user has
+     * no recipe with this ID, or 412 if the recipe has been modified since
+     */
+    @PatchMapping(value = "/recipe/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchRecipe(@PathVariable Long id,
+                                            @RequestBody JsonNode patch,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                            @CurrentUser User user) {
+        List<Long> expectedVersions = ifMatch == null || ifMatch.trim().equals("*") ? null : RecipeETags.parseIfMatch(ifMatch);
+        try {
+            Optional<Recipe> patchedRecipe = recipeService.patchRecipe(id, patch, user, expectedVersions);
+            return patchedRecipe
+                    .map(recipe -> ResponseEntity.noContent().eTag(RecipeETags.of(recipe.getVersion())).<Void>build())
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RecipeVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(RecipeETags.of(e.getCurrentVersion())).build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         }
-        Recipe updatedRecipe = recipeService.updateRecipe(id, recipeDetails, user);
-        return ResponseEntity.ok(updatedRecipe);
     }
 
     /**
      * Deletes a recipe for the authenticated user.
      *
-     * @param id             the ID of the recipe to delete
-     * @param authentication the authentication token containing user details
-     * @return a ResponseEntity with a success message if deletion is successful, or an error status
+     * @param id   the ID of the recipe to delete
+     * @param user the authenticated user
+     * @return a ResponseEntity with a success message if deletion is successful, or 404 if the user
+     * has no recipe with this ID
      */
     @DeleteMapping("/recipe/{id}")
-    public ResponseEntity<String> deleteRecipe(@PathVariable Long id, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
-        Recipe recipe = recipeService.getRecipeById(id);
-        if (!recipe.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    public ResponseEntity<String> deleteRecipe(@PathVariable Long id, @CurrentUser User user) {
+        if (!recipeService.deleteRecipe(id, user)) {
+            return ResponseEntity.notFound().build();
         }
-        recipeService.deleteRecipe(id, user);
         return ResponseEntity.ok("Recipe deleted successfully.");
     }
 
     /**
-     * Helper method to extract the authenticated user from the security context.
+     * Deletes several recipes of the authenticated user at once.
+     * <p>
+     * The deletion is all-or-nothing: if any ID does not refer to one of the user's recipes,
+     * nothing is deleted and 404 is returned together with the offending IDs.
+     * </p>
      *
-     * @param authentication the authentication token containing user details
-     * @return the authenticated User
+     * @param ids  the IDs of the recipes to delete, at most {@link RecipeService#MAX_BULK_DELETE}
+     * @param user the authenticated user
+     * @return a ResponseEntity with the deleted IDs, 404 with the unknown IDs, or 400 if too many IDs were sent
      */
-    private User getAuthenticatedUser(Authentication authentication) {
-        String username = authentication.getName();
-        return userRepository.findByUsername(username);
+    @PostMapping("/recipe/bulk-delete")
+    public ResponseEntity<RecipeBulkDeleteResult> deleteRecipes(@RequestBody List<Long> ids, @CurrentUser User user) {
+        if (ids.size() > RecipeService.MAX_BULK_DELETE) {
+            return ResponseEntity.badRequest().build();
+        }
+        RecipeBulkDeleteResult result = recipeService.deleteRecipes(ids, user);
+        if (!result.notFound().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+        return ResponseEntity.ok(result);
     }
+
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.barriquebackend.recipevault.recipe;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a keyset-paginated recipe listing.
+ * <p>
+ * A cursor captures the sort order and the sort key of the last recipe on a page. It is handed
+ * to clients as an opaque URL-safe token and decoded again when the next page is requested.
+ * </p>
+ *
+ * @param sort        the sort order the cursor belongs to
+ * @param title       the title of the last recipe on the page (only used for {@link Sort#TITLE})
+ * @param timeMinutes the cooking time of the last recipe on the page (only used for {@link Sort#TIME})
+ * @param recipeId    the ID of the last recipe on the page
+ */
+public record RecipeCursor(Sort sort, String title, int timeMinutes, Long recipeId) {
+
+    /**
+     * Supported sort orders for paginated recipe listings.
+     */
+    public enum Sort {
+        ID, TITLE, TIME;
+
+        /**
+         * Parses a sort key from a request parameter.
+         *
+         * @param value the sort key, e.g. "id", "title" or "time"
+         * @return the matching sort order
+         * @throws IllegalArgumentException if the sort key is unknown
+         */
+        public static Sort fromParameter(String value) {
+            for (Sort sort : values()) {
+                if (sort.name().equalsIgnoreCase(value)) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException("Unknown sort key: " + value);
+        }
+    }
+
+    /**
+     * Returns the cursor pointing before the first recipe of the given sort order.
+     *
+     * @param sort the sort order
+     * @return the initial cursor
+     */
+    public static RecipeCursor first(Sort sort) {
+        return new RecipeCursor(sort, "", 0, 0L);
+    }
+
+    /**
+     * Returns the cursor pointing right after the given recipe.
+     *
+     * @param sort   the sort order
+     * @param recipe the last recipe of a page
+     * @return the cursor for the following page
+     */
+    public static RecipeCursor after(Sort sort, Recipe recipe) {
+        return new RecipeCursor(sort, sort == Sort.TITLE ? recipe.getTitle() : "",
+                sort == Sort.TIME ? recipe.getTimeMinutes() : 0, recipe.getRecipeId());
+    }
+
+    /**
+     * Encodes this cursor into an opaque token.
+     *
+     * @return the URL-safe token
+     */
+    public String encode() {
+        String raw = sort.name() + ':' + recipeId + ':' + timeMinutes + ':' + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static RecipeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new RecipeCursor(Sort.valueOf(parts[0]), parts[3], Integer.parseInt(parts[2]),
+                    Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            // Also covers invalid Base64, unknown sort names and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.json.FieldSelection;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts between recipe versions and HTTP entity tags.
+ * <p>
+ * The entity tag of a recipe is its version as a strong tag, e.g. {@code "7"}. Because the
+ * version is bumped by every change to the recipe or its components, the tag identifies the
+ * exact representation returned by {@code GET /api/recipe/{id}}. A representation restricted
+ * with {@code fields} is a different representation and gets its own tag, the version followed
+ * by a fingerprint of the canonical selection, e.g. {@code "7-1c9e3f0a2b4d6e8f"}, so that caches
+ * never swap full and partial bodies.
+ * </p>
+ */
+final class RecipeETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private RecipeETags() {
+    }
+
+    /**
+     * Returns the strong entity tag of a recipe version.
+     *
+     * @param version the recipe version
+     * @return the quoted entity tag
+     */
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the strong entity tag of a recipe version restricted to a field selection.
+     *
+     * @param version   the recipe version
+     * @param selection the selected fields
+     * @return the quoted entity tag, the same as {@link #of(long)} if all fields are selected
+     */
+    static String of(long version, FieldSelection selection) {
+        if (selection.selectsAll()) {
+            return of(version);
+        }
+        // 64-bit FNV-1a; a collision would need two selections of the same recipe version
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : selection.canonical().getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return "\"" + version + "-" + String.format("%016x", hash) + "\"";
+    }
+
+    /**
+     * Evaluates an If-None-Match header with the weak comparison required by RFC 9110.
+     *
+     * @param ifNoneMatch the header value
+     * @param eTag        the entity tag of the current representation, see {@link #of(long, FieldSelection)}
+     * @return true if the client's copy is current
+     */
+    static boolean noneMatchFails(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String opaque = tag.trim();
+            if (opaque.startsWith(WEAK_PREFIX)) {
+                opaque = opaque.substring(WEAK_PREFIX.length());
+            }
+            if (opaque.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the versions listed in an If-Match header. Weak and foreign tags never match under
+     * the strong comparison of If-Match and are skipped. Tags of partial representations count
+     * with their version, as a client may base an update on the fields it fetched.
+     *
+     * @param ifMatch the header value, other than "*"
+     * @return the versions the client accepts, possibly empty
+     */
+    static List<Long> parseIfMatch(String ifMatch) {
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String opaque = tag.trim();
+            if (opaque.length() < 3 || !opaque.startsWith("\"") || !opaque.endsWith("\"")) {
+                continue;
+            }
+            String value = opaque.substring(1, opaque.length() - 1);
+            int fingerprint = value.indexOf('-');
+            try {
+                versions.add(Long.parseLong(fingerprint > 0 ? value.substring(0, fingerprint) : value));
+            } catch (NumberFormatException e) {
+                // Not one of our tags
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,7 @@
+package com.barriquebackend.recipevault.recipe;
+
+/**
+ * Projection row with the recipe columns used to rank similar recipes.
+ */
+public record RecipeFeatureRow(Long recipeId, String title, long tagMask, Integer timeMinutes) {
+}
@@ -0,0 +1,147 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of serialized recipe detail responses.
+ * <p>
+ * Each entry holds the JSON of one recipe together with the recipe version it was produced
+ * from; a lookup only hits if the requested version matches, so a cached document can never be
+ * served for a newer recipe. The cache is bounded by the total size of the documents in bytes
+ * and evicts the least recently used recipes first. Entries are dropped as soon as a recipe is
+ * updated or deleted.
+ * </p>
+ */
+@Component
+public class RecipeJsonCache implements RecipeChangeListener {
+
+    private final ObjectWriter recipeWriter;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a RecipeJsonCache.
+     *
+     * @param objectMapper the mapper used to serialize recipes, same as for regular responses
+     * @param maxBytes     the maximum total size of the cached documents
+     */
+    public RecipeJsonCache(ObjectMapper objectMapper,
+                           @Value("${recipevault.recipe-cache.max-bytes:33554432}") long maxBytes) {
+        this.recipeWriter = objectMapper.writerFor(Recipe.class);
+        this.maxBytes = maxBytes;
+        // A single huge recipe must not flush the whole cache
+        this.maxEntryBytes = maxBytes / 8;
+    }
+
+    /**
+     * Returns the cached JSON of a recipe version.
+     *
+     * @param recipeId the ID of the recipe
+     * @param version  the current version of the recipe
+     * @return the serialized recipe, or null if that version is not cached
+     */
+    public byte[] get(Long recipeId, long version) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(recipeId);
+        }
+        if (entry == null || entry.version() != version) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.json();
+    }
+
+    /**
+     * Serializes a recipe and caches the result under the recipe's current version.
+     *
+     * @param recipe the recipe to serialize
+     * @return the serialized recipe
+     */
+    public byte[] put(Recipe recipe) {
+        byte[] json;
+        try {
+            json = recipeWriter.writeValueAsBytes(recipe);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize recipe " + recipe.getRecipeId(), e);
+        }
+        if (json.length > maxEntryBytes) {
+            return json;
+        }
+        synchronized (this) {
+            Entry previous = entries.get(recipe.getRecipeId());
+            // A slow reader must not replace the document of a newer version
+            if (previous != null && previous.version() > recipe.getVersion()) {
+                return json;
+            }
+            if (previous != null) {
+                bytes -= previous.json().length;
+            }
+            entries.put(recipe.getRecipeId(), new Entry(recipe.getVersion(), json));
+            bytes += json.length;
+            evictLeastRecentlyUsed();
+        }
+        return json;
+    }
+
+    /**
+     * Drops the cached JSON of a recipe.
+     *
+     * @param recipeId the ID of the recipe
+     */
+    public synchronized void invalidate(Long recipeId) {
+        Entry removed = entries.remove(recipeId);
+        if (removed != null) {
+            bytes -= removed.json().length;
+        }
+    }
+
+    /**
+     * Returns the current counters of the cache.
+     *
+     * @return the cache statistics
+     */
+    public synchronized RecipeJsonCacheStats stats() {
+        return new RecipeJsonCacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), bytes, maxBytes);
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        invalidate(recipe.getRecipeId());
+    }
+
+    @Override
+    public void recipeDeleted(Long userId, Long recipeId) {
+        invalidate(recipeId);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().json().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(long version, byte[] json) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.barriquebackend.recipevault.recipe;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint with the counters of the serialized recipe cache.
+ * <p>
+ * The counters cover the recipes of all users, so they are an operator metric rather than part
+ * of the API: like every actuator endpoint but health, the endpoint is not exposed over HTTP
+ * unless {@code management.endpoints.web.exposure.include} lists {@code recipecache}, which
+ * should only be done on an internal management port.
+ * </p>
+ */
+@Component
+@Endpoint(id = "recipecache")
+public class RecipeJsonCacheEndpoint {
+
+    private final RecipeJsonCache recipeJsonCache;
+
+    public RecipeJsonCacheEndpoint(RecipeJsonCache recipeJsonCache) {
+        this.recipeJsonCache = recipeJsonCache;
+    }
+
+    /**
+     * Retrieves the counters of the serialized recipe cache.
+     *
+     * @return the hit, miss and eviction counts and the current cache size
+     */
+    @ReadOperation
+    public RecipeJsonCacheStats stats() {
+        return recipeJsonCache.stats();
+    }
+}
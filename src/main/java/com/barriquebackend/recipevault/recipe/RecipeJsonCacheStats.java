@@ -0,0 +1,14 @@
+package com.barriquebackend.recipevault.recipe;
+
+/**
+ * Snapshot of the counters of the {@link RecipeJsonCache}.
+ *
+ * @param hits      the number of lookups answered from the cache
+ * @param misses    the number of lookups that had to serialize the recipe
+ * @param evictions the number of entries dropped to stay within the byte budget
+ * @param entries   the number of cached recipes
+ * @param bytes     the total size of the cached JSON documents
+ * @param maxBytes  the byte budget of the cache
+ */
+public record RecipeJsonCacheStats(long hits, long misses, long evictions, int entries, long bytes, long maxBytes) {
+}
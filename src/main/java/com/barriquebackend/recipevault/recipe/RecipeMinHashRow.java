@@ -0,0 +1,7 @@
+package com.barriquebackend.recipevault.recipe;
+
+/**
+ * Projection row with a recipe's title and its encoded MinHash signature.
+ */
+public record RecipeMinHashRow(Long recipeId, String title, byte[] minHash) {
+}
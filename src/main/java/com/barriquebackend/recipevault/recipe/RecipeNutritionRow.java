@@ -0,0 +1,31 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.nutrition.Nutrient;
+import com.barriquebackend.recipevault.recipe.nutrition.NutritionFacts;
+
+/**
+ * Projection row with the servings and the computed nutrition of a recipe.
+ */
+public record RecipeNutritionRow(Long recipeId, int servings, Double coverage, Double kcal, Double protein, Double fat,
+                                 Double carbs, Double fiber, Double sugar, Double salt) {
+
+    /**
+     * Returns the computed nutrition of the whole recipe.
+     *
+     * @return the nutrition, or null if it has not been computed
+     */
+    public NutritionFacts computedNutrition() {
+        if (coverage == null) {
+            return null;
+        }
+        NutritionFacts facts = new NutritionFacts();
+        facts.set(Nutrient.KCAL, kcal);
+        facts.set(Nutrient.PROTEIN, protein);
+        facts.set(Nutrient.FAT, fat);
+        facts.set(Nutrient.CARBS, carbs);
+        facts.set(Nutrient.FIBER, fiber);
+        facts.set(Nutrient.SUGAR, sugar);
+        facts.set(Nutrient.SALT, salt);
+        return facts;
+    }
+}
@@ -0,0 +1,13 @@
+package com.barriquebackend.recipevault.recipe;
+
+import java.util.List;
+
+/**
+ * A single page of a keyset-paginated listing.
+ *
+ * @param items      the items on this page
+ * @param nextCursor the opaque cursor of the following page, or null if this is the last page
+ * @param <T>        the item type
+ */
+public record RecipePage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,109 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.json.MergePatch;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.recipevault.recipe.components.Tool;
+import com.barriquebackend.recipevault.recipe.components.tag.Tag;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies a JSON Merge Patch to a persistent recipe.
+ * <p>
+ * Scalar properties are set on the managed recipe, so only changed columns are written. A child
+ * collection is only loaded and reconciled if the patch contains it; as in any merge patch, the
+ * given array replaces the whole collection and {@code null} empties it.
+ * </p>
+ */
+final class RecipePatch {
+
+    static final String INGREDIENTS = "ingredients";
+    static final String NUTRITIONAL_VALUES = "nutritionalValues";
+    static final String STEPS = "steps";
+    static final String TOOLS = "tools";
+    static final String TAGS = "tags";
+
+    private static final Set<String> SCALARS = Set.of(
+            "title", "description", "imageUrl", "favorite", "time", "sourceUrl", "servings", "portionSize");
+    private static final Set<String> REQUIRED = Set.of("title", "servings", "portionSize");
+    private static final Set<String> PATCHABLE;
+
+    static {
+        Set<String> patchable = new HashSet<>(SCALARS);
+        patchable.addAll(List.of(INGREDIENTS, NUTRITIONAL_VALUES, STEPS, TOOLS, TAGS));
+        PATCHABLE = Set.copyOf(patchable);
+    }
+
+    private RecipePatch() {
+    }
+
+    /**
+     * Checks that a patch can be applied to a recipe.
+     *
+     * @param patch the merge patch document
+     * @return the patch as object node
+     * @throws IllegalArgumentException if the patch contains unknown properties or removes mandatory ones
+     */
+    static ObjectNode validate(JsonNode patch) {
+        ObjectNode object = MergePatch.requireObject(patch, PATCHABLE);
+        MergePatch.requireNonNull(object, REQUIRED);
+        return object;
+    }
+
+    /**
+     * Applies a validated patch to a recipe.
+     *
+     * @param objectMapper the mapper used to deserialize the patched values
+     * @param target       the persistent recipe to update
+     * @param patch        the merge patch document
+     * @throws IllegalArgumentException if a value cannot be converted to the property type
+     */
+    static void apply(ObjectMapper objectMapper, Recipe target, ObjectNode patch) {
+        MergePatch.applyScalars(objectMapper, target, patch, SCALARS);
+
+        if (patch.has(INGREDIENTS)) {
+            RecipeComponentReconciler.reconcileIngredients(target,
+                    components(objectMapper, patch.get(INGREDIENTS), new TypeReference<List<Ingredient>>() {
+                    }));
+        }
+        if (patch.has(NUTRITIONAL_VALUES)) {
+            RecipeComponentReconciler.reconcileNutritionalValues(target,
+                    components(objectMapper, patch.get(NUTRITIONAL_VALUES), new TypeReference<List<NutritionalValue>>() {
+                    }));
+        }
+        if (patch.has(STEPS)) {
+            RecipeComponentReconciler.reconcileSteps(target,
+                    components(objectMapper, patch.get(STEPS), new TypeReference<List<RecipeStep>>() {
+                    }));
+        }
+        if (patch.has(TOOLS)) {
+            RecipeComponentReconciler.reconcileTools(target,
+                    components(objectMapper, patch.get(TOOLS), new TypeReference<List<Tool>>() {
+                    }));
+        }
+        if (patch.has(TAGS)) {
+            RecipeComponentReconciler.reconcileTags(target,
+                    components(objectMapper, patch.get(TAGS), new TypeReference<List<Tag>>() {
+                    }));
+        }
+    }
+
+    private static <T> List<T> components(ObjectMapper objectMapper, JsonNode value, TypeReference<List<T>> type) {
+        if (value.isNull()) {
+            return List.of();
+        }
+        if (!value.isArray()) {
+            throw new IllegalArgumentException("Merge patch collections must be arrays");
+        }
+        // convertValue reports invalid values as IllegalArgumentException
+        return objectMapper.convertValue(value, type);
+    }
+}
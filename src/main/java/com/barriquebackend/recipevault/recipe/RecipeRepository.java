@@ -1,12 +1,236 @@
 package com.barriquebackend.recipevault.recipe;
 
+import com.barriquebackend.recipevault.recipe.nutrition.NutritionFacts;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findAllByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Reads only the columns of the list view; no child table is touched.
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeSummary("
+            + "r.recipeId, r.title, r.imageUrl, r.favorite, r.time, r.tagMask) "
+            + "from Recipe r where r.user.id = :userId order by r.recipeId")
+    List<RecipeSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeSummary("
+            + "r.recipeId, r.title, r.imageUrl, r.favorite, r.time, r.tagMask) "
+            + "from Recipe r where r.user.id = :userId and r.recipeId in :recipeIds order by r.recipeId")
+    List<RecipeSummary> findSummariesByUserIdAndRecipeIds(@Param("userId") Long userId,
+                                                          @Param("recipeIds") Collection<Long> recipeIds);
+
+    // Ownership-scoped lookups: a recipe of another user is indistinguishable from a missing one.
+    @Query("select r from Recipe r where r.recipeId = :recipeId and r.user.id = :userId")
+    Optional<Recipe> findByRecipeIdAndUserId(@Param("recipeId") Long recipeId, @Param("userId") Long userId);
+
+    // Version only, for conditional requests that must not load the recipe graph.
+    @Query("select r.version from Recipe r where r.recipeId = :recipeId and r.user.id = :userId")
+    Optional<Long> findVersionByRecipeIdAndUserId(@Param("recipeId") Long recipeId, @Param("userId") Long userId);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTagMaskRow(r.recipeId, r.tagMask) "
+            + "from Recipe r where r.user.id = :userId order by r.recipeId")
+    List<RecipeTagMaskRow> findTagMaskRowsByUserId(@Param("userId") Long userId);
+
+    // Backfill of tag masks for recipes written before the tag_mask column existed.
+    @Query("select distinct t.recipe.recipeId from Tag t "
+            + "where t.recipe.tagMask = 0 and t.recipe.recipeId > :afterId order by t.recipe.recipeId")
+    List<Long> findIdsWithUnsetTagMask(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTagRow(t.recipe.recipeId, t.tagType) "
+            + "from Tag t where t.recipe.recipeId in :recipeIds and t.tagType is not null")
+    List<RecipeTagRow> findTagRowsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("update Recipe r set r.tagMask = :tagMask, r.version = r.version + 1 where r.recipeId = :recipeId")
+    void updateTagMask(@Param("recipeId") Long recipeId, @Param("tagMask") long tagMask);
+
+    // Text projections used to build in-memory indexes without materializing entities.
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTextRow(r.recipeId, r.title) "
+            + "from Recipe r where r.user.id = :userId")
+    List<RecipeTextRow> findTitleRowsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTextRow(r.recipeId, r.description) "
+            + "from Recipe r where r.user.id = :userId and r.description is not null")
+    List<RecipeTextRow> findDescriptionRowsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTextRow(i.recipe.recipeId, i.title) "
+            + "from Ingredient i where i.recipe.user.id = :userId and i.title is not null")
+    List<RecipeTextRow> findIngredientTitleRowsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTextRow(s.recipe.recipeId, s.stepDescription) "
+            + "from RecipeStep s where s.recipe.user.id = :userId and s.stepDescription is not null")
+    List<RecipeTextRow> findStepDescriptionRowsByUserId(@Param("userId") Long userId);
+
+    // Stored MinHash signatures, used to build the duplicate index without reading ingredients or steps.
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeMinHashRow(r.recipeId, r.title, r.minHash) "
+            + "from Recipe r where r.user.id = :userId and r.minHash is not null")
+    List<RecipeMinHashRow> findMinHashRowsByUserId(@Param("userId") Long userId);
+
+    // Title, tag types and cooking time of all recipes, used with the ingredient titles to build the similarity index.
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeFeatureRow(r.recipeId, r.title, r.tagMask, r.timeMinutes) "
+            + "from Recipe r where r.user.id = :userId")
+    List<RecipeFeatureRow> findFeatureRowsByUserId(@Param("userId") Long userId);
+
+    // Ingredients of several owned recipes with their canonical name and unit, read in one query for shopping lists.
+    @Query("select new com.barriquebackend.recipevault.recipe.IngredientAmountRow("
+            + "r.recipeId, r.servings, i.title, n.name, i.amount, i.unit, i.measurementUnit) "
+            + "from Ingredient i join i.recipe r left join i.ingredientName n "
+            + "where r.user.id = :userId and r.recipeId in :recipeIds and i.title is not null "
+            + "order by i.ingredientId")
+    List<IngredientAmountRow> findIngredientAmountRows(@Param("userId") Long userId,
+                                                       @Param("recipeIds") Collection<Long> recipeIds);
+
+    // Keyset pages: seek past the last row of the previous page instead of skipping an offset.
+    @Query("select r from Recipe r where r.user.id = :userId and r.recipeId > :afterId order by r.recipeId")
+    List<Recipe> findPageByUserIdOrderById(@Param("userId") Long userId,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    // A row-value comparison is a single start key for idx_recipe_user_id_title, whereas the expanded
+    // "title > ? or (title = ? and id > ?)" is only a filter over the user's whole index range.
+    @Query("select r from Recipe r where r.user.id = :userId "
+            + "and (r.title, r.recipeId) > (:afterTitle, :afterId) "
+            + "order by r.title, r.recipeId")
+    List<Recipe> findPageByUserIdOrderByTitle(@Param("userId") Long userId,
+                                              @Param("afterTitle") String afterTitle,
+                                              @Param("afterId") Long afterId,
+                                              Limit limit);
+
+    // Seeks from the larger of the range's lower bound and the cursor, so the scan of
+    // idx_recipe_user_id_time_minutes starts at the first row of the page.
+    @Query("select r from Recipe r where r.user.id = :userId "
+            + "and r.timeMinutes >= :fromMinutes and r.timeMinutes <= :maxMinutes "
+            + "and (r.timeMinutes > :afterMinutes or r.recipeId > :afterId) "
+            + "order by r.timeMinutes, r.recipeId")
+    List<Recipe> findPageByUserIdOrderByTime(@Param("userId") Long userId,
+                                             @Param("fromMinutes") int fromMinutes,
+                                             @Param("maxMinutes") int maxMinutes,
+                                             @Param("afterMinutes") int afterMinutes,
+                                             @Param("afterId") Long afterId,
+                                             Limit limit);
+
+    // Backfill of parsed cooking times for recipes written before the time_minutes column existed.
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTextRow(r.recipeId, r.time) "
+            + "from Recipe r where r.timeMinutes is null and r.time is not null and r.recipeId > :afterId "
+            + "order by r.recipeId")
+    List<RecipeTextRow> findTimeRowsWithUnsetMinutes(@Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("update Recipe r set r.timeMinutes = :timeMinutes, r.version = r.version + 1 where r.recipeId = :recipeId")
+    void updateTimeMinutes(@Param("recipeId") Long recipeId, @Param("timeMinutes") int timeMinutes);
+
+    // Backfill of MinHash signatures for recipes written before the min_hash column existed.
+    @Query("select r.recipeId from Recipe r where r.minHash is null and r.recipeId > :afterId order by r.recipeId")
+    List<Long> findIdsWithUnsetMinHash(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTextRow(i.recipe.recipeId, i.title) "
+            + "from Ingredient i where i.recipe.recipeId in :recipeIds and i.title is not null")
+    List<RecipeTextRow> findIngredientTitleRowsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeTextRow(s.recipe.recipeId, s.stepDescription) "
+            + "from RecipeStep s where s.recipe.recipeId in :recipeIds and s.stepDescription is not null")
+    List<RecipeTextRow> findStepDescriptionRowsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("update Recipe r set r.minHash = :minHash, r.version = r.version + 1 where r.recipeId = :recipeId")
+    void updateMinHash(@Param("recipeId") Long recipeId, @Param("minHash") byte[] minHash);
+
+    // Backfill of computed and serving nutrition for recipes written before the nutrient table existed.
+    @Query("select r.recipeId from Recipe r where r.nutritionCoverage is null and r.recipeId > :afterId order by r.recipeId")
+    List<Long> findIdsWithUnsetNutrition(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.IngredientAmountRow("
+            + "r.recipeId, r.servings, i.title, n.name, i.amount, i.unit, i.measurementUnit) "
+            + "from Ingredient i join i.recipe r left join i.ingredientName n "
+            + "where r.recipeId in :recipeIds and i.title is not null")
+    List<IngredientAmountRow> findIngredientAmountRowsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.NutritionalValueRow(r.recipeId, v.title, v.amount) "
+            + "from NutritionalValue v join v.recipe r where r.recipeId in :recipeIds order by v.nutritionalValueId")
+    List<NutritionalValueRow> findNutritionalValueRowsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("update Recipe r set r.computedNutrition.kcal = :#{#nutrition.kcal}, "
+            + "r.computedNutrition.protein = :#{#nutrition.protein}, r.computedNutrition.fat = :#{#nutrition.fat}, "
+            + "r.computedNutrition.carbs = :#{#nutrition.carbs}, r.computedNutrition.fiber = :#{#nutrition.fiber}, "
+            + "r.computedNutrition.sugar = :#{#nutrition.sugar}, r.computedNutrition.salt = :#{#nutrition.salt}, "
+            + "r.nutritionCoverage = :coverage, "
+            + "r.servingNutrition.kcal = :#{#serving.kcal}, "
+            + "r.servingNutrition.protein = :#{#serving.protein}, r.servingNutrition.fat = :#{#serving.fat}, "
+            + "r.servingNutrition.carbs = :#{#serving.carbs}, r.servingNutrition.fiber = :#{#serving.fiber}, "
+            + "r.servingNutrition.sugar = :#{#serving.sugar}, r.servingNutrition.salt = :#{#serving.salt}, "
+            + "r.servingNutritionSet = true, r.version = r.version + 1 "
+            + "where r.recipeId = :recipeId")
+    void updateNutrition(@Param("recipeId") Long recipeId, @Param("nutrition") NutritionFacts nutrition,
+                         @Param("coverage") double coverage, @Param("serving") NutritionFacts serving);
+
+    // Backfill of serving nutrition for recipes written before the serving columns existed; it also runs
+    // without a nutrient table, as hand-entered values alone make up serving nutrition.
+    @Query("select r.recipeId from Recipe r where r.servingNutritionSet = false and r.recipeId > :afterId "
+            + "order by r.recipeId")
+    List<Long> findIdsWithUnsetServingNutrition(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.barriquebackend.recipevault.recipe.RecipeNutritionRow(r.recipeId, r.servings, "
+            + "r.nutritionCoverage, r.computedNutrition.kcal, r.computedNutrition.protein, r.computedNutrition.fat, "
+            + "r.computedNutrition.carbs, r.computedNutrition.fiber, r.computedNutrition.sugar, r.computedNutrition.salt) "
+            + "from Recipe r where r.recipeId in :recipeIds")
+    List<RecipeNutritionRow> findNutritionRowsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("update Recipe r set r.servingNutrition.kcal = :#{#serving.kcal}, "
+            + "r.servingNutrition.protein = :#{#serving.protein}, r.servingNutrition.fat = :#{#serving.fat}, "
+            + "r.servingNutrition.carbs = :#{#serving.carbs}, r.servingNutrition.fiber = :#{#serving.fiber}, "
+            + "r.servingNutrition.sugar = :#{#serving.sugar}, r.servingNutrition.salt = :#{#serving.salt}, "
+            + "r.servingNutritionSet = true, r.version = r.version + 1 "
+            + "where r.recipeId = :recipeId")
+    void updateServingNutrition(@Param("recipeId") Long recipeId, @Param("serving") NutritionFacts serving);
+
+    // Export: ids are read from an open cursor in fetch-size chunks, full recipes are loaded per chunk.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select r.recipeId from Recipe r where r.user.id = :userId order by r.recipeId")
+    Stream<Long> streamIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select r from Recipe r where r.recipeId in :recipeIds order by r.recipeId")
+    List<Recipe> findAllByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    // Bulk deletion: ownership is checked on ids only, children are removed with set-based deletes.
+    @Query("select r.recipeId from Recipe r where r.user.id = :userId and r.recipeId in :recipeIds")
+    List<Long> findIdsByUserIdAndRecipeIds(@Param("userId") Long userId, @Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("delete from Ingredient i where i.recipe.recipeId in :recipeIds")
+    int deleteIngredientsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("delete from NutritionalValue n where n.recipe.recipeId in :recipeIds")
+    int deleteNutritionalValuesByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("delete from RecipeStep s where s.recipe.recipeId in :recipeIds")
+    int deleteStepsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("delete from Tool t where t.recipe.recipeId in :recipeIds")
+    int deleteToolsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("delete from Tag t where t.recipe.recipeId in :recipeIds")
+    int deleteTagsByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("delete from Recipe r where r.recipeId in :recipeIds")
+    int deleteByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+}
@@ -1,10 +1,29 @@
 package com.barriquebackend.recipevault.recipe;
 
+import com.barriquebackend.recipevault.recipe.components.dictionary.IngredientDictionary;
+import com.barriquebackend.recipevault.recipe.components.tag.TagMask;
+import com.barriquebackend.recipevault.recipe.duplicate.MinHash;
+import com.barriquebackend.recipevault.recipe.duplicate.RecipeDuplicateService;
+import com.barriquebackend.recipevault.recipe.nutrition.NutritionCalculator;
+import com.barriquebackend.recipevault.recipe.revision.RecipeRevisionService;
+import com.barriquebackend.recipevault.recipe.time.CookingTimes;
 import com.barriquebackend.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class for handling business logic related to recipes.
@@ -14,15 +33,49 @@ import java.util.Optional;
 @Service
 public class RecipeService {
 
+    /**
+     * Upper bound for the page size of paginated recipe listings.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Upper bound for the number of recipes deleted by one bulk delete.
+     */
+    public static final int MAX_BULK_DELETE = 1000;
+
     private final RecipeRepository recipeRepository;
+    private final List<RecipeChangeListener> changeListeners;
+    private final IngredientDictionary ingredientDictionary;
+    private final RecipeRevisionService recipeRevisionService;
+    private final RecipeDuplicateService recipeDuplicateService;
+    private final NutritionCalculator nutritionCalculator;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructs a RecipeService with the specified RecipeRepository.
+     * Constructs a RecipeService with the specified RecipeRepository and change listeners.
      *
-     * @param recipeRepository the repository used to perform CRUD operations on recipes
+     * @param recipeRepository       the repository used to perform CRUD operations on recipes
+     * @param changeListeners        the components notified about written recipes
+     * @param ingredientDictionary   the dictionary that canonicalizes ingredient names and units
+     * @param recipeRevisionService  the service recording the revision history of written recipes
+     * @param recipeDuplicateService the service looking up near-duplicates of created recipes
+     * @param nutritionCalculator    the calculator computing the nutrition of written ingredients
+     * @param objectMapper           the mapper used to apply merge patches
      */
-    public RecipeService(RecipeRepository recipeRepository) {
+    public RecipeService(RecipeRepository recipeRepository,
+                         List<RecipeChangeListener> changeListeners,
+                         IngredientDictionary ingredientDictionary,
+                         RecipeRevisionService recipeRevisionService,
+                         RecipeDuplicateService recipeDuplicateService,
+                         NutritionCalculator nutritionCalculator,
+                         ObjectMapper objectMapper) {
         this.recipeRepository = recipeRepository;
+        this.changeListeners = changeListeners;
+        this.ingredientDictionary = ingredientDictionary;
+        this.recipeRevisionService = recipeRevisionService;
+        this.recipeDuplicateService = recipeDuplicateService;
+        this.nutritionCalculator = nutritionCalculator;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -36,106 +89,385 @@ public class RecipeService {
     }
 
     /**
-     * Retrieves a recipe by its ID.
+     * Retrieves lightweight summaries of all recipes of the specified user.
      *
-     * @param id the ID of the recipe to retrieve
-     * @return the recipe with the specified ID
-     * @throws RuntimeException if no recipe is found with the given ID
+     * @param userId the ID of the user whose recipes are to be summarized
+     * @return the recipe summaries ordered by recipe ID
      */
-    public Recipe getRecipeById(Long id) {
-        Optional<Recipe> recipe = recipeRepository.findById(id);
-        if (recipe.isPresent()) {
-            return recipe.get();
-        } else {
-            throw new RuntimeException("Recipe not found for ID: " + id);
+    public List<RecipeSummary> getRecipeSummariesByUserId(Long userId) {
+        return recipeRepository.findSummariesByUserId(userId);
+    }
+
+    /**
+     * Retrieves one page of the specified user's recipes using keyset pagination.
+     * <p>
+     * The page starts right after the position described by the cursor, so the cost of a page
+     * does not depend on how deep into the listing it is. Pages sorted by time only contain
+     * recipes whose cooking time could be parsed.
+     * </p>
+     *
+     * @param userId the ID of the user whose recipes are to be retrieved
+     * @param cursor the position after which the page starts
+     * @param size   the requested page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return the page of recipes together with the cursor of the next page
+     */
+    public RecipePage<Recipe> getRecipePage(Long userId, RecipeCursor cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to find out whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<Recipe> recipes = switch (cursor.sort()) {
+            case ID -> recipeRepository.findPageByUserIdOrderById(userId, cursor.recipeId(), limit);
+            case TITLE -> recipeRepository.findPageByUserIdOrderByTitle(userId, cursor.title(), cursor.recipeId(), limit);
+            case TIME -> recipeRepository.findPageByUserIdOrderByTime(userId, cursor.timeMinutes(),
+                    CookingTimes.MAX_MINUTES, cursor.timeMinutes(), cursor.recipeId(), limit);
+        };
+        return toPage(recipes, cursor.sort(), pageSize);
+    }
+
+    /**
+     * Retrieves one page of the specified user's recipes with a cooking time in the given range,
+     * ordered by cooking time.
+     * <p>
+     * The range and the cursor are both bounds on the indexed time_minutes column, so the page is
+     * read with a single index range scan.
+     * </p>
+     *
+     * @param userId     the ID of the user whose recipes are to be retrieved
+     * @param cursor     the position after which the page starts, of sort order {@link RecipeCursor.Sort#TIME}
+     * @param minMinutes the minimum cooking time in minutes, inclusive
+     * @param maxMinutes the maximum cooking time in minutes, inclusive
+     * @param size       the requested page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return the page of recipes together with the cursor of the next page
+     */
+    public RecipePage<Recipe> getRecipePageByTime(Long userId, RecipeCursor cursor, int minMinutes, int maxMinutes,
+                                                  int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int fromMinutes = Math.max(minMinutes, cursor.timeMinutes());
+        List<Recipe> recipes = recipeRepository.findPageByUserIdOrderByTime(userId, fromMinutes, maxMinutes,
+                cursor.timeMinutes(), cursor.recipeId(), Limit.of(pageSize + 1));
+        return toPage(recipes, RecipeCursor.Sort.TIME, pageSize);
+    }
+
+    private static RecipePage<Recipe> toPage(List<Recipe> recipes, RecipeCursor.Sort sort, int pageSize) {
+        if (recipes.size() <= pageSize) {
+            return new RecipePage<>(recipes, null);
         }
+        List<Recipe> page = recipes.subList(0, pageSize);
+        return new RecipePage<>(page, RecipeCursor.after(sort, page.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Retrieves a recipe of the specified user.
+     * <p>
+     * Ownership is part of the query, so a recipe of another user is reported the same way as
+     * a recipe that does not exist.
+     * </p>
+     *
+     * @param id     the ID of the recipe to retrieve
+     * @param userId the ID of the user who must own the recipe
+     * @return an Optional containing the recipe, or empty if the user has no recipe with this ID
+     */
+    public Optional<Recipe> getRecipeForUser(Long id, Long userId) {
+        return recipeRepository.findByRecipeIdAndUserId(id, userId);
+    }
+
+    /**
+     * Retrieves the current version of a recipe of the specified user without loading the recipe itself.
+     *
+     * @param id     the ID of the recipe
+     * @param userId the ID of the user who must own the recipe
+     * @return an Optional containing the version, or empty if the user has no recipe with this ID
+     */
+    public Optional<Long> getRecipeVersion(Long id, Long userId) {
+        return recipeRepository.findVersionByRecipeIdAndUserId(id, userId);
     }
 
     /**
      * Creates a new recipe for the specified user.
      * <p>
      * This method sets the recipe's owner and links all its components (ingredients,
-     * nutritional values, steps, tools, and tags) to the recipe before saving.
+     * nutritional values, steps, tools, and tags) to the recipe before saving. IDs sent by the
+     * client are discarded, so a create can never overwrite an existing recipe. Ingredients are
+     * linked to their canonical name and unit (see {@link IngredientDictionary}), the recipe's
+     * nutrition is computed from them (see {@link NutritionCalculator}), and the recipe
+     * is recorded as the first revision of its history. Existing recipes of the user with similar
+     * ingredients and steps are returned in {@link Recipe#getPossibleDuplicateIds()}; the lookup
+     * uses the user's MinHash index (see {@link RecipeDuplicateService}) and does not prevent the create.
      * </p>
      *
      * @param recipe the recipe object to be created
      * @param user   the user who will own the recipe
      * @return the created recipe
      */
+    @Transactional
     public Recipe createRecipe(Recipe recipe, User user) {
+        recipe.setRecipeId(null);
         recipe.setUser(user);
 
         // Link each recipe component to the recipe
-        recipe.getIngredients().forEach(ingredient -> ingredient.setRecipe(recipe));
-        recipe.getNutritionalValues().forEach(nutritionalValue -> nutritionalValue.setRecipe(recipe));
-        recipe.getSteps().forEach(step -> step.setRecipe(recipe));
-        recipe.getTools().forEach(tool -> tool.setRecipe(recipe));
-        recipe.getTags().forEach(tag -> tag.setRecipe(recipe));
+        recipe.getIngredients().forEach(ingredient -> {
+            ingredient.setIngredientId(null);
+            ingredient.setRecipe(recipe);
+        });
+        recipe.getNutritionalValues().forEach(nutritionalValue -> {
+            nutritionalValue.setNutritionalValueId(null);
+            nutritionalValue.setRecipe(recipe);
+        });
+        recipe.getSteps().forEach(step -> {
+            step.setStepId(null);
+            step.setRecipe(recipe);
+        });
+        recipe.getTools().forEach(tool -> {
+            tool.setToolId(null);
+            tool.setRecipe(recipe);
+        });
+        recipe.getTags().forEach(tag -> {
+            tag.setTagId(null);
+            tag.setRecipe(recipe);
+        });
+        recipe.setTagMask(TagMask.of(recipe.getTags()));
+        recipe.setTimeMinutes(CookingTimes.parseMinutes(recipe.getTime()).orElse(null));
+        ingredientDictionary.canonicalize(recipe.getIngredients());
+        nutritionCalculator.apply(recipe);
+        recipe.setMinHash(MinHash.of(recipe));
+        recipe.setRevision(1);
+        // Looked up before the save, so the recipe cannot find itself
+        List<Long> possibleDuplicateIds = recipeDuplicateService.findPossibleDuplicates(user.getId(), recipe.getMinHash());
 
-        return recipeRepository.save(recipe);
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        recipeRevisionService.recordCreated(savedRecipe);
+        // Set after the first revision was recorded, so the warning is not part of the history
+        savedRecipe.setPossibleDuplicateIds(possibleDuplicateIds);
+        notifySaved(savedRecipe);
+        return savedRecipe;
     }
 
     /**
      * Updates an existing recipe for the specified user.
-     * <p>
-     * The method first verifies that the recipe exists and belongs to the user;
-     * then it updates the recipe's details and its components.
-     * </p>
      *
      * @param id            the ID of the recipe to update
      * @param recipeDetails the updated recipe data
      * @param user          the user attempting to update the recipe
-     * @return the updated recipe
-     * @throws RuntimeException if the recipe does not belong to the user or is not found
+     * @return an Optional containing the updated recipe, or empty if the user has no recipe with this ID
+     * @see #updateRecipe(Long, Recipe, User, Collection)
      */
-    public Recipe updateRecipe(Long id, Recipe recipeDetails, User user) {
-        Recipe recipe = getRecipeById(id);
+    @Transactional
+    public Optional<Recipe> updateRecipe(Long id, Recipe recipeDetails, User user) {
+        return updateRecipe(id, recipeDetails, user, null);
+    }
 
-        // Verify ownership
-        if (!recipe.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("You are not authorized to update this recipe.");
+    /**
+     * Updates an existing recipe for the specified user if it still has one of the expected versions.
+     * <p>
+     * The recipe is loaded with an ownership-filtered query and its version is checked against the
+     * expected versions; then it updates the recipe's details and reconciles its components with the
+     * incoming ones, so that only changed components are written (see {@link RecipeComponentReconciler}).
+     * A change is recorded as a new revision in the recipe's history, which also increments the
+     * recipe version when only components changed.
+     * </p>
+     *
+     * @param id               the ID of the recipe to update
+     * @param recipeDetails    the updated recipe data
+     * @param user             the user attempting to update the recipe
+     * @param expectedVersions the versions the caller based its changes on, or null to update unconditionally
+     * @return an Optional containing the updated recipe, or empty if the user has no recipe with this ID
+     * @throws RecipeVersionConflictException if the recipe has none of the expected versions
+     */
+    @Transactional
+    public Optional<Recipe> updateRecipe(Long id, Recipe recipeDetails, User user, Collection<Long> expectedVersions) {
+        Optional<Recipe> existing = findForUpdate(id, user, expectedVersions);
+        if (existing.isEmpty()) {
+            return Optional.empty();
         }
+        Recipe recipe = existing.get();
+        ObjectNode before = recipeRevisionService.snapshot(recipe);
 
         recipe.setTitle(recipeDetails.getTitle());
         recipe.setDescription(recipeDetails.getDescription());
         recipe.setImageUrl(recipeDetails.getImageUrl());
         recipe.setFavorite(recipeDetails.getFavorite());
         recipe.setTime(recipeDetails.getTime());
+        recipe.setTimeMinutes(CookingTimes.parseMinutes(recipeDetails.getTime()).orElse(null));
         recipe.setSourceUrl(recipeDetails.getSourceUrl());
         recipe.setServings(recipeDetails.getServings());
         recipe.setPortionSize(recipeDetails.getPortionSize());
 
-        // Clear existing components and re-add updated ones
-        recipe.getIngredients().clear();
-        recipe.getNutritionalValues().clear();
-        recipe.getSteps().clear();
-        recipe.getTools().clear();
-        recipe.getTags().clear();
+        // Update matching components in place and only insert/delete the true delta
+        RecipeComponentReconciler.reconcile(recipe, recipeDetails);
+        recipe.setTagMask(TagMask.of(recipe.getTags()));
+        ingredientDictionary.canonicalize(recipe.getIngredients());
+        nutritionCalculator.apply(recipe);
+        recipe.setMinHash(MinHash.of(recipe));
+        // Components are owned by the child side; the new revision number also bumps the recipe version
+        recipeRevisionService.recordChange(recipe, before, null);
 
-        recipeDetails.getIngredients().forEach(recipe::addIngredient);
-        recipeDetails.getNutritionalValues().forEach(recipe::addNutritionalValue);
-        recipeDetails.getSteps().forEach(recipe::addStep);
-        recipeDetails.getTools().forEach(recipe::addTool);
-        recipeDetails.getTags().forEach(recipe::addTag);
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        notifySaved(savedRecipe);
+        return Optional.of(savedRecipe);
+    }
 
-        return recipeRepository.save(recipe);
+    /**
+     * Applies a JSON Merge Patch to a recipe of the specified user.
+     * <p>
+     * Only the properties present in the patch are changed. Scalar changes such as toggling the
+     * favorite flag load and update the recipe row alone; a child collection is only loaded and
+     * reconciled if the patch replaces it. The version check is the same as for
+     * {@link #updateRecipe(Long, Recipe, User, Collection)}, and so is the recorded revision.
+     * </p>
+     *
+     * @param id               the ID of the recipe to patch
+     * @param patch            the merge patch document
+     * @param user             the user attempting to patch the recipe
+     * @param expectedVersions the versions the caller based its changes on, or null to patch unconditionally
+     * @return an Optional containing the patched recipe, or empty if the user has no recipe with this ID
+     * @throws IllegalArgumentException       if the patch is malformed or contains properties that cannot be patched
+     * @throws RecipeVersionConflictException if the recipe has none of the expected versions
+     */
+    @Transactional
+    public Optional<Recipe> patchRecipe(Long id, JsonNode patch, User user, Collection<Long> expectedVersions) {
+        ObjectNode validPatch = RecipePatch.validate(patch);
+        Optional<Recipe> existing = findForUpdate(id, user, expectedVersions);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        Recipe recipe = existing.get();
+        Set<String> properties = new HashSet<>();
+        validPatch.fieldNames().forEachRemaining(properties::add);
+        ObjectNode before = recipeRevisionService.snapshot(recipe, properties);
+
+        RecipePatch.apply(objectMapper, recipe, validPatch);
+        if (validPatch.has("time")) {
+            recipe.setTimeMinutes(CookingTimes.parseMinutes(recipe.getTime()).orElse(null));
+        }
+        if (validPatch.has(RecipePatch.TAGS)) {
+            recipe.setTagMask(TagMask.of(recipe.getTags()));
+        }
+        if (validPatch.has(RecipePatch.INGREDIENTS)) {
+            ingredientDictionary.canonicalize(recipe.getIngredients());
+            nutritionCalculator.apply(recipe);
+        } else if (validPatch.has(RecipePatch.NUTRITIONAL_VALUES) || validPatch.has("servings")) {
+            // The serving nutrition depends on both; other patches leave the nutritional values unloaded
+            nutritionCalculator.applyServingNutrition(recipe);
+        }
+        // Only a patch of the shingled collections loads them to recompute the signature
+        if (validPatch.has(RecipePatch.INGREDIENTS) || validPatch.has(RecipePatch.STEPS)) {
+            recipe.setMinHash(MinHash.of(recipe));
+        }
+        recipeRevisionService.recordChange(recipe, before, properties);
+
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        notifyPatched(savedRecipe, properties);
+        return Optional.of(savedRecipe);
     }
 
     /**
      * Deletes a recipe for the specified user.
+     * <p>
+     * The recipe is removed with set-based deletes without loading it (see {@link #deleteRecipes}).
+     * </p>
      *
      * @param id   the ID of the recipe to delete
      * @param user the user attempting to delete the recipe
-     * @throws RuntimeException if the recipe does not belong to the user or is not found
+     * @return true if the recipe was deleted, false if the user has no recipe with this ID
      */
-    public void deleteRecipe(Long id, User user) {
-        Recipe recipe = getRecipeById(id);
+    @Transactional
+    public boolean deleteRecipe(Long id, User user) {
+        return !deleteRecipes(List.of(id), user).deleted().isEmpty();
+    }
 
-        // Verify ownership
-        if (!recipe.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("You are not authorized to delete this recipe.");
+    /**
+     * Deletes several recipes of the specified user at once.
+     * <p>
+     * Ownership of all recipes is verified with a single ID-only query. If any recipe does not
+     * exist or belongs to another user, nothing is deleted. Otherwise the components, recipes and
+     * their revision history are removed with one set-based DELETE per table, without loading any entity.
+     * </p>
+     *
+     * @param ids  the IDs of the recipes to delete
+     * @param user the user attempting to delete the recipes
+     * @return the deleted IDs, or the IDs that were not found for the user if nothing was deleted
+     */
+    @Transactional
+    public RecipeBulkDeleteResult deleteRecipes(Collection<Long> ids, User user) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            return new RecipeBulkDeleteResult(List.of(), List.of());
+        }
+
+        Set<Long> owned = new HashSet<>(recipeRepository.findIdsByUserIdAndRecipeIds(user.getId(), requested));
+        if (owned.size() < requested.size()) {
+            List<Long> notFound = new ArrayList<>(requested);
+            notFound.removeAll(owned);
+            return new RecipeBulkDeleteResult(List.of(), notFound);
         }
 
-        recipeRepository.delete(recipe);
+        recipeRepository.deleteIngredientsByRecipeIds(requested);
+        recipeRepository.deleteNutritionalValuesByRecipeIds(requested);
+        recipeRepository.deleteStepsByRecipeIds(requested);
+        recipeRepository.deleteToolsByRecipeIds(requested);
+        recipeRepository.deleteTagsByRecipeIds(requested);
+        recipeRepository.deleteByRecipeIds(requested);
+        recipeRevisionService.deleteHistory(requested);
+
+        List<Long> deleted = List.copyOf(requested);
+        afterCommit(() -> deleted.forEach(id ->
+                changeListeners.forEach(listener -> listener.recipeDeleted(user.getId(), id))));
+        return new RecipeBulkDeleteResult(deleted, List.of());
+    }
+
+    /**
+     * Loads a recipe of the specified user for a write and checks its version.
+     *
+     * @param id               the ID of the recipe
+     * @param user             the user who must own the recipe
+     * @param expectedVersions the versions the caller based its changes on, or null to skip the check
+     * @return an Optional containing the recipe, or empty if the user has no recipe with this ID
+     * @throws RecipeVersionConflictException if the recipe has none of the expected versions
+     */
+    private Optional<Recipe> findForUpdate(Long id, User user, Collection<Long> expectedVersions) {
+        Optional<Recipe> recipe = recipeRepository.findByRecipeIdAndUserId(id, user.getId());
+        // A concurrent writer that commits after this check still fails the version check of the UPDATE
+        if (recipe.isPresent() && expectedVersions != null && !expectedVersions.contains(recipe.get().getVersion())) {
+            throw new RecipeVersionConflictException(id, recipe.get().getVersion());
+        }
+        return recipe;
+    }
+
+    /**
+     * Notifies all change listeners that a recipe was saved.
+     *
+     * @param recipe the saved recipe
+     */
+    private void notifySaved(Recipe recipe) {
+        afterCommit(() -> changeListeners.forEach(listener -> listener.recipeSaved(recipe)));
+    }
+
+    /**
+     * Notifies all change listeners that some properties of a recipe were patched.
+     *
+     * @param recipe     the patched recipe
+     * @param properties the names of the patched properties
+     */
+    private void notifyPatched(Recipe recipe, Set<String> properties) {
+        afterCommit(() -> changeListeners.forEach(listener -> listener.recipePatched(recipe, properties)));
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, or right away if there is none.
+     *
+     * @param action the action to run
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.components.tag.TagMask;
+import com.barriquebackend.recipevault.recipe.components.tag.TagType;
+
+import java.util.List;
+
+/**
+ * Lightweight view of a recipe for list and grid views.
+ * <p>
+ * Unlike {@link Recipe}, a summary carries no child collections. The tag types are decoded from
+ * the recipe's tag mask, so a summary is read from the recipe table alone and a list of
+ * summaries costs a single query that touches only the columns shown in a list.
+ * </p>
+ *
+ * @param recipeId the ID of the recipe
+ * @param title    the title of the recipe
+ * @param imageUrl the URL of the recipe image
+ * @param favorite whether the recipe is marked as favorite
+ * @param time     the cooking time as entered by the user
+ * @param tags     the tag types assigned to the recipe
+ */
+public record RecipeSummary(Long recipeId,
+                            String title,
+                            String imageUrl,
+                            Boolean favorite,
+                            String time,
+                            List<TagType> tags) {
+
+    /**
+     * Constructs a summary from projected recipe columns, used by JPQL constructor expressions.
+     *
+     * @param recipeId the ID of the recipe
+     * @param title    the title of the recipe
+     * @param imageUrl the URL of the recipe image
+     * @param favorite whether the recipe is marked as favorite
+     * @param time     the cooking time as entered by the user
+     * @param tagMask  the tag mask of the recipe
+     */
+    public RecipeSummary(Long recipeId, String title, String imageUrl, Boolean favorite, String time, long tagMask) {
+        this(recipeId, title, imageUrl, favorite, time, TagMask.toTagTypes(tagMask));
+    }
+}
@@ -0,0 +1,7 @@
+package com.barriquebackend.recipevault.recipe;
+
+/**
+ * Projection row pairing a recipe ID with the recipe's tag mask.
+ */
+public record RecipeTagMaskRow(Long recipeId, long tagMask) {
+}
@@ -0,0 +1,9 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.components.tag.TagType;
+
+/**
+ * Projection row pairing a recipe ID with one of the recipe's tag types.
+ */
+public record RecipeTagRow(Long recipeId, TagType tagType) {
+}
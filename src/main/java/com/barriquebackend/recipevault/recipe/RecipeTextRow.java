@@ -0,0 +1,8 @@
+package com.barriquebackend.recipevault.recipe;
+
+/**
+ * Projection row pairing a recipe ID with one piece of text belonging to the recipe,
+ * e.g. its title, an ingredient title or a step description.
+ */
+public record RecipeTextRow(Long recipeId, String text) {
+}
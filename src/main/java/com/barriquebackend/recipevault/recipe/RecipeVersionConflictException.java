@@ -0,0 +1,18 @@
+package com.barriquebackend.recipevault.recipe;
+
+/**
+ * Thrown when a conditional recipe update expects a version other than the current one.
+ */
+public class RecipeVersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public RecipeVersionConflictException(Long recipeId, long currentVersion) {
+        super("Recipe " + recipeId + " has been modified; current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
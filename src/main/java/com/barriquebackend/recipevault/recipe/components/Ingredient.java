@@ -1,20 +1,39 @@
 package com.barriquebackend.recipevault.recipe.components;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.barriquebackend.json.FieldSelection;
 import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.components.dictionary.IngredientName;
+import com.barriquebackend.recipevault.recipe.components.dictionary.MeasurementUnit;
 import jakarta.persistence.*;
 
 @Entity
+@JsonFilter(FieldSelection.FILTER_ID)
+@Table(indexes = @Index(name = "idx_ingredient_ingredient_name_id", columnList = "ingredient_name_id"))
 public class Ingredient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_seq")
+    @SequenceGenerator(name = "ingredient_seq", sequenceName = "ingredient_seq", allocationSize = 50)
     private Long ingredientId;
 
     private String title;
     private Double amount;
     private String unit;
 
+    // Canonical dictionary entries for title and unit, set by IngredientDictionary on every write
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ingredient_name_id")
+    @JsonIgnore
+    private IngredientName ingredientName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    @JsonIgnore
+    private MeasurementUnit measurementUnit;
+
     @ManyToOne
     @JoinColumn(name = "recipe_id")
     @JsonBackReference
@@ -52,6 +71,22 @@ public class Ingredient {
         this.unit = unit;
     }
 
+    public IngredientName getIngredientName() {
+        return ingredientName;
+    }
+
+    public void setIngredientName(IngredientName ingredientName) {
+        this.ingredientName = ingredientName;
+    }
+
+    public MeasurementUnit getMeasurementUnit() {
+        return measurementUnit;
+    }
+
+    public void setMeasurementUnit(MeasurementUnit measurementUnit) {
+        this.measurementUnit = measurementUnit;
+    }
+
     public Recipe getRecipe() {
         return recipe;
     }
@@ -0,0 +1,63 @@
+package com.barriquebackend.recipevault.recipe.components;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes free-text ingredient titles so that spelling variants map to the same key.
+ * <p>
+ * Normalization lower-cases the title, strips diacritics, replaces punctuation with spaces,
+ * collapses whitespace and reduces a trailing English plural to its singular, so that
+ * "Tomatoes", "tomato" and " Tomato, " all become "tomato".
+ * </p>
+ */
+public final class IngredientNames {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private IngredientNames() {
+    }
+
+    /**
+     * Normalizes an ingredient title.
+     *
+     * @param title the title as entered by the user, may be null
+     * @return the normalized name, or an empty string if the title has no letters or digits
+     */
+    public static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String folded = title.toLowerCase(Locale.ROOT).replace("\u00df", "ss");
+        folded = DIACRITICS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        String name = SEPARATORS.matcher(folded).replaceAll(" ").trim();
+        return singularize(name);
+    }
+
+    /**
+     * Returns the last word of a normalized name, which usually is the head noun
+     * ("cherry tomato" -> "tomato").
+     *
+     * @param name the normalized name
+     * @return the last word of the name
+     */
+    public static String headWord(String name) {
+        return name.substring(name.lastIndexOf(' ') + 1);
+    }
+
+    private static String singularize(String name) {
+        int length = name.length();
+        if (length > 4 && name.endsWith("ies")) {
+            return name.substring(0, length - 3) + "y";
+        }
+        if (length > 4 && name.endsWith("oes")) {
+            return name.substring(0, length - 2);
+        }
+        if (length > 3 && name.endsWith("s") && !name.endsWith("ss") && !name.endsWith("us")) {
+            return name.substring(0, length - 1);
+        }
+        return name;
+    }
+}
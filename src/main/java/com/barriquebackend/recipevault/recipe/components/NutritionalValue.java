@@ -1,14 +1,18 @@
 package com.barriquebackend.recipevault.recipe.components;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.barriquebackend.json.FieldSelection;
 import com.barriquebackend.recipevault.recipe.Recipe;
 import jakarta.persistence.*;
 
 @Entity
+@JsonFilter(FieldSelection.FILTER_ID)
 public class NutritionalValue {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nutritional_value_seq")
+    @SequenceGenerator(name = "nutritional_value_seq", sequenceName = "nutritional_value_seq", allocationSize = 50)
     private Long nutritionalValueId;
 
     private String title;
@@ -1,14 +1,18 @@
 package com.barriquebackend.recipevault.recipe.components;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.barriquebackend.json.FieldSelection;
 import com.barriquebackend.recipevault.recipe.Recipe;
 import jakarta.persistence.*;
 
 @Entity
+@JsonFilter(FieldSelection.FILTER_ID)
 public class RecipeStep {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_step_seq")
+    @SequenceGenerator(name = "recipe_step_seq", sequenceName = "recipe_step_seq", allocationSize = 50)
     private Long stepId;
 
     private String stepDescription;
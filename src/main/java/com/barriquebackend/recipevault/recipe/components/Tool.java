@@ -1,14 +1,18 @@
 package com.barriquebackend.recipevault.recipe.components;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.barriquebackend.json.FieldSelection;
 import com.barriquebackend.recipevault.recipe.Recipe;
 import jakarta.persistence.*;
 
 @Entity
+@JsonFilter(FieldSelection.FILTER_ID)
 public class Tool {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tool_seq")
+    @SequenceGenerator(name = "tool_seq", sequenceName = "tool_seq", allocationSize = 50)
     private Long toolId;
 
     private String title;
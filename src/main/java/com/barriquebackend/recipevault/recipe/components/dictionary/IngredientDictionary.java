@@ -0,0 +1,180 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves free-text ingredient titles and units to their canonical dictionary entries.
+ * <p>
+ * Names are normalized with {@link IngredientNames#normalize(String)} and looked up in an
+ * in-memory LRU map of name IDs first, so hot names cost no query at all. The names missing from
+ * the map are read with a single query; names that are not in the dictionary yet are inserted on
+ * the caller's connection behind a savepoint, so resolving never needs a second pooled connection.
+ * If a concurrent transaction inserted the same name first, only the savepoint is rolled back and
+ * the other transaction's row is used. New entries belong to the caller's transaction, so IDs are
+ * only cached once it has committed. Units map onto the fixed {@link MeasurementUnit} set.
+ * </p>
+ */
+@Service
+public class IngredientDictionary {
+
+    private final IngredientNameRepository ingredientNameRepository;
+    private final EntityManager entityManager;
+
+    // Normalized name -> dictionary ID; access-ordered, so the least recently used name is
+    // evicted first; guarded by itself
+    private final LinkedHashMap<String, Long> nameIds;
+
+    /**
+     * Constructs an IngredientDictionary.
+     *
+     * @param ingredientNameRepository the repository of dictionary entries
+     * @param entityManager            the entity manager used to insert entries and create references
+     * @param maxCachedNames           the maximum number of name IDs kept in memory
+     */
+    public IngredientDictionary(IngredientNameRepository ingredientNameRepository,
+                                EntityManager entityManager,
+                                @Value("${recipevault.ingredient-dictionary.max-cached-names:10000}") int maxCachedNames) {
+        this.ingredientNameRepository = ingredientNameRepository;
+        this.entityManager = entityManager;
+        this.nameIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxCachedNames;
+            }
+        };
+    }
+
+    /**
+     * Sets the dictionary references of the given ingredients from their titles and units.
+     * Must be called inside a transaction.
+     *
+     * @param ingredients the ingredients to canonicalize
+     */
+    public void canonicalize(Collection<Ingredient> ingredients) {
+        List<String> names = new ArrayList<>(ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            names.add(IngredientNames.normalize(ingredient.getTitle()));
+        }
+        Map<String, Long> ids = resolveIds(names);
+
+        int i = 0;
+        for (Ingredient ingredient : ingredients) {
+            ingredient.setIngredientName(reference(ids.get(names.get(i++))));
+            ingredient.setMeasurementUnit(MeasurementUnit.parse(ingredient.getUnit()).orElse(null));
+        }
+    }
+
+    /**
+     * Returns the dictionary entry of an ingredient title, creating it if necessary.
+     * Must be called inside a transaction.
+     *
+     * @param title the title as entered by the user, may be null
+     * @return a reference to the dictionary entry, or null if the title has no letters or digits
+     */
+    public IngredientName resolveName(String title) {
+        String name = IngredientNames.normalize(title);
+        return reference(resolveIds(List.of(name)).get(name));
+    }
+
+    private IngredientName reference(Long id) {
+        return id == null ? null : entityManager.getReference(IngredientName.class, id);
+    }
+
+    private Map<String, Long> resolveIds(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        synchronized (nameIds) {
+            for (String name : names) {
+                Long id = name.isEmpty() ? null : nameIds.get(name);
+                if (id != null) {
+                    ids.put(name, id);
+                } else if (!name.isEmpty()) {
+                    missing.add(name);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        Map<String, Long> found = new HashMap<>();
+        for (IngredientName entry : ingredientNameRepository.findAllByNameIn(missing)) {
+            found.put(entry.getName(), entry.getId());
+        }
+        for (String name : missing) {
+            if (!found.containsKey(name)) {
+                found.put(name, insert(name));
+            }
+        }
+
+        // Entries inserted by this transaction must not outlive a rollback
+        afterCommit(() -> {
+            synchronized (nameIds) {
+                nameIds.putAll(found);
+            }
+        });
+        ids.putAll(found);
+        return ids;
+    }
+
+    private Long insert(String name) {
+        Session session = entityManager.unwrap(Session.class);
+        Long id = session.doReturningWork(connection -> {
+            // A failed statement must not abort the surrounding transaction, hence the savepoint
+            // and a stateless session that bypasses the caller's persistence context
+            Savepoint savepoint = connection.setSavepoint();
+            try (StatelessSession inserter = session.getSessionFactory().withStatelessOptions()
+                    .connection(connection).openStatelessSession()) {
+                Long inserted = (Long) inserter.insert(new IngredientName(name));
+                connection.releaseSavepoint(savepoint);
+                return inserted;
+            } catch (ConstraintViolationException e) {
+                connection.rollback(savepoint);
+                return null;
+            }
+        });
+        if (id != null) {
+            return id;
+        }
+        // Inserted concurrently by another request, which has committed by now
+        return ingredientNameRepository.findIdByName(name).orElseThrow(() ->
+                new IllegalStateException("Dictionary entry '" + name + "' vanished after a concurrent insert"));
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, or right away if there is none.
+     *
+     * @param action the action to run
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+import com.barriquebackend.backfill.Backfill;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Links ingredients saved before the dictionary existed to their canonical name and unit.
+ * <p>
+ * Each batch updates the selected rows one by one by primary key, so only those rows are locked
+ * and concurrent writes to other recipes are never blocked.
+ * </p>
+ */
+@Component
+public class IngredientDictionaryBackfill implements Backfill {
+
+    private final IngredientNameRepository ingredientNameRepository;
+    private final IngredientDictionary ingredientDictionary;
+
+    public IngredientDictionaryBackfill(IngredientNameRepository ingredientNameRepository,
+                                        IngredientDictionary ingredientDictionary) {
+        this.ingredientNameRepository = ingredientNameRepository;
+        this.ingredientDictionary = ingredientDictionary;
+    }
+
+    @Override
+    public String name() {
+        return "ingredient dictionary references";
+    }
+
+    @Override
+    public Long migrateBatch(Long afterId, int batchSize) {
+        List<IngredientRow> rows = ingredientNameRepository.findUnresolvedIngredients(afterId, Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        for (IngredientRow row : rows) {
+            IngredientName name = ingredientDictionary.resolveName(row.title());
+            // Titles without letters or digits have no dictionary entry and stay unresolved
+            if (name != null) {
+                ingredientNameRepository.updateDictionaryReferences(row.ingredientId(), name,
+                        MeasurementUnit.parse(row.unit()).orElse(null));
+            }
+        }
+        return rows.get(rows.size() - 1).ingredientId();
+    }
+}
@@ -0,0 +1,36 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+import jakarta.persistence.*;
+
+/**
+ * Canonical ingredient name shared by all ingredients whose titles normalize to the same key
+ * (see {@link com.barriquebackend.recipevault.recipe.components.IngredientNames#normalize(String)}).
+ */
+@Entity
+@Table(name = "ingredient_name",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ingredient_name_name", columnNames = "name"))
+public class IngredientName {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_name_seq")
+    @SequenceGenerator(name = "ingredient_name_seq", sequenceName = "ingredient_name_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    public IngredientName() {
+    }
+
+    public IngredientName(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
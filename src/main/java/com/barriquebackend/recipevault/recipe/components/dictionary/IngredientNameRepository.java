@@ -0,0 +1,34 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IngredientNameRepository extends JpaRepository<IngredientName, Long> {
+
+    @Query("select n.id from IngredientName n where n.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    List<IngredientName> findAllByNameIn(Collection<String> names);
+
+    // Backfill of dictionary references for ingredients written before the dictionary existed.
+    @Query("select new com.barriquebackend.recipevault.recipe.components.dictionary.IngredientRow("
+            + "i.ingredientId, i.title, i.unit) from Ingredient i "
+            + "where i.ingredientName is null and i.ingredientId > :afterId order by i.ingredientId")
+    List<IngredientRow> findUnresolvedIngredients(@Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("update Ingredient i set i.ingredientName = :ingredientName, i.measurementUnit = :measurementUnit "
+            + "where i.ingredientId = :ingredientId")
+    void updateDictionaryReferences(@Param("ingredientId") Long ingredientId,
+                                    @Param("ingredientName") IngredientName ingredientName,
+                                    @Param("measurementUnit") MeasurementUnit measurementUnit);
+}
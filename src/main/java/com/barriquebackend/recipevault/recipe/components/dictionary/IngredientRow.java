@@ -0,0 +1,7 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+/**
+ * Projection row with the free-text columns of an ingredient.
+ */
+public record IngredientRow(Long ingredientId, String title, String unit) {
+}
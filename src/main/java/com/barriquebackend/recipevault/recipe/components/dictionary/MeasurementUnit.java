@@ -0,0 +1,90 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Canonical measurement units with the spellings they are recognized by.
+ * <p>
+ * Every unit belongs to a dimension and knows its factor relative to the base unit of that
+ * dimension (gram, milliliter or piece), so amounts of the same dimension can be added up.
+ * Aliases are matched after the same normalization as ingredient names, which also folds
+ * plurals ("grams", "cups") and diacritics ("Essl\u00f6ffel" matches "essloffel").
+ * </p>
+ */
+public enum MeasurementUnit {
+    MILLIGRAM("mg", Dimension.MASS, 0.001, "mg", "milligram", "milligramm"),
+    GRAM("g", Dimension.MASS, 1, "g", "gr", "gram", "gramm", "gramme"),
+    KILOGRAM("kg", Dimension.MASS, 1000, "kg", "kilo", "kilogram", "kilogramm"),
+    OUNCE("oz", Dimension.MASS, 28.349523125, "oz", "ounce", "unze"),
+    POUND("lb", Dimension.MASS, 453.59237, "lb", "lbs", "pound", "pfund"),
+    MILLILITER("ml", Dimension.VOLUME, 1, "ml", "milliliter", "millilitre"),
+    CENTILITER("cl", Dimension.VOLUME, 10, "cl", "centiliter", "centilitre", "zentiliter"),
+    DECILITER("dl", Dimension.VOLUME, 100, "dl", "deciliter", "decilitre", "deziliter"),
+    LITER("l", Dimension.VOLUME, 1000, "l", "liter", "litre", "ltr"),
+    TEASPOON("tsp", Dimension.VOLUME, 5, "tsp", "teaspoon", "tl", "teeloffel"),
+    TABLESPOON("tbsp", Dimension.VOLUME, 15, "tbsp", "tablespoon", "el", "essloffel"),
+    CUP("cup", Dimension.VOLUME, 240, "cup", "tasse"),
+    PIECE("pc", Dimension.COUNT, 1, "pc", "pcs", "piece", "stk", "stuck", "stueck"),
+    PINCH("pinch", Dimension.COUNT, 1, "pinch", "pinches", "prise");
+
+    /**
+     * Physical dimension of a unit; amounts can only be converted within one dimension.
+     */
+    public enum Dimension {
+        MASS, VOLUME, COUNT
+    }
+
+    private static final Map<String, MeasurementUnit> BY_ALIAS = new HashMap<>();
+
+    static {
+        for (MeasurementUnit unit : values()) {
+            for (String alias : unit.aliases) {
+                BY_ALIAS.put(IngredientNames.normalize(alias), unit);
+            }
+        }
+    }
+
+    private final String symbol;
+    private final Dimension dimension;
+    private final double baseFactor;
+    private final String[] aliases;
+
+    MeasurementUnit(String symbol, Dimension dimension, double baseFactor, String... aliases) {
+        this.symbol = symbol;
+        this.dimension = dimension;
+        this.baseFactor = baseFactor;
+        this.aliases = aliases;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Converts an amount in this unit to the base unit of its dimension.
+     *
+     * @param amount the amount in this unit
+     * @return the amount in grams, milliliters or pieces
+     */
+    public double toBase(double amount) {
+        return amount * baseFactor;
+    }
+
+    /**
+     * Looks up the canonical unit of a free-text unit.
+     *
+     * @param unit the unit as entered by the user, e.g. "Gramm" or "tbsp.", may be null
+     * @return the canonical unit, or empty if the spelling is not known
+     */
+    public static Optional<MeasurementUnit> parse(String unit) {
+        return Optional.ofNullable(BY_ALIAS.get(IngredientNames.normalize(unit)));
+    }
+}
@@ -1,14 +1,18 @@
 package com.barriquebackend.recipevault.recipe.components.tag;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.barriquebackend.json.FieldSelection;
 import com.barriquebackend.recipevault.recipe.Recipe;
 import jakarta.persistence.*;
 
 @Entity
+@JsonFilter(FieldSelection.FILTER_ID)
 public class Tag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = 50)
     private Long tagId;
 
     @Enumerated(EnumType.STRING)
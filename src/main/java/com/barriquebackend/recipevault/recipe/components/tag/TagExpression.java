@@ -0,0 +1,180 @@
+package com.barriquebackend.recipevault.recipe.components.tag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Boolean expression over tag types, evaluated against a tag mask (see {@link TagMask}).
+ * <p>
+ * Expressions are written like {@code VEGAN AND (EASY OR MEDIUM) AND NOT DESSERT}. Operators
+ * are case-insensitive, NOT binds tighter than AND, and AND binds tighter than OR. Conjunctions
+ * and disjunctions of plain tags are folded into a single mask test while parsing, so the common
+ * case of a flat filter is evaluated with one bitwise operation per recipe.
+ * </p>
+ */
+public sealed interface TagExpression {
+
+    /**
+     * Evaluates the expression against the tag mask of a recipe.
+     *
+     * @param mask the tag mask of the recipe
+     * @return true if the recipe matches
+     */
+    boolean matches(long mask);
+
+    /**
+     * Matches masks that have all given bits set.
+     */
+    record AllOf(long bits) implements TagExpression {
+        @Override
+        public boolean matches(long mask) {
+            return (mask & bits) == bits;
+        }
+    }
+
+    /**
+     * Matches masks that have at least one of the given bits set.
+     */
+    record AnyOf(long bits) implements TagExpression {
+        @Override
+        public boolean matches(long mask) {
+            return (mask & bits) != 0;
+        }
+    }
+
+    /**
+     * Matches masks that the operand does not match.
+     */
+    record Not(TagExpression operand) implements TagExpression {
+        @Override
+        public boolean matches(long mask) {
+            return !operand.matches(mask);
+        }
+    }
+
+    /**
+     * Matches masks that both operands match.
+     */
+    record And(TagExpression left, TagExpression right) implements TagExpression {
+        @Override
+        public boolean matches(long mask) {
+            return left.matches(mask) && right.matches(mask);
+        }
+    }
+
+    /**
+     * Matches masks that at least one operand matches.
+     */
+    record Or(TagExpression left, TagExpression right) implements TagExpression {
+        @Override
+        public boolean matches(long mask) {
+            return left.matches(mask) || right.matches(mask);
+        }
+    }
+
+    /**
+     * Parses a tag expression.
+     *
+     * @param expression the expression text
+     * @return the parsed expression
+     * @throws IllegalArgumentException if the expression is malformed or names an unknown tag
+     */
+    static TagExpression parse(String expression) {
+        return new Parser(expression).parse();
+    }
+
+    /**
+     * Recursive descent parser for tag expressions.
+     */
+    final class Parser {
+
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        private Parser(String expression) {
+            if (expression == null) {
+                throw new IllegalArgumentException("Tag expression is missing");
+            }
+            for (String token : expression.replace("(", " ( ").replace(")", " ) ").trim().split("\\s+")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token.toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+
+        private TagExpression parse() {
+            TagExpression expression = parseOr();
+            if (position != tokens.size()) {
+                throw new IllegalArgumentException("Unexpected token in tag expression: " + tokens.get(position));
+            }
+            return expression;
+        }
+
+        private TagExpression parseOr() {
+            TagExpression left = parseAnd();
+            while (accept("OR")) {
+                TagExpression right = parseAnd();
+                long leftBits = anyOfBits(left);
+                long rightBits = anyOfBits(right);
+                left = leftBits != 0 && rightBits != 0 ? new AnyOf(leftBits | rightBits) : new Or(left, right);
+            }
+            return left;
+        }
+
+        private TagExpression parseAnd() {
+            TagExpression left = parseNot();
+            while (accept("AND")) {
+                TagExpression right = parseNot();
+                left = left instanceof AllOf l && right instanceof AllOf r
+                        ? new AllOf(l.bits() | r.bits())
+                        : new And(left, right);
+            }
+            return left;
+        }
+
+        private TagExpression parseNot() {
+            if (accept("NOT")) {
+                return new Not(parseNot());
+            }
+            if (accept("(")) {
+                TagExpression expression = parseOr();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Missing closing parenthesis in tag expression");
+                }
+                return expression;
+            }
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Unexpected end of tag expression");
+            }
+            String token = tokens.get(position++);
+            try {
+                return new AllOf(TagMask.bit(TagType.valueOf(token)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown tag type: " + token, e);
+            }
+        }
+
+        /**
+         * Returns the bits of an expression that is a plain disjunction of tags, or 0 otherwise.
+         * A single tag is parsed as {@link AllOf} but is just as well "any of" its one bit.
+         */
+        private static long anyOfBits(TagExpression expression) {
+            if (expression instanceof AnyOf anyOf) {
+                return anyOf.bits();
+            }
+            if (expression instanceof AllOf allOf && Long.bitCount(allOf.bits()) == 1) {
+                return allOf.bits();
+            }
+            return 0L;
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.barriquebackend.recipevault.recipe.components.tag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Encodes a set of {@link TagType}s as a 64-bit mask, one bit per enum constant.
+ * <p>
+ * The bit of a tag type is its ordinal, so new tag types must only ever be appended to the
+ * enum; reordering constants would silently change the meaning of persisted masks.
+ * </p>
+ */
+public final class TagMask {
+
+    private static final TagType[] TAG_TYPES = TagType.values();
+
+    static {
+        if (TAG_TYPES.length > Long.SIZE) {
+            throw new ExceptionInInitializerError("TagType has more constants than fit into a tag mask");
+        }
+    }
+
+    private TagMask() {
+    }
+
+    /**
+     * Returns the mask bit of a single tag type.
+     *
+     * @param tagType the tag type
+     * @return the mask with only the tag type's bit set
+     */
+    public static long bit(TagType tagType) {
+        return 1L << tagType.ordinal();
+    }
+
+    /**
+     * Computes the mask of the given tags.
+     *
+     * @param tags the tags, may be null
+     * @return the mask with the bits of all tag types set
+     */
+    public static long of(Collection<Tag> tags) {
+        long mask = 0L;
+        if (tags != null) {
+            for (Tag tag : tags) {
+                if (tag.getTagType() != null) {
+                    mask |= bit(tag.getTagType());
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Decodes a mask into its tag types.
+     *
+     * @param mask the mask
+     * @return the tag types in declaration order
+     */
+    public static List<TagType> toTagTypes(long mask) {
+        List<TagType> tagTypes = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            tagTypes.add(TAG_TYPES[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return tagTypes;
+    }
+}
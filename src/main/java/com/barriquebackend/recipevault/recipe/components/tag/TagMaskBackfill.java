@@ -0,0 +1,44 @@
+package com.barriquebackend.recipevault.recipe.components.tag;
+
+import com.barriquebackend.backfill.Backfill;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.RecipeTagRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the tag mask of recipes that have tags but were saved before the mask existed.
+ */
+@Component
+public class TagMaskBackfill implements Backfill {
+
+    private final RecipeRepository recipeRepository;
+
+    public TagMaskBackfill(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public String name() {
+        return "recipe tag masks";
+    }
+
+    @Override
+    public Long migrateBatch(Long afterId, int batchSize) {
+        List<Long> recipeIds = recipeRepository.findIdsWithUnsetTagMask(afterId, Limit.of(batchSize));
+        if (recipeIds.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, Long> masks = new HashMap<>();
+        for (RecipeTagRow row : recipeRepository.findTagRowsByRecipeIds(recipeIds)) {
+            masks.merge(row.recipeId(), TagMask.bit(row.tagType()), (a, b) -> a | b);
+        }
+        masks.forEach(recipeRepository::updateTagMask);
+        return recipeIds.get(recipeIds.size() - 1);
+    }
+}
@@ -0,0 +1,195 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing index over the MinHash signatures of a single user's recipes.
+ * <p>
+ * Each signature is cut into {@link #BANDS} bands of {@link #ROWS} values, and a recipe is put
+ * into one bucket per band, keyed by the band's values. Recipes that share any bucket are
+ * candidates; only they are compared by signature, so a lookup touches the few recipes in its
+ * buckets instead of the whole vault. With 32 bands of 4 rows, a pair with a similarity of 0.6
+ * becomes a candidate with a probability of about 99%, and one with 0.2 with about 5%.
+ * All methods are synchronized, as in the other per-user indexes.
+ * </p>
+ */
+class DuplicateIndex {
+
+    static final int BANDS = 32;
+    static final int ROWS = MinHash.HASHES / BANDS;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+    private record Entry(String title, int[] signature, long[] bucketKeys) {
+    }
+
+    private record Pair(Long first, Long second) {
+    }
+
+    /**
+     * Adds a recipe to the index, replacing any previous version of it. Recipes without a
+     * complete signature are only removed.
+     *
+     * @param recipeId the ID of the recipe
+     * @param title    the title of the recipe
+     * @param minHash  the encoded signature of the recipe
+     */
+    synchronized void put(Long recipeId, String title, byte[] minHash) {
+        remove(recipeId);
+        int[] signature = MinHash.decode(minHash);
+        if (signature == null) {
+            return;
+        }
+        long[] bucketKeys = bucketKeys(signature);
+        for (long key : bucketKeys) {
+            buckets.computeIfAbsent(key, k -> new HashSet<>()).add(recipeId);
+        }
+        entries.put(recipeId, new Entry(title, signature, bucketKeys));
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param recipeId the ID of the recipe
+     */
+    synchronized void remove(Long recipeId) {
+        Entry entry = entries.remove(recipeId);
+        if (entry == null) {
+            return;
+        }
+        for (long key : entry.bucketKeys()) {
+            Set<Long> bucket = buckets.get(key);
+            bucket.remove(recipeId);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Finds the recipes that are likely near-duplicates of a signature.
+     *
+     * @param minHash       the encoded signature to look up
+     * @param minSimilarity the minimum estimated similarity, from 0 to 1
+     * @return the IDs of the similar recipes, most similar first
+     */
+    synchronized List<Long> findSimilar(byte[] minHash, double minSimilarity) {
+        int[] signature = MinHash.decode(minHash);
+        if (signature == null) {
+            return List.of();
+        }
+        Map<Long, Double> similar = new HashMap<>();
+        for (long key : bucketKeys(signature)) {
+            for (Long candidate : buckets.getOrDefault(key, Set.of())) {
+                if (!similar.containsKey(candidate)) {
+                    similar.put(candidate, MinHash.similarity(signature, entries.get(candidate).signature()));
+                }
+            }
+        }
+        return similar.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minSimilarity)
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Groups the indexed recipes into clusters of likely near-duplicates.
+     * <p>
+     * Candidate pairs come from shared buckets; pairs at or above the minimum similarity link
+     * their recipes, and linked recipes form a cluster even if not every pair in it is similar.
+     * </p>
+     *
+     * @param minSimilarity the minimum estimated similarity of a linked pair, from 0 to 1
+     * @param limit         the maximum number of clusters
+     * @return the clusters, largest first
+     */
+    synchronized List<RecipeDuplicateCluster> findClusters(double minSimilarity, int limit) {
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, Double> weakestLinks = new HashMap<>();
+        Set<Pair> comparedPairs = new HashSet<>();
+        for (Set<Long> bucket : buckets.values()) {
+            if (bucket.size() < 2) {
+                continue;
+            }
+            Long[] members = bucket.toArray(new Long[0]);
+            for (int i = 0; i < members.length; i++) {
+                for (int j = i + 1; j < members.length; j++) {
+                    Long a = Math.min(members[i], members[j]);
+                    Long b = Math.max(members[i], members[j]);
+                    // Pairs usually share several buckets; each is compared once
+                    if (!comparedPairs.add(new Pair(a, b))) {
+                        continue;
+                    }
+                    double similarity = MinHash.similarity(entries.get(a).signature(), entries.get(b).signature());
+                    if (similarity >= minSimilarity) {
+                        union(parents, weakestLinks, a, b, similarity);
+                    }
+                }
+            }
+        }
+
+        Map<Long, List<Long>> clusters = new HashMap<>();
+        for (Long recipeId : List.copyOf(parents.keySet())) {
+            clusters.computeIfAbsent(find(parents, recipeId), root -> new ArrayList<>()).add(recipeId);
+        }
+        return clusters.entrySet().stream()
+                .map(cluster -> new RecipeDuplicateCluster(weakestLinks.get(cluster.getKey()),
+                        cluster.getValue().stream()
+                                .sorted()
+                                .map(recipeId -> new RecipeDuplicateCluster.Member(recipeId, entries.get(recipeId).title()))
+                                .toList()))
+                .sorted(Comparator.comparingInt((RecipeDuplicateCluster cluster) -> -cluster.recipes().size())
+                        .thenComparing(Comparator.comparingDouble(RecipeDuplicateCluster::similarity).reversed())
+                        .thenComparingLong(cluster -> cluster.recipes().get(0).recipeId()))
+                .limit(limit)
+                .toList();
+    }
+
+    private static void union(Map<Long, Long> parents, Map<Long, Double> weakestLinks, Long a, Long b, double similarity) {
+        Long rootA = find(parents, a);
+        Long rootB = find(parents, b);
+        double weakest = Math.min(similarity, Math.min(
+                weakestLinks.getOrDefault(rootA, 1.0), weakestLinks.getOrDefault(rootB, 1.0)));
+        if (!rootA.equals(rootB)) {
+            parents.put(rootB, rootA);
+            weakestLinks.remove(rootB);
+        }
+        weakestLinks.put(rootA, weakest);
+    }
+
+    private static Long find(Map<Long, Long> parents, Long recipeId) {
+        Long root = recipeId;
+        Long parent;
+        while (!(parent = parents.computeIfAbsent(root, id -> id)).equals(root)) {
+            root = parent;
+        }
+        // Path compression keeps later lookups short
+        Long current = recipeId;
+        while (!current.equals(root)) {
+            Long next = parents.get(current);
+            parents.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    private static long[] bucketKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            int hash = 1;
+            for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+                hash = 31 * hash + signature[row];
+            }
+            keys[band] = ((long) band << 32) | (hash & 0xffffffffL);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,176 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Computes MinHash signatures of recipes for near-duplicate detection.
+ * <p>
+ * A recipe is reduced to a set of shingles: the normalized name of every ingredient and every
+ * sequence of {@link #STEP_SHINGLE_WORDS} consecutive words of its steps. For each of
+ * {@link #HASHES} hash functions the signature keeps the smallest hash of any shingle; the
+ * fraction of positions in which two signatures agree estimates the Jaccard similarity of the
+ * shingle sets. Signatures are persisted, so the shingling, the hash functions and the encoding
+ * must never change without recomputing all stored signatures.
+ * </p>
+ */
+public final class MinHash {
+
+    /**
+     * Number of hash functions, i.e. values per signature.
+     */
+    public static final int HASHES = 128;
+
+    /**
+     * Length of an encoded signature in bytes.
+     */
+    public static final int BYTES = HASHES * Integer.BYTES;
+
+    private static final int STEP_SHINGLE_WORDS = 3;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final byte[] EMPTY = new byte[0];
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        for (int i = 0; i < HASHES; i++) {
+            SEEDS[i] = mix((i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Computes the encoded signature of a recipe's ingredients and steps.
+     *
+     * @param recipe the recipe
+     * @return the signature, or an empty array if the recipe has neither ingredients nor steps
+     */
+    public static byte[] of(Recipe recipe) {
+        List<String> ingredientTitles = new ArrayList<>();
+        List<String> stepDescriptions = new ArrayList<>();
+        if (recipe.getIngredients() != null) {
+            recipe.getIngredients().stream().map(Ingredient::getTitle).forEach(ingredientTitles::add);
+        }
+        if (recipe.getSteps() != null) {
+            recipe.getSteps().stream().map(RecipeStep::getStepDescription).forEach(stepDescriptions::add);
+        }
+        return of(ingredientTitles, stepDescriptions);
+    }
+
+    /**
+     * Computes the encoded signature of ingredient titles and step descriptions.
+     *
+     * @param ingredientTitles the ingredient titles, may contain nulls
+     * @param stepDescriptions the step descriptions, may contain nulls
+     * @return the signature, or an empty array if there is no shingle
+     */
+    public static byte[] of(Collection<String> ingredientTitles, Collection<String> stepDescriptions) {
+        Set<Long> shingles = new HashSet<>();
+        for (String title : ingredientTitles) {
+            String name = IngredientNames.normalize(title);
+            if (!name.isEmpty()) {
+                shingles.add(hash("i:" + name));
+            }
+        }
+        for (String description : stepDescriptions) {
+            if (description == null) {
+                continue;
+            }
+            String[] words = Arrays.stream(SEPARATORS.split(description.toLowerCase(Locale.ROOT)))
+                    .filter(word -> !word.isEmpty())
+                    .toArray(String[]::new);
+            // Steps shorter than a shingle still contribute their words as one shingle
+            for (int start = 0; start == 0 || start + STEP_SHINGLE_WORDS <= words.length; start++) {
+                int end = Math.min(words.length, start + STEP_SHINGLE_WORDS);
+                if (end > start) {
+                    shingles.add(hash("s:" + String.join(" ", Arrays.copyOfRange(words, start, end))));
+                }
+            }
+        }
+        if (shingles.isEmpty()) {
+            return EMPTY;
+        }
+
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < HASHES; i++) {
+                signature[i] = Math.min(signature[i], (int) (mix(shingle ^ SEEDS[i]) >>> 33));
+            }
+        }
+        ByteBuffer encoded = ByteBuffer.allocate(BYTES);
+        encoded.asIntBuffer().put(signature);
+        return encoded.array();
+    }
+
+    /**
+     * Decodes a signature.
+     *
+     * @param encoded the encoded signature
+     * @return the signature values, or null if the array is not a complete signature
+     */
+    public static int[] decode(byte[] encoded) {
+        if (encoded == null || encoded.length != BYTES) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        ByteBuffer.wrap(encoded).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the shingle sets of two signatures.
+     *
+     * @param a the first signature
+     * @param b the second signature
+     * @return the fraction of agreeing values, from 0 to 1
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes of a shingle.
+     */
+    private static long hash(String shingle) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : shingle.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreading every input bit over the whole output.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,58 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import com.barriquebackend.backfill.Backfill;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.RecipeTextRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the MinHash signature of recipes saved before the min_hash column existed.
+ * <p>
+ * Recipes without ingredients and steps get an empty signature, so every recipe is visited once.
+ * </p>
+ */
+@Component
+public class MinHashBackfill implements Backfill {
+
+    private final RecipeRepository recipeRepository;
+
+    public MinHashBackfill(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public String name() {
+        return "recipe MinHash signatures";
+    }
+
+    @Override
+    public Long migrateBatch(Long afterId, int batchSize) {
+        List<Long> recipeIds = recipeRepository.findIdsWithUnsetMinHash(afterId, Limit.of(batchSize));
+        if (recipeIds.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, List<String>> ingredientTitles = group(recipeRepository.findIngredientTitleRowsByRecipeIds(recipeIds));
+        Map<Long, List<String>> stepDescriptions = group(recipeRepository.findStepDescriptionRowsByRecipeIds(recipeIds));
+        for (Long recipeId : recipeIds) {
+            recipeRepository.updateMinHash(recipeId, MinHash.of(
+                    ingredientTitles.getOrDefault(recipeId, List.of()),
+                    stepDescriptions.getOrDefault(recipeId, List.of())));
+        }
+        return recipeIds.get(recipeIds.size() - 1);
+    }
+
+    private static Map<Long, List<String>> group(List<RecipeTextRow> rows) {
+        Map<Long, List<String>> texts = new HashMap<>();
+        for (RecipeTextRow row : rows) {
+            texts.computeIfAbsent(row.recipeId(), id -> new ArrayList<>()).add(row.text());
+        }
+        return texts;
+    }
+}
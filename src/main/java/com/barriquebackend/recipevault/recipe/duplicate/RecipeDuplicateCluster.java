@@ -0,0 +1,21 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import java.util.List;
+
+/**
+ * A group of recipes that are likely near-duplicates of each other.
+ *
+ * @param similarity the lowest estimated similarity of the pairs linking the group, from 0 to 1
+ * @param recipes    the recipes of the group, ordered by ID
+ */
+public record RecipeDuplicateCluster(double similarity, List<Member> recipes) {
+
+    /**
+     * A recipe in a duplicate group.
+     *
+     * @param recipeId the ID of the recipe
+     * @param title    the title of the recipe
+     */
+    public record Member(Long recipeId, String title) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for finding near-duplicate recipes.
+ */
+@RestController
+@RequestMapping("/api")
+public class RecipeDuplicateController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final RecipeDuplicateService recipeDuplicateService;
+
+    /**
+     * Constructs a RecipeDuplicateController with the specified RecipeDuplicateService.
+     *
+     * @param recipeDuplicateService the service for duplicate detection
+     */
+    public RecipeDuplicateController(RecipeDuplicateService recipeDuplicateService) {
+        this.recipeDuplicateService = recipeDuplicateService;
+    }
+
+    /**
+     * Lists groups of likely near-duplicate recipes of the authenticated user, judged by their
+     * ingredients and steps.
+     *
+     * @param minSimilarity the minimum estimated similarity of linked recipes, from 0 to 1
+     * @param limit         the maximum number of groups
+     * @param user          the authenticated user
+     * @return the duplicate groups, largest first
+     */
+    @GetMapping("/user/recipe/duplicates")
+    public List<RecipeDuplicateCluster> findDuplicateClusters(@RequestParam(defaultValue = "0.6") double minSimilarity,
+                                                              @RequestParam(defaultValue = "20") int limit,
+                                                              @CurrentUser User user) {
+        return recipeDuplicateService.findDuplicateClusters(user.getId(), Math.max(0.0, Math.min(minSimilarity, 1.0)),
+                Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeChangeListener;
+import com.barriquebackend.recipevault.recipe.RecipeMinHashRow;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.index.UserIndexCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service class for finding near-duplicate recipes in a user's vault.
+ * <p>
+ * Recipes carry a persisted {@link MinHash} signature that {@code RecipeService} recomputes
+ * whenever their ingredients or steps are written. A user's {@link DuplicateIndex} is built from
+ * the stored signatures with one projection query and kept up to date incrementally, so neither
+ * building it nor a lookup re-reads ingredient or step texts.
+ * </p>
+ */
+@Service
+public class RecipeDuplicateService implements RecipeChangeListener {
+
+    private final RecipeRepository recipeRepository;
+    private final UserIndexCache<DuplicateIndex> indexes;
+    private final double minSimilarity;
+
+    /**
+     * Constructs a RecipeDuplicateService.
+     *
+     * @param recipeRepository the repository used to build indexes
+     * @param maxCachedUsers   the maximum number of users whose index is kept in memory
+     * @param minSimilarity    the similarity from which a new recipe is reported as possible duplicate
+     */
+    public RecipeDuplicateService(RecipeRepository recipeRepository,
+                                  @Value("${recipevault.duplicates.max-cached-users:500}") int maxCachedUsers,
+                                  @Value("${recipevault.duplicates.min-similarity:0.6}") double minSimilarity) {
+        this.recipeRepository = recipeRepository;
+        this.indexes = new UserIndexCache<>(maxCachedUsers);
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Finds the recipes of a user that are likely near-duplicates of a signature.
+     *
+     * @param userId  the ID of the user whose recipes are searched
+     * @param minHash the encoded signature, see {@link MinHash#of(Recipe)}
+     * @return the IDs of the similar recipes, most similar first
+     */
+    public List<Long> findPossibleDuplicates(Long userId, byte[] minHash) {
+        if (MinHash.decode(minHash) == null) {
+            return List.of();
+        }
+        return indexes.get(userId, this::buildIndex).findSimilar(minHash, minSimilarity);
+    }
+
+    /**
+     * Groups the specified user's recipes into clusters of likely near-duplicates.
+     *
+     * @param userId        the ID of the user whose recipes are grouped
+     * @param minSimilarity the minimum estimated similarity of linked recipes, from 0 to 1
+     * @param limit         the maximum number of clusters
+     * @return the clusters, largest first
+     */
+    public List<RecipeDuplicateCluster> findDuplicateClusters(Long userId, double minSimilarity, int limit) {
+        return indexes.get(userId, this::buildIndex).findClusters(minSimilarity, limit);
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        indexes.updateIfPresent(recipe.getUser().getId(),
+                index -> index.put(recipe.getRecipeId(), recipe.getTitle(), recipe.getMinHash()));
+    }
+
+    @Override
+    public void recipeDeleted(Long userId, Long recipeId) {
+        indexes.updateIfPresent(userId, index -> index.remove(recipeId));
+    }
+
+    private DuplicateIndex buildIndex(Long userId) {
+        DuplicateIndex index = new DuplicateIndex();
+        for (RecipeMinHashRow row : recipeRepository.findMinHashRowsByUserId(userId)) {
+            index.put(row.recipeId(), row.title(), row.minHash());
+        }
+        return index;
+    }
+}
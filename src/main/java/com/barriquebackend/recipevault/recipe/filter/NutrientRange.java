@@ -0,0 +1,53 @@
+package com.barriquebackend.recipevault.recipe.filter;
+
+/**
+ * A closed range of a nutrient's amount per serving; either bound may be open.
+ *
+ * @param min the smallest allowed amount, or null for no lower bound
+ * @param max the largest allowed amount, or null for no upper bound
+ */
+public record NutrientRange(Double min, Double max) {
+
+    /**
+     * Parses a range of the form "min..max", where either bound may be left out, e.g. "..500"
+     * or "30..". A single number is a range containing only that number.
+     *
+     * @param text the range text
+     * @return the parsed range
+     * @throws IllegalArgumentException if the text is not a range with at least one bound, or min exceeds max
+     */
+    public static NutrientRange parse(String text) {
+        String trimmed = text == null ? "" : text.trim();
+        int separator = trimmed.indexOf("..");
+        Double min;
+        Double max;
+        if (separator < 0) {
+            min = max = bound(trimmed);
+        } else {
+            min = bound(trimmed.substring(0, separator).trim());
+            max = bound(trimmed.substring(separator + 2).trim());
+        }
+        if (min == null && max == null) {
+            throw new IllegalArgumentException("Range has no bound: '" + text + "'");
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("Range minimum exceeds maximum: '" + text + "'");
+        }
+        return new NutrientRange(min, max);
+    }
+
+    private static Double bound(String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            double value = Double.parseDouble(text);
+            if (!Double.isFinite(value)) {
+                throw new IllegalArgumentException("Range bound is not finite: '" + text + "'");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Range bound is not a number: '" + text + "'");
+        }
+    }
+}
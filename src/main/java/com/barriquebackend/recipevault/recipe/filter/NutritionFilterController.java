@@ -0,0 +1,53 @@
+package com.barriquebackend.recipevault.recipe.filter;
+
+import com.barriquebackend.recipevault.recipe.RecipeSummary;
+import com.barriquebackend.recipevault.recipe.nutrition.Nutrient;
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for filtering recipes by ranges of nutrients per serving.
+ */
+@RestController
+@RequestMapping("/api")
+public class NutritionFilterController {
+
+    private final NutritionFilterService nutritionFilterService;
+
+    /**
+     * Constructs a NutritionFilterController with the specified NutritionFilterService.
+     *
+     * @param nutritionFilterService the service for nutrient filtering
+     */
+    public NutritionFilterController(NutritionFilterService nutritionFilterService) {
+        this.nutritionFilterService = nutritionFilterService;
+    }
+
+    /**
+     * Retrieves the authenticated user's recipes whose nutrients per serving lie in the given
+     * ranges, e.g. {@code ?kcal=..500&protein=30..}.
+     *
+     * @param parameters the ranges keyed by nutrient name, and an optional "limit"
+     * @param user       the authenticated user
+     * @return a ResponseEntity with the matching recipe summaries, or a bad request status for malformed ranges
+     */
+    @GetMapping("/recipe/filter/nutrition")
+    public ResponseEntity<List<RecipeSummary>> filterByNutrition(@RequestParam Map<String, String> parameters,
+                                                                 @CurrentUser User user) {
+        Map<String, String> ranges = new HashMap<>(parameters);
+        String limit = ranges.remove("limit");
+        try {
+            Map<Nutrient, NutrientRange> parsed = NutritionFilterService.parseRanges(ranges);
+            int maxRecipes = limit != null ? Integer.parseInt(limit) : Integer.MAX_VALUE;
+            return ResponseEntity.ok(nutritionFilterService.filter(user.getId(), parsed, maxRecipes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.barriquebackend.recipevault.recipe.filter;
+
+import com.barriquebackend.recipevault.recipe.RecipeSummary;
+import com.barriquebackend.recipevault.recipe.nutrition.Nutrient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Service class for filtering a user's recipes by ranges of nutrients per serving.
+ * <p>
+ * The nutrients are typed columns of the recipe table (see {@code Recipe#getServingNutrition()}),
+ * each with an index on user, amount and recipe ID. The query contains exactly the bounds that
+ * were requested, as plain comparisons on those columns, so every bound is an index range scan
+ * and the database can intersect the scans of several nutrients. Recipes with an unknown amount
+ * of a filtered nutrient never match, as a null column fails every comparison.
+ * </p>
+ */
+@Service
+public class NutritionFilterService {
+
+    private final EntityManager entityManager;
+    private final int maxResults;
+
+    /**
+     * Constructs a NutritionFilterService.
+     *
+     * @param entityManager the entity manager used to run the filter queries
+     * @param maxResults    the maximum number of recipes a filter returns
+     */
+    public NutritionFilterService(EntityManager entityManager,
+                                  @Value("${recipevault.nutrition-filter.max-results:500}") int maxResults) {
+        this.entityManager = entityManager;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Parses nutrient ranges keyed by nutrient name, e.g. "kcal" to "..500".
+     *
+     * @param ranges the range texts keyed by the lower-case nutrient names
+     * @return the parsed ranges
+     * @throws IllegalArgumentException if a name is not a nutrient, a range is malformed, or there is no range
+     */
+    public static Map<Nutrient, NutrientRange> parseRanges(Map<String, String> ranges) {
+        Map<Nutrient, NutrientRange> parsed = new EnumMap<>(Nutrient.class);
+        for (Map.Entry<String, String> range : ranges.entrySet()) {
+            Nutrient nutrient;
+            try {
+                nutrient = Nutrient.valueOf(range.getKey().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown nutrient: '" + range.getKey() + "'");
+            }
+            parsed.put(nutrient, NutrientRange.parse(range.getValue()));
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("No nutrient range given");
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns the summaries of the specified user's recipes whose nutrients per serving lie in
+     * all given ranges.
+     *
+     * @param userId the ID of the user whose recipes are filtered
+     * @param ranges the ranges keyed by nutrient
+     * @param limit  the maximum number of recipes, capped at the configured maximum
+     * @return the matching recipe summaries ordered by recipe ID
+     */
+    public List<RecipeSummary> filter(Long userId, Map<Nutrient, NutrientRange> ranges, int limit) {
+        StringBuilder jpql = new StringBuilder("select new com.barriquebackend.recipevault.recipe.RecipeSummary("
+                + "r.recipeId, r.title, r.imageUrl, r.favorite, r.time, r.tagMask) "
+                + "from Recipe r where r.user.id = :userId");
+        // Only requested bounds become predicates; "col >= :min or :min is null" would defeat the indexes
+        ranges.forEach((nutrient, range) -> {
+            String column = "r.servingNutrition." + property(nutrient);
+            if (range.min() != null) {
+                jpql.append(" and ").append(column).append(" >= :").append(property(nutrient)).append("Min");
+            }
+            if (range.max() != null) {
+                jpql.append(" and ").append(column).append(" <= :").append(property(nutrient)).append("Max");
+            }
+        });
+        jpql.append(" order by r.recipeId");
+
+        TypedQuery<RecipeSummary> query = entityManager.createQuery(jpql.toString(), RecipeSummary.class)
+                .setParameter("userId", userId)
+                .setMaxResults(Math.max(1, Math.min(limit, maxResults)));
+        ranges.forEach((nutrient, range) -> {
+            if (range.min() != null) {
+                query.setParameter(property(nutrient) + "Min", range.min());
+            }
+            if (range.max() != null) {
+                query.setParameter(property(nutrient) + "Max", range.max());
+            }
+        });
+        return query.getResultList();
+    }
+
+    private static String property(Nutrient nutrient) {
+        return nutrient.name().toLowerCase(Locale.ROOT);
+    }
+}
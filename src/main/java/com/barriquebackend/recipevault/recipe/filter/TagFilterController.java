@@ -0,0 +1,44 @@
+package com.barriquebackend.recipevault.recipe.filter;
+
+import com.barriquebackend.recipevault.recipe.RecipeSummary;
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for filtering recipes by their tags.
+ */
+@RestController
+@RequestMapping("/api")
+public class TagFilterController {
+
+    private final TagFilterService tagFilterService;
+
+    /**
+     * Constructs a TagFilterController with the specified TagFilterService.
+     *
+     * @param tagFilterService the service for tag filtering
+     */
+    public TagFilterController(TagFilterService tagFilterService) {
+        this.tagFilterService = tagFilterService;
+    }
+
+    /**
+     * Retrieves the authenticated user's recipes whose tags match a boolean expression.
+     *
+     * @param tags the tag expression, e.g. "VEGAN AND EASY AND NOT DESSERT"
+     * @param user the authenticated user
+     * @return a ResponseEntity with the matching recipe summaries, or a bad request status for a malformed expression
+     */
+    @GetMapping("/recipe/filter")
+    public ResponseEntity<List<RecipeSummary>> filterByTags(@RequestParam String tags, @CurrentUser User user) {
+        try {
+            return ResponseEntity.ok(tagFilterService.filter(user.getId(), tags));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.barriquebackend.recipevault.recipe.filter;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeChangeListener;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.RecipeSummary;
+import com.barriquebackend.recipevault.recipe.RecipeTagMaskRow;
+import com.barriquebackend.recipevault.recipe.components.tag.TagExpression;
+import com.barriquebackend.recipevault.recipe.index.UserIndexCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service class for filtering a user's recipes by boolean tag expressions.
+ * <p>
+ * The tag masks of a user's recipes are loaded into a {@link TagIndex} on the first filter
+ * request and kept up to date incrementally as recipes are written.
+ * </p>
+ */
+@Service
+public class TagFilterService implements RecipeChangeListener {
+
+    private final RecipeRepository recipeRepository;
+    private final UserIndexCache<TagIndex> indexes;
+
+    /**
+     * Constructs a TagFilterService.
+     *
+     * @param recipeRepository the repository used to build indexes and read summaries
+     * @param maxCachedUsers   the maximum number of users whose index is kept in memory
+     */
+    public TagFilterService(RecipeRepository recipeRepository,
+                            @Value("${recipevault.tag-filter.max-cached-users:2000}") int maxCachedUsers) {
+        this.recipeRepository = recipeRepository;
+        this.indexes = new UserIndexCache<>(maxCachedUsers);
+    }
+
+    /**
+     * Returns the summaries of the specified user's recipes that match a tag expression.
+     *
+     * @param userId     the ID of the user whose recipes are filtered
+     * @param expression the tag expression, e.g. "VEGAN AND EASY AND NOT DESSERT"
+     * @return the matching recipe summaries ordered by recipe ID
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public List<RecipeSummary> filter(Long userId, String expression) {
+        TagExpression tagExpression = TagExpression.parse(expression);
+        long[] recipeIds = indexes.get(userId, this::buildIndex).match(tagExpression);
+        if (recipeIds.length == 0) {
+            return List.of();
+        }
+        return recipeRepository.findSummariesByUserIdAndRecipeIds(userId, Arrays.stream(recipeIds).boxed().toList());
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        indexes.updateIfPresent(recipe.getUser().getId(), index -> index.put(recipe.getRecipeId(), recipe.getTagMask()));
+    }
+
+    @Override
+    public void recipeDeleted(Long userId, Long recipeId) {
+        indexes.updateIfPresent(userId, index -> index.remove(recipeId));
+    }
+
+    private TagIndex buildIndex(Long userId) {
+        List<RecipeTagMaskRow> rows = recipeRepository.findTagMaskRowsByUserId(userId);
+        long[] recipeIds = new long[rows.size()];
+        long[] masks = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            recipeIds[i] = rows.get(i).recipeId();
+            masks[i] = rows.get(i).tagMask();
+        }
+        return new TagIndex(recipeIds, masks);
+    }
+}
@@ -0,0 +1,177 @@
+package com.barriquebackend.recipevault.recipe.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of per-user in-memory indexes.
+ * <p>
+ * Indexes are built lazily on first access and kept only for the most recently used users.
+ * When the cache holds more users than its capacity, the least recently used index is evicted
+ * and rebuilt on its next access. Building and updating the index of the same user never run
+ * concurrently, so an update that races with a build is applied after the build has finished.
+ * </p>
+ * <p>
+ * An index is built outside of the map: the first caller publishes a placeholder and runs the
+ * loader, later callers for the same user wait for it, and callers for other users are never
+ * blocked by the build, which may itself use the cache.
+ * </p>
+ *
+ * @param <T> the index type
+ */
+public class UserIndexCache<T> {
+
+    private final int maxUsers;
+    private final ConcurrentHashMap<Long, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Constructs a cache holding the indexes of at most the given number of users.
+     *
+     * @param maxUsers the maximum number of cached users
+     */
+    public UserIndexCache(int maxUsers) {
+        if (maxUsers < 1) {
+            throw new IllegalArgumentException("maxUsers must be positive");
+        }
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * Returns the index of the given user, building it with the loader if it is not cached.
+     *
+     * @param userId the ID of the user
+     * @param loader builds the index of a user from scratch
+     * @return the user's index
+     */
+    public T get(Long userId, Function<Long, T> loader) {
+        Entry<T> entry = entries.get(userId);
+        if (entry == null) {
+            Entry<T> created = new Entry<>();
+            // Stamped before it is published, so that no other caller evicts it as the coldest entry
+            created.lastAccess = clock.incrementAndGet();
+            entry = entries.putIfAbsent(userId, created);
+            if (entry == null) {
+                evictColdest(userId);
+                return build(userId, created, loader);
+            }
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        evictColdest(userId);
+        return entry.await();
+    }
+
+    /**
+     * Applies an incremental update to the index of the given user if it is cached.
+     * Users without a cached index are skipped; their index reflects the update once it is built.
+     *
+     * @param userId the ID of the user
+     * @param update the update to apply
+     */
+    public void updateIfPresent(Long userId, Consumer<T> update) {
+        Entry<T> entry = entries.get(userId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.pendingUpdates != null) {
+                // The build may have read the data before this change, so it is applied afterwards
+                entry.pendingUpdates.add(update);
+            } else {
+                update.accept(entry.index.join());
+            }
+        }
+    }
+
+    /**
+     * Drops the index of the given user so that it is rebuilt on its next access.
+     *
+     * @param userId the ID of the user
+     */
+    public void invalidate(Long userId) {
+        entries.remove(userId);
+    }
+
+    /**
+     * Returns the number of users whose index is currently cached.
+     *
+     * @return the number of cached users
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictColdest(Long keep) {
+        while (entries.size() > maxUsers) {
+            Long coldest = null;
+            long oldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<Long, Entry<T>> candidate : entries.entrySet()) {
+                if (!candidate.getKey().equals(keep) && candidate.getValue().lastAccess < oldestAccess) {
+                    coldest = candidate.getKey();
+                    oldestAccess = candidate.getValue().lastAccess;
+                }
+            }
+            if (coldest == null) {
+                return;
+            }
+            entries.remove(coldest);
+        }
+    }
+
+    private T build(Long userId, Entry<T> entry, Function<Long, T> loader) {
+        entry.builder = Thread.currentThread();
+        T index;
+        try {
+            index = loader.apply(userId);
+        } catch (RuntimeException | Error e) {
+            entries.remove(userId, entry);
+            entry.index.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (entry) {
+            for (Consumer<T> update : entry.pendingUpdates) {
+                update.accept(index);
+            }
+            entry.pendingUpdates = null;
+            entry.builder = null;
+            entry.index.complete(index);
+        }
+        return index;
+    }
+
+    /**
+     * A cached index, or the placeholder of one that is being built.
+     */
+    private static final class Entry<T> {
+        private final CompletableFuture<T> index = new CompletableFuture<>();
+        // Updates that arrived during the build; null once the index is complete, guarded by the entry
+        private List<Consumer<T>> pendingUpdates = new ArrayList<>();
+        private volatile Thread builder;
+        private volatile long lastAccess;
+
+        private T await() {
+            if (builder == Thread.currentThread()) {
+                throw new IllegalStateException("Index loader requested the index it is building");
+            }
+            try {
+                return index.join();
+            } catch (CompletionException e) {
+                // The builder's own exception, as the builder itself has thrown it
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
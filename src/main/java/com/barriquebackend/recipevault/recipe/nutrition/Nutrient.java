@@ -0,0 +1,61 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Core nutrients computed for every recipe, in the column order of the bundled nutrient table.
+ * <p>
+ * Hand-entered nutritional values are recognized by their title, matched after the same
+ * normalization as ingredient names, so "Calories", "kcal" and "Kalorien" all denote energy.
+ * </p>
+ */
+public enum Nutrient {
+    KCAL("kcal", "kcal", "calories", "energy", "energie", "kalorien", "brennwert"),
+    PROTEIN("g", "protein", "eiweiss"),
+    FAT("g", "fat", "total fat", "fett"),
+    CARBS("g", "carbs", "carbohydrates", "kohlenhydrate"),
+    FIBER("g", "fiber", "fibre", "dietary fiber", "ballaststoffe"),
+    SUGAR("g", "sugar", "zucker"),
+    SALT("g", "salt", "salz");
+
+    private static final Map<String, Nutrient> BY_ALIAS = new HashMap<>();
+
+    static {
+        for (Nutrient nutrient : values()) {
+            for (String alias : nutrient.aliases) {
+                BY_ALIAS.put(IngredientNames.normalize(alias), nutrient);
+            }
+        }
+    }
+
+    private final String unit;
+    private final String[] aliases;
+
+    Nutrient(String unit, String... aliases) {
+        this.unit = unit;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Returns the unit amounts of this nutrient are given in.
+     *
+     * @return "kcal" for energy, "g" for all other nutrients
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Looks up the nutrient a hand-entered nutritional value denotes.
+     *
+     * @param title the title of the nutritional value, e.g. "Calories" or "Eiwei\u00df", may be null
+     * @return the nutrient, or empty if the title is not a core nutrient
+     */
+    public static Optional<Nutrient> parse(String title) {
+        return Optional.ofNullable(BY_ALIAS.get(IngredientNames.normalize(title)));
+    }
+}
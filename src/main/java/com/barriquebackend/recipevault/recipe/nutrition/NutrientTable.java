@@ -0,0 +1,180 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view of the binary nutrient table produced by {@link NutrientTableCompiler}.
+ * <p>
+ * The table is a single buffer, usually memory-mapped, laid out as follows (big-endian):
+ * </p>
+ * <pre>
+ * header   int magic, int version, int name count, int food count
+ * index    per name, sorted by name: int offset of the name in chars, int length in chars, int food
+ * foods    per food: one float per {@link Nutrient} per 100 g, float grams per piece, float grams per ml
+ * names    the normalized names as UTF-16 chars
+ * </pre>
+ * <p>
+ * Names are found by binary search over the sorted index, comparing the chars of the query with
+ * the chars in the buffer, so a lookup reads the buffer in place and allocates nothing. All reads
+ * use absolute positions, so one table can be shared by any number of threads.
+ * </p>
+ */
+public final class NutrientTable {
+
+    static final int MAGIC = 0x4E555452;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+    static final int INDEX_ENTRY_BYTES = 3 * Integer.BYTES;
+    static final int FOOD_FIELDS = Nutrient.values().length + 2;
+    static final int FOOD_BYTES = FOOD_FIELDS * Float.BYTES;
+
+    private static final int GRAMS_PER_PIECE = Nutrient.values().length;
+    private static final int GRAMS_PER_MILLILITER = GRAMS_PER_PIECE + 1;
+
+    /**
+     * A table without any food.
+     */
+    public static final NutrientTable EMPTY = of(empty());
+
+    private final ByteBuffer buffer;
+    private final int nameCount;
+    private final int foodCount;
+    private final int foodsOffset;
+    private final int namesOffset;
+
+    private NutrientTable(ByteBuffer buffer, int nameCount, int foodCount) {
+        this.buffer = buffer;
+        this.nameCount = nameCount;
+        this.foodCount = foodCount;
+        this.foodsOffset = HEADER_BYTES + nameCount * INDEX_ENTRY_BYTES;
+        this.namesOffset = foodsOffset + foodCount * FOOD_BYTES;
+    }
+
+    /**
+     * Opens a table stored in a buffer.
+     *
+     * @param buffer the buffer holding the complete table, e.g. a mapped file
+     * @return the table
+     * @throws IllegalArgumentException if the buffer does not hold a table of the supported version
+     */
+    public static NutrientTable of(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a nutrient table");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported nutrient table version " + buffer.getInt(4));
+        }
+        int nameCount = buffer.getInt(8);
+        int foodCount = buffer.getInt(12);
+        NutrientTable table = new NutrientTable(buffer, nameCount, foodCount);
+        if (nameCount < 0 || foodCount < 0 || table.namesOffset > buffer.limit()) {
+            throw new IllegalArgumentException("Truncated nutrient table");
+        }
+        return table;
+    }
+
+    /**
+     * Returns the number of names, including aliases.
+     *
+     * @return the number of names
+     */
+    public int size() {
+        return nameCount;
+    }
+
+    /**
+     * Finds the food with a normalized name.
+     *
+     * @param name the name, normalized like ingredient names
+     * @return the food, or -1 if the name is not in the table
+     */
+    public int find(CharSequence name) {
+        return find(name, 0, name.length());
+    }
+
+    /**
+     * Finds the food whose normalized name equals a range of chars, e.g. the last word of a name.
+     *
+     * @param name the chars to look up
+     * @param from the index of the first char, inclusive
+     * @param to   the index of the last char, exclusive
+     * @return the food, or -1 if the name is not in the table
+     */
+    public int find(CharSequence name, int from, int to) {
+        int low = 0;
+        int high = nameCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareName(middle, name, from, to);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return buffer.getInt(HEADER_BYTES + middle * INDEX_ENTRY_BYTES + 2 * Integer.BYTES);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the amount of a nutrient in 100 g of a food.
+     *
+     * @param food     the food, see {@link #find(CharSequence)}
+     * @param nutrient the nutrient
+     * @return the amount in the nutrient's unit
+     */
+    public float per100Grams(int food, Nutrient nutrient) {
+        return field(food, nutrient.ordinal());
+    }
+
+    /**
+     * Returns the weight of one piece of a food, e.g. of one egg.
+     *
+     * @param food the food, see {@link #find(CharSequence)}
+     * @return the weight in grams, or 0 if the food is not counted in pieces
+     */
+    public float gramsPerPiece(int food) {
+        return field(food, GRAMS_PER_PIECE);
+    }
+
+    /**
+     * Returns the density of a food.
+     *
+     * @param food the food, see {@link #find(CharSequence)}
+     * @return the weight of one milliliter in grams, or 0 if unknown
+     */
+    public float gramsPerMilliliter(int food) {
+        return field(food, GRAMS_PER_MILLILITER);
+    }
+
+    private float field(int food, int field) {
+        if (food < 0 || food >= foodCount) {
+            throw new IndexOutOfBoundsException("No food " + food);
+        }
+        return buffer.getFloat(foodsOffset + food * FOOD_BYTES + field * Float.BYTES);
+    }
+
+    /**
+     * Compares the name of an index entry with a range of chars, in the order of {@link String#compareTo}.
+     */
+    private int compareName(int entry, CharSequence name, int from, int to) {
+        int position = HEADER_BYTES + entry * INDEX_ENTRY_BYTES;
+        int offset = namesOffset + buffer.getInt(position) * Character.BYTES;
+        int length = buffer.getInt(position + Integer.BYTES);
+        int common = Math.min(length, to - from);
+        for (int i = 0; i < common; i++) {
+            int difference = buffer.getChar(offset + i * Character.BYTES) - name.charAt(from + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - (to - from);
+    }
+
+    private static ByteBuffer empty() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(0);
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,155 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Compiles the bundled nutrient CSV into the binary format read by {@link NutrientTable}.
+ * <p>
+ * Runs at build time (see the {@code compileNutrientTable} task in build.gradle), so the
+ * application only maps the finished table. The CSV has a header line and one food per line:
+ * </p>
+ * <pre>
+ * name,aliases,kcal,protein,fat,carbs,fiber,sugar,salt,grams_per_piece,grams_per_ml
+ * </pre>
+ * <p>
+ * Nutrients are given per 100 g. Aliases are separated by {@code |}; names and aliases are
+ * normalized like ingredient titles, so "Eggs" and "egg" are the same name. The piece weight and
+ * the density may be empty if unknown. Blank lines and lines starting with {@code #} are skipped.
+ * </p>
+ */
+public final class NutrientTableCompiler {
+
+    private static final String HEADER = "name,aliases,kcal,protein,fat,carbs,fiber,sugar,salt,grams_per_piece,grams_per_ml";
+    private static final int COLUMNS = 2 + NutrientTable.FOOD_FIELDS;
+
+    private NutrientTableCompiler() {
+    }
+
+    /**
+     * Compiles a CSV file into a table file.
+     *
+     * @param args the path of the CSV file and the path of the table file to write
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: NutrientTableCompiler <nutrients.csv> <nutrients.bin>");
+        }
+        Path output = Path.of(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (BufferedReader csv = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8);
+             OutputStream table = Files.newOutputStream(output)) {
+            compile(csv, table);
+        }
+    }
+
+    /**
+     * Compiles CSV lines into a table.
+     *
+     * @param csv   the CSV lines
+     * @param table the stream the table is written to
+     * @throws IOException              if the CSV cannot be read or the table cannot be written
+     * @throws IllegalArgumentException if the CSV is malformed or a name occurs twice
+     */
+    public static void compile(BufferedReader csv, OutputStream table) throws IOException {
+        List<float[]> foods = new ArrayList<>();
+        // Sorted in String order, which is the char order NutrientTable searches in
+        TreeMap<String, Integer> names = new TreeMap<>();
+        boolean header = true;
+        int lineNumber = 0;
+        String line;
+        while ((line = csv.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            if (header) {
+                if (!line.trim().toLowerCase(Locale.ROOT).equals(HEADER)) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected header " + HEADER);
+                }
+                header = false;
+                continue;
+            }
+            String[] columns = line.split(",", -1);
+            if (columns.length != COLUMNS) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected " + COLUMNS + " columns");
+            }
+            int food = foods.size();
+            foods.add(parseFields(columns, lineNumber));
+            addName(names, columns[0], food, lineNumber);
+            for (String alias : columns[1].split("\\|")) {
+                if (!alias.isBlank()) {
+                    addName(names, alias, food, lineNumber);
+                }
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(table);
+        out.writeInt(NutrientTable.MAGIC);
+        out.writeInt(NutrientTable.VERSION);
+        out.writeInt(names.size());
+        out.writeInt(foods.size());
+        int offset = 0;
+        for (var name : names.entrySet()) {
+            out.writeInt(offset);
+            out.writeInt(name.getKey().length());
+            out.writeInt(name.getValue());
+            offset += name.getKey().length();
+        }
+        for (float[] fields : foods) {
+            for (float field : fields) {
+                out.writeFloat(field);
+            }
+        }
+        for (String name : names.keySet()) {
+            out.writeChars(name);
+        }
+        out.flush();
+    }
+
+    private static float[] parseFields(String[] columns, int lineNumber) {
+        float[] fields = new float[NutrientTable.FOOD_FIELDS];
+        for (int i = 0; i < fields.length; i++) {
+            String value = columns[2 + i].trim();
+            boolean optional = i >= Nutrient.values().length;
+            if (value.isEmpty() && optional) {
+                continue;
+            }
+            try {
+                fields[i] = Float.parseFloat(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": invalid number '" + value + "'");
+            }
+            if (!(fields[i] >= 0) || Float.isInfinite(fields[i])) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": invalid number '" + value + "'");
+            }
+        }
+        return fields;
+    }
+
+    private static void addName(TreeMap<String, Integer> names, String title, int food, int lineNumber) {
+        String name = IngredientNames.normalize(title);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": empty name");
+        }
+        Integer previous = names.putIfAbsent(name, food);
+        // Spelling variants of the same food may normalize to the same name
+        if (previous != null && previous != food) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": duplicate name '" + name + "'");
+        }
+    }
+}
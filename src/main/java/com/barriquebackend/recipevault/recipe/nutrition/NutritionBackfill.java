@@ -0,0 +1,84 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import com.barriquebackend.backfill.Backfill;
+import com.barriquebackend.recipevault.recipe.IngredientAmountRow;
+import com.barriquebackend.recipevault.recipe.NutritionalValueRow;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the nutrition and serving nutrition of recipes saved before nutrition was computed
+ * on write.
+ * <p>
+ * Recipes without ingredients get zero amounts with a coverage of 0, so every recipe is visited
+ * once. Without a nutrient table nothing is written and the recipes are visited again on the
+ * next start; their serving nutrition is derived from hand-entered values meanwhile by
+ * {@link ServingNutritionBackfill}.
+ * </p>
+ */
+@Component
+public class NutritionBackfill implements Backfill {
+
+    private final RecipeRepository recipeRepository;
+    private final NutritionCalculator nutritionCalculator;
+
+    public NutritionBackfill(RecipeRepository recipeRepository, NutritionCalculator nutritionCalculator) {
+        this.recipeRepository = recipeRepository;
+        this.nutritionCalculator = nutritionCalculator;
+    }
+
+    @Override
+    public String name() {
+        return "recipe nutrition";
+    }
+
+    @Override
+    public Long migrateBatch(Long afterId, int batchSize) {
+        if (!nutritionCalculator.isAvailable()) {
+            return null;
+        }
+        List<Long> recipeIds = recipeRepository.findIdsWithUnsetNutrition(afterId, Limit.of(batchSize));
+        if (recipeIds.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, List<IngredientAmountRow>> ingredients = new HashMap<>();
+        for (IngredientAmountRow row : recipeRepository.findIngredientAmountRowsByRecipeIds(recipeIds)) {
+            ingredients.computeIfAbsent(row.recipeId(), id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, double[]> entered = new HashMap<>();
+        for (NutritionalValueRow row : recipeRepository.findNutritionalValueRowsByRecipeIds(recipeIds)) {
+            NutritionCalculator.addEntered(entered.computeIfAbsent(row.recipeId(), id -> NutritionCalculator.enteredNutrition()),
+                    row.title(), row.amount());
+        }
+        for (Long recipeId : recipeIds) {
+            double[] totals = new double[Nutrient.values().length];
+            int count = 0;
+            int found = 0;
+            // Recipes without ingredients have no row with their servings, but no usable computed nutrition either
+            int servings = 0;
+            for (IngredientAmountRow row : ingredients.getOrDefault(recipeId, List.of())) {
+                servings = row.servings();
+                if (row.title().isBlank()) {
+                    continue;
+                }
+                count++;
+                if (nutritionCalculator.add(totals, row.title(), row.amount(), row.unit(), row.measurementUnit())) {
+                    found++;
+                }
+            }
+            NutritionFacts nutrition = NutritionFacts.of(totals);
+            double coverage = NutritionCalculator.coverage(found, count);
+            NutritionFacts serving = nutritionCalculator.servingNutrition(
+                    entered.getOrDefault(recipeId, NutritionCalculator.enteredNutrition()), nutrition, coverage, servings);
+            recipeRepository.updateNutrition(recipeId, nutrition, coverage, serving);
+        }
+        return recipeIds.get(recipeIds.size() - 1);
+    }
+}
@@ -0,0 +1,286 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
+import com.barriquebackend.recipevault.recipe.components.dictionary.MeasurementUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Computes the nutrition of recipes from their ingredients and the bundled nutrient table.
+ * <p>
+ * The table is compiled from {@code src/main/nutrients/nutrients.csv} at build time and mapped
+ * into memory at startup; if it is packaged inside the application jar it is read into a direct
+ * buffer instead. Every ingredient with an amount is converted to grams: masses directly, volumes
+ * with the food's density (1 g/ml if unknown), pieces with the food's piece weight, and an
+ * amount without a unit counts as pieces. An ingredient is looked up by its normalized name and,
+ * failing that, by its trailing words, so "ripe red tomato" finds "tomato". Ingredients that are
+ * not found or cannot be converted are left out and lower the reported coverage.
+ * </p>
+ * <p>
+ * A recipe's serving nutrition, which nutrient range filters query, prefers hand-entered
+ * nutritional values and falls back to the computed nutrition divided by the servings.
+ * </p>
+ */
+@Component
+public class NutritionCalculator {
+
+    private static final Logger log = LoggerFactory.getLogger(NutritionCalculator.class);
+
+    // Weight of a pinch of a dry spice
+    private static final double GRAMS_PER_PINCH = 0.36;
+    // Salt is sodium times 2.5; hand-entered sodium is given in milligrams, as in schema.org recipes
+    private static final double SALT_GRAMS_PER_SODIUM_MILLIGRAM = 2.5 / 1000;
+
+    private final NutrientTable table;
+    private final double minCoverage;
+
+    /**
+     * Constructs a NutritionCalculator with the table at the configured location.
+     *
+     * @param tableResource the compiled nutrient table
+     * @param minCoverage   the coverage from which computed nutrition counts as a recipe's serving nutrition
+     * @throws IOException if the table exists but cannot be read
+     */
+    public NutritionCalculator(@Value("${recipevault.nutrients.table:classpath:nutrients/nutrients.bin}") Resource tableResource,
+                               @Value("${recipevault.nutrients.min-coverage:0.75}") double minCoverage)
+            throws IOException {
+        this.table = load(tableResource);
+        this.minCoverage = minCoverage;
+    }
+
+    /**
+     * Returns whether a nutrient table is loaded; without one, no nutrition is computed.
+     *
+     * @return true if the table has at least one food
+     */
+    public boolean isAvailable() {
+        return table.size() > 0;
+    }
+
+    /**
+     * Computes the nutrition of a recipe from its ingredients and stores it in the recipe, then
+     * updates its serving nutrition (see {@link #applyServingNutrition(Recipe)}). Without a
+     * nutrient table only the serving nutrition is updated.
+     *
+     * @param recipe the recipe whose ingredients have been canonicalized
+     */
+    public void apply(Recipe recipe) {
+        if (isAvailable()) {
+            double[] totals = new double[Nutrient.values().length];
+            int ingredients = 0;
+            int found = 0;
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                if (ingredient.getTitle() == null || ingredient.getTitle().isBlank()) {
+                    continue;
+                }
+                ingredients++;
+                if (add(totals, ingredient.getTitle(), ingredient.getAmount(), ingredient.getUnit(),
+                        ingredient.getMeasurementUnit())) {
+                    found++;
+                }
+            }
+            recipe.setComputedNutrition(NutritionFacts.of(totals));
+            recipe.setNutritionCoverage(coverage(found, ingredients));
+        }
+        applyServingNutrition(recipe);
+    }
+
+    /**
+     * Updates the typed per-serving nutrient columns of a recipe that range filters query.
+     *
+     * @param recipe the recipe whose nutritional values, servings and computed nutrition are current
+     */
+    public void applyServingNutrition(Recipe recipe) {
+        double[] entered = enteredNutrition();
+        for (NutritionalValue value : recipe.getNutritionalValues()) {
+            addEntered(entered, value.getTitle(), value.getAmount());
+        }
+        recipe.setServingNutrition(servingNutrition(entered, recipe.getComputedNutrition(),
+                recipe.getNutritionCoverage(), recipe.getServings()));
+        recipe.setServingNutritionSet(true);
+    }
+
+    /**
+     * Creates an empty array of hand-entered amounts for {@link #addEntered}.
+     *
+     * @return the amounts indexed by {@link Nutrient#ordinal()}, all NaN
+     */
+    public static double[] enteredNutrition() {
+        double[] entered = new double[Nutrient.values().length + 1];
+        Arrays.fill(entered, Double.NaN);
+        return entered;
+    }
+
+    /**
+     * Records a hand-entered nutritional value if its title denotes a core nutrient or sodium.
+     * The first value of each nutrient wins.
+     *
+     * @param entered the amounts created by {@link #enteredNutrition()}
+     * @param title   the title of the nutritional value
+     * @param amount  the amount per serving, may be null
+     */
+    public static void addEntered(double[] entered, String title, Double amount) {
+        if (amount == null || amount < 0) {
+            return;
+        }
+        // Sodium is kept in the extra last slot and only used if no salt was entered
+        int slot = Nutrient.parse(title).map(Enum::ordinal)
+                .orElse(IngredientNames.normalize(title).matches("sodium|natrium") ? Nutrient.values().length : -1);
+        if (slot >= 0 && Double.isNaN(entered[slot])) {
+            entered[slot] = amount;
+        }
+    }
+
+    /**
+     * Combines hand-entered and computed nutrition into the nutrition of one serving. A
+     * hand-entered amount wins; otherwise the computed amount is used if enough ingredients were
+     * found and the recipe has servings.
+     *
+     * @param entered          the hand-entered amounts, see {@link #addEntered}
+     * @param computed         the computed nutrition of the whole recipe, may be null
+     * @param computedCoverage the coverage of the computed nutrition, may be null
+     * @param servings         the servings of the recipe
+     * @return the serving nutrition, with null for nutrients that are unknown
+     */
+    public NutritionFacts servingNutrition(double[] entered, NutritionFacts computed, Double computedCoverage, int servings) {
+        int sodium = Nutrient.values().length;
+        if (Double.isNaN(entered[Nutrient.SALT.ordinal()]) && !Double.isNaN(entered[sodium])) {
+            entered[Nutrient.SALT.ordinal()] = entered[sodium] * SALT_GRAMS_PER_SODIUM_MILLIGRAM;
+        }
+        boolean useComputed = computed != null && computedCoverage != null && computedCoverage >= minCoverage
+                && computedCoverage > 0 && servings > 0;
+        NutritionFacts facts = new NutritionFacts();
+        for (Nutrient nutrient : Nutrient.values()) {
+            double amount = entered[nutrient.ordinal()];
+            if (Double.isNaN(amount) && useComputed && computed.get(nutrient) != null) {
+                amount = computed.get(nutrient) / servings;
+            }
+            facts.set(nutrient, Double.isNaN(amount) ? null : Math.round(amount * 10) / 10.0);
+        }
+        return facts;
+    }
+
+    /**
+     * Adds the nutrients of one ingredient to running totals.
+     *
+     * @param totals          the totals indexed by {@link Nutrient#ordinal()}
+     * @param title           the ingredient title as entered
+     * @param amount          the amount, may be null
+     * @param unit            the unit as entered, may be null
+     * @param measurementUnit the canonical unit, or null if the unit is missing or unknown
+     * @return true if the ingredient was found and its amount converted
+     */
+    public boolean add(double[] totals, String title, Double amount, String unit, MeasurementUnit measurementUnit) {
+        if (amount == null || amount < 0) {
+            return false;
+        }
+        int food = find(IngredientNames.normalize(title));
+        if (food < 0) {
+            return false;
+        }
+        double grams = grams(food, amount, unit, measurementUnit);
+        if (grams < 0) {
+            return false;
+        }
+        for (Nutrient nutrient : Nutrient.values()) {
+            totals[nutrient.ordinal()] += table.per100Grams(food, nutrient) * grams / 100;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the fraction of found ingredients.
+     *
+     * @param found       the number of ingredients found in the table
+     * @param ingredients the number of ingredients
+     * @return the coverage from 0 to 1, rounded to two decimals; 0 for a recipe without ingredients
+     */
+    public static double coverage(int found, int ingredients) {
+        return ingredients > 0 ? Math.round(100.0 * found / ingredients) / 100.0 : 0;
+    }
+
+    /**
+     * Finds a normalized name, or else its longest suffix of whole words that is in the table.
+     */
+    private int find(String name) {
+        int start = 0;
+        while (!name.isEmpty()) {
+            int food = table.find(name, start, name.length());
+            if (food >= 0) {
+                return food;
+            }
+            int space = name.indexOf(' ', start);
+            if (space < 0) {
+                return -1;
+            }
+            start = space + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Converts an amount to grams, or returns -1 if the unit cannot be converted for the food.
+     */
+    private double grams(int food, double amount, String unit, MeasurementUnit measurementUnit) {
+        if (measurementUnit == null) {
+            if (unit != null && !unit.isBlank()) {
+                // Rows not yet canonicalized by the dictionary backfill only have the unit as entered
+                measurementUnit = MeasurementUnit.parse(unit).orElse(null);
+                if (measurementUnit == null) {
+                    return -1;
+                }
+            } else {
+                measurementUnit = MeasurementUnit.PIECE;
+            }
+        }
+        return switch (measurementUnit.getDimension()) {
+            case MASS -> measurementUnit.toBase(amount);
+            case VOLUME -> {
+                float density = table.gramsPerMilliliter(food);
+                yield measurementUnit.toBase(amount) * (density > 0 ? density : 1);
+            }
+            case COUNT -> {
+                if (measurementUnit == MeasurementUnit.PINCH) {
+                    yield amount * GRAMS_PER_PINCH;
+                }
+                float pieceWeight = table.gramsPerPiece(food);
+                yield pieceWeight > 0 ? amount * pieceWeight : -1;
+            }
+        };
+    }
+
+    private static NutrientTable load(Resource resource) throws IOException {
+        if (!resource.exists()) {
+            log.warn("Nutrient table {} not found; recipe nutrition will not be computed", resource);
+            return NutrientTable.EMPTY;
+        }
+        long start = System.nanoTime();
+        NutrientTable table;
+        if (resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                table = NutrientTable.of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        } else {
+            try (InputStream in = resource.getInputStream()) {
+                byte[] bytes = in.readAllBytes();
+                table = NutrientTable.of(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+            }
+        }
+        log.info("Loaded nutrient table with {} names in {} ms", table.size(), (System.nanoTime() - start) / 1_000_000);
+        return table;
+    }
+}
@@ -0,0 +1,114 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import jakarta.persistence.Embeddable;
+
+/**
+ * Amounts of the core {@link Nutrient}s, either for a whole recipe or for one serving.
+ */
+@Embeddable
+public class NutritionFacts {
+
+    private Double kcal;
+    private Double protein;
+    private Double fat;
+    private Double carbs;
+    private Double fiber;
+    private Double sugar;
+    private Double salt;
+
+    public NutritionFacts() {
+    }
+
+    /**
+     * Creates nutrition facts from amounts indexed by {@link Nutrient#ordinal()}, rounded to one decimal.
+     *
+     * @param amounts the amount of every nutrient
+     * @return the nutrition facts
+     */
+    public static NutritionFacts of(double[] amounts) {
+        NutritionFacts facts = new NutritionFacts();
+        for (Nutrient nutrient : Nutrient.values()) {
+            facts.set(nutrient, Math.round(amounts[nutrient.ordinal()] * 10) / 10.0);
+        }
+        return facts;
+    }
+
+    /**
+     * Divides all amounts, e.g. to get the nutrition of one serving from that of a recipe.
+     *
+     * @param divisor the positive divisor
+     * @return new nutrition facts with the divided amounts, rounded to one decimal
+     */
+    public NutritionFacts divide(int divisor) {
+        double[] amounts = new double[Nutrient.values().length];
+        for (Nutrient nutrient : Nutrient.values()) {
+            Double amount = get(nutrient);
+            amounts[nutrient.ordinal()] = amount != null ? amount / divisor : 0;
+        }
+        return of(amounts);
+    }
+
+    /**
+     * Returns the amount of a nutrient.
+     *
+     * @param nutrient the nutrient
+     * @return the amount in the nutrient's unit, or null if unknown
+     */
+    public Double get(Nutrient nutrient) {
+        return switch (nutrient) {
+            case KCAL -> kcal;
+            case PROTEIN -> protein;
+            case FAT -> fat;
+            case CARBS -> carbs;
+            case FIBER -> fiber;
+            case SUGAR -> sugar;
+            case SALT -> salt;
+        };
+    }
+
+    /**
+     * Sets the amount of a nutrient.
+     *
+     * @param nutrient the nutrient
+     * @param amount   the amount in the nutrient's unit, or null if unknown
+     */
+    public void set(Nutrient nutrient, Double amount) {
+        switch (nutrient) {
+            case KCAL -> kcal = amount;
+            case PROTEIN -> protein = amount;
+            case FAT -> fat = amount;
+            case CARBS -> carbs = amount;
+            case FIBER -> fiber = amount;
+            case SUGAR -> sugar = amount;
+            case SALT -> salt = amount;
+        }
+    }
+
+    public Double getKcal() {
+        return kcal;
+    }
+
+    public Double getProtein() {
+        return protein;
+    }
+
+    public Double getFat() {
+        return fat;
+    }
+
+    public Double getCarbs() {
+        return carbs;
+    }
+
+    public Double getFiber() {
+        return fiber;
+    }
+
+    public Double getSugar() {
+        return sugar;
+    }
+
+    public Double getSalt() {
+        return salt;
+    }
+}
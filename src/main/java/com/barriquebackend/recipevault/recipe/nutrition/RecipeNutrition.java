@@ -0,0 +1,12 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+/**
+ * Nutrition of a recipe computed from its ingredients.
+ *
+ * @param coverage   the fraction of ingredients found in the nutrient table, from 0 to 1;
+ *                   ingredients that were not found are missing from the amounts
+ * @param total      the nutrition of the whole recipe
+ * @param perServing the nutrition of one serving, or null if the recipe has no servings
+ */
+public record RecipeNutrition(double coverage, NutritionFacts total, NutritionFacts perServing) {
+}
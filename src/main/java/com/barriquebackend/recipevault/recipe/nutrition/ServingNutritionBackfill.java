@@ -0,0 +1,58 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import com.barriquebackend.backfill.Backfill;
+import com.barriquebackend.recipevault.recipe.NutritionalValueRow;
+import com.barriquebackend.recipevault.recipe.RecipeNutritionRow;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives the serving nutrition of recipes saved before it was stored.
+ * <p>
+ * Unlike {@link NutritionBackfill} this also runs without a nutrient table: hand-entered values
+ * are used as they are, and computed nutrition only where it has already been stored. Recipes
+ * whose nutrition is computed later get their serving nutrition updated along with it.
+ * </p>
+ */
+@Component
+public class ServingNutritionBackfill implements Backfill {
+
+    private final RecipeRepository recipeRepository;
+    private final NutritionCalculator nutritionCalculator;
+
+    public ServingNutritionBackfill(RecipeRepository recipeRepository, NutritionCalculator nutritionCalculator) {
+        this.recipeRepository = recipeRepository;
+        this.nutritionCalculator = nutritionCalculator;
+    }
+
+    @Override
+    public String name() {
+        return "recipe serving nutrition";
+    }
+
+    @Override
+    public Long migrateBatch(Long afterId, int batchSize) {
+        List<Long> recipeIds = recipeRepository.findIdsWithUnsetServingNutrition(afterId, Limit.of(batchSize));
+        if (recipeIds.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, double[]> entered = new HashMap<>();
+        for (NutritionalValueRow row : recipeRepository.findNutritionalValueRowsByRecipeIds(recipeIds)) {
+            NutritionCalculator.addEntered(entered.computeIfAbsent(row.recipeId(), id -> NutritionCalculator.enteredNutrition()),
+                    row.title(), row.amount());
+        }
+        for (RecipeNutritionRow row : recipeRepository.findNutritionRowsByRecipeIds(recipeIds)) {
+            NutritionFacts serving = nutritionCalculator.servingNutrition(
+                    entered.getOrDefault(row.recipeId(), NutritionCalculator.enteredNutrition()),
+                    row.computedNutrition(), row.coverage(), row.servings());
+            recipeRepository.updateServingNutrition(row.recipeId(), serving);
+        }
+        return recipeIds.get(recipeIds.size() - 1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.barriquebackend.recipevault.recipe.pantry;
+
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for finding recipes that can be cooked from the ingredients at hand.
+ */
+@RestController
+@RequestMapping("/api")
+public class PantryController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final PantryService pantryService;
+
+    /**
+     * Constructs a PantryController with the specified PantryService.
+     *
+     * @param pantryService  the service for pantry queries
+     */
+    public PantryController(PantryService pantryService) {
+        this.pantryService = pantryService;
+    }
+
+    /**
+     * Ranks the authenticated user's recipes by ingredient coverage of the given pantry.
+     *
+     * @param pantry      the available ingredients, e.g. ["eggs", "flour", "milk"]
+     * @param minCoverage the minimum fraction of available ingredients, from 0 to 1
+     * @param limit       the maximum number of recipes
+     * @param user        the authenticated user
+     * @return the matching recipes with their coverage and missing ingredients
+     */
+    @PostMapping("/recipe/pantry")
+    public List<PantryMatch> findCookableRecipes(@RequestBody List<String> pantry,
+                                                 @RequestParam(defaultValue = "0") double minCoverage,
+                                                 @RequestParam(defaultValue = "20") int limit,
+                                                 @CurrentUser User user) {
+        return pantryService.findCookableRecipes(user.getId(), pantry, minCoverage, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
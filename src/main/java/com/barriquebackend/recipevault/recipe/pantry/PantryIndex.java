@@ -0,0 +1,166 @@
+package com.barriquebackend.recipevault.recipe.pantry;
+
+import com.barriquebackend.recipevault.recipe.RecipeTextRow;
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable inverted index from normalized ingredient names to the recipes of a single user.
+ * <p>
+ * Recipes are addressed by a dense ordinal and ingredient names by a dense term ID. Posting lists
+ * are sorted {@code int[]} arrays of recipe ordinals, and each recipe keeps the {@code int[]} of
+ * its distinct term IDs, so a pantry query only touches primitive arrays and a per-query hit
+ * counter, never recipe entities.
+ * </p>
+ */
+final class PantryIndex {
+
+    private static final int[] NO_TERMS = new int[0];
+
+    private final long[] recipeIds;
+    private final String[] titles;
+    private final int[][] recipeTerms;
+    private final String[] terms;
+    private final Map<String, Integer> termIds;
+    private final Map<String, int[]> termIdsByHeadWord;
+    private final int[][] postings;
+
+    private PantryIndex(long[] recipeIds, String[] titles, int[][] recipeTerms, String[] terms,
+                        Map<String, Integer> termIds, Map<String, int[]> termIdsByHeadWord, int[][] postings) {
+        this.recipeIds = recipeIds;
+        this.titles = titles;
+        this.recipeTerms = recipeTerms;
+        this.terms = terms;
+        this.termIds = termIds;
+        this.termIdsByHeadWord = termIdsByHeadWord;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds the index from projection rows.
+     *
+     * @param titleRows      one row per recipe with its title
+     * @param ingredientRows one row per ingredient with its title
+     * @return the index
+     */
+    static PantryIndex build(List<RecipeTextRow> titleRows, List<RecipeTextRow> ingredientRows) {
+        Map<Long, Integer> ordinals = new HashMap<>();
+        long[] recipeIds = new long[titleRows.size()];
+        String[] titles = new String[titleRows.size()];
+        for (int i = 0; i < titleRows.size(); i++) {
+            recipeIds[i] = titleRows.get(i).recipeId();
+            titles[i] = titleRows.get(i).text();
+            ordinals.put(recipeIds[i], i);
+        }
+
+        Map<String, Integer> termIds = new LinkedHashMap<>();
+        List<Set<Integer>> termsPerRecipe = new ArrayList<>(recipeIds.length);
+        for (int i = 0; i < recipeIds.length; i++) {
+            termsPerRecipe.add(new LinkedHashSet<>());
+        }
+        for (RecipeTextRow row : ingredientRows) {
+            Integer ordinal = ordinals.get(row.recipeId());
+            String name = IngredientNames.normalize(row.text());
+            if (ordinal != null && !name.isEmpty()) {
+                termsPerRecipe.get(ordinal).add(termIds.computeIfAbsent(name, key -> termIds.size()));
+            }
+        }
+
+        String[] terms = termIds.keySet().toArray(new String[0]);
+        int[] postingSizes = new int[terms.length];
+        int[][] recipeTerms = new int[recipeIds.length][];
+        for (int ordinal = 0; ordinal < recipeIds.length; ordinal++) {
+            recipeTerms[ordinal] = termsPerRecipe.get(ordinal).stream().mapToInt(Integer::intValue).toArray();
+            for (int termId : recipeTerms[ordinal]) {
+                postingSizes[termId]++;
+            }
+        }
+        // Filling postings in ordinal order keeps every posting list sorted
+        int[][] postings = new int[terms.length][];
+        for (int termId = 0; termId < terms.length; termId++) {
+            postings[termId] = new int[postingSizes[termId]];
+            postingSizes[termId] = 0;
+        }
+        for (int ordinal = 0; ordinal < recipeIds.length; ordinal++) {
+            for (int termId : recipeTerms[ordinal]) {
+                postings[termId][postingSizes[termId]++] = ordinal;
+            }
+        }
+
+        Map<String, List<Integer>> headWords = new HashMap<>();
+        for (int termId = 0; termId < terms.length; termId++) {
+            headWords.computeIfAbsent(IngredientNames.headWord(terms[termId]), key -> new ArrayList<>()).add(termId);
+        }
+        Map<String, int[]> termIdsByHeadWord = new HashMap<>();
+        headWords.forEach((word, ids) -> termIdsByHeadWord.put(word, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new PantryIndex(recipeIds, titles, recipeTerms, terms, termIds, termIdsByHeadWord, postings);
+    }
+
+    /**
+     * Ranks recipes by the fraction of their ingredients that are available in the pantry.
+     * A pantry item matches an ingredient with the same normalized name or with that name as head
+     * word, so "tomatoes" in the pantry also covers "cherry tomatoes".
+     *
+     * @param pantry      the available ingredients as entered by the user
+     * @param minCoverage the minimum coverage of a returned recipe, from 0 to 1
+     * @param limit       the maximum number of matches
+     * @return the matches, highest coverage first, then fewest missing ingredients
+     */
+    List<PantryMatch> match(Collection<String> pantry, double minCoverage, int limit) {
+        boolean[] available = new boolean[terms.length];
+        for (String item : pantry) {
+            String name = IngredientNames.normalize(item);
+            Integer termId = termIds.get(name);
+            if (termId != null) {
+                available[termId] = true;
+            }
+            for (int headWordTermId : termIdsByHeadWord.getOrDefault(name, NO_TERMS)) {
+                available[headWordTermId] = true;
+            }
+        }
+
+        int[] hits = new int[recipeIds.length];
+        for (int termId = 0; termId < terms.length; termId++) {
+            if (available[termId]) {
+                for (int ordinal : postings[termId]) {
+                    hits[ordinal]++;
+                }
+            }
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int ordinal = 0; ordinal < recipeIds.length; ordinal++) {
+            if (hits[ordinal] > 0 && coverage(hits, ordinal) >= minCoverage) {
+                candidates.add(ordinal);
+            }
+        }
+        candidates.sort(Comparator.<Integer>comparingDouble(ordinal -> -coverage(hits, ordinal))
+                .thenComparingInt(ordinal -> recipeTerms[ordinal].length - hits[ordinal])
+                .thenComparingLong(ordinal -> recipeIds[ordinal]));
+
+        return candidates.stream()
+                .limit(limit)
+                .map(ordinal -> new PantryMatch(recipeIds[ordinal], titles[ordinal], coverage(hits, ordinal),
+                        Arrays.stream(recipeTerms[ordinal])
+                                .filter(termId -> !available[termId])
+                                .mapToObj(termId -> terms[termId])
+                                .toList()))
+                .toList();
+    }
+
+    private double coverage(int[] hits, int ordinal) {
+        int total = recipeTerms[ordinal].length;
+        return total == 0 ? 0.0 : (double) hits[ordinal] / total;
+    }
+}
@@ -0,0 +1,14 @@
+package com.barriquebackend.recipevault.recipe.pantry;
+
+import java.util.List;
+
+/**
+ * A recipe ranked by how much of it can be cooked from a pantry.
+ *
+ * @param recipeId           the ID of the recipe
+ * @param title              the title of the recipe
+ * @param coverage           the fraction of the recipe's ingredients available in the pantry, from 0 to 1
+ * @param missingIngredients the normalized names of the ingredients not available in the pantry
+ */
+public record PantryMatch(Long recipeId, String title, double coverage, List<String> missingIngredients) {
+}
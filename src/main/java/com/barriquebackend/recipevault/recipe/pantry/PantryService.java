@@ -0,0 +1,74 @@
+package com.barriquebackend.recipevault.recipe.pantry;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeChangeListener;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.index.UserIndexCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service class answering "what can I cook" queries against a user's recipes.
+ * <p>
+ * A user's {@link PantryIndex} is built from two projection queries on first use. Since the index
+ * is immutable, any write to one of the user's recipes drops it and it is rebuilt on the next query.
+ * </p>
+ */
+@Service
+public class PantryService implements RecipeChangeListener {
+
+    private final RecipeRepository recipeRepository;
+    private final UserIndexCache<PantryIndex> indexes;
+
+    /**
+     * Constructs a PantryService.
+     *
+     * @param recipeRepository the repository used to build indexes
+     * @param maxCachedUsers   the maximum number of users whose index is kept in memory
+     */
+    public PantryService(RecipeRepository recipeRepository,
+                         @Value("${recipevault.pantry.max-cached-users:500}") int maxCachedUsers) {
+        this.recipeRepository = recipeRepository;
+        this.indexes = new UserIndexCache<>(maxCachedUsers);
+    }
+
+    /**
+     * Ranks the specified user's recipes by how many of their ingredients are in the pantry.
+     *
+     * @param userId      the ID of the user whose recipes are ranked
+     * @param pantry      the available ingredients
+     * @param minCoverage the minimum fraction of available ingredients, from 0 to 1
+     * @param limit       the maximum number of matches
+     * @return the best matching recipes
+     */
+    public List<PantryMatch> findCookableRecipes(Long userId, Collection<String> pantry, double minCoverage, int limit) {
+        return indexes.get(userId, this::buildIndex).match(pantry, minCoverage, limit);
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        indexes.invalidate(recipe.getUser().getId());
+    }
+
+    @Override
+    public void recipePatched(Recipe recipe, Set<String> properties) {
+        // The index only holds titles and ingredient titles
+        if (properties.contains("title") || properties.contains("ingredients")) {
+            recipeSaved(recipe);
+        }
+    }
+
+    @Override
+    public void recipeDeleted(Long userId, Long recipeId) {
+        indexes.invalidate(userId);
+    }
+
+    private PantryIndex buildIndex(Long userId) {
+        return PantryIndex.build(recipeRepository.findTitleRowsByUserId(userId),
+                recipeRepository.findIngredientTitleRowsByUserId(userId));
+    }
+}
@@ -0,0 +1,84 @@
+package com.barriquebackend.recipevault.recipe.revision;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One entry of a recipe's revision history.
+ * <p>
+ * A checkpoint stores the complete recipe JSON; every other revision stores the JSON Merge Patch
+ * from the previous revision. Both are deflate-compressed. The recipe is referenced by ID only,
+ * so that writing history never loads the recipe and set-based recipe deletes can remove it.
+ * </p>
+ */
+@Entity
+@Table(name = "recipe_revision",
+        uniqueConstraints = @UniqueConstraint(name = "uk_recipe_revision_recipe_id_revision",
+                columnNames = {"recipe_id", "revision"}))
+public class RecipeRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_revision_seq")
+    @SequenceGenerator(name = "recipe_revision_seq", sequenceName = "recipe_revision_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false)
+    private boolean checkpoint;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Size of data, so that revision lists do not read the stored documents
+    @Column(nullable = false)
+    private int storedBytes;
+
+    @Column(nullable = false, length = 16777216)
+    private byte[] data;
+
+    public RecipeRevision() {
+    }
+
+    public RecipeRevision(Long recipeId, int revision, boolean checkpoint, Instant createdAt, byte[] data) {
+        this.recipeId = recipeId;
+        this.revision = revision;
+        this.checkpoint = checkpoint;
+        this.createdAt = createdAt;
+        this.storedBytes = data.length;
+        this.data = data;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRecipeId() {
+        return recipeId;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public boolean isCheckpoint() {
+        return checkpoint;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getStoredBytes() {
+        return storedBytes;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+}
@@ -0,0 +1,71 @@
+package com.barriquebackend.recipevault.recipe.revision;
+
+import com.barriquebackend.recipevault.recipe.RecipeService;
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for the revision history of recipes.
+ */
+@RestController
+@RequestMapping("/api")
+public class RecipeRevisionController {
+
+    private final RecipeRevisionService recipeRevisionService;
+    private final RecipeService recipeService;
+
+    /**
+     * Constructs a RecipeRevisionController.
+     *
+     * @param recipeRevisionService the service for recipe revisions
+     * @param recipeService         the service used to check recipe ownership
+     */
+    public RecipeRevisionController(RecipeRevisionService recipeRevisionService, RecipeService recipeService) {
+        this.recipeRevisionService = recipeRevisionService;
+        this.recipeService = recipeService;
+    }
+
+    /**
+     * Lists the revisions of a recipe of the authenticated user, newest first.
+     *
+     * @param id   the ID of the recipe
+     * @param user the authenticated user
+     * @return a ResponseEntity with the revisions, or 404 if the user has no recipe with this ID
+     */
+    @GetMapping("/recipe/{id}/revisions")
+    public ResponseEntity<List<RecipeRevisionSummary>> getRevisions(@PathVariable Long id, @CurrentUser User user) {
+        if (recipeService.getRecipeVersion(id, user.getId()).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(recipeRevisionService.getRevisions(id));
+    }
+
+    /**
+     * Retrieves a recipe of the authenticated user as it was at the given revision.
+     * <p>
+     * The revision is reconstructed from the nearest preceding checkpoint and the deltas since,
+     * so it is always read with one query regardless of how long the history is.
+     * </p>
+     *
+     * @param id       the ID of the recipe
+     * @param revision the revision number
+     * @param user     the authenticated user
+     * @return a ResponseEntity with the recipe JSON of that revision, or 404 if the user has no recipe
+     * with this ID or the revision does not exist
+     */
+    @GetMapping("/recipe/{id}/revisions/{revision}")
+    public ResponseEntity<JsonNode> getRevision(@PathVariable Long id, @PathVariable int revision,
+                                                @CurrentUser User user) {
+        if (recipeService.getRecipeVersion(id, user.getId()).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return recipeRevisionService.getRevision(id, revision)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
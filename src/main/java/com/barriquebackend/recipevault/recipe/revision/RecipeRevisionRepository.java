@@ -0,0 +1,30 @@
+package com.barriquebackend.recipevault.recipe.revision;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecipeRevisionRepository extends JpaRepository<RecipeRevision, Long> {
+
+    @Query("select new com.barriquebackend.recipevault.recipe.revision.RecipeRevisionSummary("
+            + "r.revision, r.checkpoint, r.createdAt, r.storedBytes) "
+            + "from RecipeRevision r where r.recipeId = :recipeId order by r.revision desc")
+    List<RecipeRevisionSummary> findSummariesByRecipeId(@Param("recipeId") Long recipeId);
+
+    // The revisions needed to materialize one revision: the nearest checkpoint at or before it and all deltas since.
+    @Query("select r from RecipeRevision r where r.recipeId = :recipeId and r.revision <= :revision "
+            + "and r.revision >= (select max(c.revision) from RecipeRevision c "
+            + "where c.recipeId = :recipeId and c.checkpoint = true and c.revision <= :revision) "
+            + "order by r.revision")
+    List<RecipeRevision> findReplayChain(@Param("recipeId") Long recipeId, @Param("revision") int revision);
+
+    @Modifying
+    @Query("delete from RecipeRevision r where r.recipeId in :recipeIds")
+    int deleteByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
+}
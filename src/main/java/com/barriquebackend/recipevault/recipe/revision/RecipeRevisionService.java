@@ -0,0 +1,226 @@
+package com.barriquebackend.recipevault.recipe.revision;
+
+import com.barriquebackend.json.FieldSelection;
+import com.barriquebackend.json.MergePatch;
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keeps the revision history of recipes.
+ * <p>
+ * {@link com.barriquebackend.recipevault.recipe.RecipeService} takes a snapshot of the properties
+ * it is about to change and, after the change, records a new revision in the same transaction.
+ * A revision stores the JSON Merge Patch from the previous revision, which for a typical edit is a
+ * few hundred bytes; every {@code checkpoint-interval} revisions a complete snapshot is stored
+ * instead. Any revision is materialized by replaying at most that many patches onto the nearest
+ * preceding checkpoint, read with a single query.
+ * </p>
+ */
+@Service
+public class RecipeRevisionService {
+
+    private static final String NUTRITION = "nutrition";
+    private static final Set<String> NUTRITION_INPUTS = Set.of("servings", "ingredients", "nutritionalValues");
+
+    private final RecipeRevisionRepository recipeRevisionRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int checkpointInterval;
+
+    /**
+     * Constructs a RecipeRevisionService.
+     *
+     * @param recipeRevisionRepository the repository of stored revisions
+     * @param objectMapper             the mapper used to serialize recipes
+     * @param entityManager            the entity manager used to flush recipes before they are recorded
+     * @param checkpointInterval       the number of revisions between complete snapshots
+     */
+    public RecipeRevisionService(RecipeRevisionRepository recipeRevisionRepository,
+                                 ObjectMapper objectMapper,
+                                 EntityManager entityManager,
+                                 @Value("${recipevault.revisions.checkpoint-interval:20}") int checkpointInterval) {
+        this.recipeRevisionRepository = recipeRevisionRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+    }
+
+    /**
+     * Serializes a complete recipe as it is stored in the history.
+     *
+     * @param recipe the recipe
+     * @return the recipe JSON without null properties
+     */
+    public ObjectNode snapshot(Recipe recipe) {
+        return snapshot(recipe, FieldSelection.parse(null));
+    }
+
+    /**
+     * Serializes some properties of a recipe. Child collections are only loaded if selected.
+     * <p>
+     * The read-only {@code nutrition} property is derived from the servings, ingredients and
+     * nutritional values, so it is included whenever one of them is, and a replayed revision
+     * shows the nutrition that was served with it.
+     * </p>
+     *
+     * @param recipe     the recipe
+     * @param properties the names of the top-level properties to serialize
+     * @return the recipe JSON restricted to the properties, without null properties
+     */
+    public ObjectNode snapshot(Recipe recipe, Collection<String> properties) {
+        if (properties.isEmpty()) {
+            return objectMapper.createObjectNode();
+        }
+        Set<String> selected = new LinkedHashSet<>(properties);
+        if (!Collections.disjoint(selected, NUTRITION_INPUTS)) {
+            selected.add(NUTRITION);
+        }
+        return snapshot(recipe, FieldSelection.parse(String.join(",", selected)));
+    }
+
+    /**
+     * Records the first revision of a newly created recipe as a checkpoint.
+     *
+     * @param recipe the saved recipe, whose revision number has been set to 1
+     */
+    public void recordCreated(Recipe recipe) {
+        save(recipe.getRecipeId(), recipe.getRevision(), true, snapshot(recipe));
+    }
+
+    /**
+     * Records a new revision if a recipe differs from a snapshot taken before it was changed.
+     * <p>
+     * The recipe's revision number is incremented, which also makes Hibernate increment its
+     * version when only components changed.
+     * </p>
+     *
+     * @param recipe     the changed recipe
+     * @param before     the snapshot taken before the change
+     * @param properties the properties covered by the snapshot, or null if it is complete
+     */
+    public void recordChange(Recipe recipe, ObjectNode before, Collection<String> properties) {
+        if (before.equals(properties == null ? snapshot(recipe) : snapshot(recipe, properties))) {
+            return;
+        }
+        int revision = recipe.getRevision() + 1;
+        recipe.setRevision(revision);
+        // Assigns the IDs of added components, which are part of the stored document
+        entityManager.flush();
+
+        // Recipes written before the history existed start with a checkpoint as well
+        boolean checkpoint = (revision - 1) % checkpointInterval == 0;
+        ObjectNode after = checkpoint || properties == null ? snapshot(recipe) : snapshot(recipe, properties);
+        save(recipe.getRecipeId(), revision, checkpoint, checkpoint ? after : MergePatch.diff(before, after));
+    }
+
+    /**
+     * Lists the revisions of a recipe, newest first.
+     *
+     * @param recipeId the ID of the recipe
+     * @return the revisions of the recipe
+     */
+    public List<RecipeRevisionSummary> getRevisions(Long recipeId) {
+        return recipeRevisionRepository.findSummariesByRecipeId(recipeId);
+    }
+
+    /**
+     * Reconstructs a recipe as it was at the given revision.
+     *
+     * @param recipeId the ID of the recipe
+     * @param revision the revision number
+     * @return an Optional containing the recipe JSON, or empty if the revision does not exist
+     */
+    public Optional<JsonNode> getRevision(Long recipeId, int revision) {
+        List<RecipeRevision> chain = recipeRevisionRepository.findReplayChain(recipeId, revision);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getRevision() != revision) {
+            return Optional.empty();
+        }
+        JsonNode document = null;
+        for (RecipeRevision stored : chain) {
+            JsonNode data = decode(stored.getData());
+            document = stored.isCheckpoint() ? data : MergePatch.apply(document, data);
+        }
+        return Optional.of(document);
+    }
+
+    /**
+     * Deletes the history of the given recipes with a single statement.
+     *
+     * @param recipeIds the IDs of the recipes
+     */
+    public void deleteHistory(Collection<Long> recipeIds) {
+        recipeRevisionRepository.deleteByRecipeIds(recipeIds);
+    }
+
+    private ObjectNode snapshot(Recipe recipe, FieldSelection selection) {
+        try {
+            TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+            objectMapper.writer(selection.toFilterProvider()).writeValue(buffer, recipe);
+            ObjectNode document = objectMapper.readTree(buffer.asParser());
+            removeNulls(document);
+            return document;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Null values would be indistinguishable from removals in a merge patch
+    private static void removeNulls(JsonNode node) {
+        if (node.isObject()) {
+            List<String> nullProperties = new ArrayList<>();
+            node.fields().forEachRemaining(field -> {
+                if (field.getValue().isNull()) {
+                    nullProperties.add(field.getKey());
+                } else {
+                    removeNulls(field.getValue());
+                }
+            });
+            ((ObjectNode) node).remove(nullProperties);
+        } else if (node.isArray()) {
+            node.forEach(RecipeRevisionService::removeNulls);
+        }
+    }
+
+    private void save(Long recipeId, int revision, boolean checkpoint, JsonNode document) {
+        recipeRevisionRepository.save(new RecipeRevision(recipeId, revision, checkpoint, Instant.now(), encode(document)));
+    }
+
+    private byte[] encode(JsonNode document) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            objectMapper.writeValue(out, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private JsonNode decode(byte[] data) {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.barriquebackend.recipevault.recipe.revision;
+
+import java.time.Instant;
+
+/**
+ * Entry of a recipe's revision list.
+ *
+ * @param revision    the revision number, starting at 1 when the recipe was created
+ * @param checkpoint  whether the revision is stored as a complete snapshot rather than a delta
+ * @param createdAt   when the revision was written
+ * @param storedBytes the compressed size of the stored snapshot or delta
+ */
+public record RecipeRevisionSummary(int revision, boolean checkpoint, Instant createdAt, int storedBytes) {
+}
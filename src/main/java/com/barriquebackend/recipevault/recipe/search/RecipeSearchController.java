@@ -0,0 +1,43 @@
+package com.barriquebackend.recipevault.recipe.search;
+
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for full-text recipe search.
+ */
+@RestController
+@RequestMapping("/api")
+public class RecipeSearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final RecipeSearchService recipeSearchService;
+
+    /**
+     * Constructs a RecipeSearchController with the specified RecipeSearchService.
+     *
+     * @param recipeSearchService the service for recipe search
+     */
+    public RecipeSearchController(RecipeSearchService recipeSearchService) {
+        this.recipeSearchService = recipeSearchService;
+    }
+
+    /**
+     * Searches the authenticated user's recipes by title, description, ingredients and steps.
+     *
+     * @param q     the free-text query
+     * @param limit the maximum number of hits
+     * @param user  the authenticated user
+     * @return the matching recipes, most relevant first
+     */
+    @GetMapping("/recipe/search")
+    public List<RecipeSearchHit> search(@RequestParam String q,
+                                        @RequestParam(defaultValue = "20") int limit,
+                                        @CurrentUser User user) {
+        return recipeSearchService.search(user.getId(), q, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
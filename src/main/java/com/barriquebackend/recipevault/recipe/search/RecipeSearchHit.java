@@ -0,0 +1,11 @@
+package com.barriquebackend.recipevault.recipe.search;
+
+/**
+ * A recipe matching a full-text search query.
+ *
+ * @param recipeId the ID of the matching recipe
+ * @param title    the title of the matching recipe
+ * @param score    the BM25 relevance score, higher is more relevant
+ */
+public record RecipeSearchHit(Long recipeId, String title, double score) {
+}
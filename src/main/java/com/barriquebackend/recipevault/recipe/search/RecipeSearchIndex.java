@@ -0,0 +1,146 @@
+package com.barriquebackend.recipevault.recipe.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index over the recipes of a single user, ranked with Okapi BM25.
+ * <p>
+ * Each recipe is indexed as one document. Title terms are counted {@link #TITLE_BOOST} times so
+ * that title matches outrank matches in descriptions, ingredients and steps. All methods are
+ * synchronized; an index is small enough that searches and updates never contend for long.
+ * </p>
+ */
+class RecipeSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_BOOST = 3;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    private record Document(String title, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    /**
+     * Adds a recipe to the index, replacing any previous version of it.
+     *
+     * @param recipeId the ID of the recipe
+     * @param title    the title of the recipe
+     * @param texts    the remaining searchable texts (description, ingredients, steps)
+     */
+    synchronized void put(Long recipeId, String title, Collection<String> texts) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : TextAnalyzer.analyze(title)) {
+            termFrequencies.merge(term, TITLE_BOOST, Integer::sum);
+        }
+        for (String text : texts) {
+            for (String term : TextAnalyzer.analyze(text)) {
+                termFrequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        put(recipeId, title, termFrequencies);
+    }
+
+    /**
+     * Replaces the title of an indexed recipe, keeping the terms of its other texts.
+     *
+     * @param recipeId the ID of the recipe
+     * @param title    the new title of the recipe
+     * @return true if the recipe was indexed, false if it is unknown
+     */
+    synchronized boolean retitle(Long recipeId, String title) {
+        Document document = documents.get(recipeId);
+        if (document == null) {
+            return false;
+        }
+        Map<String, Integer> termFrequencies = new HashMap<>(document.termFrequencies());
+        for (String term : TextAnalyzer.analyze(document.title())) {
+            if (termFrequencies.merge(term, -TITLE_BOOST, Integer::sum) <= 0) {
+                termFrequencies.remove(term);
+            }
+        }
+        for (String term : TextAnalyzer.analyze(title)) {
+            termFrequencies.merge(term, TITLE_BOOST, Integer::sum);
+        }
+        put(recipeId, title, termFrequencies);
+        return true;
+    }
+
+    private void put(Long recipeId, String title, Map<String, Integer> termFrequencies) {
+        remove(recipeId);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(recipeId, entry.getValue());
+            length += entry.getValue();
+        }
+        documents.put(recipeId, new Document(title, termFrequencies, length));
+        totalLength += length;
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param recipeId the ID of the recipe
+     */
+    synchronized void remove(Long recipeId) {
+        Document document = documents.remove(recipeId);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length();
+        for (String term : document.termFrequencies().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(recipeId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of hits
+     * @return the best matching recipes, most relevant first
+     */
+    synchronized List<RecipeSearchHit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+
+        int documentCount = documents.size();
+        double averageLength = (double) totalLength / documentCount;
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+            for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                int frequency = entry.getValue();
+                int length = documents.get(entry.getKey()).length();
+                double norm = K1 * (1 - B + B * length / averageLength);
+                scores.merge(entry.getKey(), idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new RecipeSearchHit(entry.getKey(), documents.get(entry.getKey()).title(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.barriquebackend.recipevault.recipe.search;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeChangeListener;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.RecipeTextRow;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.recipevault.recipe.index.UserIndexCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for full-text search over a user's recipes.
+ * <p>
+ * Every user gets an in-memory {@link RecipeSearchIndex} that is built on the first search and
+ * kept up to date incrementally as recipes are created, updated and deleted. Only the indexes of
+ * the most recently searching users are retained.
+ * </p>
+ */
+@Service
+public class RecipeSearchService implements RecipeChangeListener {
+
+    private final RecipeRepository recipeRepository;
+    private final UserIndexCache<RecipeSearchIndex> indexes;
+
+    /**
+     * Constructs a RecipeSearchService.
+     *
+     * @param recipeRepository the repository used to build indexes
+     * @param maxCachedUsers   the maximum number of users whose index is kept in memory
+     */
+    public RecipeSearchService(RecipeRepository recipeRepository,
+                               @Value("${recipevault.search.max-cached-users:500}") int maxCachedUsers) {
+        this.recipeRepository = recipeRepository;
+        this.indexes = new UserIndexCache<>(maxCachedUsers);
+    }
+
+    /**
+     * Searches the recipes of the specified user.
+     *
+     * @param userId the ID of the user whose recipes are searched
+     * @param query  the free-text query
+     * @param limit  the maximum number of hits
+     * @return the matching recipes, most relevant first
+     */
+    public List<RecipeSearchHit> search(Long userId, String query, int limit) {
+        return indexes.get(userId, this::buildIndex).search(query, limit);
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        indexes.updateIfPresent(recipe.getUser().getId(),
+                index -> index.put(recipe.getRecipeId(), recipe.getTitle(), texts(recipe)));
+    }
+
+    @Override
+    public void recipePatched(Recipe recipe, Set<String> properties) {
+        if (properties.contains("description") || properties.contains("ingredients") || properties.contains("steps")) {
+            recipeSaved(recipe);
+        } else if (properties.contains("title")) {
+            // The other texts are unchanged and not loaded, so only the title terms are replaced
+            indexes.updateIfPresent(recipe.getUser().getId(),
+                    index -> index.retitle(recipe.getRecipeId(), recipe.getTitle()));
+        }
+    }
+
+    @Override
+    public void recipeDeleted(Long userId, Long recipeId) {
+        indexes.updateIfPresent(userId, index -> index.remove(recipeId));
+    }
+
+    /**
+     * Builds the index of a user from text projections, without loading recipe entities.
+     *
+     * @param userId the ID of the user
+     * @return the freshly built index
+     */
+    private RecipeSearchIndex buildIndex(Long userId) {
+        Map<Long, List<String>> texts = new HashMap<>();
+        for (List<RecipeTextRow> rows : List.of(
+                recipeRepository.findDescriptionRowsByUserId(userId),
+                recipeRepository.findIngredientTitleRowsByUserId(userId),
+                recipeRepository.findStepDescriptionRowsByUserId(userId))) {
+            for (RecipeTextRow row : rows) {
+                texts.computeIfAbsent(row.recipeId(), id -> new ArrayList<>()).add(row.text());
+            }
+        }
+
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        for (RecipeTextRow title : recipeRepository.findTitleRowsByUserId(userId)) {
+            index.put(title.recipeId(), title.text(), texts.getOrDefault(title.recipeId(), List.of()));
+        }
+        return index;
+    }
+
+    private static List<String> texts(Recipe recipe) {
+        List<String> texts = new ArrayList<>();
+        texts.add(recipe.getDescription());
+        if (recipe.getIngredients() != null) {
+            recipe.getIngredients().stream().map(Ingredient::getTitle).forEach(texts::add);
+        }
+        if (recipe.getSteps() != null) {
+            recipe.getSteps().stream().map(RecipeStep::getStepDescription).forEach(texts::add);
+        }
+        return texts;
+    }
+}
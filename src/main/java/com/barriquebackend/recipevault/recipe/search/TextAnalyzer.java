@@ -0,0 +1,88 @@
+package com.barriquebackend.recipevault.recipe.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns recipe text into index terms.
+ * <p>
+ * Text is lower-cased, stripped of diacritics (so umlauts match their base letters), split on
+ * everything that is not a letter or digit, filtered against a small English/German stop word
+ * list and reduced with a light suffix stemmer. The same analysis is applied to documents and
+ * queries, so the stemmer only has to be consistent, not linguistically exact.
+ * </p>
+ */
+final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // English
+            "a", "an", "and", "or", "the", "of", "with", "in", "on", "for", "to", "at", "into", "until",
+            // German
+            "und", "oder", "mit", "der", "die", "das", "den", "dem", "des", "ein", "eine", "einen",
+            "im", "zu", "zum", "zur", "von", "vom", "fuer", "auf", "bis");
+
+    // Inflection suffixes of English and German plurals and German adjective/noun endings,
+    // longest first. Stripped repeatedly so that e.g. "onions" and "onion" end up on the same stem.
+    private static final String[] SUFFIXES = {"ern", "em", "en", "er", "es", "e", "s", "n"};
+    private static final int MIN_STEM_LENGTH = 4;
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Analyzes the given text into index terms.
+     *
+     * @param text the text to analyze, may be null
+     * @return the terms in text order, including duplicates
+     */
+    static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = text.toLowerCase(Locale.ROOT).replace("\u00df", "ss");
+        folded = DIACRITICS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+
+        List<String> terms = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Reduces a lower-cased token to its stem.
+     *
+     * @param token the token
+     * @return the stem
+     */
+    static String stem(String token) {
+        if (token.chars().anyMatch(Character::isDigit)) {
+            return token;
+        }
+        String stem = token;
+        if (stem.length() > MIN_STEM_LENGTH && stem.endsWith("ies")) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        }
+        boolean stripped = true;
+        while (stripped && stem.length() > MIN_STEM_LENGTH) {
+            stripped = false;
+            for (String suffix : SUFFIXES) {
+                if (stem.endsWith(suffix) && stem.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                    stem = stem.substring(0, stem.length() - suffix.length());
+                    stripped = true;
+                    break;
+                }
+            }
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,46 @@
+package com.barriquebackend.recipevault.recipe.shopping;
+
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for building shopping lists from recipes.
+ */
+@RestController
+@RequestMapping("/api")
+public class ShoppingListController {
+
+    private final ShoppingListService shoppingListService;
+
+    /**
+     * Constructs a ShoppingListController with the specified ShoppingListService.
+     *
+     * @param shoppingListService the service for shopping lists
+     */
+    public ShoppingListController(ShoppingListService shoppingListService) {
+        this.shoppingListService = shoppingListService;
+    }
+
+    /**
+     * Merges the ingredients of recipes of the authenticated user into one shopping list,
+     * scaled to the requested servings.
+     *
+     * @param entries the selected recipes, e.g. [{"recipeId": 1, "servings": 4}, {"recipeId": 2}]
+     * @param user    the authenticated user
+     * @return a ResponseEntity with the merged ingredients, or 400 if too many recipes are selected
+     * or an entry is null, has no recipe ID or has servings that are not positive
+     */
+    @PostMapping("/recipe/shopping-list")
+    public ResponseEntity<List<ShoppingListItem>> buildShoppingList(@RequestBody List<ShoppingListEntry> entries,
+                                                                    @CurrentUser User user) {
+        try {
+            return ResponseEntity.ok(shoppingListService.buildShoppingList(user.getId(), entries));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.barriquebackend.recipevault.recipe.shopping;
+
+/**
+ * A recipe selected for a shopping list.
+ *
+ * @param recipeId the ID of the recipe
+ * @param servings the servings to shop for, or null for the recipe's own servings
+ */
+public record ShoppingListEntry(Long recipeId, Integer servings) {
+}
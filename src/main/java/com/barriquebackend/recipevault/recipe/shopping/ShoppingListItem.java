@@ -0,0 +1,14 @@
+package com.barriquebackend.recipevault.recipe.shopping;
+
+import java.util.List;
+
+/**
+ * An ingredient on a shopping list with the summed amount of all recipes that need it.
+ *
+ * @param title     the ingredient title as entered in the first recipe that needs it
+ * @param amount    the total amount, or null if no recipe specifies one
+ * @param unit      the unit of the total amount, or null if the ingredient is counted without unit
+ * @param recipeIds the IDs of the recipes that need the ingredient
+ */
+public record ShoppingListItem(String title, Double amount, String unit, List<Long> recipeIds) {
+}
@@ -0,0 +1,177 @@
+package com.barriquebackend.recipevault.recipe.shopping;
+
+import com.barriquebackend.recipevault.recipe.IngredientAmountRow;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+import com.barriquebackend.recipevault.recipe.components.dictionary.MeasurementUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for merging the ingredients of several recipes into one shopping list.
+ * <p>
+ * The ingredients of all selected recipes are read with a single projection query. Each amount is
+ * scaled from the recipe's servings to the requested servings, and ingredients are grouped by
+ * their normalized name. Within a group, amounts in units of the same dimension are converted to
+ * the base unit and summed, so "500 g" and "1 kg" of flour become "1.5 kg"; pieces, pinches and
+ * unknown units are only summed with the same unit, and amounts without a unit count as pieces.
+ * </p>
+ */
+@Service
+public class ShoppingListService {
+
+    private static final Comparator<MeasurementUnit> LARGEST_FIRST =
+            Comparator.comparingDouble((MeasurementUnit unit) -> unit.toBase(1)).reversed();
+
+    private final RecipeRepository recipeRepository;
+    private final int maxRecipes;
+
+    /**
+     * Constructs a ShoppingListService.
+     *
+     * @param recipeRepository the repository used to read ingredients
+     * @param maxRecipes       the maximum number of recipes on one shopping list
+     */
+    public ShoppingListService(RecipeRepository recipeRepository,
+                               @Value("${recipevault.shopping-list.max-recipes:200}") int maxRecipes) {
+        this.recipeRepository = recipeRepository;
+        this.maxRecipes = maxRecipes;
+    }
+
+    /**
+     * Builds the shopping list for recipes of the specified user. A recipe may be selected more
+     * than once, e.g. for two days of a week plan; recipes the user does not own are skipped.
+     *
+     * @param userId  the ID of the user whose recipes are selected
+     * @param entries the selected recipes and the servings to shop for
+     * @return the merged ingredients, ordered by title
+     * @throws IllegalArgumentException if too many recipes are selected, an entry is null or has no
+     *                                  recipe ID, or servings are not positive
+     */
+    public List<ShoppingListItem> buildShoppingList(Long userId, List<ShoppingListEntry> entries) {
+        if (entries.size() > maxRecipes) {
+            throw new IllegalArgumentException("At most " + maxRecipes + " recipes can be selected");
+        }
+        Map<Long, List<Integer>> servingsByRecipe = new HashMap<>();
+        for (ShoppingListEntry entry : entries) {
+            if (entry == null || entry.recipeId() == null || entry.servings() != null && entry.servings() <= 0) {
+                throw new IllegalArgumentException("Every entry needs a recipe ID and positive servings");
+            }
+            servingsByRecipe.computeIfAbsent(entry.recipeId(), id -> new ArrayList<>()).add(entry.servings());
+        }
+        if (servingsByRecipe.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> factors = new HashMap<>();
+        Map<GroupKey, Group> groups = new LinkedHashMap<>();
+        for (IngredientAmountRow row : recipeRepository.findIngredientAmountRows(userId, servingsByRecipe.keySet())) {
+            double factor = factors.computeIfAbsent(row.recipeId(),
+                    id -> scaleFactor(servingsByRecipe.get(id), row.servings()));
+            String name = row.name() != null ? row.name() : IngredientNames.normalize(row.title());
+            MeasurementUnit unit = row.measurementUnit() != null
+                    ? row.measurementUnit()
+                    : MeasurementUnit.parse(row.unit()).orElse(null);
+            String unitText = row.unit() != null && !row.unit().isBlank() ? row.unit().trim() : null;
+            GroupKey key = new GroupKey(name.isEmpty() ? row.title().trim().toLowerCase(Locale.ROOT) : name,
+                    measureOf(unit, unitText));
+            groups.computeIfAbsent(key, k -> new Group(row.title().trim(), unitText))
+                    .add(row.recipeId(), row.amount() != null ? row.amount() * factor : null, unit);
+        }
+        return groups.values().stream()
+                .map(Group::toItem)
+                .sorted(Comparator.comparing((ShoppingListItem item) -> item.title().toLowerCase(Locale.ROOT))
+                        .thenComparing(item -> item.unit() != null ? item.unit() : ""))
+                .toList();
+    }
+
+    /**
+     * Sums the factors of all selections of one recipe; a recipe without servings cannot be
+     * scaled and counts once per selection.
+     */
+    private static double scaleFactor(List<Integer> selections, int recipeServings) {
+        double factor = 0;
+        for (Integer servings : selections) {
+            factor += servings != null && recipeServings > 0 ? (double) servings / recipeServings : 1;
+        }
+        return factor;
+    }
+
+    /**
+     * Returns what amounts must share to be summed: the dimension for mass and volume, the unit
+     * for counted units, and the normalized free text for unknown units. Amounts without a unit
+     * are pieces.
+     */
+    private static String measureOf(MeasurementUnit unit, String unitText) {
+        if (unit != null) {
+            return unit.getDimension() == MeasurementUnit.Dimension.COUNT ? unit.name() : unit.getDimension().name();
+        }
+        // "2 eggs" counts pieces just like "2 pc eggs"
+        return unitText != null ? "?" + IngredientNames.normalize(unitText) : MeasurementUnit.PIECE.name();
+    }
+
+    private record GroupKey(String name, String measure) {
+    }
+
+    /**
+     * Running total of one ingredient in one measure; known units are summed in the base unit.
+     */
+    private static final class Group {
+
+        private final String title;
+        private final String unitText;
+        private final Set<Long> recipeIds = new LinkedHashSet<>();
+        private final Set<MeasurementUnit> units = EnumSet.noneOf(MeasurementUnit.class);
+        private double total;
+        private boolean hasAmount;
+
+        private Group(String title, String unitText) {
+            this.title = title;
+            this.unitText = unitText;
+        }
+
+        private void add(Long recipeId, Double amount, MeasurementUnit unit) {
+            recipeIds.add(recipeId);
+            if (unit != null) {
+                units.add(unit);
+            }
+            if (amount != null) {
+                total += unit != null ? unit.toBase(amount) : amount;
+                hasAmount = true;
+            }
+        }
+
+        private ShoppingListItem toItem() {
+            Double amount = hasAmount ? total : null;
+            String unit = unitText;
+            if (!units.isEmpty()) {
+                // The largest unit used in the recipes that the total reaches at least once, e.g. kg for 1500 g
+                List<MeasurementUnit> candidates = units.stream().sorted(LARGEST_FIRST).toList();
+                MeasurementUnit display = candidates.stream()
+                        .filter(candidate -> total >= candidate.toBase(1))
+                        .findFirst()
+                        .orElse(candidates.get(candidates.size() - 1));
+                amount = hasAmount ? round(total / display.toBase(1)) : null;
+                unit = display.getSymbol();
+            } else if (amount != null) {
+                amount = round(amount);
+            }
+            return new ShoppingListItem(title, amount, unit, List.copyOf(recipeIds));
+        }
+
+        private static double round(double amount) {
+            return Math.round(amount * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.barriquebackend.recipevault.recipe.similar;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.IngredientNames;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The properties of a recipe that its similarity to other recipes is computed from.
+ *
+ * @param recipeId        the ID of the recipe
+ * @param title           the title of the recipe
+ * @param ingredientNames the distinct normalized ingredient names
+ * @param tagMask         the tag types of the recipe as bit mask
+ * @param timeMinutes     the parsed cooking time, or null if unknown
+ */
+record RecipeFeatures(Long recipeId, String title, Set<String> ingredientNames, long tagMask, Integer timeMinutes) {
+
+    /**
+     * Extracts the features of a saved recipe; its ingredients must be loaded.
+     *
+     * @param recipe the recipe
+     * @return the features
+     */
+    static RecipeFeatures of(Recipe recipe) {
+        List<String> ingredientTitles = recipe.getIngredients() != null
+                ? recipe.getIngredients().stream().map(Ingredient::getTitle).toList()
+                : List.of();
+        return new RecipeFeatures(recipe.getRecipeId(), recipe.getTitle(), normalize(ingredientTitles),
+                recipe.getTagMask(), recipe.getTimeMinutes());
+    }
+
+    /**
+     * Normalizes ingredient titles into a set of distinct names.
+     *
+     * @param titles the ingredient titles as entered, may contain nulls
+     * @return the distinct non-empty normalized names
+     */
+    static Set<String> normalize(Collection<String> titles) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String title : titles) {
+            String name = IngredientNames.normalize(title);
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,47 @@
+package com.barriquebackend.recipevault.recipe.similar;
+
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for finding similar recipes.
+ */
+@RestController
+@RequestMapping("/api")
+public class RecipeSimilarityController {
+
+    private final RecipeSimilarityService recipeSimilarityService;
+
+    /**
+     * Constructs a RecipeSimilarityController with the specified RecipeSimilarityService.
+     *
+     * @param recipeSimilarityService the service for similar recipes
+     */
+    public RecipeSimilarityController(RecipeSimilarityService recipeSimilarityService) {
+        this.recipeSimilarityService = recipeSimilarityService;
+    }
+
+    /**
+     * Lists the authenticated user's recipes that are most similar to a recipe, judged by their
+     * ingredients, tag types and cooking times.
+     *
+     * @param id    the ID of the recipe
+     * @param limit the maximum number of recipes, at most the number of precomputed neighbors
+     * @param user  the authenticated user
+     * @return a ResponseEntity with the similar recipes, most similar first,
+     * or 404 if the user has no recipe with this ID
+     */
+    @GetMapping("/recipe/{id}/similar")
+    public ResponseEntity<List<SimilarRecipe>> findSimilarRecipes(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "10") int limit,
+                                                                  @CurrentUser User user) {
+        int cappedLimit = Math.max(1, Math.min(limit, recipeSimilarityService.getNeighborCount()));
+        return recipeSimilarityService.findSimilar(user.getId(), id, cappedLimit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
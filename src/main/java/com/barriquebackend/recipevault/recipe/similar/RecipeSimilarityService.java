@@ -0,0 +1,127 @@
+package com.barriquebackend.recipevault.recipe.similar;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeChangeListener;
+import com.barriquebackend.recipevault.recipe.RecipeFeatureRow;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.RecipeTextRow;
+import com.barriquebackend.recipevault.recipe.index.UserIndexCache;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Service class for finding recipes similar to a given recipe.
+ * <p>
+ * The neighbors of all recipes of a user are precomputed into a {@link SimilarityIndex} when the
+ * user's recipes are first looked up, so a request only reads a stored list. Saved and deleted
+ * recipes are queued on the index on the request thread, where their ingredients are loaded, and
+ * applied by a background task on the service's fork-join pool. Patches that leave the
+ * ingredients alone keep the indexed ones instead of loading them.
+ * </p>
+ */
+@Service
+public class RecipeSimilarityService implements RecipeChangeListener {
+
+    private final RecipeRepository recipeRepository;
+    private final UserIndexCache<SimilarityIndex> indexes;
+    private final ForkJoinPool pool = new ForkJoinPool();
+    private final int neighborCount;
+
+    /**
+     * Constructs a RecipeSimilarityService.
+     *
+     * @param recipeRepository the repository used to build indexes
+     * @param maxCachedUsers   the maximum number of users whose neighbors are kept in memory
+     * @param neighborCount    the number of neighbors precomputed per recipe
+     */
+    public RecipeSimilarityService(RecipeRepository recipeRepository,
+                                   @Value("${recipevault.similar.max-cached-users:200}") int maxCachedUsers,
+                                   @Value("${recipevault.similar.neighbors:20}") int neighborCount) {
+        this.recipeRepository = recipeRepository;
+        this.indexes = new UserIndexCache<>(maxCachedUsers);
+        this.neighborCount = neighborCount;
+    }
+
+    /**
+     * Returns the maximum number of similar recipes that can be requested.
+     *
+     * @return the number of neighbors precomputed per recipe
+     */
+    public int getNeighborCount() {
+        return neighborCount;
+    }
+
+    /**
+     * Finds the recipes of a user that are most similar to one of them, judged by their
+     * ingredients, tag types and cooking times.
+     *
+     * @param userId   the ID of the user whose recipes are searched
+     * @param recipeId the ID of the recipe
+     * @param limit    the maximum number of recipes
+     * @return the similar recipes, most similar first, or empty if the user has no such recipe
+     */
+    public Optional<List<SimilarRecipe>> findSimilar(Long userId, Long recipeId, int limit) {
+        return indexes.get(userId, this::buildIndex).findSimilar(recipeId, limit);
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        indexes.updateIfPresent(recipe.getUser().getId(), index -> {
+            index.enqueue(RecipeFeatures.of(recipe));
+            pool.execute(index::refresh);
+        });
+    }
+
+    @Override
+    public void recipePatched(Recipe recipe, Set<String> properties) {
+        if (properties.contains("ingredients")) {
+            recipeSaved(recipe);
+        } else if (properties.contains("title") || properties.contains("tags") || properties.contains("time")) {
+            // The ingredients are unchanged and not loaded, so the indexed ones are kept
+            indexes.updateIfPresent(recipe.getUser().getId(), index -> {
+                index.enqueueAttributes(recipe.getRecipeId(), recipe.getTitle(), recipe.getTagMask(),
+                        recipe.getTimeMinutes());
+                pool.execute(index::refresh);
+            });
+        }
+    }
+
+    @Override
+    public void recipeDeleted(Long userId, Long recipeId) {
+        indexes.updateIfPresent(userId, index -> {
+            index.enqueueRemoval(recipeId);
+            pool.execute(index::refresh);
+        });
+    }
+
+    /**
+     * Stops the background refreshes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private SimilarityIndex buildIndex(Long userId) {
+        Map<Long, List<String>> ingredientTitles = new HashMap<>();
+        for (RecipeTextRow row : recipeRepository.findIngredientTitleRowsByUserId(userId)) {
+            ingredientTitles.computeIfAbsent(row.recipeId(), id -> new ArrayList<>()).add(row.text());
+        }
+        List<RecipeFeatures> recipes = new ArrayList<>();
+        for (RecipeFeatureRow row : recipeRepository.findFeatureRowsByUserId(userId)) {
+            recipes.add(new RecipeFeatures(row.recipeId(), row.title(),
+                    RecipeFeatures.normalize(ingredientTitles.getOrDefault(row.recipeId(), List.of())),
+                    row.tagMask(), row.timeMinutes()));
+        }
+        return SimilarityIndex.build(recipes, neighborCount, pool);
+    }
+}
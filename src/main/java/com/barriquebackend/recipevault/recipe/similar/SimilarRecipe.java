@@ -0,0 +1,11 @@
+package com.barriquebackend.recipevault.recipe.similar;
+
+/**
+ * A recipe similar to a given one.
+ *
+ * @param recipeId the ID of the similar recipe
+ * @param title    the title of the similar recipe
+ * @param score    the similarity, from 0 to 1, higher is more similar
+ */
+public record SimilarRecipe(Long recipeId, String title, double score) {
+}
@@ -0,0 +1,470 @@
+package com.barriquebackend.recipevault.recipe.similar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Precomputed nearest neighbors of the recipes of a single user.
+ * <p>
+ * Every recipe is a sparse TF-IDF vector over its normalized ingredient names, stored as sorted
+ * term IDs with unit-length weights. The similarity of two recipes is a weighted sum of the
+ * cosine of their vectors, the Jaccard similarity of their tag types and the closeness of their
+ * cooking times; recipes without a common ingredient are never neighbors. The top neighbors of
+ * all recipes are computed by a fork-join job that accumulates dot products along the posting
+ * lists of each recipe's terms, so only recipes sharing an ingredient are ever scored.
+ * </p>
+ * <p>
+ * Changes are queued and applied incrementally by {@link #refresh()}: the changed recipe's row is
+ * recomputed, it is inserted into rows it now qualifies for, and only the rows that contained it
+ * and lost it are recomputed. Weights of unchanged recipes keep the document frequencies of the
+ * last full computation until enough changes have accumulated to recompute everything. All
+ * methods are synchronized, as in the other per-user indexes.
+ * </p>
+ */
+final class SimilarityIndex {
+
+    private static final double INGREDIENT_WEIGHT = 0.7;
+    private static final double TAG_WEIGHT = 0.2;
+    private static final double TIME_WEIGHT = 0.1;
+    // Cooking times this many minutes apart count as half similar
+    private static final double TIME_HALF_SIMILARITY_MINUTES = 30.0;
+    // Recipes scored per fork-join leaf task
+    private static final int ROWS_PER_TASK = 64;
+    private static final Neighbor[] NO_NEIGHBORS = new Neighbor[0];
+
+    private final int neighborCount;
+    private final ForkJoinPool pool;
+    private final Map<String, Integer> termIds = new HashMap<>();
+    // Term ID -> ingredient name, the inverse of termIds
+    private final List<String> termNames = new ArrayList<>();
+    private final Map<Long, Vector> vectors = new HashMap<>();
+    private final Map<Long, Neighbor[]> neighbors = new HashMap<>();
+    // Latest queued state per recipe; null marks a deleted recipe
+    private final Map<Long, RecipeFeatures> pending = new LinkedHashMap<>();
+    private int[] documentFrequencies = new int[64];
+    private int changesSinceRecompute;
+
+    private record Vector(Long recipeId, String title, int[] terms, float[] weights, long tagMask, Integer timeMinutes) {
+    }
+
+    private record Neighbor(Long recipeId, double score) {
+    }
+
+    private static final Comparator<Neighbor> BEST_FIRST = Comparator.comparingDouble(Neighbor::score).reversed()
+            .thenComparing(Neighbor::recipeId);
+
+    private SimilarityIndex(int neighborCount, ForkJoinPool pool) {
+        this.neighborCount = neighborCount;
+        this.pool = pool;
+    }
+
+    /**
+     * Builds the index and computes the neighbors of all recipes.
+     *
+     * @param recipes       the features of all recipes of the user
+     * @param neighborCount the number of neighbors kept per recipe
+     * @param pool          the pool running the neighbor computation
+     * @return the index
+     */
+    static SimilarityIndex build(List<RecipeFeatures> recipes, int neighborCount, ForkJoinPool pool) {
+        SimilarityIndex index = new SimilarityIndex(neighborCount, pool);
+        for (RecipeFeatures recipe : recipes) {
+            index.addVector(recipe);
+        }
+        index.recomputeAll();
+        return index;
+    }
+
+    /**
+     * Returns the most similar recipes of a recipe.
+     *
+     * @param recipeId the ID of the recipe
+     * @param limit    the maximum number of recipes
+     * @return the similar recipes, most similar first, or empty if the recipe is not indexed
+     */
+    synchronized Optional<List<SimilarRecipe>> findSimilar(Long recipeId, int limit) {
+        // Changes the background refresh has not applied yet are applied here, so writes are read back
+        refresh();
+        if (!vectors.containsKey(recipeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.stream(neighbors.getOrDefault(recipeId, NO_NEIGHBORS))
+                .limit(limit)
+                .map(neighbor -> new SimilarRecipe(neighbor.recipeId(), vectors.get(neighbor.recipeId()).title(),
+                        neighbor.score()))
+                .toList());
+    }
+
+    /**
+     * Queues a created or updated recipe for the next {@link #refresh()}.
+     *
+     * @param recipe the features of the saved recipe
+     */
+    synchronized void enqueue(RecipeFeatures recipe) {
+        pending.put(recipe.recipeId(), recipe);
+    }
+
+    /**
+     * Queues an updated recipe whose ingredients did not change for the next {@link #refresh()};
+     * the ingredients it is indexed or queued with are kept.
+     *
+     * @param recipeId    the ID of the recipe
+     * @param title       the title of the recipe
+     * @param tagMask     the tag types of the recipe as bit mask
+     * @param timeMinutes the parsed cooking time, or null if unknown
+     */
+    synchronized void enqueueAttributes(Long recipeId, String title, long tagMask, Integer timeMinutes) {
+        Set<String> ingredientNames;
+        if (pending.containsKey(recipeId)) {
+            RecipeFeatures queued = pending.get(recipeId);
+            if (queued == null) {
+                // Deleted meanwhile
+                return;
+            }
+            ingredientNames = queued.ingredientNames();
+        } else {
+            Vector vector = vectors.get(recipeId);
+            if (vector == null) {
+                return;
+            }
+            ingredientNames = new LinkedHashSet<>();
+            for (int term : vector.terms()) {
+                ingredientNames.add(termNames.get(term));
+            }
+        }
+        pending.put(recipeId, new RecipeFeatures(recipeId, title, ingredientNames, tagMask, timeMinutes));
+    }
+
+    /**
+     * Queues a deleted recipe for the next {@link #refresh()}.
+     *
+     * @param recipeId the ID of the deleted recipe
+     */
+    synchronized void enqueueRemoval(Long recipeId) {
+        pending.put(recipeId, null);
+    }
+
+    /**
+     * Applies all queued changes.
+     */
+    synchronized void refresh() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, RecipeFeatures>> changes = new ArrayList<>(pending.entrySet());
+        pending.clear();
+        for (Map.Entry<Long, RecipeFeatures> change : changes) {
+            apply(change.getKey(), change.getValue());
+        }
+        changesSinceRecompute += changes.size();
+        if (changesSinceRecompute > vectors.size() / 4 + 16) {
+            recomputeAll();
+        }
+    }
+
+    private void apply(Long recipeId, RecipeFeatures recipe) {
+        removeVector(recipeId);
+        neighbors.remove(recipeId);
+        Set<Long> containing = new HashSet<>();
+        neighbors.forEach((id, row) -> {
+            if (indexOf(row, recipeId) >= 0) {
+                containing.add(id);
+            }
+        });
+
+        Map<Long, Double> scores = new HashMap<>();
+        if (recipe != null) {
+            Vector vector = addVector(recipe);
+            for (Vector other : vectors.values()) {
+                if (!other.recipeId().equals(recipeId)) {
+                    double cosine = dot(vector, other);
+                    if (cosine > 0) {
+                        scores.put(other.recipeId(), score(vector, other, cosine));
+                    }
+                }
+            }
+            neighbors.put(recipeId, top(scores));
+        }
+
+        for (Long id : containing) {
+            Neighbor[] row = neighbors.get(id);
+            int position = indexOf(row, recipeId);
+            Double score = scores.get(id);
+            if (score != null && score >= row[position].score()) {
+                // Still at least as similar as before, so it stays among the top neighbors
+                row[position] = new Neighbor(recipeId, score);
+                Arrays.sort(row, BEST_FIRST);
+            } else {
+                // Dropped or less similar: a recipe outside the row may now rank higher
+                neighbors.put(id, computeRow(vectors.get(id)));
+            }
+        }
+        scores.forEach((id, score) -> {
+            if (!containing.contains(id)) {
+                neighbors.put(id, insert(neighbors.getOrDefault(id, NO_NEIGHBORS), new Neighbor(recipeId, score)));
+            }
+        });
+    }
+
+    /**
+     * Recomputes all weights from the current document frequencies and all neighbor rows.
+     */
+    private void recomputeAll() {
+        Vector[] all = vectors.values().toArray(new Vector[0]);
+        for (int i = 0; i < all.length; i++) {
+            all[i] = new Vector(all[i].recipeId(), all[i].title(), all[i].terms(), weights(all[i].terms(), all.length),
+                    all[i].tagMask(), all[i].timeMinutes());
+            vectors.put(all[i].recipeId(), all[i]);
+        }
+        recomputeNeighbors();
+        changesSinceRecompute = 0;
+    }
+
+    /**
+     * Recomputes all neighbor rows from the current weights; the rows maintained by
+     * {@link #refresh()} equal the ones computed here.
+     */
+    synchronized void recomputeNeighbors() {
+        Vector[] all = vectors.values().toArray(new Vector[0]);
+
+        // Posting lists in compressed sparse row form: ordinals and weights of the recipes per term
+        int[] postingSizes = new int[termIds.size()];
+        for (Vector vector : all) {
+            for (int term : vector.terms()) {
+                postingSizes[term]++;
+            }
+        }
+        int[][] postingOrdinals = new int[postingSizes.length][];
+        float[][] postingWeights = new float[postingSizes.length][];
+        for (int term = 0; term < postingSizes.length; term++) {
+            postingOrdinals[term] = new int[postingSizes[term]];
+            postingWeights[term] = new float[postingSizes[term]];
+            postingSizes[term] = 0;
+        }
+        for (int ordinal = 0; ordinal < all.length; ordinal++) {
+            Vector vector = all[ordinal];
+            for (int i = 0; i < vector.terms().length; i++) {
+                int term = vector.terms()[i];
+                postingOrdinals[term][postingSizes[term]] = ordinal;
+                postingWeights[term][postingSizes[term]++] = vector.weights()[i];
+            }
+        }
+
+        Neighbor[][] rows = new Neighbor[all.length][];
+        pool.invoke(new NeighborTask(all, postingOrdinals, postingWeights, rows, 0, all.length));
+        neighbors.clear();
+        for (int ordinal = 0; ordinal < all.length; ordinal++) {
+            neighbors.put(all[ordinal].recipeId(), rows[ordinal]);
+        }
+    }
+
+    /**
+     * Computes the neighbor rows of a range of recipes, splitting the range until it is small
+     * enough to be scored by one thread.
+     */
+    private final class NeighborTask extends RecursiveAction {
+
+        private final Vector[] all;
+        private final int[][] postingOrdinals;
+        private final float[][] postingWeights;
+        private final Neighbor[][] rows;
+        private final int from;
+        private final int to;
+
+        private NeighborTask(Vector[] all, int[][] postingOrdinals, float[][] postingWeights, Neighbor[][] rows,
+                             int from, int to) {
+            this.all = all;
+            this.postingOrdinals = postingOrdinals;
+            this.postingWeights = postingWeights;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new NeighborTask(all, postingOrdinals, postingWeights, rows, from, middle),
+                        new NeighborTask(all, postingOrdinals, postingWeights, rows, middle, to));
+                return;
+            }
+            // Dot products accumulate here; only the touched entries are read and reset per row
+            double[] dots = new double[all.length];
+            int[] touched = new int[all.length];
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                Vector vector = all[ordinal];
+                int touchedCount = 0;
+                for (int i = 0; i < vector.terms().length; i++) {
+                    int term = vector.terms()[i];
+                    float weight = vector.weights()[i];
+                    int[] ordinals = postingOrdinals[term];
+                    float[] weights = postingWeights[term];
+                    for (int p = 0; p < ordinals.length; p++) {
+                        int other = ordinals[p];
+                        if (other != ordinal) {
+                            if (dots[other] == 0) {
+                                touched[touchedCount++] = other;
+                            }
+                            dots[other] += weight * weights[p];
+                        }
+                    }
+                }
+                PriorityQueue<Neighbor> best = new PriorityQueue<>(BEST_FIRST.reversed());
+                for (int t = 0; t < touchedCount; t++) {
+                    int other = touched[t];
+                    offer(best, new Neighbor(all[other].recipeId(), score(vector, all[other], dots[other])));
+                    dots[other] = 0;
+                }
+                rows[ordinal] = sorted(best);
+            }
+        }
+    }
+
+    private Neighbor[] computeRow(Vector vector) {
+        PriorityQueue<Neighbor> best = new PriorityQueue<>(BEST_FIRST.reversed());
+        for (Vector other : vectors.values()) {
+            if (!other.recipeId().equals(vector.recipeId())) {
+                double cosine = dot(vector, other);
+                if (cosine > 0) {
+                    offer(best, new Neighbor(other.recipeId(), score(vector, other, cosine)));
+                }
+            }
+        }
+        return sorted(best);
+    }
+
+    private Neighbor[] top(Map<Long, Double> scores) {
+        PriorityQueue<Neighbor> best = new PriorityQueue<>(BEST_FIRST.reversed());
+        scores.forEach((id, score) -> offer(best, new Neighbor(id, score)));
+        return sorted(best);
+    }
+
+    private Neighbor[] insert(Neighbor[] row, Neighbor neighbor) {
+        if (row.length >= neighborCount && BEST_FIRST.compare(neighbor, row[row.length - 1]) >= 0) {
+            return row;
+        }
+        Neighbor[] inserted = Arrays.copyOf(row, row.length + 1);
+        inserted[row.length] = neighbor;
+        Arrays.sort(inserted, BEST_FIRST);
+        return inserted.length > neighborCount ? Arrays.copyOf(inserted, neighborCount) : inserted;
+    }
+
+    /**
+     * Keeps the best neighbors in a bounded heap whose head is the worst of them.
+     */
+    private void offer(PriorityQueue<Neighbor> best, Neighbor neighbor) {
+        best.offer(neighbor);
+        if (best.size() > neighborCount) {
+            best.poll();
+        }
+    }
+
+    private static Neighbor[] sorted(PriorityQueue<Neighbor> best) {
+        Neighbor[] row = best.toArray(new Neighbor[0]);
+        Arrays.sort(row, BEST_FIRST);
+        return row;
+    }
+
+    private static int indexOf(Neighbor[] row, Long recipeId) {
+        for (int i = 0; i < row.length; i++) {
+            if (row[i].recipeId().equals(recipeId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static double score(Vector a, Vector b, double cosine) {
+        double tags = 0;
+        long union = a.tagMask() | b.tagMask();
+        if (union != 0) {
+            tags = (double) Long.bitCount(a.tagMask() & b.tagMask()) / Long.bitCount(union);
+        }
+        double time = 0;
+        if (a.timeMinutes() != null && b.timeMinutes() != null) {
+            time = 1 / (1 + Math.abs(a.timeMinutes() - b.timeMinutes()) / TIME_HALF_SIMILARITY_MINUTES);
+        }
+        return INGREDIENT_WEIGHT * Math.min(cosine, 1.0) + TAG_WEIGHT * tags + TIME_WEIGHT * time;
+    }
+
+    /**
+     * Dot product of two sparse vectors by merging their sorted term IDs.
+     */
+    private static double dot(Vector a, Vector b) {
+        double dot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.terms().length && j < b.terms().length) {
+            if (a.terms()[i] < b.terms()[j]) {
+                i++;
+            } else if (a.terms()[i] > b.terms()[j]) {
+                j++;
+            } else {
+                dot += a.weights()[i++] * b.weights()[j++];
+            }
+        }
+        return dot;
+    }
+
+    private Vector addVector(RecipeFeatures recipe) {
+        int[] terms = recipe.ingredientNames().stream()
+                .mapToInt(name -> termIds.computeIfAbsent(name, key -> {
+                    termNames.add(key);
+                    return termNames.size() - 1;
+                }))
+                .sorted()
+                .toArray();
+        if (termIds.size() > documentFrequencies.length) {
+            documentFrequencies = Arrays.copyOf(documentFrequencies, Math.max(termIds.size(), documentFrequencies.length * 2));
+        }
+        for (int term : terms) {
+            documentFrequencies[term]++;
+        }
+        // The new recipe counts towards the collection its IDF is computed over
+        Vector vector = new Vector(recipe.recipeId(), recipe.title(), terms, weights(terms, vectors.size() + 1),
+                recipe.tagMask(), recipe.timeMinutes());
+        vectors.put(recipe.recipeId(), vector);
+        return vector;
+    }
+
+    private void removeVector(Long recipeId) {
+        Vector vector = vectors.remove(recipeId);
+        if (vector != null) {
+            for (int term : vector.terms()) {
+                documentFrequencies[term]--;
+            }
+        }
+    }
+
+    /**
+     * Computes unit-length IDF weights; every ingredient occurs once per recipe, so its term
+     * frequency is 1 and rarer ingredients weigh more.
+     */
+    private float[] weights(int[] terms, int documents) {
+        float[] weights = new float[terms.length];
+        double norm = 0;
+        for (int i = 0; i < terms.length; i++) {
+            double idf = Math.log(1 + (double) documents / Math.max(documentFrequencies[terms[i]], 1));
+            weights[i] = (float) idf;
+            norm += idf * idf;
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (float) (weights[i] / norm);
+        }
+        return weights;
+    }
+}
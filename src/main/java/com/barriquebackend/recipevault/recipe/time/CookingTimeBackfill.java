@@ -0,0 +1,45 @@
+package com.barriquebackend.recipevault.recipe.time;
+
+import com.barriquebackend.backfill.Backfill;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.RecipeTextRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Parses the cooking time of recipes saved before the time_minutes column existed.
+ * <p>
+ * Recipes whose time cannot be parsed keep a null value and are looked at again after a restart,
+ * which is harmless since parsing them is cheap and idempotent.
+ * </p>
+ */
+@Component
+public class CookingTimeBackfill implements Backfill {
+
+    private final RecipeRepository recipeRepository;
+
+    public CookingTimeBackfill(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public String name() {
+        return "recipe cooking time minutes";
+    }
+
+    @Override
+    public Long migrateBatch(Long afterId, int batchSize) {
+        List<RecipeTextRow> rows = recipeRepository.findTimeRowsWithUnsetMinutes(afterId, Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        for (RecipeTextRow row : rows) {
+            CookingTimes.parseMinutes(row.text())
+                    .ifPresent(minutes -> recipeRepository.updateTimeMinutes(row.recipeId(), minutes));
+        }
+        return rows.get(rows.size() - 1).recipeId();
+    }
+}
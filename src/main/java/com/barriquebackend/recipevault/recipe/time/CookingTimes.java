@@ -0,0 +1,114 @@
+package com.barriquebackend.recipevault.recipe.time;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the free-text cooking time of a recipe into a number of minutes.
+ * <p>
+ * Understood are plain numbers ("45" is read as minutes), numbers with English or German units
+ * ("1 h 30 min", "1.5 hours", "2 Std.", "1 Stunde"), clock notation ("1:30", "1:30 h", or
+ * "2:30 min" for minutes and seconds) and ISO 8601 durations as used by schema.org ("PT1H30M"). For ranges such as "20-30 min" the upper bound is used, so that a
+ * recipe only matches "at most 30 minutes" if it is certain to be ready by then.
+ * </p>
+ */
+public final class CookingTimes {
+
+    /**
+     * Upper bound for a parsed cooking time; anything longer is treated as unparseable (30 days).
+     */
+    public static final int MAX_MINUTES = 30 * 24 * 60;
+
+    private static final Pattern ISO_DURATION =
+            Pattern.compile("p(?:(\\d+)d)?(?:t(?:(\\d+)h)?(?:(\\d+)m)?(?:(\\d+)s)?)?");
+    // Hours and minutes, or minutes and seconds if followed by a minute unit
+    private static final Pattern CLOCK = Pattern.compile("(\\d{1,3}):([0-5]\\d)(?:\\s*([a-z]+)\\.?)?");
+    // A number, optionally the upper end of a range, followed by an optional unit word
+    private static final Pattern QUANTITY = Pattern.compile(
+            "(\\d+(?:[.,]\\d+)?)(?:\\s*(?:-|\\u2013|to|bis)\\s*(\\d+(?:[.,]\\d+)?))?\\s*([a-z]*)");
+
+    private CookingTimes() {
+    }
+
+    /**
+     * Parses a cooking time.
+     *
+     * @param time the cooking time as entered by the user, may be null
+     * @return the cooking time in minutes, or empty if the text contains no recognizable duration
+     */
+    public static Optional<Integer> parseMinutes(String time) {
+        if (time == null) {
+            return Optional.empty();
+        }
+        String text = time.trim().toLowerCase(Locale.ROOT);
+
+        Matcher iso = ISO_DURATION.matcher(text);
+        if (iso.matches() && (iso.group(1) != null || iso.group(2) != null
+                || iso.group(3) != null || iso.group(4) != null)) {
+            try {
+                long minutes = Math.addExact(Math.addExact(
+                        Math.multiplyExact(number(iso.group(1)), 24L * 60),
+                        Math.multiplyExact(number(iso.group(2)), 60L)),
+                        Math.addExact(number(iso.group(3)), Math.addExact(number(iso.group(4)), 59) / 60));
+                return bounded(minutes);
+            } catch (NumberFormatException | ArithmeticException e) {
+                // More digits than a long holds, far beyond MAX_MINUTES anyway
+                return Optional.empty();
+            }
+        }
+
+        Matcher clock = CLOCK.matcher(text);
+        if (clock.matches()) {
+            long major = Long.parseLong(clock.group(1));
+            long minor = Long.parseLong(clock.group(2));
+            String unit = clock.group(3);
+            if (unit == null || minutesPerUnit(unit) == 60) {
+                return bounded(60 * major + minor);
+            }
+            if (isMinuteUnit(unit)) {
+                return bounded(major + (minor + 59) / 60);
+            }
+            return Optional.empty();
+        }
+
+        Matcher quantity = QUANTITY.matcher(text);
+        double minutes = 0;
+        boolean found = false;
+        while (quantity.find()) {
+            String upper = quantity.group(2) != null ? quantity.group(2) : quantity.group(1);
+            double value = Double.parseDouble(upper.replace(',', '.'));
+            minutes += value * minutesPerUnit(quantity.group(3));
+            found = true;
+        }
+        return found ? bounded(Math.round(Math.ceil(minutes))) : Optional.empty();
+    }
+
+    private static double minutesPerUnit(String unit) {
+        // "h", "hrs", "hours", "Std.", "St." and "Stunde(n)"
+        if (unit.startsWith("h") || unit.startsWith("std") || unit.equals("st") || unit.startsWith("stund")) {
+            return 60;
+        }
+        if (unit.equals("d") || unit.startsWith("day") || unit.startsWith("tag")) {
+            return 24 * 60;
+        }
+        if (unit.equals("s") || unit.startsWith("sec") || unit.startsWith("sek")) {
+            return 1.0 / 60;
+        }
+        // "min", "minutes", "m" and bare numbers
+        return 1;
+    }
+
+    private static boolean isMinuteUnit(String unit) {
+        return unit.equals("m") || unit.startsWith("min");
+    }
+
+    private static long number(String group) {
+        return group == null ? 0 : Long.parseLong(group);
+    }
+
+    private static Optional<Integer> bounded(long minutes) {
+        return minutes >= 0 && minutes <= MAX_MINUTES ? Optional.of((int) minutes) : Optional.empty();
+    }
+}
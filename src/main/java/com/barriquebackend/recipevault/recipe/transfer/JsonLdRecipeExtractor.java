@@ -0,0 +1,163 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Finds the schema.org {@code Recipe} in the JSON-LD blocks of an HTML page.
+ * <p>
+ * The page is scanned as a character stream: only the contents of
+ * {@code <script type="application/ld+json">} elements are buffered, and scanning stops at the
+ * first block that contains a recipe, so the rest of a large page is never read. Each block is
+ * tokenized with Jackson's streaming parser; top-level values, arrays and {@code @graph} /
+ * {@code mainEntity} nodes are searched for a node whose {@code @type} is {@code Recipe}.
+ * Blocks with invalid JSON are skipped, as browsers and search engines do.
+ * </p>
+ */
+final class JsonLdRecipeExtractor {
+
+    private static final int MAX_TAG_LENGTH = 4096;
+    private static final int MAX_BLOCK_LENGTH = 1024 * 1024;
+
+    private JsonLdRecipeExtractor() {
+    }
+
+    /**
+     * Extracts the first schema.org recipe of a page.
+     *
+     * @param html         the page content, should be buffered
+     * @param objectMapper the mapper used to parse JSON-LD blocks
+     * @return the recipe node, or empty if the page contains none
+     * @throws IOException if the page cannot be read or a JSON-LD block exceeds 1 MiB
+     */
+    static Optional<JsonNode> extract(Reader html, ObjectMapper objectMapper) throws IOException {
+        while (skipPast(html, "<script")) {
+            String attributes = readUntil(html, ">", MAX_TAG_LENGTH);
+            if (attributes == null) {
+                return Optional.empty();
+            }
+            if (!attributes.toLowerCase(Locale.ROOT).contains("application/ld+json")) {
+                continue;
+            }
+            String block = readUntil(html, "</script", MAX_BLOCK_LENGTH);
+            if (block == null) {
+                return Optional.empty();
+            }
+            Optional<JsonNode> recipe = findRecipe(block, objectMapper);
+            if (recipe.isPresent()) {
+                return recipe;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<JsonNode> findRecipe(String block, ObjectMapper objectMapper) {
+        try (JsonParser parser = objectMapper.createParser(block)) {
+            // Some pages put several JSON values into one block
+            while (parser.nextToken() != null) {
+                JsonNode recipe = search(parser.readValueAsTree());
+                if (recipe != null) {
+                    return Optional.of(recipe);
+                }
+            }
+        } catch (IOException e) {
+            // Invalid JSON-LD block; the block is held in memory, so this is never a read error
+        }
+        return Optional.empty();
+    }
+
+    private static JsonNode search(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                JsonNode recipe = search(element);
+                if (recipe != null) {
+                    return recipe;
+                }
+            }
+            return null;
+        }
+        if (!node.isObject()) {
+            return null;
+        }
+        if (isRecipeType(node.get("@type"))) {
+            return node;
+        }
+        JsonNode recipe = search(node.get("@graph"));
+        return recipe != null ? recipe : search(node.get("mainEntity"));
+    }
+
+    private static boolean isRecipeType(JsonNode type) {
+        if (type == null) {
+            return false;
+        }
+        if (type.isArray()) {
+            for (JsonNode element : type) {
+                if (isRecipeType(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String name = type.asText();
+        // Plain, prefixed ("schema:Recipe") and absolute ("https://schema.org/Recipe") forms
+        return name.equals("Recipe") || name.endsWith(":Recipe") || name.endsWith("/Recipe");
+    }
+
+    /**
+     * Skips characters up to and including the next case-insensitive occurrence of a token.
+     * The tokens used here contain their first character only once, so a mismatch can restart
+     * matching at the current character.
+     */
+    private static boolean skipPast(Reader in, String token) throws IOException {
+        int matched = 0;
+        int c;
+        while ((c = in.read()) != -1) {
+            matched = advance(token, matched, (char) c);
+            if (matched == token.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads characters up to the next case-insensitive occurrence of a token and consumes the token.
+     *
+     * @return the characters before the token, or null if the input ends first
+     * @throws IOException if more than maxLength characters precede the token
+     */
+    private static String readUntil(Reader in, String token, int maxLength) throws IOException {
+        StringBuilder content = new StringBuilder();
+        int matched = 0;
+        int c;
+        while ((c = in.read()) != -1) {
+            content.append((char) c);
+            matched = advance(token, matched, (char) c);
+            if (matched == token.length()) {
+                content.setLength(content.length() - token.length());
+                return content.toString();
+            }
+            if (content.length() > maxLength) {
+                throw new IOException("HTML element exceeds " + maxLength + " characters");
+            }
+        }
+        return null;
+    }
+
+    private static int advance(String token, int matched, char c) {
+        char lower = Character.toLowerCase(c);
+        if (lower == token.charAt(matched)) {
+            return matched + 1;
+        }
+        return lower == token.charAt(0) ? 1 : 0;
+    }
+}
@@ -0,0 +1,243 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.recipevault.recipe.components.dictionary.MeasurementUnit;
+import com.barriquebackend.recipevault.recipe.time.CookingTimes;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps a schema.org {@code Recipe} JSON-LD node onto a new {@link Recipe}.
+ * <p>
+ * Ingredient lines such as "1 1/2 cups flour" are split into amount, unit and title when the
+ * unit is a known {@link MeasurementUnit}; otherwise the whole line becomes the title. Texts are
+ * stripped of HTML markup and truncated to the column length.
+ * </p>
+ */
+final class JsonLdRecipeMapper {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    // Leading fraction with an optional whole part, e.g. "1/2" or "1 1/2"
+    private static final Pattern FRACTION = Pattern.compile("^\\s*(?:(\\d+)\\s+)?(\\d+)\\s*/\\s*(\\d+)\\s*");
+    // Leading decimal and/or vulgar fraction character, e.g. "200", "0,5" or "1\u00bd"
+    private static final Pattern DECIMAL = Pattern.compile("^\\s*(\\d+(?:[.,]\\d+)?)?\\s*([\\u00bc-\\u00be\\u2150-\\u215e])?\\s*");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(?:[.,]\\d+)?");
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> NUTRIENTS = new LinkedHashMap<>();
+
+    static {
+        NUTRIENTS.put("calories", "Calories");
+        NUTRIENTS.put("fatContent", "Fat");
+        NUTRIENTS.put("saturatedFatContent", "Saturated fat");
+        NUTRIENTS.put("carbohydrateContent", "Carbohydrates");
+        NUTRIENTS.put("sugarContent", "Sugar");
+        NUTRIENTS.put("fiberContent", "Fiber");
+        NUTRIENTS.put("proteinContent", "Protein");
+        NUTRIENTS.put("sodiumContent", "Sodium");
+        NUTRIENTS.put("cholesterolContent", "Cholesterol");
+    }
+
+    private JsonLdRecipeMapper() {
+    }
+
+    /**
+     * Creates a recipe from a schema.org recipe node.
+     *
+     * @param node      the JSON-LD node whose {@code @type} is {@code Recipe}
+     * @param sourceUrl the URL of the page the node was found on
+     * @return the unsaved recipe
+     * @throws IllegalArgumentException if the recipe has no name
+     */
+    static Recipe toRecipe(JsonNode node, String sourceUrl) {
+        String title = text(node.get("name"));
+        if (title == null) {
+            throw new IllegalArgumentException("schema.org Recipe has no name");
+        }
+
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setDescription(text(node.get("description")));
+        recipe.setImageUrl(url(node.get("image")));
+        recipe.setSourceUrl(sourceUrl);
+        recipe.setFavorite(false);
+        recipe.setTime(time(node));
+        recipe.setServings(firstNumber(node.get("recipeYield")).map(Double::intValue).orElse(0));
+
+        for (JsonNode line : asList(node.get("recipeIngredient"))) {
+            String text = text(line);
+            if (text != null) {
+                recipe.addIngredient(ingredient(text));
+            }
+        }
+        List<String> instructions = new ArrayList<>();
+        collectInstructions(node.get("recipeInstructions"), instructions);
+        for (String instruction : instructions) {
+            RecipeStep step = new RecipeStep();
+            step.setStepNumber(recipe.getSteps().size() + 1);
+            step.setStepDescription(instruction);
+            recipe.addStep(step);
+        }
+        JsonNode nutrition = node.get("nutrition");
+        if (nutrition != null && nutrition.isObject()) {
+            NUTRIENTS.forEach((property, name) -> firstNumber(nutrition.get(property)).ifPresent(amount -> {
+                NutritionalValue value = new NutritionalValue();
+                value.setTitle(name);
+                value.setAmount(amount);
+                recipe.addNutritionalValue(value);
+            }));
+        }
+        return recipe;
+    }
+
+    /**
+     * Splits an ingredient line into amount, unit and title.
+     *
+     * @param line the ingredient line, e.g. "200 g flour"
+     * @return the unsaved ingredient
+     */
+    static Ingredient ingredient(String line) {
+        Ingredient ingredient = new Ingredient();
+        String rest = line;
+        Matcher fraction = FRACTION.matcher(line);
+        Matcher decimal = DECIMAL.matcher(line);
+        if (fraction.lookingAt() && !fraction.group(3).equals("0")) {
+            double whole = fraction.group(1) != null ? Double.parseDouble(fraction.group(1)) : 0;
+            ingredient.setAmount(whole + Double.parseDouble(fraction.group(2)) / Double.parseDouble(fraction.group(3)));
+            rest = line.substring(fraction.end());
+        } else if (decimal.lookingAt() && (decimal.group(1) != null || decimal.group(2) != null)) {
+            double whole = decimal.group(1) != null ? Double.parseDouble(decimal.group(1).replace(',', '.')) : 0;
+            ingredient.setAmount(whole + (decimal.group(2) != null ? vulgarFraction(decimal.group(2).charAt(0)) : 0));
+            rest = line.substring(decimal.end());
+        }
+        int space = rest.indexOf(' ');
+        if (space > 0 && ingredient.getAmount() != null) {
+            String unit = rest.substring(0, space);
+            if (MeasurementUnit.parse(unit).isPresent()) {
+                ingredient.setUnit(unit);
+                rest = rest.substring(space + 1).trim();
+            }
+        }
+        ingredient.setTitle(rest.isEmpty() ? line : rest);
+        return ingredient;
+    }
+
+    private static double vulgarFraction(char c) {
+        return switch (c) {
+            case '\u00bc' -> 0.25;
+            case '\u00bd' -> 0.5;
+            case '\u00be' -> 0.75;
+            case '\u2153' -> 1.0 / 3;
+            case '\u2154' -> 2.0 / 3;
+            case '\u2155' -> 0.2;
+            case '\u2159' -> 1.0 / 6;
+            case '\u215b' -> 0.125;
+            default -> 0;
+        };
+    }
+
+    private static String time(JsonNode node) {
+        Optional<Integer> total = CookingTimes.parseMinutes(text(node.get("totalTime")));
+        if (total.isEmpty()) {
+            Optional<Integer> prep = CookingTimes.parseMinutes(text(node.get("prepTime")));
+            Optional<Integer> cook = CookingTimes.parseMinutes(text(node.get("cookTime")));
+            if (prep.isPresent() || cook.isPresent()) {
+                total = Optional.of(prep.orElse(0) + cook.orElse(0));
+            }
+        }
+        return total.map(minutes -> minutes + " min").orElse(null);
+    }
+
+    private static void collectInstructions(JsonNode node, List<String> instructions) {
+        if (node == null) {
+            return;
+        }
+        if (node.isTextual()) {
+            // A single text block, usually one instruction per line
+            for (String line : node.asText().split("\\R")) {
+                String instruction = clean(line);
+                if (instruction != null) {
+                    instructions.add(instruction);
+                }
+            }
+        } else if (node.isArray()) {
+            node.forEach(element -> collectInstructions(element, instructions));
+        } else if (node.has("itemListElement")) {
+            // HowToSection
+            collectInstructions(node.get("itemListElement"), instructions);
+        } else {
+            // HowToStep
+            String instruction = text(node.has("text") ? node.get("text") : node.get("name"));
+            if (instruction != null) {
+                instructions.add(instruction);
+            }
+        }
+    }
+
+    private static Optional<Double> firstNumber(JsonNode node) {
+        for (JsonNode value : asList(node)) {
+            if (value.isNumber()) {
+                return Optional.of(value.asDouble());
+            }
+            Matcher number = NUMBER.matcher(value.asText());
+            if (number.find()) {
+                return Optional.of(Double.parseDouble(number.group().replace(',', '.')));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String url(JsonNode node) {
+        for (JsonNode image : asList(node)) {
+            String url = image.isObject() ? image.path("url").asText(null) : image.asText(null);
+            if (url != null && !url.isBlank() && url.length() <= MAX_TEXT_LENGTH) {
+                return url;
+            }
+        }
+        return null;
+    }
+
+    private static List<JsonNode> asList(JsonNode node) {
+        List<JsonNode> values = new ArrayList<>();
+        if (node != null && node.isArray()) {
+            node.forEach(values::add);
+        } else if (node != null && !node.isNull()) {
+            values.add(node);
+        }
+        return values;
+    }
+
+    private static String text(JsonNode node) {
+        if (node == null || node.isNull() || node.isContainerNode()) {
+            return null;
+        }
+        return clean(node.asText());
+    }
+
+    private static String clean(String value) {
+        String text = TAG.matcher(value).replaceAll(" ")
+                .replace("&nbsp;", " ")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&");
+        text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+    }
+}
@@ -0,0 +1,49 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Output formats of a recipe export.
+ */
+public enum RecipeExportFormat {
+    /**
+     * One recipe object per line.
+     */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    /**
+     * A single JSON array of recipe objects.
+     */
+    JSON(MediaType.APPLICATION_JSON, "json");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    RecipeExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Parses an export format from a request parameter.
+     *
+     * @param value the format name, e.g. "ndjson" or "json"
+     * @return the matching format
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static RecipeExportFormat fromParameter(String value) {
+        for (RecipeExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + value);
+    }
+}
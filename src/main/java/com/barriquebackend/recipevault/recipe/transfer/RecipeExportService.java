@@ -0,0 +1,102 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service class for exporting a user's complete recipe vault.
+ * <p>
+ * Recipe IDs are read from a database cursor, and full recipes are loaded and written in chunks
+ * of {@value #CHUNK_SIZE}. The persistence context is cleared after every chunk, so memory use
+ * stays the same no matter how many recipes a user has.
+ * </p>
+ */
+@Service
+public class RecipeExportService {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final RecipeRepository recipeRepository;
+    private final ObjectWriter recipeWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a RecipeExportService.
+     *
+     * @param recipeRepository   the repository used to read recipes
+     * @param objectMapper       the mapper used to serialize recipes
+     * @param transactionManager the transaction manager; the export holds one read-only transaction
+     *                           so the cursor stays open while recipes are written
+     * @param entityManager      the entity manager cleared after each chunk
+     */
+    public RecipeExportService(RecipeRepository recipeRepository,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               EntityManager entityManager) {
+        this.recipeRepository = recipeRepository;
+        // The caller owns the output stream
+        this.recipeWriter = objectMapper.writerFor(Recipe.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Writes all recipes of the specified user to an output stream.
+     *
+     * @param userId the ID of the user whose recipes are exported
+     * @param format the output format
+     * @param output the stream the recipes are written to; it is flushed but not closed
+     */
+    public void exportRecipes(Long userId, RecipeExportFormat format, OutputStream output) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Long> recipeIds = recipeRepository.streamIdsByUserId(userId);
+                 SequenceWriter writer = openWriter(format, output)) {
+                Iterator<Long> ids = recipeIds.iterator();
+                List<Long> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (ids.hasNext()) {
+                    chunk.add(ids.next());
+                    if (chunk.size() == CHUNK_SIZE || !ids.hasNext()) {
+                        writeChunk(chunk, writer);
+                        chunk.clear();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private SequenceWriter openWriter(RecipeExportFormat format, OutputStream output) throws IOException {
+        return switch (format) {
+            case NDJSON -> recipeWriter.withRootValueSeparator("\n").writeValues(output);
+            case JSON -> recipeWriter.writeValuesAsArray(output);
+        };
+    }
+
+    private void writeChunk(List<Long> chunk, SequenceWriter writer) throws IOException {
+        // One statement for the recipes plus one subselect per child collection
+        for (Recipe recipe : recipeRepository.findAllByRecipeIds(chunk)) {
+            writer.write(recipe);
+        }
+        writer.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,12 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+/**
+ * Thrown when a recipe page cannot be imported, e.g. because the URL is not allowed, the server
+ * answers with an error status or the page contains no schema.org recipe.
+ */
+public class RecipeFetchException extends RuntimeException {
+
+    public RecipeFetchException(String message) {
+        super(message);
+    }
+}
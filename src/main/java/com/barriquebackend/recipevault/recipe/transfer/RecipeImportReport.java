@@ -0,0 +1,23 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk recipe import.
+ *
+ * @param imported the number of recipes that were created
+ * @param failed   the number of lines that could not be imported
+ * @param lines    the result of every non-blank input line, in input order
+ */
+public record RecipeImportReport(int imported, int failed, List<LineResult> lines) {
+
+    /**
+     * Result of a single input line.
+     *
+     * @param line     the 1-based line number in the request body
+     * @param recipeId the ID of the created recipe, or null if the line failed
+     * @param error    the reason the line failed, or null if it was imported
+     */
+    public record LineResult(long line, Long recipeId, String error) {
+    }
+}
@@ -0,0 +1,247 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeService;
+import com.barriquebackend.user.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service class for importing recipes in bulk from newline-delimited JSON (one recipe per line).
+ * <p>
+ * The input is consumed line by line, so only the current batch is held in memory; a line longer
+ * than {@code maxLineBytes} is skipped up to the next newline and reported as failed instead of
+ * being buffered. Recipes are created through {@link RecipeService#createRecipe} in transactions
+ * of {@code batchSize} recipes; after each batch the persistence context is cleared so managed
+ * entities do not accumulate. If a batch fails to commit, its lines are retried one by one so
+ * that a single bad recipe only fails its own line.
+ * </p>
+ */
+@Service
+public class RecipeImportService {
+
+    private final RecipeService recipeService;
+    private final ObjectReader recipeReader;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final int maxLineBytes;
+
+    /**
+     * Constructs a RecipeImportService.
+     *
+     * @param recipeService       the service used to create recipes
+     * @param objectMapper        the mapper used to parse recipes
+     * @param transactionTemplate the template used to run each batch in its own transaction
+     * @param entityManager       the entity manager cleared after each batch
+     * @param batchSize           the number of recipes committed per transaction
+     * @param maxLineBytes        the maximum length of an input line in bytes
+     */
+    public RecipeImportService(RecipeService recipeService,
+                               ObjectMapper objectMapper,
+                               TransactionTemplate transactionTemplate,
+                               EntityManager entityManager,
+                               @Value("${recipevault.import.batch-size:200}") int batchSize,
+                               @Value("${recipevault.import.max-line-bytes:1048576}") int maxLineBytes) {
+        this.recipeService = recipeService;
+        this.recipeReader = objectMapper.readerFor(Recipe.class);
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * Imports all recipes of an NDJSON stream for the specified user.
+     *
+     * @param input the NDJSON input, one recipe object per line
+     * @param user  the user who will own the imported recipes
+     * @return the per-line import report
+     * @throws IOException if the input cannot be read
+     */
+    public RecipeImportReport importRecipes(InputStream input, User user) throws IOException {
+        List<RecipeImportReport.LineResult> results = new ArrayList<>();
+        List<PendingLine> batch = new ArrayList<>(batchSize);
+
+        try (input) {
+            BoundedLineReader reader = new BoundedLineReader(input, maxLineBytes);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.isTruncated()) {
+                    results.add(new RecipeImportReport.LineResult(lineNumber, null,
+                            "Line exceeds the limit of " + maxLineBytes + " bytes"));
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(new PendingLine(lineNumber, line, parse(line)));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    results.add(new RecipeImportReport.LineResult(lineNumber, null, describe(e)));
+                }
+                if (batch.size() >= batchSize) {
+                    persistBatch(batch, user, results);
+                    batch.clear();
+                }
+            }
+        }
+        persistBatch(batch, user, results);
+        // Line errors are reported at once, imported lines only when their batch commits
+        results.sort(Comparator.comparingLong(RecipeImportReport.LineResult::line));
+
+        int failed = (int) results.stream().filter(result -> result.error() != null).count();
+        return new RecipeImportReport(results.size() - failed, failed, results);
+    }
+
+    private Recipe parse(String line) throws JsonProcessingException {
+        Recipe recipe = recipeReader.readValue(line);
+        if (recipe == null) {
+            throw new IllegalArgumentException("Line does not contain a recipe object");
+        }
+        if (recipe.getTitle() == null || recipe.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Recipe title is missing");
+        }
+        return recipe;
+    }
+
+    /**
+     * Creates the recipes of a batch in one transaction, falling back to one transaction per
+     * recipe if the batch fails.
+     */
+    private void persistBatch(List<PendingLine> batch, User user, List<RecipeImportReport.LineResult> results) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<RecipeImportReport.LineResult> batchResults = new ArrayList<>(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingLine pending : batch) {
+                    Recipe created = recipeService.createRecipe(pending.recipe(), user);
+                    batchResults.add(new RecipeImportReport.LineResult(pending.lineNumber(), created.getRecipeId(), null));
+                }
+            });
+            results.addAll(batchResults);
+        } catch (RuntimeException batchFailure) {
+            entityManager.clear();
+            for (PendingLine pending : batch) {
+                results.add(persistSingle(pending, user));
+            }
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private RecipeImportReport.LineResult persistSingle(PendingLine pending, User user) {
+        try {
+            // Re-parse the line: the entity of the failed batch may carry ids of the rolled back inserts
+            Recipe recipe = parse(pending.json());
+            Recipe created = transactionTemplate.execute(status -> recipeService.createRecipe(recipe, user));
+            return new RecipeImportReport.LineResult(pending.lineNumber(), created.getRecipeId(), null);
+        } catch (JsonProcessingException | RuntimeException e) {
+            entityManager.clear();
+            return new RecipeImportReport.LineResult(pending.lineNumber(), null, describe(e));
+        }
+    }
+
+    private static String describe(Exception e) {
+        if (e instanceof JsonProcessingException jsonError) {
+            return "Invalid JSON: " + jsonError.getOriginalMessage();
+        }
+        return e.getMessage();
+    }
+
+    private record PendingLine(long lineNumber, String json, Recipe recipe) {
+    }
+
+    /**
+     * Splits a UTF-8 byte stream at newlines. At most {@code maxLineBytes} bytes of a line are
+     * buffered; the rest of a longer line is read and discarded, and the line is marked truncated.
+     */
+    static final class BoundedLineReader {
+
+        private final InputStream input;
+        private final int maxLineBytes;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[256];
+        private int length;
+        private boolean truncated;
+
+        BoundedLineReader(InputStream input, int maxLineBytes) {
+            this.input = input;
+            this.maxLineBytes = maxLineBytes;
+        }
+
+        /**
+         * Reads the next line without its line terminator.
+         *
+         * @return the line, an empty string if it was truncated, or null at the end of the input
+         * @throws IOException if the input cannot be read
+         */
+        String readLine() throws IOException {
+            length = 0;
+            truncated = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = input.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        break;
+                    }
+                }
+                read = true;
+                byte b = buffer[position++];
+                if (b == '\n') {
+                    break;
+                }
+                // One extra byte so that a line of maxLineBytes can still end with "\r\n"
+                if (length <= maxLineBytes) {
+                    append(b);
+                } else {
+                    truncated = true;
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            truncated |= length > maxLineBytes;
+            return truncated ? "" : new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return true if the line last returned by {@link #readLine()} exceeded the limit
+         */
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        private void append(byte b) {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, Math.min(line.length * 2, maxLineBytes + 1));
+            }
+            line[length++] = b;
+        }
+    }
+}
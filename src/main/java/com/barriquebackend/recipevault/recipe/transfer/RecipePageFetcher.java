@@ -0,0 +1,326 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches recipe pages and extracts their schema.org recipe.
+ * <p>
+ * Every fetch runs on its own virtual thread, so hundreds of pages can be in flight without a
+ * sized thread pool. Concurrency is bounded by a global limit and a per-host limit; a fetch first
+ * waits for its host and only then takes a global permit, so a slow host cannot occupy permits
+ * other hosts could use. Concurrent requests for the same URL share one fetch. Each fetch is
+ * cancelled when it exceeds the request timeout after it got its permits.
+ * </p>
+ * <p>
+ * Redirects are followed manually so that every target is checked: only http and https URLs are
+ * fetched and, unless private addresses are allowed, hosts that resolve to loopback, link-local,
+ * private, carrier-grade NAT or reserved addresses are rejected.
+ * </p>
+ * <p>
+ * The check resolves the host itself and the HTTP client resolves it again when it connects. The
+ * JVM's positive DNS cache ({@code networkaddress.cache.ttl}, 30 seconds by default) normally
+ * returns the checked addresses to the client, but a cache entry expiring in between lets a
+ * rebinding DNS server hand out a different address for the connect. The guard therefore is a
+ * first line of defense; deployments that must never reach internal services should also block
+ * private ranges for outgoing connections at the network level.
+ * </p>
+ */
+@Component
+public class RecipePageFetcher {
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore globalPermits;
+    private final Map<String, HostPermits> hostPermits = new ConcurrentHashMap<>();
+    private final Map<URI, CompletableFuture<JsonNode>> inFlight = new ConcurrentHashMap<>();
+    private final int maxPerHost;
+    private final Duration requestTimeout;
+    private final long maxPageBytes;
+    private final boolean allowPrivateAddresses;
+
+    /**
+     * Constructs a RecipePageFetcher.
+     *
+     * @param objectMapper          the mapper used to parse JSON-LD blocks
+     * @param maxConcurrent         the maximum number of pages fetched at once
+     * @param maxPerHost            the maximum number of pages fetched at once from one host
+     * @param connectTimeoutMs      the connect timeout in milliseconds
+     * @param requestTimeoutMs      the time in milliseconds a fetch may take once it got its permits
+     * @param maxPageBytes          the maximum number of bytes read from a page
+     * @param allowPrivateAddresses whether hosts with loopback or private addresses may be fetched
+     */
+    public RecipePageFetcher(ObjectMapper objectMapper,
+                             @Value("${recipevault.url-import.max-concurrent:64}") int maxConcurrent,
+                             @Value("${recipevault.url-import.max-per-host:4}") int maxPerHost,
+                             @Value("${recipevault.url-import.connect-timeout-ms:5000}") int connectTimeoutMs,
+                             @Value("${recipevault.url-import.request-timeout-ms:15000}") int requestTimeoutMs,
+                             @Value("${recipevault.url-import.max-page-bytes:5242880}") long maxPageBytes,
+                             @Value("${recipevault.url-import.allow-private-addresses:false}") boolean allowPrivateAddresses) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+        this.globalPermits = new Semaphore(maxConcurrent);
+        this.maxPerHost = maxPerHost;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxPageBytes = maxPageBytes;
+        this.allowPrivateAddresses = allowPrivateAddresses;
+    }
+
+    /**
+     * Fetches a page asynchronously and extracts its schema.org recipe.
+     * <p>
+     * The returned future completes exceptionally with a {@link RecipeFetchException} if the page
+     * is not allowed, not available or contains no recipe, with an {@link IOException} if it cannot
+     * be read, and with a {@link java.util.concurrent.TimeoutException} if it takes too long. It is
+     * shared with concurrent callers of the same URL and must not be cancelled.
+     * </p>
+     *
+     * @param uri the absolute http or https URL of the page
+     * @return a future of the recipe JSON-LD node
+     */
+    public CompletableFuture<JsonNode> fetch(URI uri) {
+        CompletableFuture<JsonNode> page = new CompletableFuture<>();
+        CompletableFuture<JsonNode> running = inFlight.putIfAbsent(uri, page);
+        if (running != null) {
+            return running;
+        }
+        Future<?> task = executor.submit(() -> {
+            try {
+                page.complete(load(uri, page));
+            } catch (Exception e) {
+                page.completeExceptionally(e);
+            }
+        });
+        page.whenComplete((recipe, error) -> {
+            inFlight.remove(uri, page);
+            // Interrupts a fetch that timed out; a no-op for one that completed
+            task.cancel(true);
+        });
+        return page;
+    }
+
+    /**
+     * Stops all running fetches.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        httpClient.shutdownNow();
+    }
+
+    private JsonNode load(URI uri, CompletableFuture<JsonNode> page) throws IOException, InterruptedException {
+        String host = uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : "";
+        HostPermits permits = retainHost(host);
+        try {
+            permits.semaphore.acquire();
+            try {
+                globalPermits.acquire();
+                try {
+                    page.orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                    return download(uri);
+                } finally {
+                    globalPermits.release();
+                }
+            } finally {
+                permits.semaphore.release();
+            }
+        } finally {
+            releaseHost(host);
+        }
+    }
+
+    private JsonNode download(URI uri) throws IOException, InterruptedException {
+        URI target = uri;
+        for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++) {
+            checkAllowed(target);
+            HttpRequest request = HttpRequest.newBuilder(target)
+                    .timeout(requestTimeout)
+                    .header("Accept", "text/html,application/xhtml+xml")
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                if (status >= 300 && status < 400) {
+                    String location = response.headers().firstValue("Location")
+                            .orElseThrow(() -> new RecipeFetchException("HTTP " + status + " without Location header"));
+                    target = target.resolve(location);
+                    continue;
+                }
+                if (status != 200) {
+                    throw new RecipeFetchException("HTTP " + status);
+                }
+                Reader html = new BufferedReader(new InputStreamReader(
+                        new LimitedInputStream(body, maxPageBytes), charset(response)));
+                return JsonLdRecipeExtractor.extract(html, objectMapper)
+                        .orElseThrow(() -> new RecipeFetchException("Page contains no schema.org Recipe"));
+            }
+        }
+        throw new RecipeFetchException("More than " + MAX_REDIRECTS + " redirects");
+    }
+
+    private void checkAllowed(URI uri) throws IOException {
+        String scheme = uri.getScheme();
+        if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+            throw new RecipeFetchException("Only http and https URLs can be imported");
+        }
+        if (uri.getHost() == null) {
+            throw new RecipeFetchException("URL has no host");
+        }
+        if (allowPrivateAddresses) {
+            return;
+        }
+        for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+            if (isPrivate(address)) {
+                throw new RecipeFetchException("URL resolves to a non-public address");
+            }
+        }
+    }
+
+    /**
+     * Tells whether an address must not be fetched from because it is not publicly routable.
+     *
+     * @param address the resolved address
+     * @return true for loopback, link-local, private, carrier-grade NAT, multicast and reserved addresses
+     */
+    static boolean isPrivate(InetAddress address) {
+        if (address.isLoopbackAddress()
+                || address.isAnyLocalAddress()
+                || address.isSiteLocalAddress()
+                || address.isLinkLocalAddress()
+                || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            return first == 0
+                    // Carrier-grade NAT (100.64.0.0/10), often routed to internal services
+                    || first == 100 && (second & 0xc0) == 64
+                    // IETF protocol assignments (192.0.0.0/24) and benchmarking (198.18.0.0/15)
+                    || first == 192 && second == 0 && bytes[2] == 0
+                    || first == 198 && (second & 0xfe) == 18
+                    // Reserved (240.0.0.0/4) and broadcast
+                    || first >= 240;
+        }
+        // IPv6 unique local addresses (fc00::/7)
+        return (bytes[0] & 0xfe) == 0xfc;
+    }
+
+    private static Charset charset(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].equalsIgnoreCase("charset")) {
+                try {
+                    return Charset.forName(pair[1].replace("\"", "").trim());
+                } catch (IllegalArgumentException e) {
+                    // Unknown or illegal charset name; fall back to the HTML default
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private HostPermits retainHost(String host) {
+        return hostPermits.compute(host, (key, permits) -> {
+            HostPermits retained = permits != null ? permits : new HostPermits(maxPerHost);
+            retained.users++;
+            return retained;
+        });
+    }
+
+    private void releaseHost(String host) {
+        // Drops the semaphore of a host once no fetch uses it, so the map does not grow with every host ever seen
+        hostPermits.computeIfPresent(host, (key, permits) -> --permits.users == 0 ? null : permits);
+    }
+
+    /**
+     * Per-host semaphore with the number of fetches using it; the count is only changed inside
+     * {@link ConcurrentHashMap#compute}, which runs atomically per host.
+     */
+    private static final class HostPermits {
+
+        private final Semaphore semaphore;
+        private int users;
+
+        private HostPermits(int permits) {
+            this.semaphore = new Semaphore(permits);
+        }
+    }
+
+    /**
+     * Fails reads once more than a maximum number of bytes has been read.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.remaining = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkRemaining();
+            int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            checkRemaining();
+            int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        private void checkRemaining() throws IOException {
+            if (remaining <= 0) {
+                throw new IOException("Page exceeds the size limit");
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.user.CurrentUser;
+import com.barriquebackend.user.User;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST controller for moving recipes into and out of a user's vault in bulk.
+ */
+@RestController
+@RequestMapping("/api")
+public class RecipeTransferController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final RecipeImportService recipeImportService;
+    private final RecipeExportService recipeExportService;
+    private final RecipeUrlImportService recipeUrlImportService;
+
+    /**
+     * Constructs a RecipeTransferController with the specified services.
+     *
+     * @param recipeImportService    the service for bulk imports
+     * @param recipeExportService    the service for vault exports
+     * @param recipeUrlImportService the service for imports from web pages
+     */
+    public RecipeTransferController(RecipeImportService recipeImportService,
+                                    RecipeExportService recipeExportService,
+                                    RecipeUrlImportService recipeUrlImportService) {
+        this.recipeImportService = recipeImportService;
+        this.recipeExportService = recipeExportService;
+        this.recipeUrlImportService = recipeUrlImportService;
+    }
+
+    /**
+     * Imports recipes for the authenticated user from a newline-delimited JSON body.
+     * <p>
+     * The body is read as a stream, so imports of any size are processed with constant memory.
+     * Lines that cannot be parsed or persisted are reported without aborting the import.
+     * </p>
+     *
+     * @param request the HTTP request whose body holds one recipe object per line
+     * @param user    the authenticated user
+     * @return the per-line import report
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/recipe/import", consumes = NDJSON)
+    public ResponseEntity<RecipeImportReport> importRecipes(HttpServletRequest request,
+                                                            @CurrentUser User user) throws IOException {
+        RecipeImportReport report = recipeImportService.importRecipes(request.getInputStream(), user);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Imports recipes for the authenticated user from the schema.org JSON-LD of web pages.
+     * <p>
+     * The pages are fetched concurrently; URLs whose page cannot be loaded or contains no recipe
+     * are reported without aborting the import.
+     * </p>
+     *
+     * @param urls the URLs of the recipe pages
+     * @param user the authenticated user
+     * @return the per-URL import report, or 400 if too many URLs are given
+     */
+    @PostMapping("/recipe/import/urls")
+    public ResponseEntity<RecipeUrlImportReport> importRecipesFromUrls(@RequestBody List<String> urls,
+                                                                       @CurrentUser User user) {
+        try {
+            return ResponseEntity.ok(recipeUrlImportService.importUrls(urls, user));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Exports all recipes of the authenticated user.
+     * <p>
+     * The response is streamed while recipes are read from the database, so the vault is never
+     * held in memory as a whole.
+     * </p>
+     *
+     * @param format the output format, "ndjson" (default) or "json"
+     * @param user   the authenticated user
+     * @return a ResponseEntity streaming the recipes, or 400 if the format is unknown
+     */
+    @GetMapping("/user/recipe/export")
+    public ResponseEntity<StreamingResponseBody> exportRecipes(@RequestParam(defaultValue = "ndjson") String format,
+                                                               @CurrentUser User user) {
+        RecipeExportFormat exportFormat;
+        try {
+            exportFormat = RecipeExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long userId = user.getId();
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("recipes." + exportFormat.getFileExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(output -> recipeExportService.exportRecipes(userId, exportFormat, output));
+    }
+}
@@ -0,0 +1,23 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import java.util.List;
+
+/**
+ * Outcome of an import of recipes from web pages.
+ *
+ * @param imported the number of recipes that were created
+ * @param failed   the number of URLs that could not be imported
+ * @param urls     the result of every distinct URL, in request order
+ */
+public record RecipeUrlImportReport(int imported, int failed, List<UrlResult> urls) {
+
+    /**
+     * Result of a single URL.
+     *
+     * @param url      the URL as it was fetched
+     * @param recipeId the ID of the created recipe, or null if the URL failed
+     * @param error    the reason the URL failed, or null if it was imported
+     */
+    public record UrlResult(String url, Long recipeId, String error) {
+    }
+}
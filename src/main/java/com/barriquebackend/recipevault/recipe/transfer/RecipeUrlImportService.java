@@ -0,0 +1,140 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeService;
+import com.barriquebackend.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service class for importing recipes from the schema.org JSON-LD of web pages.
+ * <p>
+ * All pages of a request are fetched concurrently by the {@link RecipePageFetcher}; the recipes
+ * are created in request order while later pages are still loading, each in its own transaction,
+ * so a failing page or recipe only fails its own URL. The page URL is stored as the recipe's
+ * source URL.
+ * </p>
+ */
+@Service
+public class RecipeUrlImportService {
+
+    private static final int MAX_URL_LENGTH = 255;
+
+    private final RecipePageFetcher recipePageFetcher;
+    private final RecipeService recipeService;
+    private final EntityManager entityManager;
+    private final int maxUrls;
+
+    /**
+     * Constructs a RecipeUrlImportService.
+     *
+     * @param recipePageFetcher the fetcher used to load the pages
+     * @param recipeService     the service used to create recipes
+     * @param entityManager     the entity manager cleared after each recipe
+     * @param maxUrls           the maximum number of URLs per request
+     */
+    public RecipeUrlImportService(RecipePageFetcher recipePageFetcher,
+                                  RecipeService recipeService,
+                                  EntityManager entityManager,
+                                  @Value("${recipevault.url-import.max-urls:500}") int maxUrls) {
+        this.recipePageFetcher = recipePageFetcher;
+        this.recipeService = recipeService;
+        this.entityManager = entityManager;
+        this.maxUrls = maxUrls;
+    }
+
+    /**
+     * Imports the recipes of the given pages for the specified user. Duplicate URLs are fetched
+     * and imported once.
+     *
+     * @param urls the absolute http or https URLs of the recipe pages
+     * @param user the user who will own the imported recipes
+     * @return the per-URL import report
+     * @throws IllegalArgumentException if more URLs than allowed are given
+     */
+    public RecipeUrlImportReport importUrls(List<String> urls, User user) {
+        if (urls.size() > maxUrls) {
+            throw new IllegalArgumentException("At most " + maxUrls + " URLs can be imported at once");
+        }
+        // Start every fetch before waiting for the first one
+        Map<String, PendingUrl> pending = new LinkedHashMap<>();
+        for (String url : urls) {
+            try {
+                URI uri = normalize(url);
+                pending.putIfAbsent(uri.toString(), new PendingUrl(uri.toString(), recipePageFetcher.fetch(uri), null));
+            } catch (IllegalArgumentException e) {
+                pending.putIfAbsent(String.valueOf(url), new PendingUrl(String.valueOf(url), null, e.getMessage()));
+            }
+        }
+
+        List<RecipeUrlImportReport.UrlResult> results = new ArrayList<>(pending.size());
+        for (PendingUrl url : pending.values()) {
+            results.add(url.page() != null ? persist(url, user) : new RecipeUrlImportReport.UrlResult(url.url(), null, url.error()));
+        }
+        int failed = (int) results.stream().filter(result -> result.error() != null).count();
+        return new RecipeUrlImportReport(results.size() - failed, failed, results);
+    }
+
+    private RecipeUrlImportReport.UrlResult persist(PendingUrl url, User user) {
+        try {
+            Recipe recipe = JsonLdRecipeMapper.toRecipe(url.page().join(), url.url());
+            Recipe created = recipeService.createRecipe(recipe, user);
+            return new RecipeUrlImportReport.UrlResult(url.url(), created.getRecipeId(), null);
+        } catch (RuntimeException e) {
+            return new RecipeUrlImportReport.UrlResult(url.url(), null, describe(e));
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private static URI normalize(String url) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("URL is empty");
+        }
+        URI uri;
+        try {
+            uri = new URI(url.trim()).normalize();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL: " + e.getReason());
+        }
+        if (!uri.isAbsolute() || uri.getHost() == null) {
+            throw new IllegalArgumentException("URL must be absolute");
+        }
+        // The fragment is never sent to the server, so URLs that only differ in it are the same page
+        String normalized = uri.toString();
+        if (uri.getRawFragment() != null) {
+            normalized = normalized.substring(0, normalized.indexOf('#'));
+        }
+        if (normalized.length() > MAX_URL_LENGTH) {
+            throw new IllegalArgumentException("URL is longer than " + MAX_URL_LENGTH + " characters");
+        }
+        return URI.create(normalized);
+    }
+
+    private static String describe(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof TimeoutException) {
+            return "Page did not load in time";
+        }
+        if (cause instanceof IOException) {
+            return "Page could not be read: " + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+        }
+        return cause.getMessage();
+    }
+
+    private record PendingUrl(String url, CompletableFuture<JsonNode> page, String error) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.barriquebackend.user;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link User} controller parameter to the authenticated user of the request.
+ * <p>
+ * Resolved by {@link CurrentUserArgumentResolver}. The user is detached, so only its ID and
+ * scalar fields should be used.
+ * </p>
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -15,6 +15,16 @@ public class UserPrincipal implements UserDetails {
         this.user = user;
     }
 
+    /**
+     * Returns the user entity this principal was loaded from. The entity is detached, so only
+     * its ID and scalar fields should be used.
+     *
+     * @return the authenticated user
+     */
+    public User getUser() {
+        return user;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singleton(new SimpleGrantedAuthority("USER"));
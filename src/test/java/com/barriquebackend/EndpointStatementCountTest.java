@@ -0,0 +1,351 @@
+package com.barriquebackend;
+
+import com.barriquebackend.bucksbuddy.journey.Journey;
+import com.barriquebackend.bucksbuddy.journey.JourneyRepository;
+import com.barriquebackend.bucksbuddy.journey.expenditure.Expenditure;
+import com.barriquebackend.bucksbuddy.journey.expenditure.ExpenditureRepository;
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.RecipeService;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.user.User;
+import com.barriquebackend.user.UserPrincipal;
+import com.barriquebackend.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the JDBC statements each mutating or single-entity endpoint issues. Ownership is part
+ * of every lookup, the authenticated user comes from the security principal, and writes use
+ * references or set-based statements, so no endpoint reads the same row twice.
+ */
+@SpringBootTest(properties = {
+        "DB_URL=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1",
+        "DB_USER=sa",
+        "DB_PASS=",
+        "SEC_USER=test",
+        "SEC_PASS=test",
+        "recipevault.backfill.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private JourneyRepository journeyRepository;
+
+    @Autowired
+    private ExpenditureRepository expenditureRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User stranger;
+    private Recipe recipe;
+    private Journey journey;
+    private Expenditure expenditure;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(newUser());
+        stranger = userRepository.save(newUser());
+
+        // Created through the service so that its first revision also warms up the pooled revision ids
+        recipe = new Recipe();
+        recipe.setTitle("Pancakes");
+        recipe = recipeService.createRecipe(recipe, owner);
+
+        journey = new Journey();
+        journey.setUser(owner);
+        journey.setName("Lisbon");
+        journey.setHomeCurr("EUR");
+        journey.setVacCurr("EUR");
+        journey.setBudget(1000);
+        journey.setStartDate(new Date());
+        journey.setEndDate(new Date());
+        journey = journeyRepository.save(journey);
+
+        // Also warms up the pooled expenditure ids, so creating one below needs no sequence call
+        expenditure = new Expenditure();
+        expenditure.setJourney(journey);
+        expenditure.setName("Tram");
+        expenditure.setAmount(3.0);
+        expenditure = expenditureRepository.save(expenditure);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getRecipeReadsGraphOnceAndThenOnlyTheVersion() throws Exception {
+        // Version lookup, ownership-filtered recipe read, one subselect per child collection
+        assertStatements(owner, get("/api/recipe/" + recipe.getRecipeId()), status().isOk(), 7);
+        // Served from the serialized-response cache after the version lookup
+        assertStatements(owner, get("/api/recipe/" + recipe.getRecipeId()), status().isOk(), 1);
+        assertStatements(stranger, get("/api/recipe/" + recipe.getRecipeId()),
+                status().isNotFound(), 1);
+    }
+
+    @Test
+    void sparseFieldsetSkipsUnrequestedCollections() throws Exception {
+        // Version lookup and recipe row; only the requested steps collection is loaded
+        assertStatements(owner, get("/api/recipe/" + recipe.getRecipeId()).param("fields", "title,steps"),
+                status().isOk(), 3);
+        assertStatements(owner, get("/api/journey/" + journey.getJourneyId()).param("fields", "name,budget"),
+                status().isOk(), 1);
+    }
+
+    @Test
+    void invalidTimeRangesAreRejectedWithoutQueries() throws Exception {
+        assertStatements(owner, get("/api/user/recipe/page").param("sort", "time")
+                .param("minMinutes", "60").param("maxMinutes", "30"), status().isBadRequest(), 0);
+        assertStatements(owner, get("/api/user/recipe/page").param("sort", "time")
+                .param("minMinutes", "-5"), status().isBadRequest(), 0);
+        assertStatements(owner, get("/api/user/recipe/page").param("sort", "time")
+                .param("maxMinutes", "-1"), status().isBadRequest(), 0);
+    }
+
+    @Test
+    void updateRecipeReadsRecipeOnce() throws Exception {
+        // Ownership-filtered read, child collections for reconciliation, one UPDATE, one revision INSERT
+        assertStatements(owner, put("/api/recipe/" + recipe.getRecipeId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Crepes\"}"), status().isOk(), 8);
+    }
+
+    @Test
+    void titleOnlyUpdateKeepsChildRows() throws Exception {
+        Recipe withChildren = pancakes("Pancakes");
+        RecipeStep step = new RecipeStep();
+        step.setStepNumber(1);
+        step.setStepDescription("Whisk everything");
+        withChildren.addStep(step);
+        withChildren = recipeService.createRecipe(withChildren, owner);
+
+        // Children without IDs are matched by title and step number and left untouched
+        statistics.clear();
+        mockMvc.perform(put("/api/recipe/" + withChildren.getRecipeId())
+                .with(user(new UserPrincipal(owner)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Crepes\",\"ingredients\":[{\"title\":\"flour\"},{\"title\":\"milk\"},"
+                        + "{\"title\":\"eggs\"},{\"title\":\"butter\"}],"
+                        + "\"steps\":[{\"stepNumber\":1,\"stepDescription\":\"Whisk everything\"}]}"))
+                .andExpect(status().isOk());
+        for (Class<?> child : new Class<?>[]{Ingredient.class, RecipeStep.class}) {
+            EntityStatistics childStatistics = statistics.getEntityStatistics(child.getName());
+            assertThat(childStatistics.getInsertCount()).as(child.getSimpleName() + " inserts").isZero();
+            assertThat(childStatistics.getDeleteCount()).as(child.getSimpleName() + " deletes").isZero();
+            assertThat(childStatistics.getUpdateCount()).as(child.getSimpleName() + " updates").isZero();
+        }
+        assertThat(recipeRepository.findById(withChildren.getRecipeId()).orElseThrow().getTitle()).isEqualTo("Crepes");
+    }
+
+    @Test
+    void revisionsAreReplayedFromCheckpointInOneQuery() throws Exception {
+        mockMvc.perform(patch("/api/recipe/" + recipe.getRecipeId())
+                .with(user(new UserPrincipal(owner)))
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":\"Crepes\"}")).andExpect(status().isNoContent());
+
+        // Ownership check on the version, then the checkpoint and all deltas up to the revision
+        assertStatements(owner, get("/api/recipe/" + recipe.getRecipeId() + "/revisions/1"), status().isOk(), 2);
+        mockMvc.perform(get("/api/recipe/" + recipe.getRecipeId() + "/revisions/1").with(user(new UserPrincipal(owner))))
+                .andExpect(jsonPath("$.title").value("Pancakes"));
+        mockMvc.perform(get("/api/recipe/" + recipe.getRecipeId() + "/revisions/2").with(user(new UserPrincipal(owner))))
+                .andExpect(jsonPath("$.title").value("Crepes"));
+        assertStatements(stranger, get("/api/recipe/" + recipe.getRecipeId() + "/revisions/1"),
+                status().isNotFound(), 1);
+    }
+
+    @Test
+    void scalarPatchesWriteOnlyTheRow() throws Exception {
+        // Ownership-filtered read of the recipe row, one UPDATE and the revision delta; no child collection is loaded
+        assertStatements(owner, patch("/api/recipe/" + recipe.getRecipeId())
+                .contentType("application/merge-patch+json")
+                .content("{\"favorite\":true}"), status().isNoContent(), 3);
+        assertStatements(owner, patch("/api/journey/" + journey.getJourneyId())
+                .contentType("application/merge-patch+json")
+                .content("{\"budget\":1200}"), status().isNoContent(), 2);
+        assertStatements(owner, patch("/api/recipe/" + recipe.getRecipeId())
+                .contentType("application/merge-patch+json")
+                .content("{\"version\":0}"), status().isBadRequest(), 0);
+        assertThat(recipeRepository.findById(recipe.getRecipeId()).orElseThrow().getFavorite()).isTrue();
+    }
+
+    @Test
+    void scalarPatchesKeepWarmIndexesWithoutLoadingCollections() throws Exception {
+        // Builds the search and similarity indexes of the owner
+        assertStatements(owner, get("/api/recipe/search").param("q", "pancakes"), status().isOk(), 4);
+        assertStatements(owner, get("/api/recipe/" + recipe.getRecipeId() + "/similar"), status().isOk(), 2);
+
+        // Row read, UPDATE and revision delta; the indexes are updated without loading child collections
+        assertStatements(owner, patch("/api/recipe/" + recipe.getRecipeId())
+                .contentType("application/merge-patch+json")
+                .content("{\"favorite\":true}"), status().isNoContent(), 3);
+        assertStatements(owner, patch("/api/recipe/" + recipe.getRecipeId())
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":\"Crepes\",\"time\":\"20 min\"}"), status().isNoContent(), 3);
+        assertStatements(owner, get("/api/recipe/search").param("q", "crepes"), status().isOk(), 0);
+        assertStatements(owner, get("/api/recipe/" + recipe.getRecipeId() + "/similar"), status().isOk(), 0);
+    }
+
+    @Test
+    void nearDuplicatesAreFoundFromStoredSignatures() throws Exception {
+        recipeService.createRecipe(pancakes("Pancakes"), owner);
+        recipeService.createRecipe(pancakes("Pancakes (copy)"), owner);
+
+        // The index was built from the stored signatures by the first create and updated after each commit
+        assertStatements(owner, get("/api/user/recipe/duplicates"), status().isOk(), 0);
+    }
+
+    @Test
+    void similarRecipesAreReadFromPrecomputedNeighbors() throws Exception {
+        Recipe original = recipeService.createRecipe(pancakes("Pancakes"), owner);
+        // Building the index reads the recipe columns and the ingredient titles
+        assertStatements(owner, get("/api/recipe/" + original.getRecipeId() + "/similar"), status().isOk(), 2);
+
+        // The new recipe is applied to the warm index after its commit
+        recipeService.createRecipe(pancakes("Buttermilk pancakes"), owner);
+        assertStatements(owner, get("/api/recipe/" + original.getRecipeId() + "/similar"), status().isOk(), 0);
+        assertStatements(stranger, get("/api/recipe/" + original.getRecipeId() + "/similar"), status().isNotFound(), 2);
+    }
+
+    @Test
+    void shoppingListIsMergedFromOneQuery() throws Exception {
+        Recipe crepes = recipeService.createRecipe(pancakes("Crepes"), owner);
+        Recipe bread = recipeService.createRecipe(pancakes("Bread"), owner);
+
+        // The ingredients of all selected recipes with their names and units are read at once
+        String entries = "[{\"recipeId\":" + crepes.getRecipeId() + ",\"servings\":4},"
+                + "{\"recipeId\":" + bread.getRecipeId() + "}]";
+        assertStatements(owner, post("/api/recipe/shopping-list")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(entries), status().isOk(), 1);
+        assertStatements(owner, post("/api/recipe/shopping-list")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[null]"), status().isBadRequest(), 0);
+    }
+
+    @Test
+    void nutritionFilterIsOneQueryOnServingColumns() throws Exception {
+        // Plain comparisons on the typed serving columns of the recipe table
+        assertStatements(owner, get("/api/recipe/filter/nutrition?kcal=..500&protein=30.."), status().isOk(), 1);
+        assertStatements(owner, get("/api/recipe/filter/nutrition?kcal=500..300"), status().isBadRequest(), 0);
+        assertStatements(owner, get("/api/recipe/filter/nutrition?vitamins=1.."), status().isBadRequest(), 0);
+    }
+
+    @Test
+    void deleteRecipeUsesSetBasedStatements() throws Exception {
+        // Ownership check on ids, then one DELETE per component table, the recipe and its history
+        assertStatements(owner, delete("/api/recipe/" + recipe.getRecipeId()), status().isOk(), 8);
+        assertThat(recipeRepository.existsById(recipe.getRecipeId())).isFalse();
+    }
+
+    @Test
+    void foreignRecipeIsNotFoundWithoutWrites() throws Exception {
+        assertStatements(stranger, delete("/api/recipe/" + recipe.getRecipeId()),
+                status().isNotFound(), 1);
+        assertThat(recipeRepository.existsById(recipe.getRecipeId())).isTrue();
+    }
+
+    @Test
+    void journeyEndpointsReadJourneyOnce() throws Exception {
+        // Ownership-filtered read plus the expenditures serialized with the journey
+        assertStatements(owner, get("/api/journey/" + journey.getJourneyId()), status().isOk(), 2);
+        assertStatements(stranger, get("/api/journey/" + journey.getJourneyId()),
+                status().isNotFound(), 1);
+        // Read, UPDATE, and the expenditures serialized with the response
+        assertStatements(owner, put("/api/journey/" + journey.getJourneyId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Porto\",\"homeCurr\":\"EUR\",\"vacCurr\":\"EUR\",\"budget\":800,"
+                        + "\"startDate\":\"2026-05-01\",\"endDate\":\"2026-05-08\"}"), status().isOk(), 3);
+        // One DELETE for the expenditures and one for the journey
+        assertStatements(owner, delete("/api/journey/" + journey.getJourneyId()), status().isOk(), 2);
+    }
+
+    @Test
+    void expenditureEndpointsReadOnlyOwnedRows() throws Exception {
+        String expenditures = "/api/journey/" + journey.getJourneyId() + "/expenditure";
+
+        assertStatements(owner, get(expenditures), status().isOk(), 1);
+        assertStatements(owner, get(expenditures + "/" + expenditure.getExpenditureId()), status().isOk(), 1);
+        // Ownership check on the journey id and the INSERT; the journey itself is never loaded
+        assertStatements(owner, post(expenditures)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Museum\",\"amount\":12.5}"), status().isCreated(), 2);
+        assertStatements(owner, put(expenditures + "/" + expenditure.getExpenditureId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Bus\",\"amount\":2.0}"), status().isOk(), 2);
+        assertStatements(owner, delete(expenditures + "/" + expenditure.getExpenditureId()), status().isNoContent(), 1);
+        assertStatements(stranger, post(expenditures)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Museum\",\"amount\":12.5}"),
+                status().isNotFound(), 1);
+    }
+
+    private void assertStatements(User as, MockHttpServletRequestBuilder request, ResultMatcher expectedStatus,
+                                  long expectedStatements) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request.with(user(new UserPrincipal(as)))).andExpect(expectedStatus);
+        assertThat(statistics.getPrepareStatementCount())
+                .as("JDBC statements")
+                .isEqualTo(expectedStatements);
+    }
+
+    private static Recipe pancakes(String title) {
+        Recipe pancakes = new Recipe();
+        pancakes.setTitle(title);
+        for (String name : new String[]{"flour", "milk", "eggs", "butter"}) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setTitle(name);
+            pancakes.addIngredient(ingredient);
+        }
+        return pancakes;
+    }
+
+    private static User newUser() {
+        User user = new User();
+        user.setUsername("user-" + UUID.randomUUID());
+        user.setPassword("secret");
+        return user;
+    }
+}
@@ -0,0 +1,101 @@
+package com.barriquebackend.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void applyMatchesTheExamplesOfRfc7396() throws Exception {
+        // Appendix A: original, patch, result
+        List<String[]> examples = List.of(
+                new String[]{"{'a':'b'}", "{'a':'c'}", "{'a':'c'}"},
+                new String[]{"{'a':'b'}", "{'b':'c'}", "{'a':'b','b':'c'}"},
+                new String[]{"{'a':'b'}", "{'a':null}", "{}"},
+                new String[]{"{'a':'b','b':'c'}", "{'a':null}", "{'b':'c'}"},
+                new String[]{"{'a':['b']}", "{'a':'c'}", "{'a':'c'}"},
+                new String[]{"{'a':'c'}", "{'a':['b']}", "{'a':['b']}"},
+                new String[]{"{'a':{'b':'c'}}", "{'a':{'b':'d','c':null}}", "{'a':{'b':'d'}}"},
+                new String[]{"{'a':[{'b':'c'}]}", "{'a':[1]}", "{'a':[1]}"},
+                new String[]{"['a','b']", "['c','d']", "['c','d']"},
+                new String[]{"{'a':'b'}", "['c']", "['c']"},
+                new String[]{"{'a':'foo'}", "null", "null"},
+                new String[]{"{'a':'foo'}", "'bar'", "'bar'"},
+                new String[]{"{'e':null}", "{'a':1}", "{'e':null,'a':1}"},
+                new String[]{"[1,2]", "{'a':'b','c':null}", "{'a':'b'}"},
+                new String[]{"{}", "{'a':{'bb':{'ccc':null}}}", "{'a':{'bb':{}}}"});
+
+        for (String[] example : examples) {
+            assertThat(MergePatch.apply(json(example[0]), json(example[1])))
+                    .as(example[0] + " + " + example[1])
+                    .isEqualTo(json(example[2]));
+        }
+    }
+
+    @Test
+    void applyDoesNotModifyTheTarget() throws Exception {
+        JsonNode target = json("{'a':{'b':'c'}}");
+
+        MergePatch.apply(target, json("{'a':{'b':null}}"));
+
+        assertThat(target).isEqualTo(json("{'a':{'b':'c'}}"));
+    }
+
+    @Test
+    void diffRemovesAbsentPropertiesWithNull() throws Exception {
+        ObjectNode patch = MergePatch.diff(object("{'title':'Soup','time':'20 min'}"), object("{'title':'Soup'}"));
+
+        assertThat(patch).isEqualTo(json("{'time':null}"));
+    }
+
+    @Test
+    void diffRecursesIntoNestedObjects() throws Exception {
+        ObjectNode patch = MergePatch.diff(
+                object("{'nutrition':{'kcal':400,'protein':20},'title':'Soup'}"),
+                object("{'nutrition':{'kcal':450},'title':'Soup'}"));
+
+        assertThat(patch).isEqualTo(json("{'nutrition':{'kcal':450,'protein':null}}"));
+    }
+
+    @Test
+    void diffStoresAChangedArrayAsAWhole() throws Exception {
+        ObjectNode patch = MergePatch.diff(
+                object("{'steps':[{'n':1,'text':'Chop'},{'n':2,'text':'Fry'}]}"),
+                object("{'steps':[{'n':1,'text':'Chop'},{'n':2,'text':'Boil'}]}"));
+
+        assertThat(patch).isEqualTo(json("{'steps':[{'n':1,'text':'Chop'},{'n':2,'text':'Boil'}]}"));
+    }
+
+    @Test
+    void diffOfEqualDocumentsIsEmpty() throws Exception {
+        ObjectNode document = object("{'a':{'b':[1,2]},'c':'d'}");
+
+        assertThat(MergePatch.diff(document, document.deepCopy()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void applyingTheDiffYieldsTheTarget() throws Exception {
+        ObjectNode source = object("{'title':'Soup','tags':['quick'],'nutrition':{'kcal':400},'time':'20 min'}");
+        ObjectNode target = object("{'title':'Stew','tags':['quick','vegan'],'nutrition':{'kcal':400,'fat':12},"
+                + "'servings':4}");
+
+        assertThat(MergePatch.apply(source, MergePatch.diff(source, target))).isEqualTo(target);
+        assertThat(MergePatch.apply(target, MergePatch.diff(target, source))).isEqualTo(source);
+    }
+
+    private JsonNode json(String singleQuoted) throws Exception {
+        return objectMapper.readTree(singleQuoted.replace('\'', '"'));
+    }
+
+    private ObjectNode object(String singleQuoted) throws Exception {
+        return (ObjectNode) json(singleQuoted);
+    }
+}
@@ -0,0 +1,145 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.recipevault.recipe.components.tag.Tag;
+import com.barriquebackend.recipevault.recipe.components.tag.TagType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matching of incoming child components to persistent ones: by ID, then by natural key, with
+ * only the unmatched remainder inserted or removed.
+ */
+class RecipeComponentReconcilerTest {
+
+    @Test
+    void matchesByIdThenByNaturalKeyAndInsertsAndRemovesTheRest() {
+        Recipe target = new Recipe();
+        Ingredient flour = ingredient(1L, "Flour", 200.0, "g");
+        Ingredient sugar = ingredient(2L, "Sugar", 50.0, "g");
+        Ingredient eggs = ingredient(3L, "Eggs", 2.0, null);
+        target.addIngredient(flour);
+        target.addIngredient(sugar);
+        target.addIngredient(eggs);
+
+        Ingredient milk = ingredient(null, "Milk", 300.0, "ml");
+        boolean changed = RecipeComponentReconciler.reconcileIngredients(target, List.of(
+                ingredient(1L, "Wholemeal flour", 250.0, "g"),
+                ingredient(null, "sugars", 50.0, "g"),
+                milk));
+
+        assertThat(changed).isTrue();
+        assertThat(target.getIngredients()).containsExactly(flour, sugar, milk);
+        assertThat(flour.getTitle()).isEqualTo("Wholemeal flour");
+        assertThat(flour.getAmount()).isEqualTo(250.0);
+        assertThat(sugar.getIngredientId()).isEqualTo(2L);
+        assertThat(sugar.getTitle()).isEqualTo("sugars");
+        assertThat(milk.getRecipe()).isSameAs(target);
+    }
+
+    @Test
+    void unchangedComponentsAreNotReported() {
+        Recipe target = new Recipe();
+        Ingredient flour = ingredient(1L, "Flour", 200.0, "g");
+        target.addIngredient(flour);
+        target.addStep(step(7L, 1, "Mix"));
+
+        assertThat(RecipeComponentReconciler.reconcileIngredients(target,
+                List.of(ingredient(null, "Flour", 200.0, "g")))).isFalse();
+        assertThat(RecipeComponentReconciler.reconcileSteps(target, List.of(step(null, 1, "Mix")))).isFalse();
+        assertThat(target.getIngredients()).containsExactly(flour);
+    }
+
+    @Test
+    void duplicateNaturalKeysAreMatchedOneToOne() {
+        Recipe target = new Recipe();
+        Ingredient tsp = ingredient(1L, "Salt", 1.0, "tsp");
+        Ingredient pinch = ingredient(2L, "Salt", 1.0, "pinch");
+        target.addIngredient(tsp);
+        target.addIngredient(pinch);
+
+        // The row without ID takes the first salt, so the row with ID 1 falls back to the remaining one
+        Ingredient extra = ingredient(null, "salt", 2.0, "g");
+        boolean changed = RecipeComponentReconciler.reconcileIngredients(target, List.of(
+                ingredient(null, "Salt", 1.0, "pinch"),
+                ingredient(1L, "Salt", 1.0, "tsp"),
+                extra));
+
+        assertThat(changed).isTrue();
+        assertThat(target.getIngredients()).containsExactly(tsp, pinch, extra);
+        assertThat(tsp.getUnit()).isEqualTo("pinch");
+        assertThat(pinch.getUnit()).isEqualTo("tsp");
+        assertThat(extra.getIngredientId()).isNull();
+    }
+
+    @Test
+    void foreignIdsAreInsertedInsteadOfStolen() {
+        Recipe target = new Recipe();
+        Ingredient flour = ingredient(1L, "Flour", 200.0, "g");
+        target.addIngredient(flour);
+
+        // ID 99 belongs to another recipe, so the row is new to this one
+        Ingredient butter = ingredient(99L, "Butter", 20.0, "g");
+        assertThat(RecipeComponentReconciler.reconcileIngredients(target, List.of(butter))).isTrue();
+
+        assertThat(target.getIngredients()).containsExactly(butter);
+        assertThat(butter.getIngredientId()).isNull();
+        assertThat(butter.getRecipe()).isSameAs(target);
+    }
+
+    @Test
+    void nullIncomingListsRemoveAllComponents() {
+        Recipe target = new Recipe();
+        target.addStep(step(7L, 1, "Mix"));
+        Tag vegan = new Tag();
+        vegan.setTagId(3L);
+        vegan.setTagType(TagType.VEGAN);
+        target.addTag(vegan);
+
+        assertThat(RecipeComponentReconciler.reconcileSteps(target, null)).isTrue();
+        assertThat(RecipeComponentReconciler.reconcileTags(target, null)).isTrue();
+        assertThat(target.getSteps()).isEmpty();
+        assertThat(target.getTags()).isEmpty();
+        assertThat(RecipeComponentReconciler.reconcileIngredients(target, null)).isFalse();
+    }
+
+    @Test
+    void fullReconcileCoversEveryCollection() {
+        Recipe target = new Recipe();
+        RecipeStep first = step(7L, 1, "Mix");
+        target.addStep(first);
+        target.addIngredient(ingredient(1L, "Flour", 200.0, "g"));
+
+        Recipe source = new Recipe();
+        source.setSteps(new ArrayList<>(List.of(step(null, 1, "Mix well"), step(null, 2, "Bake"))));
+        source.setIngredients(new ArrayList<>());
+
+        assertThat(RecipeComponentReconciler.reconcile(target, source)).isTrue();
+        assertThat(target.getSteps()).hasSize(2);
+        assertThat(target.getSteps().get(0)).isSameAs(first);
+        assertThat(first.getStepDescription()).isEqualTo("Mix well");
+        assertThat(target.getIngredients()).isEmpty();
+    }
+
+    private static Ingredient ingredient(Long id, String title, Double amount, String unit) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setIngredientId(id);
+        ingredient.setTitle(title);
+        ingredient.setAmount(amount);
+        ingredient.setUnit(unit);
+        return ingredient;
+    }
+
+    private static RecipeStep step(Long id, int number, String description) {
+        RecipeStep step = new RecipeStep();
+        step.setStepId(id);
+        step.setStepNumber(number);
+        step.setStepDescription(description);
+        return step;
+    }
+}
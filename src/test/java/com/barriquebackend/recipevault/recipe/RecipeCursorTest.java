@@ -0,0 +1,59 @@
+package com.barriquebackend.recipevault.recipe;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecipeCursorTest {
+
+    @Test
+    void encodedCursorsDecodeToTheSamePosition() {
+        RecipeCursor title = new RecipeCursor(RecipeCursor.Sort.TITLE, "Cr\u00eapes: sweet & salty", 0, 42L);
+        RecipeCursor time = new RecipeCursor(RecipeCursor.Sort.TIME, "", 90, 7L);
+
+        assertThat(RecipeCursor.decode(title.encode())).isEqualTo(title);
+        assertThat(RecipeCursor.decode(time.encode())).isEqualTo(time);
+        assertThat(RecipeCursor.decode(RecipeCursor.first(RecipeCursor.Sort.ID).encode()))
+                .isEqualTo(RecipeCursor.first(RecipeCursor.Sort.ID));
+        // Tokens are safe to pass as query parameters without escaping
+        assertThat(title.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void cursorAfterARecipeKeepsOnlyTheKeyOfItsSortOrder() {
+        Recipe recipe = new Recipe();
+        recipe.setRecipeId(5L);
+        recipe.setTitle("Pancakes");
+        recipe.setTimeMinutes(20);
+
+        assertThat(RecipeCursor.after(RecipeCursor.Sort.TITLE, recipe))
+                .isEqualTo(new RecipeCursor(RecipeCursor.Sort.TITLE, "Pancakes", 0, 5L));
+        assertThat(RecipeCursor.after(RecipeCursor.Sort.TIME, recipe))
+                .isEqualTo(new RecipeCursor(RecipeCursor.Sort.TIME, "", 20, 5L));
+        assertThat(RecipeCursor.after(RecipeCursor.Sort.ID, recipe))
+                .isEqualTo(new RecipeCursor(RecipeCursor.Sort.ID, "", 0, 5L));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThatThrownBy(() -> RecipeCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecipeCursor.decode(token("TITLE:1:0"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecipeCursor.decode(token("NAME:1:0:x"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecipeCursor.decode(token("TITLE:one:0:x"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecipeCursor.decode(token("TIME:1:soon:"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sortParametersAreCaseInsensitive() {
+        assertThat(RecipeCursor.Sort.fromParameter("Title")).isEqualTo(RecipeCursor.Sort.TITLE);
+        assertThatThrownBy(() -> RecipeCursor.Sort.fromParameter("rating")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
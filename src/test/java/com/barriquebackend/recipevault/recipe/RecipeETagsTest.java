@@ -0,0 +1,48 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.json.FieldSelection;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entity tags of full and field-restricted recipe representations and the evaluation of
+ * conditional request headers against them.
+ */
+class RecipeETagsTest {
+
+    @Test
+    void partialRepresentationsHaveTheirOwnTags() {
+        String full = RecipeETags.of(7, FieldSelection.parse(null));
+        String titles = RecipeETags.of(7, FieldSelection.parse("title"));
+
+        assertThat(full).isEqualTo("\"7\"");
+        assertThat(titles).startsWith("\"7-");
+        assertThat(titles).isNotEqualTo(RecipeETags.of(7, FieldSelection.parse("title,steps")));
+        assertThat(titles).isNotEqualTo(RecipeETags.of(8, FieldSelection.parse("title")));
+        // Equivalent selections serialize the same properties
+        assertThat(RecipeETags.of(7, FieldSelection.parse("steps, title,title")))
+                .isEqualTo(RecipeETags.of(7, FieldSelection.parse("title,steps")));
+        assertThat(RecipeETags.of(7, FieldSelection.parse("steps.stepNumber,steps")))
+                .isEqualTo(RecipeETags.of(7, FieldSelection.parse("steps")));
+    }
+
+    @Test
+    void ifNoneMatchOnlyMatchesTheSameRepresentation() {
+        String full = RecipeETags.of(7);
+        String titles = RecipeETags.of(7, FieldSelection.parse("title"));
+
+        assertThat(RecipeETags.noneMatchFails(full, titles)).isFalse();
+        assertThat(RecipeETags.noneMatchFails(titles, full)).isFalse();
+        assertThat(RecipeETags.noneMatchFails("\"6\", W/" + titles, titles)).isTrue();
+        assertThat(RecipeETags.noneMatchFails("*", titles)).isTrue();
+    }
+
+    @Test
+    void ifMatchAcceptsTheVersionOfAnyRepresentation() {
+        String titles = RecipeETags.of(7, FieldSelection.parse("title"));
+
+        assertThat(RecipeETags.parseIfMatch("\"5\", " + titles)).containsExactly(5L, 7L);
+        assertThat(RecipeETags.parseIfMatch("W/\"5\", \"abc\"")).isEmpty();
+    }
+}
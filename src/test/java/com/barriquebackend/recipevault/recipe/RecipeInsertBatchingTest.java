@@ -0,0 +1,92 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.user.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the JDBC round-trips needed to insert a recipe graph. With pooled sequence ids and
+ * JDBC batching, a recipe with 25 ingredients and 15 steps is written with one statement per
+ * table instead of one per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RecipeInsertBatchingTest {
+
+    private static final int INGREDIENTS = 25;
+    private static final int STEPS = 15;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("cook");
+        user.setPassword("secret");
+        entityManager.persist(user);
+
+        // Warm up the id pools so the measured save does not include their initial sequence calls
+        recipeRepository.save(recipe(1, 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void savingRecipeGraphUsesBatchedInserts() {
+        recipeRepository.save(recipe(INGREDIENTS, STEPS));
+        entityManager.flush();
+
+        long rows = statistics.getEntityInsertCount();
+        long roundTrips = statistics.getPrepareStatementCount();
+
+        assertThat(rows).isEqualTo(1 + INGREDIENTS + STEPS);
+        // One batched insert each for recipe, ingredient and recipe_step
+        assertThat(roundTrips).isLessThanOrEqualTo(3);
+    }
+
+    private Recipe recipe(int ingredients, int steps) {
+        Recipe recipe = new Recipe();
+        recipe.setUser(user);
+        recipe.setTitle("Big recipe");
+        recipe.setIngredients(new ArrayList<>());
+        recipe.setNutritionalValues(new ArrayList<>());
+        recipe.setSteps(new ArrayList<>());
+        recipe.setTools(new ArrayList<>());
+        recipe.setTags(new ArrayList<>());
+        for (int i = 0; i < ingredients; i++) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setTitle("Ingredient " + i);
+            ingredient.setAmount(10.0 * i);
+            ingredient.setUnit("g");
+            recipe.addIngredient(ingredient);
+        }
+        for (int i = 0; i < steps; i++) {
+            RecipeStep step = new RecipeStep();
+            step.setStepNumber(i + 1);
+            step.setStepDescription("Step " + (i + 1));
+            recipe.addStep(step);
+        }
+        return recipe;
+    }
+}
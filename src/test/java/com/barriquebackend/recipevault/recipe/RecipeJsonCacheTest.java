@@ -0,0 +1,120 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.json.FieldSelection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serialized recipe cache: version-keyed lookups, the byte budget with LRU eviction, the size
+ * limit of a single document and invalidation through the change listener.
+ */
+class RecipeJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().setFilterProvider(new SimpleFilterProvider()
+            .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+
+    // Every document of a recipe with a single-digit ID and this description has the same size
+    private final int documentBytes = size(recipe(1L, 1L, 100));
+
+    @Test
+    void hitsOnlyTheCachedVersion() {
+        RecipeJsonCache cache = new RecipeJsonCache(objectMapper, 8L * documentBytes);
+        byte[] json = cache.put(recipe(1L, 3L, 100));
+
+        assertThat(cache.get(1L, 3L)).isSameAs(json);
+        assertThat(cache.get(1L, 4L)).isNull();
+        assertThat(cache.get(2L, 3L)).isNull();
+        assertThat(cache.stats().hits()).isEqualTo(1L);
+        assertThat(cache.stats().misses()).isEqualTo(2L);
+    }
+
+    @Test
+    void olderVersionsDoNotReplaceNewerOnes() {
+        RecipeJsonCache cache = new RecipeJsonCache(objectMapper, 8L * documentBytes);
+        byte[] newer = cache.put(recipe(1L, 5L, 100));
+        cache.put(recipe(1L, 4L, 100));
+
+        assertThat(cache.get(1L, 5L)).isSameAs(newer);
+        assertThat(cache.get(1L, 4L)).isNull();
+        assertThat(cache.stats().bytes()).isEqualTo((long) documentBytes);
+    }
+
+    @Test
+    void leastRecentlyUsedRecipesAreEvictedBeyondTheByteBudget() {
+        RecipeJsonCache cache = new RecipeJsonCache(objectMapper, 8L * documentBytes);
+        for (long recipeId = 1; recipeId <= 8; recipeId++) {
+            cache.put(recipe(recipeId, 1L, 100));
+        }
+        assertThat(cache.get(1L, 1L)).isNotNull();
+
+        cache.put(recipe(9L, 1L, 100));
+
+        assertThat(cache.get(2L, 1L)).isNull();
+        assertThat(cache.get(1L, 1L)).isNotNull();
+        assertThat(cache.get(9L, 1L)).isNotNull();
+        RecipeJsonCacheStats stats = cache.stats();
+        assertThat(stats.evictions()).isEqualTo(1L);
+        assertThat(stats.entries()).isEqualTo(8);
+        assertThat(stats.bytes()).isEqualTo(8L * documentBytes);
+    }
+
+    @Test
+    void oversizedDocumentsAreServedButNotCached() {
+        RecipeJsonCache cache = new RecipeJsonCache(objectMapper, 8L * documentBytes);
+        cache.put(recipe(1L, 1L, 100));
+
+        // One eighth of the budget is exactly one regular document
+        byte[] json = cache.put(recipe(2L, 1L, 101));
+
+        assertThat(json.length).isEqualTo(documentBytes + 1);
+        assertThat(cache.get(2L, 1L)).isNull();
+        assertThat(cache.get(1L, 1L)).isNotNull();
+        assertThat(cache.stats().entries()).isEqualTo(1);
+        assertThat(cache.stats().evictions()).isEqualTo(0L);
+    }
+
+    @Test
+    void savesPatchesAndDeletesInvalidateTheRecipe() {
+        RecipeJsonCache cache = new RecipeJsonCache(objectMapper, 8L * documentBytes);
+        Recipe first = recipe(1L, 1L, 100);
+        Recipe second = recipe(2L, 1L, 100);
+        Recipe third = recipe(3L, 1L, 100);
+        cache.put(first);
+        cache.put(second);
+        cache.put(third);
+
+        cache.recipeSaved(first);
+        cache.recipePatched(second, Set.of("favorite"));
+        cache.recipeDeleted(7L, 3L);
+
+        assertThat(cache.get(1L, 1L)).isNull();
+        assertThat(cache.get(2L, 1L)).isNull();
+        assertThat(cache.get(3L, 1L)).isNull();
+        assertThat(cache.stats().entries()).isEqualTo(0);
+        assertThat(cache.stats().bytes()).isEqualTo(0L);
+    }
+
+    private int size(Recipe recipe) {
+        return new RecipeJsonCache(objectMapper, Long.MAX_VALUE).put(recipe).length;
+    }
+
+    private static Recipe recipe(Long recipeId, long version, int descriptionLength) {
+        // The version is only ever set by Hibernate
+        Recipe recipe = new Recipe() {
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
+        recipe.setRecipeId(recipeId);
+        recipe.setTitle("Pancakes");
+        recipe.setDescription("x".repeat(descriptionLength));
+        return recipe;
+    }
+}
@@ -0,0 +1,211 @@
+package com.barriquebackend.recipevault.recipe;
+
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
+import com.barriquebackend.recipevault.recipe.components.RecipeStep;
+import com.barriquebackend.recipevault.recipe.components.Tool;
+import com.barriquebackend.recipevault.recipe.components.tag.Tag;
+import com.barriquebackend.recipevault.recipe.components.tag.TagMask;
+import com.barriquebackend.recipevault.recipe.components.tag.TagType;
+import com.barriquebackend.recipevault.recipe.nutrition.Nutrient;
+import com.barriquebackend.recipevault.recipe.nutrition.NutritionFacts;
+import com.barriquebackend.user.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RecipeRepositoryTest {
+
+    private static final int RECIPE_COUNT = 60;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("cook");
+        user.setPassword("secret");
+        entityManager.persist(user);
+
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            entityManager.persist(recipe(user, i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllByUserIdLoadsFullGraphInConstantNumberOfStatements() {
+        List<Recipe> recipes = recipeRepository.findAllByUserId(user.getId());
+
+        // Touch every child collection the way Jackson does when serializing the list
+        int children = 0;
+        for (Recipe recipe : recipes) {
+            children += recipe.getIngredients().size();
+            children += recipe.getNutritionalValues().size();
+            children += recipe.getSteps().size();
+            children += recipe.getTools().size();
+            children += recipe.getTags().size();
+        }
+
+        assertThat(recipes).hasSize(RECIPE_COUNT);
+        assertThat(children).isEqualTo(RECIPE_COUNT * 7);
+        // One statement for the recipes plus one subselect per child collection
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+    }
+
+    @Test
+    void summariesAreOneRowPerRecipeWithAndWithoutTags() {
+        User tagger = new User();
+        tagger.setUsername("tagger");
+        tagger.setPassword("secret");
+        entityManager.persist(tagger);
+        Recipe tagged = recipe(tagger, 0);
+        tagged.setTagMask(TagMask.bit(TagType.EASY) | TagMask.bit(TagType.VEGAN) | TagMask.bit(TagType.DESSERT));
+        Long taggedId = entityManager.persist(tagged).getRecipeId();
+        Recipe untagged = new Recipe();
+        untagged.setUser(tagger);
+        untagged.setTitle("Untagged");
+        Long untaggedId = entityManager.persist(untagged).getRecipeId();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<RecipeSummary> summaries = recipeRepository.findSummariesByUserId(tagger.getId());
+
+        // Three tags do not multiply the row, and a recipe without tags is not dropped
+        assertThat(summaries).extracting(RecipeSummary::recipeId).containsExactly(taggedId, untaggedId);
+        assertThat(summaries.get(0).tags()).containsExactlyInAnyOrder(TagType.EASY, TagType.VEGAN, TagType.DESSERT);
+        assertThat(summaries.get(1).tags()).isEmpty();
+        assertThat(recipeRepository.findSummariesByUserId(user.getId())).hasSize(RECIPE_COUNT);
+        // Read from the recipe table alone
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void timeRangePagesSeekPastCursor() {
+        List<Recipe> first = recipeRepository.findPageByUserIdOrderByTime(user.getId(), 10, 20, 0, 0L, Limit.of(6));
+        Recipe last = first.get(first.size() - 1);
+        List<Recipe> second = recipeRepository.findPageByUserIdOrderByTime(user.getId(), last.getTimeMinutes(), 20,
+                last.getTimeMinutes(), last.getRecipeId(), Limit.of(6));
+
+        assertThat(first).extracting(Recipe::getTimeMinutes).containsExactly(10, 11, 12, 13, 14, 15);
+        assertThat(second).extracting(Recipe::getTimeMinutes).containsExactly(16, 17, 18, 19, 20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void titlePagesWalkAcrossEqualTitles() {
+        User baker = new User();
+        baker.setUsername("baker");
+        baker.setPassword("secret");
+        entityManager.persist(baker);
+        List<Long> expected = new ArrayList<>();
+        for (String title : List.of("Apple pie", "Bread", "Bread", "Bread", "Bread", "Cake")) {
+            Recipe recipe = new Recipe();
+            recipe.setUser(baker);
+            recipe.setTitle(title);
+            expected.add(entityManager.persist(recipe).getRecipeId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // Pages of two end between the equal titles, so the recipe ID decides where the next page starts
+        List<Long> walked = new ArrayList<>();
+        RecipeCursor cursor = RecipeCursor.first(RecipeCursor.Sort.TITLE);
+        int pages = 0;
+        List<Recipe> page;
+        do {
+            page = recipeRepository.findPageByUserIdOrderByTitle(baker.getId(), cursor.title(), cursor.recipeId(),
+                    Limit.of(2));
+            pages++;
+            for (Recipe recipe : page) {
+                walked.add(recipe.getRecipeId());
+                cursor = RecipeCursor.after(RecipeCursor.Sort.TITLE, recipe);
+            }
+        } while (!page.isEmpty());
+
+        assertThat(walked).isEqualTo(expected);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+    }
+
+    @Test
+    void backfillUpdatesBumpTheVersion() {
+        Recipe recipe = recipeRepository.findAllByUserId(user.getId()).get(0);
+        long version = recipe.getVersion();
+        NutritionFacts nutrition = NutritionFacts.of(new double[Nutrient.values().length]);
+
+        // Cached JSON and ETags are keyed by the version, so no write may leave it unchanged
+        recipeRepository.updateTagMask(recipe.getRecipeId(), 1L);
+        recipeRepository.updateTimeMinutes(recipe.getRecipeId(), 30);
+        recipeRepository.updateMinHash(recipe.getRecipeId(), new byte[0]);
+        recipeRepository.updateNutrition(recipe.getRecipeId(), nutrition, 0.0, nutrition);
+        entityManager.clear();
+
+        assertThat(recipeRepository.findById(recipe.getRecipeId()).orElseThrow().getVersion()).isEqualTo(version + 4);
+    }
+
+    private static Recipe recipe(User user, int index) {
+        Recipe recipe = new Recipe();
+        recipe.setUser(user);
+        recipe.setTitle("Recipe " + index);
+        recipe.setTime(index + " min");
+        recipe.setTimeMinutes(index);
+        recipe.setIngredients(new ArrayList<>());
+        recipe.setNutritionalValues(new ArrayList<>());
+        recipe.setSteps(new ArrayList<>());
+        recipe.setTools(new ArrayList<>());
+        recipe.setTags(new ArrayList<>());
+
+        for (String title : List.of("Flour", "Sugar", "Butter")) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setTitle(title);
+            ingredient.setAmount(100.0);
+            ingredient.setUnit("g");
+            recipe.addIngredient(ingredient);
+        }
+
+        NutritionalValue nutritionalValue = new NutritionalValue();
+        nutritionalValue.setTitle("Calories");
+        nutritionalValue.setAmount(420.0);
+        recipe.addNutritionalValue(nutritionalValue);
+
+        RecipeStep step = new RecipeStep();
+        step.setStepNumber(1);
+        step.setStepDescription("Mix everything.");
+        recipe.addStep(step);
+
+        Tool tool = new Tool();
+        tool.setTitle("Bowl");
+        tool.setAmount(1);
+        recipe.addTool(tool);
+
+        Tag tag = new Tag();
+        tag.setTagType(TagType.EASY);
+        recipe.addTag(tag);
+        return recipe;
+    }
+}
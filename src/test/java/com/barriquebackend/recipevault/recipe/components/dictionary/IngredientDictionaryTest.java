@@ -0,0 +1,110 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "recipevault.ingredient-dictionary.max-cached-names=2"
+})
+@Import(IngredientDictionary.class)
+class IngredientDictionaryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private IngredientNameRepository ingredientNameRepository;
+
+    @Autowired
+    private IngredientDictionary ingredientDictionary;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void spellingVariantsShareOneEntry() {
+        List<Ingredient> ingredients = List.of(
+                ingredient("Tomatoes", "EL"),
+                ingredient(" tomato, ", "Gramm"),
+                ingredient("Basil", "pinch"),
+                ingredient("!!", "handful"));
+
+        ingredientDictionary.canonicalize(ingredients);
+
+        IngredientName tomato = ingredients.get(0).getIngredientName();
+        assertThat(ingredientNameRepository.findIdByName("tomato")).contains(tomato.getId());
+        assertThat(ingredients.get(1).getIngredientName().getId()).isEqualTo(tomato.getId());
+        assertThat(ingredients.get(2).getIngredientName().getId()).isNotEqualTo(tomato.getId());
+        assertThat(ingredients.get(3).getIngredientName()).isNull();
+        assertThat(ingredients.stream().map(Ingredient::getMeasurementUnit).toList()).containsExactly(
+                MeasurementUnit.TABLESPOON, MeasurementUnit.GRAM, MeasurementUnit.PINCH, null);
+
+        // Names created by an uncommitted transaction are not cached yet, but all of them are read at once
+        statistics.clear();
+        ingredientDictionary.canonicalize(List.of(ingredient("tomato", null), ingredient("basil", null)));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void newEntriesRollBackWithTheCallersTransaction() {
+        Long rolledBack = ingredientDictionary.resolveName("Sorrel").getId();
+        assertThat(ingredientNameRepository.findIdByName("sorrel")).contains(rolledBack);
+
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+        assertThat(ingredientNameRepository.findIdByName("sorrel")).isEmpty();
+
+        // The rolled back ID was never cached, so the name is inserted again
+        TestTransaction.start();
+        Long inserted = ingredientDictionary.resolveName("sorrel").getId();
+        assertThat(ingredientNameRepository.findIdByName("sorrel")).contains(inserted);
+    }
+
+    @Test
+    void leastRecentlyUsedNameIsEvicted() {
+        ingredientDictionary.resolveName("Salt");
+        ingredientDictionary.resolveName("Pepper");
+        commit();
+        ingredientDictionary.resolveName("salt");
+        ingredientDictionary.resolveName("Flour");
+        commit();
+
+        statistics.clear();
+        ingredientDictionary.resolveName("salt");
+        ingredientDictionary.resolveName("flour");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        ingredientDictionary.resolveName("pepper");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
+
+    private static Ingredient ingredient(String title, String unit) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setTitle(title);
+        ingredient.setUnit(unit);
+        return ingredient;
+    }
+}
@@ -0,0 +1,43 @@
+package com.barriquebackend.recipevault.recipe.components.dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MeasurementUnitTest {
+
+    @Test
+    void parsesSymbolsAndSpellingsCaseInsensitively() {
+        assertThat(MeasurementUnit.parse("g")).contains(MeasurementUnit.GRAM);
+        assertThat(MeasurementUnit.parse("Gramm")).contains(MeasurementUnit.GRAM);
+        assertThat(MeasurementUnit.parse("KG")).contains(MeasurementUnit.KILOGRAM);
+        assertThat(MeasurementUnit.parse("tbsp.")).contains(MeasurementUnit.TABLESPOON);
+        assertThat(MeasurementUnit.parse(" EL ")).contains(MeasurementUnit.TABLESPOON);
+        assertThat(MeasurementUnit.parse("TL")).contains(MeasurementUnit.TEASPOON);
+    }
+
+    @Test
+    void foldsPluralsAndDiacritics() {
+        assertThat(MeasurementUnit.parse("grams")).contains(MeasurementUnit.GRAM);
+        assertThat(MeasurementUnit.parse("Cups")).contains(MeasurementUnit.CUP);
+        assertThat(MeasurementUnit.parse("Essl\u00f6ffel")).contains(MeasurementUnit.TABLESPOON);
+        assertThat(MeasurementUnit.parse("St\u00fcck")).contains(MeasurementUnit.PIECE);
+    }
+
+    @Test
+    void unknownOrMissingUnitsAreEmpty() {
+        assertThat(MeasurementUnit.parse(null)).isEmpty();
+        assertThat(MeasurementUnit.parse("")).isEmpty();
+        assertThat(MeasurementUnit.parse("handful")).isEmpty();
+    }
+
+    @Test
+    void convertsToTheBaseUnitOfItsDimension() {
+        assertThat(MeasurementUnit.KILOGRAM.toBase(1.5)).isCloseTo(1500, within(1e-9));
+        assertThat(MeasurementUnit.TABLESPOON.toBase(2)).isCloseTo(30, within(1e-9));
+        assertThat(MeasurementUnit.POUND.toBase(1)).isCloseTo(453.59237, within(1e-9));
+        assertThat(MeasurementUnit.PINCH.getDimension()).isEqualTo(MeasurementUnit.Dimension.COUNT);
+        assertThat(MeasurementUnit.CUP.getDimension()).isEqualTo(MeasurementUnit.LITER.getDimension());
+    }
+}
@@ -0,0 +1,68 @@
+package com.barriquebackend.recipevault.recipe.components.tag;
+
+import org.junit.jupiter.api.Test;
+
+import static com.barriquebackend.recipevault.recipe.components.tag.TagType.DESSERT;
+import static com.barriquebackend.recipevault.recipe.components.tag.TagType.EASY;
+import static com.barriquebackend.recipevault.recipe.components.tag.TagType.MEAT;
+import static com.barriquebackend.recipevault.recipe.components.tag.TagType.VEGAN;
+import static com.barriquebackend.recipevault.recipe.components.tag.TagType.VEGETARIAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Parsing and evaluation of boolean tag expressions: precedence, parentheses, folding of flat
+ * conjunctions and disjunctions, and malformed input.
+ */
+class TagExpressionTest {
+
+    @Test
+    void notBindsTighterThanAndWhichBindsTighterThanOr() {
+        TagExpression orOfAnd = TagExpression.parse("VEGAN OR EASY AND DESSERT");
+        assertThat(orOfAnd.matches(mask(VEGAN))).isTrue();
+        assertThat(orOfAnd.matches(mask(EASY))).isFalse();
+        assertThat(orOfAnd.matches(mask(EASY, DESSERT))).isTrue();
+
+        TagExpression andOfNot = TagExpression.parse("NOT DESSERT AND EASY");
+        assertThat(andOfNot.matches(mask(EASY))).isTrue();
+        assertThat(andOfNot.matches(mask(EASY, DESSERT))).isFalse();
+        assertThat(andOfNot.matches(mask())).isFalse();
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        TagExpression expression = TagExpression.parse("(VEGAN OR VEGETARIAN) AND NOT (MEAT OR DESSERT)");
+
+        assertThat(expression.matches(mask(VEGETARIAN))).isTrue();
+        assertThat(expression.matches(mask(VEGAN, DESSERT))).isFalse();
+        assertThat(expression.matches(mask(EASY))).isFalse();
+        assertThat(TagExpression.parse("NOT (VEGAN AND EASY)").matches(mask(VEGAN))).isTrue();
+    }
+
+    @Test
+    void flatExpressionsAreFoldedIntoOneMaskTest() {
+        assertThat(TagExpression.parse("vegan and Easy AND dessert"))
+                .isEqualTo(new TagExpression.AllOf(mask(VEGAN, EASY, DESSERT)));
+        assertThat(TagExpression.parse("VEGAN OR VEGETARIAN OR MEAT"))
+                .isEqualTo(new TagExpression.AnyOf(mask(VEGAN, VEGETARIAN, MEAT)));
+        // A conjunction inside a disjunction is not a single mask test
+        assertThat(TagExpression.parse("VEGAN AND EASY OR MEAT")).isInstanceOf(TagExpression.Or.class);
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        for (String malformed : new String[]{"", "VEGAN AND", "(VEGAN OR EASY", "VEGAN)", "VEGAN EASY", "NOT", "PIZZA", "AND VEGAN"}) {
+            assertThatThrownBy(() -> TagExpression.parse(malformed)).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> TagExpression.parse(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TagExpression.parse("VEGAN AND PIZZA")).hasMessageContaining("Unknown tag type: PIZZA");
+    }
+
+    private static long mask(TagType... tagTypes) {
+        long mask = 0;
+        for (TagType tagType : tagTypes) {
+            mask |= TagMask.bit(tagType);
+        }
+        return mask;
+    }
+}
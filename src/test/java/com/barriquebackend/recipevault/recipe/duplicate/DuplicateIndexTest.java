@@ -0,0 +1,124 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Banding lookups and clustering of the per-user duplicate index.
+ */
+class DuplicateIndexTest {
+
+    private static final List<String> BASE = ingredients("base", 20);
+
+    private DuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DuplicateIndex();
+        // 2 swaps one ingredient of 1 and 3 swaps one more, so 1-2 and 2-3 are closer than 1-3
+        index.put(1L, "Original", signature(BASE));
+        index.put(2L, "Copy", signature(swap(BASE, 19, "extra 1")));
+        index.put(3L, "Copy of copy", signature(swap(swap(BASE, 19, "extra 1"), 18, "extra 2")));
+        index.put(4L, "Unrelated", signature(ingredients("other", 20)));
+    }
+
+    @Test
+    void lookupFindsRecipesSharingABucketMostSimilarFirst() {
+        assertThat(index.findSimilar(signature(BASE), 0.5)).containsExactly(1L, 2L, 3L);
+        assertThat(index.findSimilar(signature(BASE), 0.99)).containsExactly(1L);
+        assertThat(index.findSimilar(signature(ingredients("third", 20)), 0.0)).isEmpty();
+        assertThat(index.findSimilar(new byte[0], 0.0)).isEmpty();
+    }
+
+    @Test
+    void bandsOfAgreeingValuesShareABucket() {
+        int[] signature = MinHash.decode(signature(BASE));
+        int[] changed = signature.clone();
+        // Changing one value of every band but the last leaves exactly one shared bucket
+        for (int band = 0; band < DuplicateIndex.BANDS - 1; band++) {
+            changed[band * DuplicateIndex.ROWS] ^= 1;
+        }
+        index.put(5L, "Banded", encode(changed));
+
+        assertThat(index.findSimilar(encode(signature), 0.0)).contains(5L);
+        changed[(DuplicateIndex.BANDS - 1) * DuplicateIndex.ROWS] ^= 1;
+        index.put(5L, "Banded", encode(changed));
+        assertThat(index.findSimilar(encode(signature), 0.0)).doesNotContain(5L);
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsARecipe() {
+        index.put(1L, "Original", signature(ingredients("other", 20)));
+        assertThat(index.findSimilar(signature(BASE), 0.5)).containsExactly(2L, 3L);
+
+        index.remove(2L);
+        index.remove(9L);
+        assertThat(index.findSimilar(signature(BASE), 0.5)).containsExactly(3L);
+
+        index.put(3L, "Emptied", new byte[0]);
+        assertThat(index.findSimilar(signature(BASE), 0.5)).isEmpty();
+    }
+
+    @Test
+    void linkedPairsFormOneClusterWithItsWeakestLink() {
+        List<RecipeDuplicateCluster> clusters = index.findClusters(0.85, 10);
+
+        assertThat(clusters).hasSize(1);
+        assertThat(clusters.get(0).recipes()).containsExactly(
+                new RecipeDuplicateCluster.Member(1L, "Original"),
+                new RecipeDuplicateCluster.Member(2L, "Copy"),
+                new RecipeDuplicateCluster.Member(3L, "Copy of copy"));
+        // 1 and 3 are not linked directly; the cluster reports its weakest link
+        double direct = MinHash.similarity(MinHash.decode(signature(BASE)),
+                MinHash.decode(signature(swap(swap(BASE, 19, "extra 1"), 18, "extra 2"))));
+        assertThat(direct).isLessThan(0.85);
+        assertThat(clusters.get(0).similarity()).isGreaterThan(0.85);
+    }
+
+    @Test
+    void clustersAreOrderedBySizeAndLimited() {
+        index.put(5L, "Soup", signature(ingredients("soup", 10)));
+        index.put(6L, "Soup again", signature(ingredients("soup", 10)));
+
+        List<RecipeDuplicateCluster> clusters = index.findClusters(0.85, 10);
+        assertThat(clusters).hasSize(2);
+        assertThat(clusters.get(0).recipes()).hasSize(3);
+        assertThat(clusters.get(1).similarity()).isEqualTo(1.0);
+        assertThat(clusters.get(1).recipes()).containsExactly(
+                new RecipeDuplicateCluster.Member(5L, "Soup"),
+                new RecipeDuplicateCluster.Member(6L, "Soup again"));
+
+        assertThat(index.findClusters(0.85, 1)).hasSize(1);
+        assertThat(index.findClusters(1.0, 10)).hasSize(1);
+    }
+
+    private static List<String> ingredients(String prefix, int count) {
+        List<String> ingredients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ingredients.add(prefix + " " + i);
+        }
+        return ingredients;
+    }
+
+    private static List<String> swap(List<String> ingredients, int position, String replacement) {
+        List<String> swapped = new ArrayList<>(ingredients);
+        swapped.set(position, replacement);
+        return swapped;
+    }
+
+    private static byte[] signature(List<String> ingredients) {
+        return MinHash.of(ingredients, List.of());
+    }
+
+    private static byte[] encode(int[] signature) {
+        ByteBuffer encoded = ByteBuffer.allocate(MinHash.BYTES);
+        encoded.asIntBuffer().put(signature);
+        return encoded.array();
+    }
+}
@@ -0,0 +1,71 @@
+package com.barriquebackend.recipevault.recipe.duplicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MinHashTest {
+
+    @Test
+    void spellingVariantsOfIngredientsGiveTheSameSignature() {
+        byte[] signature = MinHash.of(List.of("Eggs", "Flour", "whole milk"), List.of());
+
+        assertThat(MinHash.of(List.of(" flour ", "egg", "Whole Milk", "eggs"), List.of())).isEqualTo(signature);
+        assertThat(similarity(signature, MinHash.of(List.of("Eggs", "Flour", "Butter"), List.of())))
+                .isLessThan(1.0);
+    }
+
+    @Test
+    void stepsAreShingledByWordSequence() {
+        byte[] signature = MinHash.of(List.of(), List.of("Whisk the eggs, then fry."));
+
+        assertThat(MinHash.of(List.of(), List.of("whisk THE eggs then fry"))).isEqualTo(signature);
+        assertThat(similarity(signature, MinHash.of(List.of(), List.of("Fry, then whisk the eggs."))))
+                .isLessThan(1.0);
+        // A step shorter than a shingle still counts
+        assertThat(MinHash.of(List.of(), List.of("Fry."))).hasSize(MinHash.BYTES);
+    }
+
+    @Test
+    void recipesWithoutShinglesHaveNoSignature() {
+        assertThat(MinHash.of(List.of(), List.of())).isEmpty();
+        assertThat(MinHash.of(Arrays.asList(null, "!!"), List.of())).isEmpty();
+        assertThat(MinHash.decode(new byte[0])).isNull();
+        assertThat(MinHash.decode(null)).isNull();
+        assertThat(MinHash.decode(new byte[MinHash.BYTES - 1])).isNull();
+    }
+
+    @Test
+    void similarityEstimatesTheJaccardIndex() {
+        // 50 shared out of 150 distinct ingredients: Jaccard similarity 1/3
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            first.add("ingredient " + i);
+            second.add("ingredient " + (i + 50));
+        }
+
+        assertThat(similarity(MinHash.of(first, List.of()), MinHash.of(second, List.of())))
+                .isCloseTo(1.0 / 3, within(0.1));
+        assertThat(similarity(MinHash.of(first, List.of()), MinHash.of(first, List.of()))).isEqualTo(1.0);
+    }
+
+    @Test
+    void encodingIsStable() {
+        // Signatures are persisted; a change here requires recomputing all stored signatures
+        int[] signature = MinHash.decode(MinHash.of(List.of("flour"), List.of()));
+
+        assertThat(signature).hasSize(MinHash.HASHES);
+        assertThat(signature[0]).isEqualTo(27773418);
+        assertThat(signature[MinHash.HASHES - 1]).isEqualTo(291105620);
+    }
+
+    private static double similarity(byte[] a, byte[] b) {
+        return MinHash.similarity(MinHash.decode(a), MinHash.decode(b));
+    }
+}
@@ -0,0 +1,40 @@
+package com.barriquebackend.recipevault.recipe.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NutrientRangeTest {
+
+    @Test
+    void parsesClosedAndHalfOpenRanges() {
+        assertThat(NutrientRange.parse("30..50")).isEqualTo(new NutrientRange(30.0, 50.0));
+        assertThat(NutrientRange.parse("..500")).isEqualTo(new NutrientRange(null, 500.0));
+        assertThat(NutrientRange.parse("30..")).isEqualTo(new NutrientRange(30.0, null));
+        assertThat(NutrientRange.parse(" 0.5 .. 2.5 ")).isEqualTo(new NutrientRange(0.5, 2.5));
+        assertThat(NutrientRange.parse("-1..0")).isEqualTo(new NutrientRange(-1.0, 0.0));
+    }
+
+    @Test
+    void singleNumberIsARangeOfThatNumber() {
+        assertThat(NutrientRange.parse("12")).isEqualTo(new NutrientRange(12.0, 12.0));
+        assertThat(NutrientRange.parse("7..7")).isEqualTo(new NutrientRange(7.0, 7.0));
+    }
+
+    @Test
+    void rangesWithoutBoundsAreRejected() {
+        assertThatThrownBy(() -> NutrientRange.parse("..")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutrientRange.parse("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutrientRange.parse(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedBoundsAreRejected() {
+        assertThatThrownBy(() -> NutrientRange.parse("50..30")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutrientRange.parse("abc..5")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutrientRange.parse("1..2..3")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutrientRange.parse("NaN")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutrientRange.parse("..Infinity")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
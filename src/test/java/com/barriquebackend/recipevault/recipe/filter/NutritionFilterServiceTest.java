@@ -0,0 +1,112 @@
+package com.barriquebackend.recipevault.recipe.filter;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeSummary;
+import com.barriquebackend.recipevault.recipe.nutrition.Nutrient;
+import com.barriquebackend.recipevault.recipe.nutrition.NutritionFacts;
+import com.barriquebackend.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "recipevault.nutrition-filter.max-results=2")
+@Import(NutritionFilterService.class)
+class NutritionFilterServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NutritionFilterService nutritionFilterService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = persistUser("cook");
+    }
+
+    @Test
+    void parsesRangesKeyedByNutrientName() {
+        Map<String, String> ranges = new LinkedHashMap<>();
+        ranges.put("kcal", "..500");
+        ranges.put("Protein", "30..");
+        ranges.put("SALT", "0..1.5");
+
+        assertThat(NutritionFilterService.parseRanges(ranges))
+                .hasSize(3)
+                .containsEntry(Nutrient.KCAL, new NutrientRange(null, 500.0))
+                .containsEntry(Nutrient.PROTEIN, new NutrientRange(30.0, null))
+                .containsEntry(Nutrient.SALT, new NutrientRange(0.0, 1.5));
+    }
+
+    @Test
+    void unknownNutrientsAndMissingRangesAreRejected() {
+        assertThatThrownBy(() -> NutritionFilterService.parseRanges(Map.of("vitamins", "1..")))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Only the enum names are accepted, not the aliases of hand-entered titles
+        assertThatThrownBy(() -> NutritionFilterService.parseRanges(Map.of("calories", "..500")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutritionFilterService.parseRanges(Map.of("kcal", "500..100")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NutritionFilterService.parseRanges(Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void recipesMatchAllRangesInclusively() {
+        Long lean = persistRecipe(user, "Lean", 450.0, 35.0);
+        Long edge = persistRecipe(user, "Edge", 500.0, 30.0);
+        persistRecipe(user, "Rich", 700.0, 40.0);
+        persistRecipe(user, "Light", 300.0, 10.0);
+        // A filtered nutrient that is unknown never matches
+        persistRecipe(user, "Unknown protein", 400.0, null);
+        persistRecipe(persistUser("other"), "Foreign", 450.0, 35.0);
+
+        List<RecipeSummary> recipes = nutritionFilterService.filter(user.getId(),
+                NutritionFilterService.parseRanges(Map.of("kcal", "..500", "protein", "30..")), 10);
+
+        assertThat(recipes).extracting(RecipeSummary::recipeId).containsExactly(lean, edge);
+    }
+
+    @Test
+    void resultsAreCappedAtTheConfiguredMaximum() {
+        Long first = persistRecipe(user, "First", 100.0, null);
+        Long second = persistRecipe(user, "Second", 200.0, null);
+        persistRecipe(user, "Third", 300.0, null);
+        Map<Nutrient, NutrientRange> ranges = Map.of(Nutrient.KCAL, new NutrientRange(0.0, null));
+
+        assertThat(nutritionFilterService.filter(user.getId(), ranges, 1)).extracting(RecipeSummary::recipeId)
+                .containsExactly(first);
+        assertThat(nutritionFilterService.filter(user.getId(), ranges, 10)).extracting(RecipeSummary::recipeId)
+                .containsExactly(first, second);
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        return entityManager.persist(user);
+    }
+
+    private Long persistRecipe(User owner, String title, Double kcal, Double protein) {
+        NutritionFacts serving = new NutritionFacts();
+        serving.set(Nutrient.KCAL, kcal);
+        serving.set(Nutrient.PROTEIN, protein);
+        Recipe recipe = new Recipe();
+        recipe.setUser(owner);
+        recipe.setTitle(title);
+        recipe.setServingNutrition(serving);
+        return entityManager.persistAndFlush(recipe).getRecipeId();
+    }
+}
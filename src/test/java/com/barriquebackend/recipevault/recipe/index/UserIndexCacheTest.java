@@ -0,0 +1,105 @@
+package com.barriquebackend.recipevault.recipe.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserIndexCacheTest {
+
+    private final UserIndexCache<List<String>> cache = new UserIndexCache<>(2);
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    void indexesAreBuiltOnceAndTheLeastRecentlyUsedIsEvicted() {
+        List<String> first = cache.get(1L, this::load);
+        assertThat(cache.get(1L, this::load)).isSameAs(first);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+
+        // User 2 was used least recently
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1L, this::load)).isSameAs(first);
+        assertThat(builds.get()).isEqualTo(3);
+        cache.get(2L, this::load);
+        assertThat(builds.get()).isEqualTo(4);
+
+        cache.invalidate(1L);
+        assertThat(cache.get(1L, this::load)).isNotSameAs(first);
+    }
+
+    @Test
+    void updatesApplyOnlyToCachedIndexes() {
+        cache.updateIfPresent(1L, index -> index.add("lost"));
+        List<String> index = cache.get(1L, this::load);
+        cache.updateIfPresent(1L, entries -> entries.add("saved"));
+
+        assertThat(index).containsExactly("user 1", "saved");
+    }
+
+    @Test
+    void aBuildBlocksNeitherOtherUsersNorItsOwnLoader() throws Exception {
+        // Large enough that the index being built is not evicted by the others
+        UserIndexCache<List<String>> cache = new UserIndexCache<>(3);
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<String>> slow = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            building.countDown();
+            await(release);
+            // A loader may read other users' indexes from the same cache
+            return new ArrayList<>(cache.get(2L, this::load));
+        }));
+        assertThat(building.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // User 3 is served while user 1 is still being built
+        assertThat(CompletableFuture.supplyAsync(() -> cache.get(3L, this::load)).get(5, TimeUnit.SECONDS))
+                .containsExactly("user 3");
+        // A change committed during the build is applied once the build is done
+        cache.updateIfPresent(1L, index -> index.add("changed"));
+        CompletableFuture<List<String>> waiting = CompletableFuture.supplyAsync(() -> cache.get(1L, this::load));
+        release.countDown();
+
+        assertThat(slow.get(5, TimeUnit.SECONDS)).containsExactly("user 2", "changed");
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(slow.get());
+    }
+
+    @Test
+    void failedBuildsAreNotCached() {
+        assertThatThrownBy(() -> cache.get(1L, id -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("database down");
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1L, this::load)).containsExactly("user 1");
+    }
+
+    @Test
+    void aLoaderRequestingItsOwnIndexFails() {
+        assertThatThrownBy(() -> cache.get(1L, id -> cache.get(1L, this::load)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    private List<String> load(Long userId) {
+        builds.incrementAndGet();
+        List<String> index = new ArrayList<>();
+        index.add("user " + userId);
+        return index;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
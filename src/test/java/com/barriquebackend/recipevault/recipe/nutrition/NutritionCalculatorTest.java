@@ -0,0 +1,125 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.components.Ingredient;
+import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compiles the bundled nutrient CSV and computes recipe nutrition from the mapped table:
+ * name and alias lookups, the trailing-word fallback, unit conversion, coverage and serving
+ * nutrition.
+ */
+class NutritionCalculatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private NutritionCalculator calculator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path table = tempDir.resolve("nutrients.bin");
+        NutrientTableCompiler.main(new String[]{"src/main/nutrients/nutrients.csv", table.toString()});
+        calculator = new NutritionCalculator(new FileSystemResource(table), 0.75);
+    }
+
+    @Test
+    void computesTotalAndPerServingNutritionFromIngredients() {
+        Recipe recipe = new Recipe();
+        recipe.setServings(2);
+        recipe.addIngredient(ingredient("Mehl", 200.0, "Gramm"));
+        recipe.addIngredient(ingredient("Eggs", 2.0, null));
+        recipe.addIngredient(ingredient("whole milk", 250.0, "ml"));
+        recipe.addIngredient(ingredient("Salt", 1.0, "pinch"));
+        recipe.addIngredient(ingredient("Love", 1.0, "cup"));
+
+        calculator.apply(recipe);
+
+        // 200 g flour, two 50 g eggs and 250 ml milk at 1.03 g/ml
+        assertThat(recipe.getNutrition().total().getKcal()).isCloseTo(728 + 143 + 157.1, within(0.1));
+        assertThat(recipe.getNutrition().total().getProtein()).isCloseTo(20.6 + 12.6 + 8.2, within(0.1));
+        assertThat(recipe.getNutrition().total().getSalt()).isCloseTo(1.0, within(0.1));
+        assertThat(recipe.getNutrition().perServing().getKcal()).isCloseTo(514.05, within(0.1));
+        assertThat(recipe.getNutrition().coverage()).isEqualTo(0.8);
+    }
+
+    @Test
+    void servingNutritionPrefersHandEnteredValues() {
+        Recipe recipe = new Recipe();
+        recipe.setServings(2);
+        recipe.addIngredient(ingredient("Mehl", 200.0, "Gramm"));
+        recipe.addIngredient(ingredient("Eggs", 2.0, null));
+        recipe.addNutritionalValue(nutritionalValue("Kalorien", 600.0));
+        recipe.addNutritionalValue(nutritionalValue("Sodium", 400.0));
+
+        calculator.apply(recipe);
+
+        assertThat(recipe.getServingNutrition().getKcal()).isEqualTo(600.0);
+        assertThat(recipe.getServingNutrition().getProtein()).isCloseTo((20.6 + 12.6) / 2, within(0.1));
+        // 400 mg of sodium
+        assertThat(recipe.getServingNutrition().getSalt()).isEqualTo(1.0);
+
+        recipe.addIngredient(ingredient("Love", 1.0, "cup"));
+        calculator.apply(recipe);
+
+        // Two of three ingredients are below the minimum coverage
+        assertThat(recipe.getServingNutrition().getKcal()).isEqualTo(600.0);
+        assertThat(recipe.getServingNutrition().getProtein()).isNull();
+    }
+
+    @Test
+    void findsIngredientsByTrailingWords() {
+        double[] totals = new double[Nutrient.values().length];
+
+        assertThat(calculator.add(totals, "Ripe red tomatoes", 100.0, "g", null)).isTrue();
+        assertThat(totals[Nutrient.KCAL.ordinal()]).isCloseTo(18, within(0.01));
+        // "bell pepper" is preferred over the shorter "pepper"
+        assertThat(calculator.add(totals, "Red bell pepper", 100.0, "g", null)).isTrue();
+        assertThat(totals[Nutrient.KCAL.ordinal()]).isCloseTo(18 + 26, within(0.01));
+        assertThat(calculator.add(totals, "Unicorn", 100.0, "g", null)).isFalse();
+        assertThat(calculator.add(totals, "Tomato", 2.0, "handful", null)).isFalse();
+    }
+
+    @Test
+    void rejectsDuplicateNames() {
+        String csv = """
+                name,aliases,kcal,protein,fat,carbs,fiber,sugar,salt,grams_per_piece,grams_per_ml
+                egg,,143,12.6,9.5,0.7,0,0.4,0.36,50,
+                eggs,,143,12.6,9.5,0.7,0,0.4,0.36,50,
+                """;
+
+        assertThatThrownBy(() -> NutrientTableCompiler.compile(new BufferedReader(new StringReader(csv)),
+                new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("duplicate name 'egg'");
+    }
+
+    private static Ingredient ingredient(String title, Double amount, String unit) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setTitle(title);
+        ingredient.setAmount(amount);
+        ingredient.setUnit(unit);
+        return ingredient;
+    }
+
+    private static NutritionalValue nutritionalValue(String title, Double amount) {
+        NutritionalValue nutritionalValue = new NutritionalValue();
+        nutritionalValue.setTitle(title);
+        nutritionalValue.setAmount(amount);
+        return nutritionalValue;
+    }
+}
@@ -0,0 +1,109 @@
+package com.barriquebackend.recipevault.recipe.nutrition;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.components.NutritionalValue;
+import com.barriquebackend.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serving nutrition is backfilled from hand-entered values and stored computed nutrition, also
+ * without a nutrient table.
+ */
+@DataJpaTest(properties = "recipevault.nutrients.table=file:no-nutrient-table.bin")
+@Import({ServingNutritionBackfill.class, NutritionCalculator.class})
+class ServingNutritionBackfillTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServingNutritionBackfill backfill;
+
+    @Autowired
+    private NutritionCalculator nutritionCalculator;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("cook");
+        user.setPassword("secret");
+        entityManager.persist(user);
+    }
+
+    @Test
+    void servingNutritionIsDerivedWithoutANutrientTable() {
+        assertThat(nutritionCalculator.isAvailable()).isFalse();
+        Recipe entered = recipe(2);
+        entered.addNutritionalValue(value("Calories", 400.0));
+        entered.addNutritionalValue(value("Natrium", 800.0));
+        entityManager.persist(entered);
+        Recipe computed = recipe(2);
+        NutritionFacts total = new NutritionFacts();
+        total.set(Nutrient.KCAL, 900.0);
+        total.set(Nutrient.PROTEIN, 30.0);
+        computed.setComputedNutrition(total);
+        computed.setNutritionCoverage(1.0);
+        computed.addNutritionalValue(value("Protein", 12.0));
+        entityManager.persist(computed);
+        Recipe empty = entityManager.persist(recipe(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(backfill.migrateBatch(0L, 10)).isEqualTo(empty.getRecipeId());
+        entityManager.clear();
+
+        Recipe reloaded = entityManager.find(Recipe.class, entered.getRecipeId());
+        assertThat(reloaded.getServingNutrition().getKcal()).isEqualTo(400.0);
+        // Sodium in milligrams is converted to salt
+        assertThat(reloaded.getServingNutrition().getSalt()).isEqualTo(2.0);
+        assertThat(reloaded.isServingNutritionSet()).isTrue();
+        assertThat(reloaded.getVersion()).isEqualTo(entered.getVersion() + 1);
+
+        // Hand-entered values win over the computed nutrition, which is divided by the servings
+        reloaded = entityManager.find(Recipe.class, computed.getRecipeId());
+        assertThat(reloaded.getServingNutrition().getKcal()).isEqualTo(450.0);
+        assertThat(reloaded.getServingNutrition().getProtein()).isEqualTo(12.0);
+
+        reloaded = entityManager.find(Recipe.class, empty.getRecipeId());
+        assertThat(reloaded.isServingNutritionSet()).isTrue();
+        assertThat(reloaded.getServingNutrition()).isNull();
+
+        assertThat(backfill.migrateBatch(0L, 10)).isNull();
+    }
+
+    @Test
+    void recipesWithServingNutritionAreSkipped() {
+        Recipe recipe = recipe(1);
+        recipe.addNutritionalValue(value("Calories", 400.0));
+        nutritionCalculator.applyServingNutrition(recipe);
+        entityManager.persist(recipe);
+        entityManager.flush();
+
+        assertThat(recipe.isServingNutritionSet()).isTrue();
+        assertThat(backfill.migrateBatch(0L, 10)).isNull();
+    }
+
+    private Recipe recipe(int servings) {
+        Recipe recipe = new Recipe();
+        recipe.setUser(user);
+        recipe.setTitle("Recipe");
+        recipe.setServings(servings);
+        return recipe;
+    }
+
+    private static NutritionalValue value(String title, double amount) {
+        NutritionalValue value = new NutritionalValue();
+        value.setTitle(title);
+        value.setAmount(amount);
+        return value;
+    }
+}
@@ -0,0 +1,96 @@
+package com.barriquebackend.recipevault.recipe.pantry;
+
+import com.barriquebackend.recipevault.recipe.RecipeTextRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Pantry ranking of the per-user ingredient index: head words, coverage, ties and missing ingredients.
+ */
+class PantryIndexTest {
+
+    private final List<RecipeTextRow> titles = new ArrayList<>();
+    private final List<RecipeTextRow> ingredients = new ArrayList<>();
+    private PantryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        recipe(1L, "Tomato salad", "Cherry tomatoes", "Olive oil", "Salt");
+        recipe(2L, "Tomato pasta", "Spaghetti", "Tomatoes", "salt");
+        recipe(3L, "Toast", "Bread", "Butter");
+        recipe(4L, "Water");
+        recipe(5L, "Salted tomato", "Tomato", "Salt");
+        index = PantryIndex.build(titles, ingredients);
+    }
+
+    @Test
+    void pantryItemsCoverIngredientsWithTheSameHeadWord() {
+        List<PantryMatch> matches = index.match(List.of("Tomatoes"), 0.0, 10);
+
+        assertThat(ids(matches)).containsExactly(5L, 1L, 2L);
+        assertThat(matches.get(1).missingIngredients()).containsExactly("olive oil", "salt");
+    }
+
+    @Test
+    void headWordsDoNotCoverLongerPantryItems() {
+        assertThat(ids(index.match(List.of("cherry tomato"), 0.0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void matchesAreRankedByCoverageThenTiedById() {
+        List<PantryMatch> matches = index.match(List.of("tomatoes", "salt"), 0.0, 10);
+
+        assertThat(ids(matches)).containsExactly(5L, 1L, 2L);
+        assertThat(matches.get(0).coverage()).isEqualTo(1.0);
+        assertThat(matches.get(0).missingIngredients()).isEmpty();
+        assertThat(matches.get(1).coverage()).isCloseTo(2.0 / 3, within(1e-9));
+        assertThat(matches.get(1).missingIngredients()).containsExactly("olive oil");
+        assertThat(matches.get(2).missingIngredients()).containsExactly("spaghetti");
+        assertThat(ids(index.match(List.of("tomatoes", "salt"), 0.0, 2))).containsExactly(5L, 1L);
+    }
+
+    @Test
+    void equalCoverageIsOrderedByFewestMissingIngredients() {
+        titles.clear();
+        ingredients.clear();
+        recipe(1L, "Soup", "Tomato", "Salt", "Onion", "Garlic");
+        recipe(2L, "Bruschetta", "Tomato", "Bread");
+        index = PantryIndex.build(titles, ingredients);
+
+        List<PantryMatch> matches = index.match(List.of("tomato", "salt"), 0.0, 10);
+
+        assertThat(ids(matches)).containsExactly(2L, 1L);
+        assertThat(matches.get(0).coverage()).isEqualTo(matches.get(1).coverage());
+        assertThat(matches.get(1).missingIngredients()).containsExactly("onion", "garlic");
+    }
+
+    @Test
+    void minCoverageDropsPartialMatches() {
+        assertThat(ids(index.match(List.of("tomatoes", "salt"), 0.7, 10))).containsExactly(5L);
+        assertThat(ids(index.match(List.of("tomatoes", "salt"), 2.0 / 3, 10))).containsExactly(5L, 1L, 2L);
+    }
+
+    @Test
+    void recipesWithoutIngredientsOrHitsAreNeverMatched() {
+        assertThat(index.match(List.of("water", "Toast"), 0.0, 10)).isEmpty();
+        assertThat(index.match(List.of(), 0.0, 10)).isEmpty();
+        assertThat(PantryIndex.build(List.of(), List.of()).match(List.of("salt"), 0.0, 10)).isEmpty();
+    }
+
+    private void recipe(long recipeId, String title, String... ingredientTitles) {
+        titles.add(new RecipeTextRow(recipeId, title));
+        for (String ingredient : ingredientTitles) {
+            ingredients.add(new RecipeTextRow(recipeId, ingredient));
+        }
+    }
+
+    private static List<Long> ids(List<PantryMatch> matches) {
+        return matches.stream().map(PantryMatch::recipeId).toList();
+    }
+}
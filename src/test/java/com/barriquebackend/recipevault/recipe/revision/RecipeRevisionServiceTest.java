@@ -0,0 +1,153 @@
+package com.barriquebackend.recipevault.recipe.revision;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.nutrition.NutritionFacts;
+import com.barriquebackend.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "recipevault.revisions.checkpoint-interval=3")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(RecipeRevisionService.class)
+class RecipeRevisionServiceTest {
+
+    private static final Set<String> PATCHED = Set.of("title", "time");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecipeRevisionService recipeRevisionService;
+
+    @Autowired
+    private RecipeRevisionRepository recipeRevisionRepository;
+
+    private Recipe recipe;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("cook");
+        user.setPassword("secret");
+        entityManager.persist(user);
+
+        recipe = new Recipe();
+        recipe.setUser(user);
+        recipe.setTitle("Title 1");
+        recipe.setIngredients(new ArrayList<>());
+        recipe.setNutritionalValues(new ArrayList<>());
+        recipe.setSteps(new ArrayList<>());
+        recipe.setTools(new ArrayList<>());
+        recipe.setTags(new ArrayList<>());
+        recipe.setRevision(1);
+        entityManager.persistAndFlush(recipe);
+        recipeRevisionService.recordCreated(recipe);
+
+        // Revision 3 adds a cooking time and revision 5 removes it again
+        for (int revision = 2; revision <= 7; revision++) {
+            ObjectNode before = recipeRevisionService.snapshot(recipe, PATCHED);
+            recipe.setTitle("Title " + revision);
+            if (revision == 3) {
+                recipe.setTime("20 min");
+            } else if (revision == 5) {
+                recipe.setTime(null);
+            }
+            recipeRevisionService.recordChange(recipe, before, PATCHED);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void checkpointsAreStoredEveryIntervalRevisions() {
+        assertThat(recipe.getRevision()).isEqualTo(7);
+        assertThat(checkpoints(7)).containsExactly(7);
+        assertThat(revisions(6)).containsExactly(4, 5, 6);
+        assertThat(checkpoints(6)).containsExactly(4);
+        assertThat(revisions(3)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void everyRevisionIsReplayedFromItsCheckpoint() {
+        for (int revision = 1; revision <= 7; revision++) {
+            JsonNode document = recipeRevisionService.getRevision(recipe.getRecipeId(), revision).orElseThrow();
+            assertThat(document.get("title").asText()).isEqualTo("Title " + revision);
+            assertThat(document.has("time")).isEqualTo(revision == 3 || revision == 4);
+        }
+        assertThat(recipeRevisionService.getRevision(recipe.getRecipeId(), 4).orElseThrow().get("time").asText())
+                .isEqualTo("20 min");
+    }
+
+    @Test
+    void unknownRevisionsAreEmpty() {
+        assertThat(recipeRevisionService.getRevision(recipe.getRecipeId(), 0)).isEmpty();
+        assertThat(recipeRevisionService.getRevision(recipe.getRecipeId(), 8)).isEmpty();
+    }
+
+    @Test
+    void unchangedRecipeRecordsNoRevision() {
+        Recipe managed = entityManager.find(Recipe.class, recipe.getRecipeId());
+        ObjectNode before = recipeRevisionService.snapshot(managed, PATCHED);
+        recipeRevisionService.recordChange(managed, before, PATCHED);
+        entityManager.flush();
+
+        assertThat(managed.getRevision()).isEqualTo(7);
+        assertThat(recipeRevisionService.getRevisions(recipe.getRecipeId())).hasSize(7);
+    }
+
+    @Test
+    void servingPatchesRecordTheDerivedNutrition() {
+        Recipe managed = entityManager.find(Recipe.class, recipe.getRecipeId());
+        Set<String> ingredients = Set.of("ingredients");
+        ObjectNode before = recipeRevisionService.snapshot(managed, ingredients);
+        managed.setNutritionCoverage(1.0);
+        managed.setComputedNutrition(NutritionFacts.of(new double[]{800, 20, 30, 100, 8, 12, 2}));
+        recipeRevisionService.recordChange(managed, before, ingredients);
+
+        Set<String> servings = Set.of("servings");
+        before = recipeRevisionService.snapshot(managed, servings);
+        managed.setServings(4);
+        recipeRevisionService.recordChange(managed, before, servings);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Revisions 8 and 9 are patches on top of the checkpoint at revision 7
+        assertThat(checkpoints(9)).containsExactly(7);
+        JsonNode withNutrition = recipeRevisionService.getRevision(recipe.getRecipeId(), 8).orElseThrow();
+        assertThat(withNutrition.at("/nutrition/total/kcal").asDouble()).isEqualTo(800.0);
+        assertThat(withNutrition.at("/nutrition/perServing").isMissingNode()).isTrue();
+
+        JsonNode served = recipeRevisionService.snapshot(entityManager.find(Recipe.class, recipe.getRecipeId()));
+        JsonNode replayed = recipeRevisionService.getRevision(recipe.getRecipeId(), 9).orElseThrow();
+        assertThat(replayed.get("servings").asInt()).isEqualTo(4);
+        assertThat(replayed.at("/nutrition/perServing/kcal").asDouble()).isEqualTo(200.0);
+        assertThat(replayed.get("nutrition")).isEqualTo(served.get("nutrition"));
+    }
+
+    private List<Integer> revisions(int revision) {
+        return recipeRevisionRepository.findReplayChain(recipe.getRecipeId(), revision).stream()
+                .map(RecipeRevision::getRevision)
+                .toList();
+    }
+
+    private List<Integer> checkpoints(int revision) {
+        return recipeRevisionRepository.findReplayChain(recipe.getRecipeId(), revision).stream()
+                .filter(RecipeRevision::isCheckpoint)
+                .map(RecipeRevision::getRevision)
+                .toList();
+    }
+}
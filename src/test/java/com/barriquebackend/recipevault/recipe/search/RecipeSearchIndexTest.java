@@ -0,0 +1,83 @@
+package com.barriquebackend.recipevault.recipe.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * BM25 ranking of the per-user search index: title boost, term rarity, ties, updates and retitling.
+ */
+class RecipeSearchIndexTest {
+
+    private RecipeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeSearchIndex();
+        index.put(1L, "Tomato soup", List.of("Simmer the tomatoes with garlic"));
+        index.put(2L, "Bread", List.of("Serve with tomato soup"));
+        index.put(3L, "Garlic bread", List.of("Bake the bread with butter"));
+        index.put(4L, "Cake", List.of("Flour, sugar and butter"));
+    }
+
+    @Test
+    void titleMatchesOutrankBodyMatches() {
+        assertThat(ids(index.search("tomato", 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void rareTermsWeighMoreThanCommonOnes() {
+        // "butter" is in two recipes, "garlic" in two, "cake" only in one
+        List<RecipeSearchHit> hits = index.search("butter cake", 10);
+
+        assertThat(ids(hits)).containsExactly(4L, 3L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void equalScoresAreOrderedByIdAndLimited() {
+        index.put(5L, "Cake", List.of("Flour, sugar and butter"));
+
+        assertThat(ids(index.search("cake", 10))).containsExactly(4L, 5L);
+        assertThat(ids(index.search("cake", 1))).containsExactly(4L);
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceTheDocument() {
+        index.put(2L, "Rye bread", List.of("Dark and sour"));
+        index.remove(1L);
+
+        assertThat(index.search("tomato", 10)).isEmpty();
+        assertThat(ids(index.search("rye", 10))).containsExactly(2L);
+        assertThat(index.search("the and", 10)).isEmpty();
+    }
+
+    @Test
+    void retitlingKeepsTheTermsOfTheOtherTexts() {
+        assertThat(index.retitle(1L, "Garlic soup")).isTrue();
+        assertThat(index.retitle(9L, "Unknown")).isFalse();
+
+        RecipeSearchIndex reindexed = new RecipeSearchIndex();
+        reindexed.put(1L, "Garlic soup", List.of("Simmer the tomatoes with garlic"));
+        reindexed.put(2L, "Bread", List.of("Serve with tomato soup"));
+        reindexed.put(3L, "Garlic bread", List.of("Bake the bread with butter"));
+        reindexed.put(4L, "Cake", List.of("Flour, sugar and butter"));
+        for (String query : List.of("garlic", "tomato", "soup", "simmer")) {
+            List<RecipeSearchHit> hits = index.search(query, 10);
+            List<RecipeSearchHit> expected = reindexed.search(query, 10);
+            assertThat(ids(hits)).isEqualTo(ids(expected));
+            for (int i = 0; i < hits.size(); i++) {
+                assertThat(hits.get(i).title()).isEqualTo(expected.get(i).title());
+                assertThat(hits.get(i).score()).isCloseTo(expected.get(i).score(), within(1e-9));
+            }
+        }
+    }
+
+    private static List<Long> ids(List<RecipeSearchHit> hits) {
+        return hits.stream().map(RecipeSearchHit::recipeId).toList();
+    }
+}
@@ -0,0 +1,37 @@
+package com.barriquebackend.recipevault.recipe.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tokenization, folding, stop words and stemming of recipe text.
+ */
+class TextAnalyzerTest {
+
+    @Test
+    void foldsCaseAndDiacriticsAndDropsStopWords() {
+        assertThat(TextAnalyzer.analyze("Die \u00c4pfel und ZWIEBELN")).containsExactly("apfel", "zwiebel");
+        assertThat(TextAnalyzer.analyze("Gr\u00eeess")).isEqualTo(TextAnalyzer.analyze("Griess"));
+        assertThat(TextAnalyzer.analyze("Grie\u00df")).isEqualTo(TextAnalyzer.analyze("Griess"));
+    }
+
+    @Test
+    void splitsOnEverythingButLettersAndDigits() {
+        assertThat(TextAnalyzer.analyze("salt, dill & 250g flour!")).containsExactly("salt", "dill", "250g", "flour");
+        assertThat(TextAnalyzer.analyze("  ")).isEmpty();
+        assertThat(TextAnalyzer.analyze(null)).isEmpty();
+        assertThat(TextAnalyzer.analyze("and the of")).isEmpty();
+    }
+
+    @Test
+    void stemsPluralsAndInflectionsToTheSameTerm() {
+        assertThat(TextAnalyzer.stem("onions")).isEqualTo(TextAnalyzer.stem("onion"));
+        assertThat(TextAnalyzer.stem("tomatoes")).isEqualTo(TextAnalyzer.stem("tomato"));
+        assertThat(TextAnalyzer.stem("berries")).isEqualTo("berry");
+        assertThat(TextAnalyzer.stem("kartoffeln")).isEqualTo(TextAnalyzer.stem("kartoffel"));
+        // Short words and tokens with digits are left alone
+        assertThat(TextAnalyzer.stem("eggs")).isEqualTo("eggs");
+        assertThat(TextAnalyzer.stem("500ml")).isEqualTo("500ml");
+    }
+}
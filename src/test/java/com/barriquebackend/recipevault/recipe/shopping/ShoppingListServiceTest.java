@@ -0,0 +1,113 @@
+package com.barriquebackend.recipevault.recipe.shopping;
+
+import com.barriquebackend.recipevault.recipe.IngredientAmountRow;
+import com.barriquebackend.recipevault.recipe.RecipeRepository;
+import com.barriquebackend.recipevault.recipe.components.dictionary.MeasurementUnit;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Scaling, unit conversion and merging of shopping lists, on rows of a stubbed repository.
+ */
+class ShoppingListServiceTest {
+
+    private final List<IngredientAmountRow> rows = new ArrayList<>();
+    private int queries;
+
+    private final ShoppingListService shoppingListService = new ShoppingListService(
+            (RecipeRepository) Proxy.newProxyInstance(RecipeRepository.class.getClassLoader(),
+                    new Class<?>[]{RecipeRepository.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("findIngredientAmountRows")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        queries++;
+                        return rows;
+                    }), 3);
+
+    @Test
+    void amountsOfOneDimensionAreSummedInTheLargestUnitReached() {
+        rows.add(row(1L, 1, "Flour", 500.0, "g", null));
+        rows.add(row(2L, 1, "flour", 1.0, "Kilo", MeasurementUnit.KILOGRAM));
+        rows.add(row(1L, 1, "Milk", 2.0, "tbsp", null));
+        rows.add(row(2L, 1, "milk", 3.0, "TL", null));
+        rows.add(row(1L, 1, "Sugar", 200.0, "g", null));
+        rows.add(row(2L, 1, "sugar", 0.1, "kg", null));
+
+        assertThat(build(entry(1L, null), entry(2L, null))).containsExactly(
+                new ShoppingListItem("Flour", 1.5, "kg", List.of(1L, 2L)),
+                new ShoppingListItem("Milk", 3.0, "tbsp", List.of(1L, 2L)),
+                // 300 g does not reach 1 kg, so the smaller unit of the recipes is kept
+                new ShoppingListItem("Sugar", 300.0, "g", List.of(1L, 2L)));
+    }
+
+    @Test
+    void differentDimensionsAndUnknownUnitsAreListedSeparately() {
+        rows.add(row(1L, 1, "Salt", 1.0, "pinch", null));
+        rows.add(row(2L, 1, "salt", 5.0, "g", null));
+        rows.add(row(1L, 1, "Basil", 1.0, "handful", null));
+        rows.add(row(2L, 1, "basil", 2.0, "Handfuls", null));
+        rows.add(row(2L, 1, "basil", 1.0, "bunch", null));
+
+        // Every item keeps the title and unit of the first row it was merged from
+        assertThat(build(entry(1L, null), entry(2L, null))).containsExactly(
+                new ShoppingListItem("basil", 1.0, "bunch", List.of(2L)),
+                new ShoppingListItem("Basil", 3.0, "handful", List.of(1L, 2L)),
+                new ShoppingListItem("salt", 5.0, "g", List.of(2L)),
+                new ShoppingListItem("Salt", 1.0, "pinch", List.of(1L)));
+    }
+
+    @Test
+    void amountsWithoutUnitCountAsPieces() {
+        rows.add(row(1L, 1, "Eggs", 2.0, null, null));
+        rows.add(row(2L, 1, "eggs", 1.0, "pc", null));
+        rows.add(row(2L, 1, "Vanilla", null, null, null));
+
+        assertThat(build(entry(1L, null), entry(2L, null))).containsExactly(
+                new ShoppingListItem("Eggs", 3.0, "pc", List.of(1L, 2L)),
+                new ShoppingListItem("Vanilla", null, null, List.of(2L)));
+    }
+
+    @Test
+    void amountsAreScaledToTheRequestedServingsOfEverySelection() {
+        rows.add(row(1L, 2, "Flour", 100.0, "g", null));
+        rows.add(row(2L, 0, "Butter", 50.0, "g", null));
+
+        // Recipe 1 for 4 and for its own 2 servings, recipe 2 has no servings to scale from
+        assertThat(build(entry(1L, 4), entry(1L, null), entry(2L, 8))).containsExactly(
+                new ShoppingListItem("Butter", 50.0, "g", List.of(2L)),
+                new ShoppingListItem("Flour", 300.0, "g", List.of(1L)));
+    }
+
+    @Test
+    void invalidSelectionsAreRejectedWithoutQuerying() {
+        assertThatThrownBy(() -> build(entry(1L, null), null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> build(entry(null, 2))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> build(entry(1L, 0))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> build(entry(1L, null), entry(2L, null), entry(3L, null), entry(4L, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(build()).isEmpty();
+        assertThat(queries).isZero();
+    }
+
+    private List<ShoppingListItem> build(ShoppingListEntry... entries) {
+        // Arrays.asList rather than List.of, which rejects the null entries a request body may contain
+        return shoppingListService.buildShoppingList(1L, entries.length > 0 ? Arrays.asList(entries) : Collections.emptyList());
+    }
+
+    private static ShoppingListEntry entry(Long recipeId, Integer servings) {
+        return new ShoppingListEntry(recipeId, servings);
+    }
+
+    private static IngredientAmountRow row(Long recipeId, int servings, String title, Double amount, String unit,
+                                           MeasurementUnit measurementUnit) {
+        return new IngredientAmountRow(recipeId, servings, title, null, amount, unit, measurementUnit);
+    }
+}
@@ -0,0 +1,179 @@
+package com.barriquebackend.recipevault.recipe.similar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Incremental maintenance of the precomputed neighbors, checked against a full rebuild.
+ */
+class SimilarityIndexTest {
+
+    private static final String[] INGREDIENTS = {"flour", "milk", "eggs", "butter", "sugar", "salt", "yeast",
+            "tomato", "onion", "garlic", "basil", "rice"};
+
+    private final Random random = new Random(42);
+
+    @Test
+    void incrementalRefreshMatchesAFullRecomputation() {
+        Map<Long, RecipeFeatures> recipes = randomRecipes(40);
+        SimilarityIndex index = SimilarityIndex.build(List.copyOf(recipes.values()), 3, ForkJoinPool.commonPool());
+
+        // Fewer changes than trigger a full recomputation, so all of them are applied one by one
+        changeRecipes(index, recipes);
+        index.refresh();
+        Map<Long, List<SimilarRecipe>> incremental = new LinkedHashMap<>();
+        for (Long id : recipes.keySet()) {
+            incremental.put(id, index.findSimilar(id, 3).orElseThrow());
+        }
+
+        index.recomputeNeighbors();
+        for (Long id : recipes.keySet()) {
+            assertThat(incremental.get(id)).as("neighbors of " + id).isEqualTo(index.findSimilar(id, 3).orElseThrow());
+        }
+    }
+
+    @Test
+    void incrementalRefreshFindsTheNeighborsOfARebuild() {
+        Map<Long, RecipeFeatures> recipes = randomRecipes(40);
+        SimilarityIndex index = SimilarityIndex.build(List.copyOf(recipes.values()), 50, ForkJoinPool.commonPool());
+
+        changeRecipes(index, recipes);
+        index.refresh();
+
+        SimilarityIndex rebuilt = SimilarityIndex.build(List.copyOf(recipes.values()), 50, ForkJoinPool.commonPool());
+        for (Long id : recipes.keySet()) {
+            Map<Long, Double> incremental = scores(index, id);
+            Map<Long, Double> expected = scores(rebuilt, id);
+            // Every recipe sharing an ingredient is kept, so the neighbors are the same recipes
+            assertThat(incremental.keySet()).as("neighbors of " + id).isEqualTo(expected.keySet());
+            // Only the weights of unchanged recipes differ, as they keep the document frequencies of the build
+            expected.forEach((other, score) -> assertThat(incremental.get(other)).isCloseTo(score, within(0.1)));
+        }
+    }
+
+    @Test
+    void deletedRecipesAreRemovedFromEveryRow() {
+        SimilarityIndex index = SimilarityIndex.build(List.of(
+                recipe(1L, "Pancakes", "flour", "milk", "eggs"),
+                recipe(2L, "Crepes", "flour", "milk", "eggs", "butter"),
+                recipe(3L, "Bread", "flour", "yeast", "salt"),
+                recipe(4L, "Risotto", "rice", "onion")), 1, ForkJoinPool.commonPool());
+        assertThat(ids(index, 1L)).containsExactly(2L);
+
+        index.enqueueRemoval(2L);
+
+        // The row of 1 lost its only neighbor and is refilled with the next best one
+        assertThat(ids(index, 1L)).containsExactly(3L);
+        assertThat(ids(index, 3L)).containsExactly(1L);
+        assertThat(ids(index, 4L)).isEmpty();
+        assertThat(index.findSimilar(2L, 10)).isEmpty();
+    }
+
+    @Test
+    void attributeChangesKeepTheIndexedIngredients() {
+        List<RecipeFeatures> recipes = List.of(
+                recipe(1L, "Pancakes", "flour", "milk", "eggs"),
+                recipe(2L, "Crepes", "flour", "milk", "eggs", "butter"),
+                recipe(3L, "Bread", "flour", "yeast", "salt"));
+        SimilarityIndex index = SimilarityIndex.build(recipes, 10, ForkJoinPool.commonPool());
+
+        index.enqueueAttributes(2L, "Thin crepes", 0b101, 20);
+        index.enqueueAttributes(9L, "Unknown", 0, null);
+        index.enqueueRemoval(3L);
+        index.enqueueAttributes(3L, "Deleted", 0, null);
+
+        List<SimilarRecipe> similar = index.findSimilar(1L, 10).orElseThrow();
+        List<SimilarRecipe> expected = SimilarityIndex.build(List.of(
+                        recipe(1L, "Pancakes", "flour", "milk", "eggs"),
+                        new RecipeFeatures(2L, "Thin crepes", Set.of("flour", "milk", "eggs", "butter"), 0b101, 20)),
+                10, ForkJoinPool.commonPool()).findSimilar(1L, 10).orElseThrow();
+        assertThat(similar).hasSize(1);
+        assertThat(similar.get(0).title()).isEqualTo("Thin crepes");
+        assertThat(similar.get(0).score()).isCloseTo(expected.get(0).score(), within(0.05));
+        assertThat(index.findSimilar(3L, 10)).isEmpty();
+        assertThat(index.findSimilar(9L, 10)).isEmpty();
+    }
+
+    @Test
+    void attributeChangesReuseQueuedIngredients() {
+        SimilarityIndex index = SimilarityIndex.build(List.of(
+                recipe(1L, "Pancakes", "flour", "milk", "eggs"),
+                recipe(2L, "Crepes", "flour", "milk", "eggs"),
+                recipe(3L, "Risotto", "rice", "onion")), 10, ForkJoinPool.commonPool());
+
+        // The queued ingredient change must survive the later attribute change
+        index.enqueue(recipe(2L, "Crepes", "rice", "onion"));
+        index.enqueueAttributes(2L, "Rice crepes", 0, null);
+
+        assertThat(ids(index, 2L)).containsExactly(3L);
+        assertThat(index.findSimilar(3L, 10).orElseThrow().get(0).title()).isEqualTo("Rice crepes");
+    }
+
+    /**
+     * Queues updates, creations and deletions, applying each of them to the given recipes too.
+     */
+    private void changeRecipes(SimilarityIndex index, Map<Long, RecipeFeatures> recipes) {
+        for (long id = 1; id <= 6; id++) {
+            RecipeFeatures changed = randomRecipe(id);
+            recipes.put(id, changed);
+            index.enqueue(changed);
+        }
+        for (long id = 41; id <= 43; id++) {
+            RecipeFeatures added = randomRecipe(id);
+            recipes.put(id, added);
+            index.enqueue(added);
+        }
+        for (long id = 10; id <= 14; id++) {
+            recipes.remove(id);
+            index.enqueueRemoval(id);
+        }
+        index.enqueueAttributes(20L, "Renamed", 0b11, 45);
+        recipes.put(20L, new RecipeFeatures(20L, "Renamed", recipes.get(20L).ingredientNames(), 0b11, 45));
+    }
+
+    private Map<Long, RecipeFeatures> randomRecipes(int count) {
+        Map<Long, RecipeFeatures> recipes = new LinkedHashMap<>();
+        for (long id = 1; id <= count; id++) {
+            recipes.put(id, randomRecipe(id));
+        }
+        return recipes;
+    }
+
+    private RecipeFeatures randomRecipe(long id) {
+        Set<String> ingredientNames = new LinkedHashSet<>();
+        int size = 2 + random.nextInt(4);
+        while (ingredientNames.size() < size) {
+            ingredientNames.add(INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+        }
+        Integer timeMinutes = random.nextBoolean() ? 10 + random.nextInt(120) : null;
+        return new RecipeFeatures(id, "Recipe " + id, ingredientNames, random.nextInt(16), timeMinutes);
+    }
+
+    private static RecipeFeatures recipe(Long id, String title, String... ingredientNames) {
+        return new RecipeFeatures(id, title, new LinkedHashSet<>(List.of(ingredientNames)), 0, null);
+    }
+
+    private static Map<Long, Double> scores(SimilarityIndex index, Long id) {
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        index.findSimilar(id, Integer.MAX_VALUE).orElseThrow()
+                .forEach(similar -> scores.put(similar.recipeId(), similar.score()));
+        return scores;
+    }
+
+    private static List<Long> ids(SimilarityIndex index, Long id) {
+        List<Long> ids = new ArrayList<>();
+        index.findSimilar(id, Integer.MAX_VALUE).orElseThrow().forEach(similar -> ids.add(similar.recipeId()));
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package com.barriquebackend.recipevault.recipe.time;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CookingTimesTest {
+
+    @Test
+    void parsesPlainNumbersAsMinutes() {
+        assertThat(CookingTimes.parseMinutes("45")).contains(45);
+        assertThat(CookingTimes.parseMinutes(" 45 min ")).contains(45);
+        assertThat(CookingTimes.parseMinutes("10 Minuten")).contains(10);
+    }
+
+    @Test
+    void parsesEnglishAndGermanUnits() {
+        assertThat(CookingTimes.parseMinutes("1 h 30 min")).contains(90);
+        assertThat(CookingTimes.parseMinutes("1.5 hours")).contains(90);
+        assertThat(CookingTimes.parseMinutes("1,5 Std.")).contains(90);
+        assertThat(CookingTimes.parseMinutes("2 St.")).contains(120);
+        assertThat(CookingTimes.parseMinutes("1 Stunde")).contains(60);
+        assertThat(CookingTimes.parseMinutes("2 Stunden 15 Minuten")).contains(135);
+        assertThat(CookingTimes.parseMinutes("1 Tag")).contains(24 * 60);
+        assertThat(CookingTimes.parseMinutes("90 sec")).contains(2);
+    }
+
+    @Test
+    void rangesUseTheUpperBound() {
+        assertThat(CookingTimes.parseMinutes("20-30 min")).contains(30);
+        assertThat(CookingTimes.parseMinutes("20 \u2013 30 Minuten")).contains(30);
+        assertThat(CookingTimes.parseMinutes("1 bis 2 Stunden")).contains(120);
+    }
+
+    @Test
+    void parsesClockNotation() {
+        assertThat(CookingTimes.parseMinutes("1:30")).contains(90);
+        assertThat(CookingTimes.parseMinutes("1:30 h")).contains(90);
+        assertThat(CookingTimes.parseMinutes("1:30 Std.")).contains(90);
+        assertThat(CookingTimes.parseMinutes("2:30 min")).contains(3);
+        assertThat(CookingTimes.parseMinutes("1:30 days")).isEmpty();
+    }
+
+    @Test
+    void parsesIsoDurations() {
+        assertThat(CookingTimes.parseMinutes("PT1H30M")).contains(90);
+        assertThat(CookingTimes.parseMinutes("PT45M")).contains(45);
+        assertThat(CookingTimes.parseMinutes("PT90S")).contains(2);
+        assertThat(CookingTimes.parseMinutes("P1DT2H")).contains(26 * 60);
+    }
+
+    @Test
+    void rejectsTextWithoutDurationAndOutOfRangeValues() {
+        assertThat(CookingTimes.parseMinutes(null)).isEmpty();
+        assertThat(CookingTimes.parseMinutes("")).isEmpty();
+        assertThat(CookingTimes.parseMinutes("overnight")).isEmpty();
+        assertThat(CookingTimes.parseMinutes("31 days")).isEmpty();
+        assertThat(CookingTimes.parseMinutes("P31D")).isEmpty();
+    }
+
+    @Test
+    void hugeNumbersAreRejectedInsteadOfOverflowing() {
+        assertThat(CookingTimes.parseMinutes("PT99999999999999999999M")).isEmpty();
+        assertThat(CookingTimes.parseMinutes("P9999999999999999D")).isEmpty();
+        assertThat(CookingTimes.parseMinutes("PT9223372036854775807S")).isEmpty();
+        assertThat(CookingTimes.parseMinutes("99999999999999999999999 h")).isEmpty();
+    }
+}
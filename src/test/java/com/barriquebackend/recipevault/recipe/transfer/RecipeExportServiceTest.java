@@ -0,0 +1,123 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeService;
+import com.barriquebackend.user.User;
+import com.barriquebackend.user.UserPrincipal;
+import com.barriquebackend.user.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams whole vaults through the export endpoint: both formats stay well-formed across the
+ * chunk boundary, and an empty vault is an empty array or an empty body.
+ */
+@SpringBootTest(properties = {
+        "DB_URL=jdbc:h2:mem:recipe-export;DB_CLOSE_DELAY=-1",
+        "DB_USER=sa",
+        "DB_PASS=",
+        "SEC_USER=test",
+        "SEC_PASS=test",
+        "recipevault.backfill.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class RecipeExportServiceTest {
+
+    // More than one chunk of 100, with a partial last chunk
+    private static final int RECIPE_COUNT = 150;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+    private User emptyVault;
+    private final List<String> titles = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(newUser());
+        emptyVault = userRepository.save(newUser());
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setTitle(String.format("Recipe %03d", i));
+            titles.add(recipeService.createRecipe(recipe, owner).getTitle());
+        }
+    }
+
+    @Test
+    void ndjsonHasOneRecipeObjectPerLine() throws Exception {
+        String body = export(owner, "ndjson");
+
+        String[] lines = body.split("\n", -1);
+        assertThat(lines).hasSize(RECIPE_COUNT);
+        List<String> exported = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode recipe = objectMapper.readTree(line);
+            assertThat(recipe.isObject()).isTrue();
+            exported.add(recipe.get("title").asText());
+        }
+        assertThat(exported).isEqualTo(titles);
+    }
+
+    @Test
+    void jsonIsOneArrayOfAllRecipes() throws Exception {
+        JsonNode array = objectMapper.readTree(export(owner, "json"));
+
+        assertThat(array.isArray()).isTrue();
+        assertThat(IntStream.range(0, array.size()).mapToObj(i -> array.get(i).get("title").asText()).toList())
+                .isEqualTo(titles);
+    }
+
+    @Test
+    void emptyVaultIsAnEmptyArrayOrAnEmptyBody() throws Exception {
+        assertThat(export(emptyVault, "json")).isEqualTo("[]");
+        assertThat(export(emptyVault, "ndjson")).isEmpty();
+    }
+
+    private String export(User as, String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/user/recipe/export")
+                        .param("format", format)
+                        .with(user(new UserPrincipal(as))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static User newUser() {
+        User user = new User();
+        user.setUsername("user-" + UUID.randomUUID());
+        user.setPassword("secret");
+        return user;
+    }
+}
@@ -0,0 +1,169 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeService;
+import com.barriquebackend.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports NDJSON through a stub recipe service and transaction manager: batching, the per-line
+ * fallback of a failed batch, line errors and the line length limit.
+ */
+class RecipeImportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> committed = new ArrayList<>();
+    private final List<String> pending = new ArrayList<>();
+    private int rollbacks;
+
+    private RecipeImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        RecipeService recipeService = new RecipeService(null, List.of(), null, null, null, null, objectMapper) {
+            @Override
+            public Recipe createRecipe(Recipe recipe, User user) {
+                if (recipe.getTitle().equals("Broken")) {
+                    throw new IllegalStateException("Recipe could not be saved");
+                }
+                pending.add(recipe.getTitle());
+                recipe.setRecipeId((long) (committed.size() + pending.size()));
+                return recipe;
+            }
+        };
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                pending.clear();
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                committed.addAll(pending);
+                pending.clear();
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                rollbacks++;
+                pending.clear();
+            }
+        };
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("clear")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return null;
+                });
+        importService = new RecipeImportService(recipeService, objectMapper,
+                new TransactionTemplate(transactionManager), entityManager, 2, 64);
+    }
+
+    @Test
+    void recipesAreCommittedInBatches() throws IOException {
+        RecipeImportReport report = importNdjson("""
+                {"title":"Pancakes"}
+                {"title":"Waffles"}
+                {"title":"Crepes"}
+                """);
+
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.failed()).isEqualTo(0);
+        assertThat(report.lines().stream().map(RecipeImportReport.LineResult::line).toList()).containsExactly(1L, 2L, 3L);
+        assertThat(committed).containsExactly("Pancakes", "Waffles", "Crepes");
+        assertThat(rollbacks).isEqualTo(0);
+    }
+
+    @Test
+    void failedBatchIsRetriedLineByLine() throws IOException {
+        RecipeImportReport report = importNdjson("""
+                {"title":"Pancakes"}
+                {"title":"Broken"}
+                {"title":"Crepes"}
+                """);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.lines().get(0).recipeId()).isNotNull();
+        assertThat(report.lines().get(1).error()).isEqualTo("Recipe could not be saved");
+        assertThat(report.lines().get(2).recipeId()).isNotNull();
+        assertThat(committed).containsExactly("Pancakes", "Crepes");
+        // The batch and then the broken line on its own
+        assertThat(rollbacks).isEqualTo(2);
+    }
+
+    @Test
+    void blankLinesAreSkippedButCounted() throws IOException {
+        RecipeImportReport report = importNdjson("\n{\"title\":\"Pancakes\"}\r\n   \n\n{\"title\":\"Waffles\"}");
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.lines().stream().map(RecipeImportReport.LineResult::line).toList()).containsExactly(2L, 5L);
+    }
+
+    @Test
+    void invalidLinesAreReportedWithoutStoppingTheImport() throws IOException {
+        RecipeImportReport report = importNdjson("""
+                {"title":"Pancakes"
+                {"description":"No title"}
+                null
+                {"title":"Waffles"}
+                """);
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.lines().get(0).error()).startsWith("Invalid JSON");
+        assertThat(report.lines().get(1).error()).isEqualTo("Recipe title is missing");
+        assertThat(report.lines().get(2).error()).isEqualTo("Line does not contain a recipe object");
+        assertThat(report.lines().get(3).line()).isEqualTo(4L);
+        assertThat(committed).containsExactly("Waffles");
+    }
+
+    @Test
+    void linesOverTheLimitAreReportedAndSkipped() throws IOException {
+        String longTitle = "x".repeat(60);
+        String fits = "{\"title\":\"" + "y".repeat(52) + "\"}";
+        RecipeImportReport report = importNdjson("{\"title\":\"" + longTitle + "\"}\n" + fits + "\r\n"
+                + "z".repeat(10_000));
+
+        assertThat(fits.length()).isEqualTo(64);
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.lines().get(0).error()).isEqualTo("Line exceeds the limit of 64 bytes");
+        assertThat(report.lines().get(1).recipeId()).isNotNull();
+        assertThat(report.lines().get(2).error()).isEqualTo("Line exceeds the limit of 64 bytes");
+        assertThat(committed).containsExactly("y".repeat(52));
+    }
+
+    @Test
+    void lineReaderDecodesLongMultiByteLines() throws IOException {
+        String title = "A" + "Cr\u00eapes ".repeat(2000);
+        byte[] input = (title + "\n\u00e9").getBytes(StandardCharsets.UTF_8);
+        RecipeImportService.BoundedLineReader reader =
+                new RecipeImportService.BoundedLineReader(new ByteArrayInputStream(input), 1 << 20);
+
+        assertThat(reader.readLine()).isEqualTo(title);
+        assertThat(reader.readLine()).isEqualTo("\u00e9");
+        assertThat(reader.readLine()).isNull();
+    }
+
+    private RecipeImportReport importNdjson(String body) throws IOException {
+        return importService.importRecipes(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), new User());
+    }
+}
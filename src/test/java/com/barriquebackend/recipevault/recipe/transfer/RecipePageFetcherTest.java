@@ -0,0 +1,194 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Fetches recipe pages from a local stub server: JSON-LD extraction and mapping, sharing of
+ * in-flight URLs, the per-host concurrency limit and the private address guard.
+ */
+class RecipePageFetcherTest {
+
+    private static final String PAGE = """
+            <html><head><title>Pancakes</title>
+            <script src="app.js"></script>
+            <script type="application/ld+json">{"@context":"https://schema.org","@type":"WebSite","name":"Cookbook"}</script>
+            <script type="application/ld+json">
+            {"@context":"https://schema.org","@graph":[{"@type":"BreadcrumbList"},{"@type":["Recipe"],
+             "name":"Pancakes &amp; Syrup","totalTime":"PT25M","recipeYield":"4 servings",
+             "image":{"@type":"ImageObject","url":"https://example.org/pancakes.jpg"},
+             "recipeIngredient":["200 g flour","1 1/2 cups milk","2 eggs","Salt"],
+             "recipeInstructions":[{"@type":"HowToSection","itemListElement":[
+               {"@type":"HowToStep","text":"Whisk <b>everything</b> together."},{"@type":"HowToStep","text":"Fry."}]}],
+             "nutrition":{"@type":"NutritionInformation","calories":"320 kcal"}}]}
+            </script></head><body>...</body></html>
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+    private RecipePageFetcher fetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/recipe", exchange -> respond(exchange, PAGE));
+        server.createContext("/slow", exchange -> {
+            int concurrent = running.incrementAndGet();
+            maxRunning.accumulateAndGet(concurrent, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            respond(exchange, PAGE);
+        });
+        server.createContext("/blocked", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, PAGE);
+        });
+        server.start();
+        fetcher = new RecipePageFetcher(objectMapper, 64, 2, 1000, 5000, 1024 * 1024, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fetcher.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void extractsAndMapsSchemaOrgRecipe() throws Exception {
+        JsonNode node = fetcher.fetch(url("/recipe")).get(5, TimeUnit.SECONDS);
+        Recipe recipe = JsonLdRecipeMapper.toRecipe(node, url("/recipe").toString());
+
+        assertThat(recipe.getTitle()).isEqualTo("Pancakes & Syrup");
+        assertThat(recipe.getTime()).isEqualTo("25 min");
+        assertThat(recipe.getServings()).isEqualTo(4);
+        assertThat(recipe.getImageUrl()).isEqualTo("https://example.org/pancakes.jpg");
+        assertThat(recipe.getIngredients()).extracting("amount", "unit", "title").containsExactly(
+                tuple(200.0, "g", "flour"),
+                tuple(1.5, "cups", "milk"),
+                tuple(2.0, null, "eggs"),
+                tuple(null, null, "Salt"));
+        assertThat(recipe.getSteps()).extracting("stepNumber", "stepDescription")
+                .containsExactly(tuple(1, "Whisk everything together."),
+                        tuple(2, "Fry."));
+        assertThat(recipe.getNutritionalValues()).extracting("title", "amount")
+                .containsExactly(tuple("Calories", 320.0));
+    }
+
+    @Test
+    void concurrentFetchesOfOneUrlShareTheRequest() throws Exception {
+        CompletableFuture<JsonNode> first = fetcher.fetch(url("/blocked"));
+        CompletableFuture<JsonNode> second = fetcher.fetch(url("/blocked"));
+        release.countDown();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.get(5, TimeUnit.SECONDS).get("name").asText()).isEqualTo("Pancakes &amp; Syrup");
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void perHostLimitBoundsConcurrentRequests() throws Exception {
+        List<CompletableFuture<JsonNode>> pages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pages.add(fetcher.fetch(url("/slow?page=" + i)));
+        }
+        CompletableFuture.allOf(pages.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(requests.get()).isEqualTo(20);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void privateAddressesAreRejectedByDefault() {
+        RecipePageFetcher guarded = new RecipePageFetcher(objectMapper, 64, 2, 1000, 5000, 1024 * 1024, false);
+        try {
+            assertThatThrownBy(() -> guarded.fetch(url("/recipe")).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RecipeFetchException.class);
+            assertThat(requests.get()).isZero();
+        } finally {
+            guarded.shutdown();
+        }
+    }
+
+    @Test
+    void nonPublicRangesAreRecognized() throws Exception {
+        for (String address : List.of("127.0.0.1", "0.0.0.0", "0.1.2.3", "10.1.2.3", "172.16.0.1", "192.168.1.1",
+                "169.254.169.254", "100.64.0.1", "100.127.255.254", "192.0.0.8", "198.18.0.1", "224.0.0.1",
+                "240.0.0.1", "255.255.255.255", "::1", "::", "fe80::1", "fd00::1", "fc00::1")) {
+            assertThat(RecipePageFetcher.isPrivate(InetAddress.getByName(address))).as(address).isTrue();
+        }
+        for (String address : List.of("1.1.1.1", "100.63.255.255", "100.128.0.1", "192.0.2.1", "198.20.0.1",
+                "2001:4860:4860::8888")) {
+            assertThat(RecipePageFetcher.isPrivate(InetAddress.getByName(address))).as(address).isFalse();
+        }
+    }
+
+    @Test
+    void carrierGradeNatAddressesAreRejectedWithoutConnecting() {
+        RecipePageFetcher guarded = new RecipePageFetcher(objectMapper, 64, 2, 1000, 5000, 1024 * 1024, false);
+        try {
+            assertThatThrownBy(() -> guarded.fetch(URI.create("http://100.100.100.200/latest/meta-data"))
+                    .get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RecipeFetchException.class);
+        } finally {
+            guarded.shutdown();
+        }
+    }
+
+    private URI url(String path) {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requests.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.barriquebackend.recipevault.recipe.transfer;
+
+import com.barriquebackend.recipevault.recipe.Recipe;
+import com.barriquebackend.recipevault.recipe.RecipeService;
+import com.barriquebackend.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Imports pages through a stub fetcher and recipe service: URL normalization and de-duplication,
+ * the per-URL report and clearing the persistence context after each recipe.
+ */
+class RecipeUrlImportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<URI, CompletableFuture<JsonNode>> pages = new HashMap<>();
+    private final List<URI> fetched = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> created = new ArrayList<>();
+    private final AtomicInteger clears = new AtomicInteger();
+
+    private RecipePageFetcher fetcher;
+    private RecipeUrlImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pages.put(URI.create("https://example.org/pancakes"), page("Pancakes"));
+        pages.put(URI.create("https://example.org/waffles"), page("Waffles"));
+        pages.put(URI.create("https://example.org/broken"), page("Broken"));
+        pages.put(URI.create("https://example.org/slow"), CompletableFuture.failedFuture(new TimeoutException()));
+
+        fetcher = new RecipePageFetcher(objectMapper, 1, 1, 1000, 1000, 1024, false) {
+            @Override
+            public CompletableFuture<JsonNode> fetch(URI uri) {
+                fetched.add(uri);
+                return pages.getOrDefault(uri, CompletableFuture.failedFuture(new RecipeFetchException("HTTP 404")));
+            }
+        };
+        RecipeService recipeService = new RecipeService(null, List.of(), null, null, null, null, objectMapper) {
+            @Override
+            public Recipe createRecipe(Recipe recipe, User user) {
+                if (recipe.getTitle().equals("Broken")) {
+                    throw new IllegalStateException("Recipe could not be saved");
+                }
+                created.add(recipe.getTitle() + " from " + recipe.getSourceUrl());
+                recipe.setRecipeId((long) created.size());
+                return recipe;
+            }
+        };
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("clear")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    clears.incrementAndGet();
+                    return null;
+                });
+        importService = new RecipeUrlImportService(fetcher, recipeService, entityManager, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fetcher.shutdown();
+    }
+
+    @Test
+    void spellingsOfOneUrlAreFetchedAndImportedOnce() {
+        RecipeUrlImportReport report = importService.importUrls(List.of(
+                "https://example.org/pancakes",
+                " https://example.org/./pancakes#ingredients ",
+                "https://example.org/a/../pancakes"), new User());
+
+        assertThat(fetched).containsExactly(URI.create("https://example.org/pancakes"));
+        assertThat(created).containsExactly("Pancakes from https://example.org/pancakes");
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failed()).isZero();
+        assertThat(report.urls()).containsExactly(
+                new RecipeUrlImportReport.UrlResult("https://example.org/pancakes", 1L, null));
+    }
+
+    @Test
+    void everyUrlIsReportedInRequestOrder() {
+        RecipeUrlImportReport report = importService.importUrls(List.of(
+                "https://example.org/pancakes",
+                "",
+                "/relative",
+                "https://example.org/missing",
+                "https://example.org/broken",
+                "https://example.org/slow",
+                "https://example.org/waffles"), new User());
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(5);
+        assertThat(report.urls()).containsExactly(
+                new RecipeUrlImportReport.UrlResult("https://example.org/pancakes", 1L, null),
+                new RecipeUrlImportReport.UrlResult("", null, "URL is empty"),
+                new RecipeUrlImportReport.UrlResult("/relative", null, "URL must be absolute"),
+                new RecipeUrlImportReport.UrlResult("https://example.org/missing", null, "HTTP 404"),
+                new RecipeUrlImportReport.UrlResult("https://example.org/broken", null, "Recipe could not be saved"),
+                new RecipeUrlImportReport.UrlResult("https://example.org/slow", null, "Page did not load in time"),
+                new RecipeUrlImportReport.UrlResult("https://example.org/waffles", 2L, null));
+        // Invalid URLs are never fetched
+        assertThat(fetched).hasSize(5);
+    }
+
+    @Test
+    void persistenceContextIsClearedAfterEveryFetchedPage() {
+        importService.importUrls(List.of(
+                "https://example.org/pancakes",
+                "https://example.org/missing",
+                "https://example.org/broken",
+                "not a url"), new User());
+
+        assertThat(clears.get()).isEqualTo(3);
+    }
+
+    @Test
+    void tooManyUrlsAreRejectedBeforeFetching() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            urls.add("https://example.org/recipe-" + i);
+        }
+
+        assertThatThrownBy(() -> importService.importUrls(urls, new User()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("At most 8 URLs");
+        assertThat(fetched).isEmpty();
+    }
+
+    private CompletableFuture<JsonNode> page(String name) throws Exception {
+        return CompletableFuture.completedFuture(objectMapper.readTree(
+                "{\"@type\":\"Recipe\",\"name\":\"" + name + "\",\"recipeIngredient\":[\"200 g flour\"]}"));
+    }
+}